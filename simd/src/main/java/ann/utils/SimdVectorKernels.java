@@ -0,0 +1,531 @@
+package src.main.java.ann.utils;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * SIMD implementation of {@link VectorKernels} on the Java Vector API.
+ * 
+ * Uses the widest vector shape the CPU supports (e.g. 4 doubles or 8 floats
+ * on AVX2, twice that on AVX-512) with fused multiply-add for dot products
+ * and scaled adds; tails shorter than one vector are finished with scalar code.
+ * 
+ * Results are independent of JIT compilation, so seeded training runs (and
+ * runs resumed from a checkpoint) reproduce bit for bit. For that reason lane
+ * sums use a fixed pairwise fold rather than reduceLanes(ADD), whose order
+ * is unspecified, and sigmoid/tanh are built on an e^x - 1 that uses only
+ * adds, multiplies and FMAs (range reduction to |r| &lt;= ln2/2 plus a Taylor
+ * polynomial, within a few ulps of Math.exp): the lanewise EXP and TANH operators
+ * are computed by different routines in interpreted and compiled code. The
+ * activations finish their tails with a masked vector, so every element
+ * goes through the same formula.
+ * 
+ * Requires {@code --add-modules jdk.incubator.vector} both to compile and to
+ * run, so it lives in its own source root ({@code simd/}) that is compiled
+ * after the core with that flag; the core compiles without it. Never
+ * reference this class directly: {@link VectorKernels#load()} instantiates
+ * it reflectively so the rest of the library keeps working when the class
+ * was not built or the module is absent.
+ */
+public class SimdVectorKernels implements VectorKernels {
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    
+    // A quarter-width byte vector widens to exactly one int vector (null if no such shape)
+    private static final VectorSpecies<Byte> BYTE_SPECIES = INT_SPECIES.vectorBitSize() / 4 >= 64
+        ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INT_SPECIES.vectorBitSize() / 4))
+        : null;
+    
+    // Lane permutations of the pairwise fold in sumLanes
+    private static final VectorShuffle<Double>[] FOLDS = foldShuffles(SPECIES);
+    private static final VectorShuffle<Float>[] FLOAT_FOLDS = foldShuffles(FLOAT_SPECIES);
+    
+    // expm1 range reduction: x = k·ln2 + r; adding 1.5·2^52 (2^23) rounds to an integer k
+    private static final double LOG2E = 1.4426950408889634;
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double ROUND = 6755399441055744.0;
+    private static final long ROUND_BITS = Double.doubleToRawLongBits(ROUND);
+    private static final float FLOAT_LN2_HI = 0.693359375f;
+    private static final float FLOAT_LN2_LO = -2.12194440e-4f;
+    private static final float FLOAT_ROUND = 12582912.0f;
+    private static final int FLOAT_ROUND_BITS = Float.floatToRawIntBits(FLOAT_ROUND);
+    
+    // Taylor coefficients 1/n! of e^r - 1, highest power first (n = 13 and 7)
+    private static final double[] EXPM1_COEFFICIENTS = taylorCoefficients(13);
+    private static final float[] FLOAT_EXPM1_COEFFICIENTS = toFloats(taylorCoefficients(7));
+    
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        
+        double sum = sumLanes(acc);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+            vx.fma(va, vy).intoArray(y, yOffset + i);
+        }
+        
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+    
+    @Override
+    public void scale(double[] x, int offset, int length, double factor) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, offset + i).mul(factor).intoArray(x, offset + i);
+        }
+        
+        for (; i < length; i++) {
+            x[offset + i] *= factor;
+        }
+    }
+    
+    @Override
+    public void relu(double[] x, int offset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, offset + i).max(0.0).intoArray(x, offset + i);
+        }
+        
+        for (; i < length; i++) {
+            x[offset + i] = Math.max(0.0, x[offset + i]);
+        }
+    }
+    
+    @Override
+    public void sigmoid(double[] x, int offset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            sigmoid(DoubleVector.fromArray(SPECIES, x, offset + i)).intoArray(x, offset + i);
+        }
+        
+        if (i < length) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, length);
+            sigmoid(DoubleVector.fromArray(SPECIES, x, offset + i, tail)).intoArray(x, offset + i, tail);
+        }
+    }
+    
+    @Override
+    public void tanh(double[] x, int offset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            tanh(DoubleVector.fromArray(SPECIES, x, offset + i)).intoArray(x, offset + i);
+        }
+        
+        if (i < length) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, length);
+            tanh(DoubleVector.fromArray(SPECIES, x, offset + i, tail)).intoArray(x, offset + i, tail);
+        }
+    }
+    
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(FLOAT_SPECIES, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(FLOAT_SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        
+        float sum = sumLanes(acc);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+        FloatVector va = FloatVector.broadcast(FLOAT_SPECIES, alpha);
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(FLOAT_SPECIES, x, xOffset + i);
+            FloatVector vy = FloatVector.fromArray(FLOAT_SPECIES, y, yOffset + i);
+            vx.fma(va, vy).intoArray(y, yOffset + i);
+        }
+        
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+    
+    @Override
+    public void scale(float[] x, int offset, int length, float factor) {
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            FloatVector.fromArray(FLOAT_SPECIES, x, offset + i).mul(factor).intoArray(x, offset + i);
+        }
+        
+        for (; i < length; i++) {
+            x[offset + i] *= factor;
+        }
+    }
+    
+    @Override
+    public void relu(float[] x, int offset, int length) {
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            FloatVector.fromArray(FLOAT_SPECIES, x, offset + i).max(0.0f).intoArray(x, offset + i);
+        }
+        
+        for (; i < length; i++) {
+            x[offset + i] = Math.max(0.0f, x[offset + i]);
+        }
+    }
+    
+    @Override
+    public void sigmoid(float[] x, int offset, int length) {
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            sigmoid(FloatVector.fromArray(FLOAT_SPECIES, x, offset + i)).intoArray(x, offset + i);
+        }
+        
+        if (i < length) {
+            VectorMask<Float> tail = FLOAT_SPECIES.indexInRange(i, length);
+            sigmoid(FloatVector.fromArray(FLOAT_SPECIES, x, offset + i, tail)).intoArray(x, offset + i, tail);
+        }
+    }
+    
+    @Override
+    public void tanh(float[] x, int offset, int length) {
+        int upper = FLOAT_SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += FLOAT_SPECIES.length()) {
+            tanh(FloatVector.fromArray(FLOAT_SPECIES, x, offset + i)).intoArray(x, offset + i);
+        }
+        
+        if (i < length) {
+            VectorMask<Float> tail = FLOAT_SPECIES.indexInRange(i, length);
+            tanh(FloatVector.fromArray(FLOAT_SPECIES, x, offset + i, tail)).intoArray(x, offset + i, tail);
+        }
+    }
+    
+    @Override
+    public int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        int sum = 0;
+        int i = 0;
+        
+        if (BYTE_SPECIES != null) {
+            IntVector acc = IntVector.zero(INT_SPECIES);
+            int upper = BYTE_SPECIES.loopBound(length);
+            
+            for (; i < upper; i += BYTE_SPECIES.length()) {
+                // Sign-extend the int8 lanes to int32, then multiply-accumulate
+                IntVector va = (IntVector) ByteVector.fromArray(BYTE_SPECIES, a, aOffset + i)
+                    .convertShape(VectorOperators.B2I, INT_SPECIES, 0);
+                IntVector vb = (IntVector) ByteVector.fromArray(BYTE_SPECIES, b, bOffset + i)
+                    .convertShape(VectorOperators.B2I, INT_SPECIES, 0);
+                acc = acc.add(va.mul(vb));
+            }
+            sum = acc.reduceLanes(VectorOperators.ADD);
+        }
+        
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public double dot(ByteBuffer a, int aIndex, double[] b, int bOffset, int length) {
+        int base = aIndex * Double.BYTES;
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromByteBuffer(SPECIES, a, base + i * Double.BYTES, ByteOrder.LITTLE_ENDIAN);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        
+        double sum = sumLanes(acc);
+        for (; i < length; i++) {
+            sum += a.getDouble(base + i * Double.BYTES) * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    /**
+     * Sigmoid of every lane: 1 / (1 + e^(-x)) = 1 / (2 + expm1(-x)).
+     * Like the scalar version, inputs below -700 give 0 and inputs above
+     * 700 give 1.
+     * 
+     * @param v input lanes
+     * @return sigmoid lanes
+     */
+    private static DoubleVector sigmoid(DoubleVector v) {
+        DoubleVector e = expm1(v.max(-700.0).min(700.0).neg());
+        return DoubleVector.broadcast(SPECIES, 1.0).div(e.add(2.0)).blend(0.0, v.lt(-700.0));
+    }
+    
+    /**
+     * Tanh of every lane: sign(x) · e / (e + 2) with e = expm1(2|x|), which
+     * keeps full relative precision near zero. |x| is capped at 20, where
+     * tanh is 1 in double precision.
+     * 
+     * @param v input lanes
+     * @return tanh lanes
+     */
+    private static DoubleVector tanh(DoubleVector v) {
+        DoubleVector e = expm1(v.abs().min(20.0).mul(2.0));
+        DoubleVector t = e.div(e.add(2.0));
+        
+        // Copy the sign bit of the input (also for -0.0)
+        return t.reinterpretAsLongs()
+                .or(v.reinterpretAsLongs().and(Long.MIN_VALUE))
+                .reinterpretAsDoubles();
+    }
+    
+    /**
+     * e^x - 1 of every lane, from adds, multiplies and FMAs only (see class
+     * doc). Valid for |x| &lt;= 700; NaN propagates.
+     * 
+     * @param x input lanes
+     * @return e^x - 1
+     */
+    private static DoubleVector expm1(DoubleVector x) {
+        // x = k·ln2 + r, |r| <= ln2/2; t holds k in its low mantissa bits
+        DoubleVector t = x.fma(LOG2E, ROUND);
+        DoubleVector k = t.sub(ROUND);
+        DoubleVector r = k.mul(-LN2_HI).add(x);
+        r = k.mul(-LN2_LO).add(r);
+        
+        DoubleVector p = taylor(r);
+        
+        // 2^k from the exponent bits; e^x - 1 = 2^k·p + (2^k - 1)
+        DoubleVector scale = t.reinterpretAsLongs()
+            .sub(ROUND_BITS - 1023)
+            .lanewise(VectorOperators.LSHL, 52)
+            .reinterpretAsDoubles();
+        return p.fma(scale, scale.sub(1.0));
+    }
+    
+    /**
+     * Single-precision {@link #sigmoid(DoubleVector)}; the saturation
+     * bounds are -80 and 80.
+     * 
+     * @param v input lanes
+     * @return sigmoid lanes
+     */
+    private static FloatVector sigmoid(FloatVector v) {
+        FloatVector e = expm1(v.max(-80f).min(80f).neg());
+        return FloatVector.broadcast(FLOAT_SPECIES, 1.0f).div(e.add(2.0f)).blend(0.0f, v.lt(-80f));
+    }
+    
+    /**
+     * Single-precision {@link #tanh(DoubleVector)}; |x| is capped at 10.
+     * 
+     * @param v input lanes
+     * @return tanh lanes
+     */
+    private static FloatVector tanh(FloatVector v) {
+        FloatVector e = expm1(v.abs().min(10f).mul(2.0f));
+        FloatVector t = e.div(e.add(2.0f));
+        
+        // Copy the sign bit of the input (also for -0.0)
+        return t.reinterpretAsInts()
+                .or(v.reinterpretAsInts().and(Integer.MIN_VALUE))
+                .reinterpretAsFloats();
+    }
+    
+    /**
+     * Single-precision {@link #expm1(DoubleVector)}. Valid for |x| &lt;= 87.
+     * 
+     * @param x input lanes
+     * @return e^x - 1
+     */
+    private static FloatVector expm1(FloatVector x) {
+        FloatVector t = x.fma((float) LOG2E, FLOAT_ROUND);
+        FloatVector k = t.sub(FLOAT_ROUND);
+        FloatVector r = k.mul(-FLOAT_LN2_HI).add(x);
+        r = k.mul(-FLOAT_LN2_LO).add(r);
+        
+        FloatVector p = taylor(r);
+        
+        FloatVector scale = t.reinterpretAsInts()
+            .sub(FLOAT_ROUND_BITS - 127)
+            .lanewise(VectorOperators.LSHL, 23)
+            .reinterpretAsFloats();
+        return p.fma(scale, scale.sub(1.0f));
+    }
+    
+    /**
+     * Evaluates e^r - 1 = r + r^2/2! + ... + r^13/13! by Horner's rule, for
+     * |r| &lt;= ln2/2. The steps are written out rather than looped: a vector
+     * carried around a loop that C2 does not fully unroll is boxed on every
+     * iteration. Kept apart from {@link #expm1(DoubleVector)} so that both
+     * stay small enough to be inlined.
+     * 
+     * @param r reduced argument lanes
+     * @return e^r - 1
+     */
+    private static DoubleVector taylor(DoubleVector r) {
+        DoubleVector p = DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[0]);
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[1]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[2]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[3]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[4]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[5]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[6]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[7]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[8]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[9]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[10]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[11]));
+        p = p.fma(r, DoubleVector.broadcast(SPECIES, EXPM1_COEFFICIENTS[12]));
+        return p.mul(r);
+    }
+    
+    /**
+     * Single-precision {@link #taylor(DoubleVector)}, up to r^7/7!.
+     * 
+     * @param r reduced argument lanes
+     * @return e^r - 1
+     */
+    private static FloatVector taylor(FloatVector r) {
+        FloatVector p = FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[0]);
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[1]));
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[2]));
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[3]));
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[4]));
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[5]));
+        p = p.fma(r, FloatVector.broadcast(FLOAT_SPECIES, FLOAT_EXPM1_COEFFICIENTS[6]));
+        return p.mul(r);
+    }
+    
+    /**
+     * Sums the lanes of a vector with a fixed pairwise fold: each step adds
+     * the upper half of the remaining lanes onto the lower half, so the
+     * association order never depends on how the code was compiled.
+     * 
+     * @param v vector to reduce
+     * @return sum of the lanes
+     */
+    private static double sumLanes(DoubleVector v) {
+        for (VectorShuffle<Double> fold : FOLDS) {
+            v = v.add(v.rearrange(fold));
+        }
+        return v.lane(0);
+    }
+    
+    /**
+     * Single-precision variant of {@link #sumLanes(DoubleVector)}.
+     * 
+     * @param v vector to reduce
+     * @return sum of the lanes
+     */
+    private static float sumLanes(FloatVector v) {
+        for (VectorShuffle<Float> fold : FLOAT_FOLDS) {
+            v = v.add(v.rearrange(fold));
+        }
+        return v.lane(0);
+    }
+    
+    /**
+     * Builds the rotations of the pairwise fold: by half the lanes, then a
+     * quarter, down to one lane.
+     * 
+     * @param species vector species
+     * @return one shuffle per fold step
+     */
+    private static <E> VectorShuffle<E>[] foldShuffles(VectorSpecies<E> species) {
+        int steps = Integer.numberOfTrailingZeros(species.length());
+        @SuppressWarnings("unchecked")
+        VectorShuffle<E>[] folds = (VectorShuffle<E>[]) new VectorShuffle<?>[steps];
+        for (int step = 0; step < steps; step++) {
+            folds[step] = VectorShuffle.iota(species, species.length() >> (step + 1), 1, true);
+        }
+        return folds;
+    }
+    
+    /**
+     * Computes the Taylor coefficients of e^r - 1 for Horner evaluation.
+     * 
+     * @param degree highest power
+     * @return 1/degree!, 1/(degree-1)!, ..., 1/1!
+     */
+    private static double[] taylorCoefficients(int degree) {
+        double[] coefficients = new double[degree];
+        double factorial = 1.0;
+        for (int n = 1; n <= degree; n++) {
+            factorial *= n;
+            coefficients[degree - n] = 1.0 / factorial;
+        }
+        return coefficients;
+    }
+    
+    /**
+     * Rounds coefficients to single precision.
+     * 
+     * @param values double coefficients
+     * @return float coefficients
+     */
+    private static float[] toFloats(double[] values) {
+        float[] floats = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            floats[i] = (float) values[i];
+        }
+        return floats;
+    }
+    
+    @Override
+    public String getName() {
+        return "SIMD (" + SPECIES.length() + " x double, " + FLOAT_SPECIES.length() + " x float)";
+    }
+}
@@ -3,16 +3,30 @@ package src.main.java.ann.activation;
 /**
  * Interface for activation functions in neural networks.
  * Each activation function must provide both forward (activation) and backward (derivative) operations.
+ * 
+ * The forward pass works on a whole output row, so functions that couple
+ * the outputs of a layer (softmax) fit the same contract. Functions that
+ * act on each element independently implement {@link ElementwiseActivation}.
  */
 public interface ActivationFunction {
     
     /**
-     * Applies the activation function to the input value.
+     * Applies the activation function in place to a slice of an array.
      * 
-     * @param x the input value
-     * @return the activated output
+     * @param values array holding the inputs (overwritten with the outputs)
+     * @param offset start index
+     * @param length number of elements
      */
-    double activate(double x);
+    void activate(double[] values, int offset, int length);
+    
+    /**
+     * Single-precision variant of {@link #activate(double[], int, int)}.
+     * 
+     * @param values array holding the inputs (overwritten with the outputs)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void activate(float[] values, int offset, int length);
     
     /**
      * Computes the derivative of the activation function.
@@ -30,4 +44,3 @@ public interface ActivationFunction {
      */
     String getName();
 }
-
@@ -0,0 +1,40 @@
+package src.main.java.ann.activation;
+
+/**
+ * Activation function applied to each element independently.
+ * Needed wherever the function is evaluated on single values, such as the
+ * lookup tables of quantized layers.
+ */
+public interface ElementwiseActivation extends ActivationFunction {
+    
+    /**
+     * Applies the activation function to the input value.
+     * 
+     * @param x the input value
+     * @return the activated output
+     */
+    double activate(double x);
+    
+    /**
+     * Applies the activation function in place to a slice of an array.
+     * The default implementation calls {@link #activate(double)} per element;
+     * implementations override it with a vectorized kernel where one exists.
+     * 
+     * @param values array holding the inputs (overwritten with the outputs)
+     * @param offset start index
+     * @param length number of elements
+     */
+    @Override
+    default void activate(double[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = activate(values[i]);
+        }
+    }
+    
+    @Override
+    default void activate(float[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = (float) activate(values[i]);
+        }
+    }
+}
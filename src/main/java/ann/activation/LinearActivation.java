@@ -12,13 +12,23 @@ package src.main.java.ann.activation;
  * Note: Using only linear activations makes the network equivalent to 
  * a single-layer perceptron, regardless of depth.
  */
-public class LinearActivation implements ActivationFunction {
+public class LinearActivation implements ElementwiseActivation {
     
     @Override
     public double activate(double x) {
         return x;
     }
     
+    @Override
+    public void activate(double[] values, int offset, int length) {
+        // Identity: nothing to do
+    }
+    
+    @Override
+    public void activate(float[] values, int offset, int length) {
+        // Identity: nothing to do
+    }
+    
     @Override
     public double derivative(double x) {
         // Derivative of f(x) = x is always 1
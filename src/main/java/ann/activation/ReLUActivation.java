@@ -1,5 +1,7 @@
 package src.main.java.ann.activation;
 
+import src.main.java.ann.utils.ANNMath;
+
 /**
  * Rectified Linear Unit (ReLU) activation function.
  * 
@@ -14,13 +16,23 @@ package src.main.java.ann.activation;
  * - Helps with vanishing gradient problem
  * - Sparse activation (many neurons output 0)
  */
-public class ReLUActivation implements ActivationFunction {
+public class ReLUActivation implements ElementwiseActivation {
     
     @Override
     public double activate(double x) {
         return Math.max(0.0, x);
     }
     
+    @Override
+    public void activate(double[] values, int offset, int length) {
+        ANNMath.kernels().relu(values, offset, length);
+    }
+    
+    @Override
+    public void activate(float[] values, int offset, int length) {
+        ANNMath.kernels().relu(values, offset, length);
+    }
+    
     @Override
     public double derivative(double x) {
         // Derivative: 1 if x > 0, else 0
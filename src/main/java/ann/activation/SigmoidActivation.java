@@ -1,5 +1,7 @@
 package src.main.java.ann.activation;
 
+import src.main.java.ann.utils.ANNMath;
+
 /**
  * Sigmoid activation function.
  * 
@@ -9,7 +11,7 @@ package src.main.java.ann.activation;
  * Range: (0, 1)
  * Used for: Binary classification, output layer for probability
  */
-public class SigmoidActivation implements ActivationFunction {
+public class SigmoidActivation implements ElementwiseActivation {
     
     @Override
     public double activate(double x) {
@@ -22,6 +24,16 @@ public class SigmoidActivation implements ActivationFunction {
         return 1.0 / (1.0 + Math.exp(-x));
     }
     
+    @Override
+    public void activate(double[] values, int offset, int length) {
+        ANNMath.kernels().sigmoid(values, offset, length);
+    }
+    
+    @Override
+    public void activate(float[] values, int offset, int length) {
+        ANNMath.kernels().sigmoid(values, offset, length);
+    }
+    
     @Override
     public double derivative(double activatedOutput) {
         // Derivative in terms of the output: σ'(x) = σ(x) × (1 - σ(x))
@@ -0,0 +1,73 @@
+package src.main.java.ann.activation;
+
+/**
+ * Softmax activation function.
+ * 
+ * Formula: softmax(x)_i = e^(x_i - max(x)) / Σ e^(x_j - max(x))
+ * 
+ * Range: (0, 1), outputs sum to 1
+ * Used for: Output layer of multi-class classifiers, together with
+ * {@link src.main.java.ann.loss.SoftmaxCrossEntropyLoss}
+ * 
+ * Unlike the other activations softmax couples all outputs of a layer, so it
+ * is only defined on a whole row and is not an {@link ElementwiseActivation}.
+ * Its Jacobian is not applied during backpropagation: the fused loss already
+ * returns the gradient with respect to the logits (p - y), so
+ * {@link #derivative(double)} is 1.
+ */
+public class SoftmaxActivation implements ActivationFunction {
+    
+    @Override
+    public void activate(double[] values, int offset, int length) {
+        // Subtract the maximum for numerical stability
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        
+        double sum = 0.0;
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = Math.exp(values[i] - max);
+            sum += values[i];
+        }
+        
+        for (int i = offset; i < offset + length; i++) {
+            values[i] /= sum;
+        }
+    }
+    
+    @Override
+    public void activate(float[] values, int offset, int length) {
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        
+        // Accumulate in double so rows with many classes still sum to 1
+        double sum = 0.0;
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = (float) Math.exp(values[i] - max);
+            sum += values[i];
+        }
+        
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = (float) (values[i] / sum);
+        }
+    }
+    
+    @Override
+    public double derivative(double activatedOutput) {
+        // The softmax Jacobian is folded into SoftmaxCrossEntropyLoss.gradient
+        return 1.0;
+    }
+    
+    @Override
+    public String getName() {
+        return "Softmax";
+    }
+    
+    @Override
+    public String toString() {
+        return "SoftmaxActivation";
+    }
+}
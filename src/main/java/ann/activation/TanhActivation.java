@@ -1,5 +1,7 @@
 package src.main.java.ann.activation;
 
+import src.main.java.ann.utils.ANNMath;
+
 /**
  * Hyperbolic Tangent (Tanh) activation function.
  * 
@@ -13,13 +15,23 @@ package src.main.java.ann.activation;
  * - Zero-centered (helps with gradient flow)
  * - Stronger gradients (no vanishing gradient at 0)
  */
-public class TanhActivation implements ActivationFunction {
+public class TanhActivation implements ElementwiseActivation {
     
     @Override
     public double activate(double x) {
         return Math.tanh(x);
     }
     
+    @Override
+    public void activate(double[] values, int offset, int length) {
+        ANNMath.kernels().tanh(values, offset, length);
+    }
+    
+    @Override
+    public void activate(float[] values, int offset, int length) {
+        ANNMath.kernels().tanh(values, offset, length);
+    }
+    
     @Override
     public double derivative(double activatedOutput) {
         // Derivative in terms of the output: tanh'(x) = 1 - tanh²(x)
@@ -0,0 +1,385 @@
+package src.main.java.ann.benchmark;
+
+import src.main.java.ann.activation.ReLUActivation;
+import src.main.java.ann.activation.SigmoidActivation;
+import src.main.java.ann.activation.TanhActivation;
+import src.main.java.ann.data.Dataset;
+import src.main.java.ann.initialization.HeInitializer;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.metrics.EpochMetrics;
+import src.main.java.ann.metrics.TrainingMetrics;
+import src.main.java.ann.network.NetworkBuilder;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.training.Trainer;
+import src.main.java.ann.training.TrainingConfig;
+import src.main.java.ann.utils.Matrix;
+import src.main.java.ann.utils.Precision;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the steady-state training passes do not allocate.
+ * 
+ * Every case is warmed up first (so the layer workspaces and batch buffers
+ * exist), then run N more times between two reads of the thread's
+ * allocated-byte counter. Until C2 has compiled them, the Vector API kernels
+ * box their vectors, so a case that allocated is warmed up and measured
+ * again, up to a fixed number of rounds; it fails if no round is
+ * allocation-free.
+ * 
+ * Cases: per-sample {@code forward}/{@code backward} of double and float
+ * dense layers (ReLU, tanh and sigmoid kernels), per-sample
+ * {@code trainOnExample}, mini-batch {@code trainOnBatch} (the
+ * packed-batch path) in both precisions, and whole {@link Trainer} epochs
+ * with validation data and a metrics registry, with batches assembled on
+ * the training thread and by the background prefetcher. An epoch is
+ * measured from the start of its shuffle to the end of its validation
+ * pass on the training thread and on every {@code ann-} helper thread;
+ * the per-epoch bookkeeping after that (history, epoch snapshot) is not a
+ * per-sample cost and is left out.
+ * 
+ * Usage:
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp out src.main.java.ann.benchmark.AllocationCheck \
+ *     [--warmup N] [--iterations N] [--rounds N]
+ * </pre>
+ * 
+ * Exits with status 1 if any case allocated.
+ */
+public class AllocationCheck {
+    
+    private static final int WIDTH = 64;
+    private static final int BATCH_SIZE = 32;
+    private static final int NUM_CLASSES = 10;
+    private static final long SEED = 42;
+    private static final int TRAIN_SAMPLES = 1024;
+    private static final int VALIDATION_SAMPLES = 256;
+    
+    /**
+     * One steady-state operation.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        void run();
+    }
+    
+    public static void main(String[] args) {
+        int warmup = 20_000;
+        int iterations = 5_000;
+        int rounds = 10;
+        
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        
+        com.sun.management.ThreadMXBean threads = threadBean();
+        int failures = 0;
+        
+        failures += check(threads, "DenseLayer.forward/backward", warmup, iterations, rounds,
+                          layerPass(new DenseLayer(WIDTH, WIDTH, new ReLUActivation(), new HeInitializer(SEED))));
+        failures += check(threads, "FloatDenseLayer.forward/backward", warmup, iterations, rounds,
+                          layerPass(new FloatDenseLayer(WIDTH, WIDTH, new ReLUActivation(), new HeInitializer(SEED))));
+        failures += check(threads, "DenseLayer.forward/backward (tanh)", warmup, iterations, rounds,
+                          layerPass(new DenseLayer(WIDTH, WIDTH, new TanhActivation(), new HeInitializer(SEED))));
+        failures += check(threads, "FloatDenseLayer.forward/backward (sigmoid)", warmup, iterations, rounds,
+                          layerPass(new FloatDenseLayer(WIDTH, WIDTH, new SigmoidActivation(), new HeInitializer(SEED))));
+        
+        NeuralNetwork perSample = network(Precision.DOUBLE, false);
+        double[] input = randomVector(WIDTH, 1);
+        double[] target = oneHot(NUM_CLASSES, 3);
+        failures += check(threads, "NeuralNetwork.trainOnExample", warmup, iterations, rounds,
+                          () -> perSample.trainOnExample(input, target));
+        
+        Matrix inputs = new Matrix(BATCH_SIZE, WIDTH, randomVector(BATCH_SIZE * WIDTH, 2));
+        Matrix targets = oneHotMatrix(BATCH_SIZE, NUM_CLASSES, 4);
+        for (Precision precision : Precision.values()) {
+            NeuralNetwork network = network(precision, true);
+            failures += check(threads, "NeuralNetwork.trainOnBatch (" + precision + ")",
+                              warmup / BATCH_SIZE, iterations / BATCH_SIZE, rounds,
+                              () -> network.trainOnBatch(inputs, targets));
+        }
+        
+        int warmupEpochs = Math.max(1, warmup / TRAIN_SAMPLES);
+        int measuredEpochs = Math.max(2, iterations / TRAIN_SAMPLES);
+        failures += checkTrainer(threads, Precision.DOUBLE, 0, warmupEpochs, measuredEpochs, rounds);
+        failures += checkTrainer(threads, Precision.DOUBLE, 2, warmupEpochs, measuredEpochs, rounds);
+        failures += checkTrainer(threads, Precision.FLOAT, 2, warmupEpochs, measuredEpochs, rounds);
+        
+        if (failures > 0) {
+            System.out.println(failures + " case(s) allocated at steady state");
+            System.exit(1);
+        }
+        System.out.println("All cases allocation-free");
+    }
+    
+    /**
+     * Warms up and measures one operation until a round is allocation-free.
+     * 
+     * @param threads thread bean used to read allocated bytes
+     * @param name case name for the report
+     * @param warmup unmeasured runs before each round
+     * @param iterations measured runs per round
+     * @param rounds maximum number of rounds
+     * @param operation operation to run
+     * @return 1 if every round allocated, otherwise 0
+     */
+    private static int check(com.sun.management.ThreadMXBean threads, String name,
+                             int warmup, int iterations, int rounds, Operation operation) {
+        // Calibrate so that reading the counter itself is not charged to the case
+        long overhead = threads.getCurrentThreadAllocatedBytes();
+        overhead = threads.getCurrentThreadAllocatedBytes() - overhead;
+        
+        long allocated = 0;
+        int round = 0;
+        while (round < rounds) {
+            round++;
+            for (int i = 0; i < warmup; i++) {
+                operation.run();
+            }
+            
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                operation.run();
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+            if (allocated <= 0) {
+                break;
+            }
+        }
+        
+        boolean passed = allocated <= 0;
+        System.out.println(String.format("%-44s %10d bytes over %d runs (round %d)  %s",
+                                         name, Math.max(allocated, 0), iterations, round,
+                                         passed ? "OK" : "FAIL"));
+        return passed ? 0 : 1;
+    }
+    
+    /**
+     * Trains whole epochs with {@link Trainer#train} until the measured
+     * epochs of a round allocate nothing on any thread working for the
+     * trainer.
+     * 
+     * @param threads thread bean used to read allocated bytes
+     * @param precision network precision
+     * @param prefetchBatches batches prepared ahead (0 = on the training thread)
+     * @param warmupEpochs unmeasured epochs before each round
+     * @param measuredEpochs measured epochs per round
+     * @param rounds maximum number of rounds
+     * @return 1 if every round allocated, otherwise 0
+     */
+    private static int checkTrainer(com.sun.management.ThreadMXBean threads, Precision precision,
+                                    int prefetchBatches, int warmupEpochs, int measuredEpochs, int rounds) {
+        NeuralNetwork network = network(precision, true);
+        Dataset train = dataset(TRAIN_SAMPLES, 5);
+        Dataset validation = dataset(VALIDATION_SAMPLES, 6);
+        EpochAllocations allocations = new EpochAllocations(threads);
+        
+        TrainingConfig config = new TrainingConfig();
+        config.setEpochs(warmupEpochs + measuredEpochs);
+        config.setBatchSize(BATCH_SIZE);
+        config.setPrefetchBatches(prefetchBatches);
+        config.setMetrics(allocations);
+        config.setVerbose(false);
+        Trainer trainer = new Trainer(network, config, SEED);
+        
+        long allocated = 0;
+        int round = 0;
+        while (round < rounds) {
+            round++;
+            allocations.reset();
+            trainer.train(train, validation);
+            
+            allocated = allocations.getAllocatedBytes(warmupEpochs);
+            if (allocated <= 0) {
+                break;
+            }
+        }
+        
+        boolean passed = allocated <= 0;
+        String name = String.format("Trainer.train (%s, prefetch %d)", precision, prefetchBatches);
+        System.out.println(String.format("%-44s %10d bytes over %d samples (round %d)  %s",
+                                         name, Math.max(allocated, 0), (long) measuredEpochs * TRAIN_SAMPLES,
+                                         round, passed ? "OK" : "FAIL"));
+        return passed ? 0 : 1;
+    }
+    
+    /**
+     * Metrics registry that also reads, around each epoch, the allocated
+     * bytes of the training thread and of the trainer's helper threads
+     * (batch prefetcher, data-parallel workers), which are found by their
+     * {@code ann-} name prefix.
+     */
+    private static class EpochAllocations extends TrainingMetrics {
+        
+        private final com.sun.management.ThreadMXBean threads;
+        private final List<Long> epochBytes;
+        private long[] threadIds;
+        private long[] startBytes;
+        
+        EpochAllocations(com.sun.management.ThreadMXBean threads) {
+            this.threads = threads;
+            this.epochBytes = new ArrayList<>();
+            findThreads();
+        }
+        
+        @Override
+        public void startEpoch(int epoch) {
+            super.startEpoch(epoch);
+            for (int t = 0; t < threadIds.length; t++) {
+                startBytes[t] = threads.getThreadAllocatedBytes(threadIds[t]);
+            }
+        }
+        
+        @Override
+        public EpochMetrics endEpoch(double loss, double validationLoss) {
+            long allocated = 0;
+            for (int t = 0; t < threadIds.length; t++) {
+                long end = threads.getThreadAllocatedBytes(threadIds[t]);
+                // -1: the thread has not started yet or has already ended
+                if (end >= 0 && startBytes[t] >= 0) {
+                    allocated += end - startBytes[t];
+                }
+            }
+            epochBytes.add(allocated);
+            
+            // Picks up helper threads started during this epoch for the next one
+            findThreads();
+            return super.endEpoch(loss, validationLoss);
+        }
+        
+        @Override
+        public void reset() {
+            super.reset();
+            epochBytes.clear();
+        }
+        
+        /**
+         * Sums the allocation of the epochs after the warm-up.
+         * 
+         * @param warmupEpochs epochs to skip
+         * @return allocated bytes
+         */
+        long getAllocatedBytes(int warmupEpochs) {
+            long total = 0;
+            for (int e = warmupEpochs; e < epochBytes.size(); e++) {
+                total += epochBytes.get(e);
+            }
+            return total;
+        }
+        
+        private void findThreads() {
+            List<Long> ids = new ArrayList<>();
+            ids.add(Thread.currentThread().getId());
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith("ann-") && thread != Thread.currentThread()) {
+                    ids.add(thread.getId());
+                }
+            }
+            
+            threadIds = new long[ids.size()];
+            for (int t = 0; t < threadIds.length; t++) {
+                threadIds[t] = ids.get(t);
+            }
+            startBytes = new long[threadIds.length];
+        }
+    }
+    
+    /**
+     * Gets the thread bean with allocation counting enabled.
+     * 
+     * @return thread bean
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException("This JVM does not report per-thread allocated bytes");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocated bytes");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+    
+    /**
+     * Creates one per-sample forward and backward pass through a layer.
+     * 
+     * @param layer layer to exercise
+     * @return the pass
+     */
+    private static Operation layerPass(Layer layer) {
+        double[] input = randomVector(layer.getInputSize(), 1);
+        double[] outputGradient = randomVector(layer.getOutputSize(), 2);
+        return () -> {
+            layer.forward(input);
+            layer.backward(outputGradient, 1e-6);
+        };
+    }
+    
+    /**
+     * 64 → 64 → 10 classes, softmax output, in the given precision.
+     */
+    private static NeuralNetwork network(Precision precision, boolean miniBatchUpdates) {
+        return new NetworkBuilder()
+            .setWeightInitializer(new HeInitializer(SEED))
+            .setPrecision(precision)
+            .addInputLayer(WIDTH)
+            .addDenseLayer(WIDTH, new ReLUActivation())
+            .addSoftmaxOutputLayer(NUM_CLASSES)
+            .setMiniBatchUpdates(miniBatchUpdates)
+            .setLearningRate(1e-6)
+            .build();
+    }
+    
+    private static Dataset dataset(int samples, long seed) {
+        double[][] features = new double[samples][];
+        double[][] labels = new double[samples][];
+        for (int i = 0; i < samples; i++) {
+            features[i] = randomVector(WIDTH, seed * samples + i);
+            labels[i] = oneHot(NUM_CLASSES, seed * samples + i);
+        }
+        return new Dataset(features, labels);
+    }
+    
+    private static double[] randomVector(int size, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+    
+    private static double[] oneHot(int classes, long seed) {
+        double[] values = new double[classes];
+        values[new Random(seed).nextInt(classes)] = 1.0;
+        return values;
+    }
+    
+    private static Matrix oneHotMatrix(int rows, int classes, long seed) {
+        Random random = new Random(seed);
+        Matrix matrix = new Matrix(rows, classes);
+        for (int i = 0; i < rows; i++) {
+            matrix.set(i, random.nextInt(classes), 1.0);
+        }
+        return matrix;
+    }
+}
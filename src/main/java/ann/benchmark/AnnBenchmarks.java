@@ -0,0 +1,350 @@
+package src.main.java.ann.benchmark;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.activation.LinearActivation;
+import src.main.java.ann.activation.ReLUActivation;
+import src.main.java.ann.activation.SigmoidActivation;
+import src.main.java.ann.activation.SoftmaxActivation;
+import src.main.java.ann.activation.TanhActivation;
+import src.main.java.ann.evaluation.Predictor;
+import src.main.java.ann.initialization.HeInitializer;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.loss.CrossEntropyLoss;
+import src.main.java.ann.loss.LossFunction;
+import src.main.java.ann.loss.MSELoss;
+import src.main.java.ann.loss.SoftmaxCrossEntropyLoss;
+import src.main.java.ann.network.NetworkBuilder;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.Matrix;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark suite for the ann package.
+ * 
+ * Covers dense layer forward/backward (per sample and batched), a full
+ * mini-batch training step, batch inference through {@link Predictor}, the
+ * {@link ANNMath} kernels, every activation function and every loss
+ * function, over a matrix of layer widths and batch sizes. All inputs are
+ * generated from fixed seeds, so every commit measures the same work.
+ * 
+ * Usage:
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp out src.main.java.ann.benchmark.AnnBenchmarks \
+ *     [--quick] [--filter REGEX] [--out results.json] [--warmup N] [--iterations N] [--time MS]
+ * </pre>
+ * 
+ * --quick shrinks the parameter matrix and the iteration counts for a
+ * smoke run. The JSON report (default ann-benchmarks.json) can be diffed
+ * between commits to spot regressions.
+ */
+public class AnnBenchmarks {
+    
+    private static final int[] WIDTHS = {64, 256, 1024};
+    private static final int[] BATCH_SIZES = {1, 32, 256};
+    private static final int[] QUICK_WIDTHS = {64, 256};
+    private static final int[] QUICK_BATCH_SIZES = {32};
+    
+    private static final int NUM_CLASSES = 10;
+    private static final long SEED = 42;
+    
+    public static void main(String[] args) throws IOException {
+        boolean quick = false;
+        String filter = null;
+        Path out = Paths.get("ann-benchmarks.json");
+        int warmup = 3;
+        int iterations = 5;
+        long iterationMillis = 200;
+        
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--quick":
+                    quick = true;
+                    warmup = 2;
+                    iterations = 3;
+                    iterationMillis = 50;
+                    break;
+                case "--filter":
+                    filter = args[++i];
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        
+        System.out.printf("ANN benchmarks (kernels: %s, JDK %s)\n",
+                          ANNMath.kernels().getName(), System.getProperty("java.version"));
+        
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, iterationMillis, filter);
+        runAll(runner, quick ? QUICK_WIDTHS : WIDTHS, quick ? QUICK_BATCH_SIZES : BATCH_SIZES);
+        
+        runner.writeJson(out);
+        System.out.printf("%d results written to %s\n", runner.getResults().size(), out);
+    }
+    
+    /**
+     * Runs the whole suite over the given parameter matrix.
+     * 
+     * @param runner benchmark runner
+     * @param widths layer widths
+     * @param batchSizes batch sizes
+     */
+    public static void runAll(BenchmarkRunner runner, int[] widths, int[] batchSizes) {
+        for (int width : widths) {
+            layerBenchmarks(runner, width);
+            kernelBenchmarks(runner, width);
+            activationBenchmarks(runner, width);
+            lossBenchmarks(runner, width);
+            for (int batch : batchSizes) {
+                batchBenchmarks(runner, width, batch);
+            }
+        }
+    }
+    
+    /**
+     * Per-sample dense layer passes.
+     */
+    private static void layerBenchmarks(BenchmarkRunner runner, int width) {
+        Map<String, Object> params = BenchmarkRunner.params("width", width);
+        
+        report(runner.run("DenseLayer.forward", params, () -> {
+            DenseLayer layer = denseLayer(width);
+            double[] input = randomVector(width, 1);
+            return bh -> bh.consume(layer.forward(input));
+        }));
+        
+        // Gradients are accumulated, never applied, so the weights stay fixed
+        report(runner.run("DenseLayer.backward", params, () -> {
+            DenseLayer layer = denseLayer(width);
+            layer.forward(randomVector(width, 1));
+            double[] outputGradient = randomVector(width, 2);
+            return bh -> bh.consume(layer.accumulateGradients(outputGradient));
+        }));
+    }
+    
+    /**
+     * Batched layer passes, a full training step and batch inference.
+     */
+    private static void batchBenchmarks(BenchmarkRunner runner, int width, int batch) {
+        Map<String, Object> params = BenchmarkRunner.params("width", width, "batch", batch);
+        
+        report(runner.run("DenseLayer.forwardBatch", params, () -> {
+            DenseLayer layer = denseLayer(width);
+            Matrix inputs = randomMatrix(batch, width, 1);
+            return bh -> bh.consume(layer.forwardBatch(inputs));
+        }));
+        
+        report(runner.run("DenseLayer.backwardBatch", params, () -> {
+            DenseLayer layer = denseLayer(width);
+            layer.forwardBatch(randomMatrix(batch, width, 1));
+            Matrix outputGradients = randomMatrix(batch, width, 2);
+            return bh -> bh.consume(layer.accumulateGradientsBatch(outputGradients));
+        }));
+        
+        report(runner.run("NeuralNetwork.trainOnBatch", params, () -> {
+            NeuralNetwork network = network(width);
+            Matrix inputs = randomMatrix(batch, width, 1);
+            Matrix targets = oneHotMatrix(batch, NUM_CLASSES, 2);
+            return bh -> bh.consume(network.trainOnBatch(inputs, targets));
+        }));
+        
+        report(runner.run("Predictor.predict", params, () -> {
+            Predictor predictor = new Predictor(network(width));
+            double[][] inputs = randomMatrix(batch, width, 1).toArray();
+            return bh -> bh.consume(predictor.predict(inputs));
+        }));
+        
+        report(runner.run("ANNMath.multiply(Matrix,Matrix)", params, () -> {
+            Matrix a = randomMatrix(batch, width, 1);
+            Matrix b = randomMatrix(width, width, 2);
+            Matrix c = new Matrix(batch, width);
+            return bh -> {
+                ANNMath.multiply(a, b, c, false);
+                bh.consume(c);
+            };
+        }));
+    }
+    
+    /**
+     * Matrix-vector and vector kernels.
+     */
+    private static void kernelBenchmarks(BenchmarkRunner runner, int width) {
+        Map<String, Object> params = BenchmarkRunner.params("width", width);
+        
+        report(runner.run("ANNMath.multiply", params, () -> {
+            Matrix a = randomMatrix(width, width, 1);
+            double[] x = randomVector(width, 2);
+            double[] out = new double[width];
+            return bh -> {
+                ANNMath.multiply(a, x, out);
+                bh.consume(out);
+            };
+        }));
+        
+        report(runner.run("ANNMath.multiplyTransposed", params, () -> {
+            Matrix a = randomMatrix(width, width, 1);
+            double[] x = randomVector(width, 2);
+            double[] out = new double[width];
+            return bh -> {
+                ANNMath.multiplyTransposed(a, x, out);
+                bh.consume(out);
+            };
+        }));
+        
+        // Alternating signs keep the accumulated matrix bounded
+        report(runner.run("ANNMath.addOuterProduct", params, () -> {
+            Matrix a = randomMatrix(width, width, 1);
+            double[] u = randomVector(width, 2);
+            double[] v = randomVector(width, 3);
+            double[] alpha = {1e-3};
+            return bh -> {
+                ANNMath.addOuterProduct(a, alpha[0], u, v);
+                alpha[0] = -alpha[0];
+                bh.consume(a);
+            };
+        }));
+        
+        report(runner.run("ANNMath.dotProduct", params, () -> {
+            double[] a = randomVector(width, 1);
+            double[] b = randomVector(width, 2);
+            return bh -> bh.consume(ANNMath.dotProduct(a, b));
+        }));
+    }
+    
+    /**
+     * In-place activation over one layer output and the derivative sweep.
+     */
+    private static void activationBenchmarks(BenchmarkRunner runner, int width) {
+        Map<String, Object> params = BenchmarkRunner.params("width", width);
+        
+        ActivationFunction[] activations = {
+            new LinearActivation(), new ReLUActivation(), new SigmoidActivation(),
+            new TanhActivation(), new SoftmaxActivation()
+        };
+        
+        for (ActivationFunction activation : activations) {
+            String name = activation.getClass().getSimpleName();
+            
+            // Each call restarts from the same inputs rather than re-activating its own output
+            report(runner.run(name + ".activate", params, () -> {
+                double[] source = randomVector(width, 1);
+                double[] values = new double[width];
+                return bh -> {
+                    System.arraycopy(source, 0, values, 0, width);
+                    activation.activate(values, 0, width);
+                    bh.consume(values);
+                };
+            }));
+            
+            report(runner.run(name + ".derivative", params, () -> {
+                double[] values = randomVector(width, 1);
+                return bh -> {
+                    double sum = 0.0;
+                    for (int i = 0; i < width; i++) {
+                        sum += activation.derivative(values[i]);
+                    }
+                    bh.consume(sum);
+                };
+            }));
+        }
+    }
+    
+    /**
+     * Loss value and loss gradient over one output vector.
+     */
+    private static void lossBenchmarks(BenchmarkRunner runner, int width) {
+        Map<String, Object> params = BenchmarkRunner.params("width", width);
+        
+        LossFunction[] losses = {new MSELoss(), new CrossEntropyLoss(), new SoftmaxCrossEntropyLoss()};
+        
+        for (LossFunction loss : losses) {
+            String name = loss.getClass().getSimpleName();
+            
+            report(runner.run(name + ".compute", params, () -> {
+                double[] predicted = probabilities(width, 1);
+                double[] target = oneHotMatrix(1, width, 2).getData();
+                return bh -> bh.consume(loss.compute(predicted, target));
+            }));
+            
+            report(runner.run(name + ".gradient", params, () -> {
+                double[] predicted = probabilities(width, 1);
+                double[] target = oneHotMatrix(1, width, 2).getData();
+                double[] gradient = new double[width];
+                return bh -> {
+                    loss.gradient(predicted, target, gradient);
+                    bh.consume(gradient);
+                };
+            }));
+        }
+    }
+    
+    private static void report(BenchmarkResult result) {
+        if (result != null) {
+            System.out.println(result);
+        }
+    }
+    
+    private static DenseLayer denseLayer(int width) {
+        return new DenseLayer(width, width, new ReLUActivation(), new HeInitializer(SEED));
+    }
+    
+    /**
+     * width → width → width → 10 classes, mini-batch updates, softmax output.
+     */
+    private static NeuralNetwork network(int width) {
+        return new NetworkBuilder()
+            .setWeightInitializer(new HeInitializer(SEED))
+            .addInputLayer(width)
+            .addDenseLayer(width, new ReLUActivation())
+            .addDenseLayer(width, new ReLUActivation())
+            .addSoftmaxOutputLayer(NUM_CLASSES)
+            .setMiniBatchUpdates(true)
+            .setLearningRate(1e-6)
+            .build();
+    }
+    
+    private static double[] randomVector(int size, long seed) {
+        Random random = new Random(SEED + seed);
+        double[] vector = new double[size];
+        for (int i = 0; i < size; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+    
+    private static Matrix randomMatrix(int rows, int cols, long seed) {
+        return new Matrix(rows, cols, randomVector(rows * cols, seed));
+    }
+    
+    private static Matrix oneHotMatrix(int rows, int classes, long seed) {
+        Random random = new Random(SEED + seed);
+        Matrix matrix = new Matrix(rows, classes);
+        for (int i = 0; i < rows; i++) {
+            matrix.set(i, random.nextInt(classes), 1.0);
+        }
+        return matrix;
+    }
+    
+    private static double[] probabilities(int size, long seed) {
+        double[] values = randomVector(size, seed);
+        new SoftmaxActivation().activate(values, 0, size);
+        return values;
+    }
+}
@@ -0,0 +1,16 @@
+package src.main.java.ann.benchmark;
+
+/**
+ * One benchmark operation. Setup happens when the instance is created;
+ * {@link #run(Blackhole)} is the measured part and is invoked many times.
+ */
+@FunctionalInterface
+public interface Benchmark {
+    
+    /**
+     * Runs the operation once.
+     * 
+     * @param blackhole sink for the results of the operation
+     */
+    void run(Blackhole blackhole);
+}
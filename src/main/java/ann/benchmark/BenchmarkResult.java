@@ -0,0 +1,119 @@
+package src.main.java.ann.benchmark;
+
+import java.util.Map;
+
+/**
+ * Average time per operation of one benchmark case, with its parameters and
+ * the per-iteration measurements.
+ */
+public class BenchmarkResult {
+    
+    private final String name;
+    private final Map<String, Object> params;
+    private final double[] iterations;
+    private final long opsPerIteration;
+    
+    /**
+     * Creates a result.
+     * 
+     * @param name benchmark name
+     * @param params benchmark parameters (e.g. width, batch)
+     * @param iterations nanoseconds per operation of each measurement iteration
+     * @param opsPerIteration operations timed per iteration
+     */
+    public BenchmarkResult(String name, Map<String, Object> params, double[] iterations, long opsPerIteration) {
+        this.name = name;
+        this.params = params;
+        this.iterations = iterations;
+        this.opsPerIteration = opsPerIteration;
+    }
+    
+    /**
+     * Gets the benchmark name.
+     * 
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Gets the benchmark parameters.
+     * 
+     * @return parameters in declaration order
+     */
+    public Map<String, Object> getParams() {
+        return params;
+    }
+    
+    /**
+     * Gets the per-iteration measurements.
+     * 
+     * @return nanoseconds per operation of each iteration
+     */
+    public double[] getIterations() {
+        return iterations;
+    }
+    
+    /**
+     * Gets the number of operations timed per iteration.
+     * 
+     * @return operations per iteration
+     */
+    public long getOpsPerIteration() {
+        return opsPerIteration;
+    }
+    
+    /**
+     * Gets the mean time per operation.
+     * 
+     * @return mean over the iterations, in nanoseconds
+     */
+    public double getScore() {
+        double sum = 0.0;
+        for (double value : iterations) {
+            sum += value;
+        }
+        return sum / iterations.length;
+    }
+    
+    /**
+     * Gets the standard deviation of the per-iteration times.
+     * 
+     * @return sample standard deviation, in nanoseconds (0 for one iteration)
+     */
+    public double getStdDev() {
+        if (iterations.length < 2) {
+            return 0.0;
+        }
+        
+        double mean = getScore();
+        double sumSquares = 0.0;
+        for (double value : iterations) {
+            sumSquares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sumSquares / (iterations.length - 1));
+    }
+    
+    /**
+     * Gets the parameters as "key=value" pairs.
+     * 
+     * @return space-separated parameters
+     */
+    public String getParamString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-40s %-22s %14.1f +/- %.1f ns/op",
+                             name, getParamString(), getScore(), getStdDev());
+    }
+}
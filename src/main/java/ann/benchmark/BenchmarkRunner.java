@@ -0,0 +1,204 @@
+package src.main.java.ann.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal benchmark harness: warmup, calibrated measurement iterations and
+ * a JSON report.
+ * 
+ * Each case is set up only if it passes the name filter. Warmup iterations
+ * give the JIT time to compile the operation and also calibrate how many
+ * operations fit in one iteration, so the measured loop times a fixed
+ * count with two clock reads per iteration rather than one per operation.
+ * Results go to a {@link Blackhole}.
+ * 
+ * The JSON report follows the layout of JMH's JSON output (benchmark,
+ * mode, params, primaryMetric with score and raw data), so runs from
+ * different commits can be diffed with the same tooling.
+ */
+public class BenchmarkRunner {
+    
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final Pattern filter;
+    private final List<BenchmarkResult> results;
+    
+    /**
+     * Creates a runner.
+     * 
+     * @param warmupIterations unmeasured iterations per case
+     * @param measurementIterations measured iterations per case
+     * @param iterationMillis target duration of one iteration
+     * @param filter regular expression matched against benchmark names (null = all)
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis, String filter) {
+        if (warmupIterations < 1 || measurementIterations < 1 || iterationMillis <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Invalid benchmark settings: warmup=%d, iterations=%d, iterationMillis=%d",
+                              warmupIterations, measurementIterations, iterationMillis));
+        }
+        
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.filter = filter != null ? Pattern.compile(filter) : null;
+        this.results = new ArrayList<>();
+    }
+    
+    /**
+     * Builds an ordered parameter map from alternating keys and values.
+     * 
+     * @param keysAndValues key1, value1, key2, value2, ...
+     * @return parameter map
+     */
+    public static Map<String, Object> params(Object... keysAndValues) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            params.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return params;
+    }
+    
+    /**
+     * Sets up and measures one benchmark case, unless its name is filtered out.
+     * 
+     * @param name benchmark name
+     * @param params benchmark parameters
+     * @param setup creates the benchmark (not measured)
+     * @return result, or null if the case was skipped
+     */
+    public BenchmarkResult run(String name, Map<String, Object> params, Supplier<Benchmark> setup) {
+        if (filter != null && !filter.matcher(name).find()) {
+            return null;
+        }
+        
+        Benchmark benchmark = setup.get();
+        Blackhole blackhole = new Blackhole();
+        
+        // Warmup, doubling the batch of operations until one batch fills an iteration
+        long ops = 1;
+        for (int w = 0; w < warmupIterations; w++) {
+            long elapsed;
+            while ((elapsed = time(benchmark, blackhole, ops)) < iterationNanos / 2) {
+                ops *= 2;
+            }
+            ops = Math.max(1, (long) ((double) ops * iterationNanos / elapsed));
+        }
+        
+        double[] iterations = new double[measurementIterations];
+        for (int m = 0; m < measurementIterations; m++) {
+            iterations[m] = (double) time(benchmark, blackhole, ops) / ops;
+        }
+        blackhole.publish();
+        
+        BenchmarkResult result = new BenchmarkResult(name, params, iterations, ops);
+        results.add(result);
+        return result;
+    }
+    
+    /**
+     * Gets the results measured so far.
+     * 
+     * @return results in run order
+     */
+    public List<BenchmarkResult> getResults() {
+        return results;
+    }
+    
+    /**
+     * Renders the results as a JSON array in the JMH result layout.
+     * 
+     * @return JSON document
+     */
+    public String toJson() {
+        String jdkVersion = System.getProperty("java.version");
+        String vmName = System.getProperty("java.vm.name");
+        
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int r = 0; r < results.size(); r++) {
+            BenchmarkResult result = results.get(r);
+            sb.append("    {\n");
+            sb.append("        \"benchmark\" : ").append(quote(result.getName())).append(",\n");
+            sb.append("        \"mode\" : \"avgt\",\n");
+            sb.append("        \"threads\" : 1,\n");
+            sb.append("        \"jdkVersion\" : ").append(quote(jdkVersion)).append(",\n");
+            sb.append("        \"vmName\" : ").append(quote(vmName)).append(",\n");
+            sb.append("        \"warmupIterations\" : ").append(warmupIterations).append(",\n");
+            sb.append("        \"measurementIterations\" : ").append(measurementIterations).append(",\n");
+            sb.append("        \"opsPerIteration\" : ").append(result.getOpsPerIteration()).append(",\n");
+            
+            sb.append("        \"params\" : {");
+            int p = 0;
+            for (Map.Entry<String, Object> entry : result.getParams().entrySet()) {
+                sb.append(p++ == 0 ? "\n" : ",\n");
+                sb.append("            ").append(quote(entry.getKey())).append(" : ")
+                  .append(quote(String.valueOf(entry.getValue())));
+            }
+            sb.append(p == 0 ? "},\n" : "\n        },\n");
+            
+            sb.append("        \"primaryMetric\" : {\n");
+            sb.append("            \"score\" : ").append(number(result.getScore())).append(",\n");
+            sb.append("            \"scoreStdDev\" : ").append(number(result.getStdDev())).append(",\n");
+            sb.append("            \"scoreUnit\" : \"ns/op\",\n");
+            sb.append("            \"rawData\" : [\n                [");
+            double[] iterations = result.getIterations();
+            for (int i = 0; i < iterations.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append(number(iterations[i]));
+            }
+            sb.append("]\n            ]\n        }\n");
+            sb.append(r + 1 < results.size() ? "    },\n" : "    }\n");
+        }
+        return sb.append("]\n").toString();
+    }
+    
+    /**
+     * Writes the JSON report.
+     * 
+     * @param path output file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(Path path) throws IOException {
+        Files.write(path, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Times a fixed number of operations.
+     */
+    private static long time(Benchmark benchmark, Blackhole blackhole, long ops) {
+        long start = System.nanoTime();
+        for (long i = 0; i < ops; i++) {
+            benchmark.run(blackhole);
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+    
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
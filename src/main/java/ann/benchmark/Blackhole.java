@@ -0,0 +1,54 @@
+package src.main.java.ann.benchmark;
+
+/**
+ * Sink for benchmark results, so the JIT cannot drop the measured work as
+ * dead code.
+ * 
+ * Scalars are folded into a running sum and references are stored in a
+ * field; both are published through a volatile write when the run ends,
+ * which makes every consumed value observable. Consuming costs a single add
+ * or store, far below the cost of any measured operation.
+ */
+public final class Blackhole {
+    
+    // Written once per run so the accumulated values escape
+    private static volatile Object published;
+    
+    private double doubleSink;
+    private long longSink;
+    private Object objectSink;
+    
+    /**
+     * Consumes a double result.
+     * 
+     * @param value value to keep alive
+     */
+    public void consume(double value) {
+        doubleSink += value;
+    }
+    
+    /**
+     * Consumes an integral result.
+     * 
+     * @param value value to keep alive
+     */
+    public void consume(long value) {
+        longSink += value;
+    }
+    
+    /**
+     * Consumes an object result, e.g. an output array.
+     * 
+     * @param value value to keep alive
+     */
+    public void consume(Object value) {
+        objectSink = value;
+    }
+    
+    /**
+     * Publishes everything consumed so far.
+     */
+    void publish() {
+        published = new Object[] { doubleSink, longSink, objectSink };
+    }
+}
@@ -1,7 +1,10 @@
 package src.main.java.ann.core;
 
 import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
 import src.main.java.ann.layer.Layer;
+import src.main.java.ann.metrics.EpochMetrics;
+import src.main.java.ann.metrics.TrainingMetrics;
 import src.main.java.ann.network.NeuralNetwork;
 
 /**
@@ -33,7 +36,7 @@ public class NetworkInspector {
         for (int i = 0; i < network.getLayerCount(); i++) {
             Layer layer = network.getLayer(i);
             
-            if (layer instanceof DenseLayer) {
+            if (layer instanceof DenseLayer || layer instanceof FloatDenseLayer) {
                 int layerParams = layer.getInputSize() * layer.getOutputSize() + layer.getOutputSize();
                 totalParams += layerParams;
                 
@@ -109,11 +112,19 @@ public class NetworkInspector {
         for (int i = 0; i < network.getLayerCount(); i++) {
             Layer layer = network.getLayer(i);
             
+            double[][] weightGrads = null;
+            double[] biasGrads = null;
             if (layer instanceof DenseLayer) {
                 DenseLayer denseLayer = (DenseLayer) layer;
-                double[][] weightGrads = denseLayer.getWeightGradients();
-                double[] biasGrads = denseLayer.getBiasGradients();
-                
+                weightGrads = denseLayer.getWeightGradients();
+                biasGrads = denseLayer.getBiasGradients();
+            } else if (layer instanceof FloatDenseLayer) {
+                FloatDenseLayer floatLayer = (FloatDenseLayer) layer;
+                weightGrads = floatLayer.getWeightGradients();
+                biasGrads = floatLayer.getBiasGradients();
+            }
+            
+            if (weightGrads != null) {
                 double weightGradMag = computeMagnitude(weightGrads);
                 double biasGradMag = computeMagnitude(biasGrads);
                 
@@ -123,6 +134,33 @@ public class NetworkInspector {
         }
     }
     
+    /**
+     * Prints where training time went, per layer, from the network's
+     * instrumentation registry (see {@link NeuralNetwork#setMetrics}).
+     */
+    public void printTrainingMetrics() {
+        System.out.println("\n=== Training Metrics ===");
+        
+        TrainingMetrics metrics = network.getMetrics();
+        if (metrics == null) {
+            System.out.println("Instrumentation disabled");
+            return;
+        }
+        
+        EpochMetrics lastEpoch = metrics.getLastEpoch();
+        if (lastEpoch != null) {
+            System.out.println(lastEpoch);
+        }
+        System.out.printf("Overall: %.0f samples/s, %.1f batches/s\n",
+                          metrics.getSamplesPerSecond(), metrics.getBatchesPerSecond());
+        
+        for (int i = 0; i < metrics.getLayerCount(); i++) {
+            System.out.printf("Layer %d: forward = %.3f ms, backward = %.3f ms, last grad norm = %.6e\n",
+                              i, metrics.getTotalForwardNanos(i) / 1e6, metrics.getTotalBackwardNanos(i) / 1e6,
+                              metrics.getLastGradientNorm(i));
+        }
+    }
+    
     /**
      * Computes statistics about network weights.
      */
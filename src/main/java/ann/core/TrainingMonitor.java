@@ -1,5 +1,7 @@
 package src.main.java.ann.core;
 
+import src.main.java.ann.metrics.EpochMetrics;
+import src.main.java.ann.metrics.TrainingMetrics;
 import src.main.java.ann.training.TrainingHistory;
 
 import java.util.ArrayList;
@@ -8,6 +10,10 @@ import java.util.List;
 /**
  * Training monitor for real-time feedback during training.
  * Tracks loss, provides callbacks, and detects training issues.
+ * 
+ * When attached to a {@link TrainingMetrics} registry, the gradient checks
+ * use the per-layer gradient norms recorded during training instead of the
+ * loss, and the summary includes throughput and per-layer timings.
  */
 public class TrainingMonitor {
     
@@ -20,6 +26,9 @@ public class TrainingMonitor {
     private double vanishingThreshold;
     private double explodingThreshold;
     
+    // Instrumentation of the monitored run (null = loss-based checks only)
+    private TrainingMetrics metrics;
+    
     /**
      * Creates a training monitor with default settings.
      */
@@ -94,7 +103,20 @@ public class TrainingMonitor {
      * @return true if gradient might be vanishing
      */
     public boolean hasVanishingGradient() {
-        if (!detectVanishingGradient || recentLosses.isEmpty()) {
+        if (!detectVanishingGradient) {
+            return false;
+        }
+        
+        if (hasGradientNorms()) {
+            for (int l = 0; l < metrics.getLayerCount(); l++) {
+                if (metrics.getLastGradientNorm(l) < vanishingThreshold) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        if (recentLosses.isEmpty()) {
             return false;
         }
         
@@ -108,7 +130,21 @@ public class TrainingMonitor {
      * @return true if gradient might be exploding
      */
     public boolean hasExplodingGradient() {
-        if (!detectExplodingGradient || recentLosses.isEmpty()) {
+        if (!detectExplodingGradient) {
+            return false;
+        }
+        
+        if (hasGradientNorms()) {
+            for (int l = 0; l < metrics.getLayerCount(); l++) {
+                double norm = metrics.getLastGradientNorm(l);
+                if (norm > explodingThreshold || Double.isNaN(norm) || Double.isInfinite(norm)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        if (recentLosses.isEmpty()) {
             return false;
         }
         
@@ -204,6 +240,22 @@ public class TrainingMonitor {
             sb.append("Stopped Early: No\n");
         }
         
+        // Add instrumentation
+        EpochMetrics lastEpoch = metrics != null ? metrics.getLastEpoch() : null;
+        if (lastEpoch != null) {
+            sb.append(String.format("Throughput: %.0f samples/s, %.1f batches/s\n",
+                                    metrics.getSamplesPerSecond(), metrics.getBatchesPerSecond()));
+            if (lastEpoch.getAllocatedBytes() >= 0) {
+                sb.append(String.format("Allocated in Last Epoch (training thread): %d bytes\n", lastEpoch.getAllocatedBytes()));
+            }
+            for (int l = 0; l < metrics.getLayerCount(); l++) {
+                sb.append(String.format("Layer %d: forward %.1f ms, backward %.1f ms (%.1f%%), grad norm %.3e\n",
+                                        l, metrics.getTotalForwardNanos(l) / 1e6,
+                                        metrics.getTotalBackwardNanos(l) / 1e6,
+                                        100.0 * getLayerTimeShare(l), metrics.getLastGradientNorm(l)));
+            }
+        }
+        
         // Add warnings
         if (hasVanishingGradient()) {
             sb.append("\n⚠ Warning: Potential vanishing gradient detected\n");
@@ -220,6 +272,42 @@ public class TrainingMonitor {
         return sb.toString();
     }
     
+    /**
+     * Gets the training throughput of the last completed epoch.
+     * 
+     * @return samples per second, or 0 without instrumentation
+     */
+    public double getSamplesPerSecond() {
+        EpochMetrics lastEpoch = metrics != null ? metrics.getLastEpoch() : null;
+        return lastEpoch != null ? lastEpoch.getSamplesPerSecond() : 0.0;
+    }
+    
+    /**
+     * Gets a layer's share of the forward and backward time recorded so far.
+     * 
+     * @param layer layer index
+     * @return fraction in [0, 1], or 0 without instrumentation
+     */
+    public double getLayerTimeShare(int layer) {
+        if (metrics == null) {
+            return 0.0;
+        }
+        
+        long total = 0;
+        for (int l = 0; l < metrics.getLayerCount(); l++) {
+            total += metrics.getTotalForwardNanos(l) + metrics.getTotalBackwardNanos(l);
+        }
+        long mine = metrics.getTotalForwardNanos(layer) + metrics.getTotalBackwardNanos(layer);
+        return total > 0 ? (double) mine / total : 0.0;
+    }
+    
+    /**
+     * Checks whether the attached registry has recorded any gradient norms.
+     */
+    private boolean hasGradientNorms() {
+        return metrics != null && metrics.getLayerCount() > 0 && metrics.getTotalBatches() > 0;
+    }
+    
     /**
      * Clears the recorded losses.
      */
@@ -244,5 +332,13 @@ public class TrainingMonitor {
     public void setDetectExplodingGradient(boolean detect) {
         this.detectExplodingGradient = detect;
     }
+    
+    public TrainingMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public void setMetrics(TrainingMetrics metrics) {
+        this.metrics = metrics;
+    }
 }
 
@@ -0,0 +1,103 @@
+package src.main.java.ann.data;
+
+/**
+ * A mini-batch as a window over a sample order, without copying any rows.
+ * 
+ * The view holds only the source, the order array and the window bounds;
+ * rows are read from the source when they are accessed. Views are cheap to
+ * create, so a loop over a large out-of-core source can create one per batch.
+ * 
+ * Example usage:
+ * <pre>
+ * int[] order = data.permutation(random);
+ * for (int start = 0; start &lt; order.length; start += batchSize) {
+ *     BatchView batch = new BatchView(data, order, start, Math.min(start + batchSize, order.length));
+ *     for (int i = 0; i &lt; batch.getSize(); i++) {
+ *         double[] x = batch.getFeatures(i, row);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public class BatchView {
+    
+    private final DataSource source;
+    private final int[] order;
+    private final int from;
+    private final int to;
+    
+    /**
+     * Creates a view of the samples order[from..to).
+     * 
+     * @param source data source
+     * @param order sample indices (not copied)
+     * @param from first position (inclusive)
+     * @param to last position (exclusive)
+     */
+    public BatchView(DataSource source, int[] order, int from, int to) {
+        if (from < 0 || to > order.length || from > to) {
+            throw new IllegalArgumentException(
+                String.format("Invalid batch window [%d, %d) for %d samples", from, to, order.length));
+        }
+        
+        this.source = source;
+        this.order = order;
+        this.from = from;
+        this.to = to;
+    }
+    
+    /**
+     * Gets the number of samples in the batch.
+     * 
+     * @return batch size
+     */
+    public int getSize() {
+        return to - from;
+    }
+    
+    /**
+     * Gets the source index of a sample in the batch.
+     * 
+     * @param i position in the batch
+     * @return sample index in the source
+     */
+    public int getIndex(int i) {
+        return order[from + i];
+    }
+    
+    /**
+     * Gets the features of a sample in the batch.
+     * 
+     * @param i position in the batch
+     * @param buffer buffer of length {@link DataSource#getNumFeatures()}
+     * @return feature row
+     */
+    public double[] getFeatures(int i, double[] buffer) {
+        return source.getFeatures(getIndex(i), buffer);
+    }
+    
+    /**
+     * Gets the labels of a sample in the batch.
+     * 
+     * @param i position in the batch
+     * @param buffer buffer of length {@link DataSource#getNumLabels()}
+     * @return label row
+     */
+    public double[] getLabels(int i, double[] buffer) {
+        return source.getLabels(getIndex(i), buffer);
+    }
+    
+    /**
+     * Gets the underlying data source.
+     * 
+     * @return data source
+     */
+    public DataSource getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("BatchView[size=%d]", getSize());
+    }
+}
@@ -1,10 +1,21 @@
 package src.main.java.ann.data;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * Data normalization utilities.
  * Provides various normalization strategies for neural network inputs.
+ * 
+ * Fitting is a single pass over the data (see {@link FeatureStatistics}),
+ * so it can be split across threads, run over a streaming source or fed
+ * batch by batch with {@link #partialFit(double[][])}.
  */
-public class DataNormalizer {
+public class DataNormalizer implements RowTransform {
     
     /**
      * Normalization strategy enum.
@@ -21,6 +32,9 @@ public class DataNormalizer {
     private double[] means;
     private double[] stds;
     
+    // Running statistics behind the fit (kept for partial fits)
+    private FeatureStatistics statistics;
+    
     /**
      * Creates a normalizer with the specified strategy.
      * 
@@ -32,7 +46,7 @@ public class DataNormalizer {
     
     /**
      * Fits the normalizer to the training data.
-     * Computes statistics needed for normalization.
+     * Computes statistics needed for normalization in a single pass.
      * 
      * @param data training data [numSamples][numFeatures]
      */
@@ -41,45 +55,137 @@ public class DataNormalizer {
             throw new IllegalArgumentException("Data cannot be empty");
         }
         
-        int numSamples = data.length;
-        int numFeatures = data[0].length;
-        
-        mins = new double[numFeatures];
-        maxs = new double[numFeatures];
-        means = new double[numFeatures];
-        stds = new double[numFeatures];
+        FeatureStatistics stats = new FeatureStatistics(data[0].length);
+        stats.addAll(data);
+        setStatistics(stats);
+    }
+    
+    /**
+     * Fits the normalizer on several threads. The rows are cut into one
+     * contiguous chunk per thread, each chunk is summarized independently
+     * and the partial statistics are merged in chunk order, so the result
+     * only depends on the data and the thread count.
+     * 
+     * @param data training data [numSamples][numFeatures]
+     * @param numThreads number of worker threads
+     */
+    public void fit(double[][] data, int numThreads) {
+        if (data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("Data cannot be empty");
+        }
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
         
-        // Initialize mins and maxs
-        for (int j = 0; j < numFeatures; j++) {
-            mins[j] = Double.MAX_VALUE;
-            maxs[j] = -Double.MAX_VALUE;
+        int chunks = Math.min(numThreads, data.length);
+        if (chunks == 1) {
+            fit(data);
+            return;
         }
         
-        // Compute mins, maxs, and means
-        for (int i = 0; i < numSamples; i++) {
-            for (int j = 0; j < numFeatures; j++) {
-                double value = data[i][j];
-                mins[j] = Math.min(mins[j], value);
-                maxs[j] = Math.max(maxs[j], value);
-                means[j] += value;
+        int numFeatures = data[0].length;
+        ExecutorService executor = Executors.newFixedThreadPool(chunks, runnable -> {
+            Thread thread = new Thread(runnable, "ann-normalizer-fit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<Future<FeatureStatistics>> partials = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int start = (int) ((long) data.length * c / chunks);
+                int end = (int) ((long) data.length * (c + 1) / chunks);
+                partials.add(executor.submit(() -> {
+                    FeatureStatistics partial = new FeatureStatistics(numFeatures);
+                    for (int i = start; i < end; i++) {
+                        partial.add(data[i]);
+                    }
+                    return partial;
+                }));
+            }
+            
+            FeatureStatistics stats = new FeatureStatistics(numFeatures);
+            for (Future<FeatureStatistics> partial : partials) {
+                stats.merge(partial.get());
             }
+            setStatistics(stats);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fitting normalizer", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Normalizer fit failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Fits the normalizer to the features of a data source in one streaming
+     * pass, e.g. a memory-mapped {@link StreamingDataset} larger than the heap.
+     * 
+     * @param source training data
+     */
+    public void fit(DataSource source) {
+        if (source.getSize() == 0 || source.getNumFeatures() == 0) {
+            throw new IllegalArgumentException("Data cannot be empty");
         }
         
-        // Finalize means
-        for (int j = 0; j < numFeatures; j++) {
-            means[j] /= numSamples;
+        FeatureStatistics stats = new FeatureStatistics(source.getNumFeatures());
+        double[] row = new double[source.getNumFeatures()];
+        for (int i = 0; i < source.getSize(); i++) {
+            stats.add(source.getFeatures(i, row));
+        }
+        setStatistics(stats);
+    }
+    
+    /**
+     * Updates the fit with another batch of rows. Starting from an unfitted
+     * normalizer, a sequence of partial fits gives the same statistics as
+     * one fit over all batches, without keeping earlier batches around.
+     * 
+     * @param batch rows [batchSize][numFeatures]
+     */
+    public void partialFit(double[][] batch) {
+        if (batch.length == 0 || batch[0].length == 0) {
+            throw new IllegalArgumentException("Data cannot be empty");
         }
         
-        // Compute standard deviations
-        for (int i = 0; i < numSamples; i++) {
-            for (int j = 0; j < numFeatures; j++) {
-                double diff = data[i][j] - means[j];
-                stds[j] += diff * diff;
-            }
+        FeatureStatistics partial = new FeatureStatistics(batch[0].length);
+        partial.addAll(batch);
+        partialFit(partial);
+    }
+    
+    /**
+     * Updates the fit with statistics computed elsewhere, e.g. by another
+     * thread or process over a disjoint part of the data.
+     * 
+     * @param partial statistics to merge
+     */
+    public void partialFit(FeatureStatistics partial) {
+        if (statistics == null) {
+            setStatistics(partial.copy());
+            return;
         }
         
-        for (int j = 0; j < numFeatures; j++) {
-            stds[j] = Math.sqrt(stds[j] / numSamples);
+        statistics.merge(partial);
+        setStatistics(statistics);
+    }
+    
+    /**
+     * Uses the given statistics as the fit and derives the normalization
+     * parameters from them.
+     * 
+     * @param stats fitted statistics (kept, not copied)
+     */
+    private void setStatistics(FeatureStatistics stats) {
+        this.statistics = stats;
+        this.mins = stats.getMins();
+        this.maxs = stats.getMaxs();
+        this.means = stats.getMeans();
+        this.stds = stats.getVariances();
+        
+        for (int j = 0; j < stds.length; j++) {
+            stds[j] = Math.sqrt(stds[j]);
             // Prevent division by zero
             if (stds[j] == 0) {
                 stds[j] = 1.0;
@@ -118,6 +224,56 @@ public class DataNormalizer {
         return normalized;
     }
     
+    /**
+     * Normalizes data in place, without allocating a normalized copy.
+     * 
+     * @param data data to normalize [numSamples][numFeatures] (overwritten)
+     */
+    public void transformInPlace(double[][] data) {
+        for (double[] row : data) {
+            if (row.length != getFittedFeatureCount()) {
+                throw new IllegalArgumentException(
+                    String.format("Feature count mismatch: expected %d, got %d",
+                                  mins.length, row.length));
+            }
+            transform(row, 0, row.length);
+        }
+    }
+    
+    /**
+     * Normalizes one row in place. Lets a fitted normalizer be used as the
+     * input transform of a training run (see
+     * {@link src.main.java.ann.training.TrainingConfig#setInputTransform}).
+     * 
+     * @param values array holding the row (overwritten)
+     * @param offset index of the first feature
+     * @param length number of features
+     */
+    @Override
+    public void transform(double[] values, int offset, int length) {
+        if (length != getFittedFeatureCount()) {
+            throw new IllegalArgumentException(
+                String.format("Feature count mismatch: expected %d, got %d",
+                              mins.length, length));
+        }
+        
+        for (int j = 0; j < length; j++) {
+            values[offset + j] = normalizeValue(values[offset + j], j);
+        }
+    }
+    
+    /**
+     * Gets the number of features of the fit.
+     * 
+     * @throws IllegalStateException if the normalizer has not been fitted
+     */
+    private int getFittedFeatureCount() {
+        if (mins == null || maxs == null || means == null || stds == null) {
+            throw new IllegalStateException("Normalizer must be fitted before transformation");
+        }
+        return mins.length;
+    }
+    
     /**
      * Fits and transforms data in one step.
      * 
@@ -207,5 +363,14 @@ public class DataNormalizer {
     public double[] getStds() {
         return stds;
     }
+    
+    /**
+     * Gets the running statistics behind the fit.
+     * 
+     * @return statistics, or null if the normalizer has not been fitted
+     */
+    public FeatureStatistics getStatistics() {
+        return statistics;
+    }
 }
 
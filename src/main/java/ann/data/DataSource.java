@@ -0,0 +1,52 @@
+package src.main.java.ann.data;
+
+/**
+ * Row-by-row access to labelled samples.
+ * 
+ * This is all the training loop needs from its data, so in-memory
+ * ({@link Dataset}) and memory-mapped ({@link StreamingDataset}) sources can
+ * be trained on interchangeably. Rows are read into caller-supplied buffers;
+ * an implementation may instead return a row it already holds, which the
+ * caller must not modify.
+ */
+public interface DataSource {
+    
+    /**
+     * Gets the number of samples.
+     * 
+     * @return number of samples
+     */
+    int getSize();
+    
+    /**
+     * Gets the number of features per sample.
+     * 
+     * @return number of features
+     */
+    int getNumFeatures();
+    
+    /**
+     * Gets the number of output labels per sample.
+     * 
+     * @return number of labels
+     */
+    int getNumLabels();
+    
+    /**
+     * Gets the features of one sample.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumFeatures()}
+     * @return feature row (the buffer, or a row owned by the source)
+     */
+    double[] getFeatures(int index, double[] buffer);
+    
+    /**
+     * Gets the labels of one sample.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumLabels()}
+     * @return label row (the buffer, or a row owned by the source)
+     */
+    double[] getLabels(int index, double[] buffer);
+}
@@ -1,12 +1,14 @@
 package src.main.java.ann.data;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * Utility class for splitting datasets into train/test or train/validation/test sets.
+ * 
+ * Splits and cross-validation folds are index views over the source dataset
+ * (see {@link Dataset#view(int[], int, int)}): the parts of one split share
+ * a single index array and no rows or labels are copied.
  */
 public class DataSplitter {
     
@@ -44,41 +46,18 @@ public class DataSplitter {
         int totalSize = dataset.getSize();
         int trainSize = (int) (totalSize * trainRatio);
         
-        double[][] features = dataset.getFeatures();
-        double[][] labels = dataset.getLabels();
-        
         // Create indices
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < totalSize; i++) {
-            indices.add(i);
-        }
+        int[] indices = Permutations.identity(totalSize);
         
         // Shuffle if requested
         if (shuffle) {
-            Collections.shuffle(indices, random);
+            Permutations.shuffle(indices, random);
         }
         
         // Split data
-        double[][] trainFeatures = new double[trainSize][];
-        double[][] trainLabels = new double[trainSize][];
-        double[][] testFeatures = new double[totalSize - trainSize][];
-        double[][] testLabels = new double[totalSize - trainSize][];
-        
-        for (int i = 0; i < trainSize; i++) {
-            int idx = indices.get(i);
-            trainFeatures[i] = features[idx];
-            trainLabels[i] = labels[idx];
-        }
-        
-        for (int i = trainSize; i < totalSize; i++) {
-            int idx = indices.get(i);
-            testFeatures[i - trainSize] = features[idx];
-            testLabels[i - trainSize] = labels[idx];
-        }
-        
         return new Dataset[] {
-            new Dataset(trainFeatures, trainLabels),
-            new Dataset(testFeatures, testLabels)
+            dataset.view(indices, 0, trainSize),
+            dataset.view(indices, trainSize, totalSize)
         };
     }
     
@@ -103,54 +82,224 @@ public class DataSplitter {
         int valSize = (int) (totalSize * valRatio);
         int testSize = totalSize - trainSize - valSize;
         
-        double[][] features = dataset.getFeatures();
-        double[][] labels = dataset.getLabels();
-        
         // Create indices
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < totalSize; i++) {
-            indices.add(i);
-        }
+        int[] indices = Permutations.identity(totalSize);
         
         // Shuffle if requested
         if (shuffle) {
-            Collections.shuffle(indices, random);
+            Permutations.shuffle(indices, random);
         }
         
-        // Split data
-        double[][] trainFeatures = new double[trainSize][];
-        double[][] trainLabels = new double[trainSize][];
-        double[][] valFeatures = new double[valSize][];
-        double[][] valLabels = new double[valSize][];
-        double[][] testFeatures = new double[testSize][];
-        double[][] testLabels = new double[testSize][];
-        
-        // Training set
-        for (int i = 0; i < trainSize; i++) {
-            int idx = indices.get(i);
-            trainFeatures[i] = features[idx];
-            trainLabels[i] = labels[idx];
+        // Split data: training, validation and test sets
+        return new Dataset[] {
+            dataset.view(indices, 0, trainSize),
+            dataset.view(indices, trainSize, trainSize + valSize),
+            dataset.view(indices, trainSize + valSize, trainSize + valSize + testSize)
+        };
+    }
+    
+    /**
+     * Splits data into train and test sets that keep the class proportions
+     * of the whole dataset. Each class contributes round(count × trainRatio)
+     * samples to the training set.
+     * 
+     * @param dataset the dataset to split (class labels, or label rows whose
+     *                largest entry marks the class)
+     * @param trainRatio ratio of data to use for training
+     * @param shuffle whether to shuffle data before splitting
+     * @return array containing [trainDataset, testDataset]
+     */
+    public Dataset[] stratifiedSplit(Dataset dataset, double trainRatio, boolean shuffle) {
+        if (trainRatio <= 0 || trainRatio >= 1) {
+            throw new IllegalArgumentException("Train ratio must be in (0, 1)");
         }
         
-        // Validation set
-        for (int i = 0; i < valSize; i++) {
-            int idx = indices.get(trainSize + i);
-            valFeatures[i] = features[idx];
-            valLabels[i] = labels[idx];
+        int[][] members = groupByClass(dataset, shuffle);
+        int totalSize = dataset.getSize();
+        
+        // Training samples fill the front of the index array, test samples the back
+        int[] indices = new int[totalSize];
+        int trainSize = 0;
+        int testEnd = totalSize;
+        for (int[] classMembers : members) {
+            int classTrain = (int) Math.round(classMembers.length * trainRatio);
+            System.arraycopy(classMembers, 0, indices, trainSize, classTrain);
+            trainSize += classTrain;
+            
+            int classTest = classMembers.length - classTrain;
+            testEnd -= classTest;
+            System.arraycopy(classMembers, classTrain, indices, testEnd, classTest);
         }
         
-        // Test set
-        for (int i = 0; i < testSize; i++) {
-            int idx = indices.get(trainSize + valSize + i);
-            testFeatures[i] = features[idx];
-            testLabels[i] = labels[idx];
+        // Interleave the classes again
+        if (shuffle) {
+            Permutations.shuffle(indices, 0, trainSize, random);
+            Permutations.shuffle(indices, trainSize, totalSize, random);
         }
         
         return new Dataset[] {
-            new Dataset(trainFeatures, trainLabels),
-            new Dataset(valFeatures, valLabels),
-            new Dataset(testFeatures, testLabels)
+            dataset.view(indices, 0, trainSize),
+            dataset.view(indices, trainSize, totalSize)
         };
     }
+    
+    /**
+     * Partitions data into k folds for cross-validation.
+     * 
+     * @param dataset the dataset to partition
+     * @param k number of folds
+     * @param shuffle whether to shuffle data before partitioning
+     * @return k pairs [trainDataset, testDataset]; every sample is in exactly one test set
+     */
+    public Dataset[][] kFold(Dataset dataset, int k, boolean shuffle) {
+        int totalSize = dataset.getSize();
+        checkFolds(k, totalSize);
+        
+        int[] order = Permutations.identity(totalSize);
+        if (shuffle) {
+            Permutations.shuffle(order, random);
+        }
+        
+        int[] foldStarts = new int[k + 1];
+        for (int f = 0; f <= k; f++) {
+            foldStarts[f] = (int) ((long) totalSize * f / k);
+        }
+        return folds(dataset, order, foldStarts);
+    }
+    
+    /**
+     * Partitions data into k folds that keep the class proportions of the
+     * whole dataset. The shuffled members of each class are dealt to the
+     * folds in turn, so fold sizes differ by at most one.
+     * 
+     * @param dataset the dataset to partition (class labels, or label rows
+     *                whose largest entry marks the class)
+     * @param k number of folds
+     * @param shuffle whether to shuffle data before partitioning
+     * @return k pairs [trainDataset, testDataset]; every sample is in exactly one test set
+     */
+    public Dataset[][] stratifiedKFold(Dataset dataset, int k, boolean shuffle) {
+        int totalSize = dataset.getSize();
+        checkFolds(k, totalSize);
+        
+        int[][] members = groupByClass(dataset, shuffle);
+        
+        // Sample t of the class-ordered sequence goes to fold t % k
+        int[] foldStarts = new int[k + 1];
+        for (int f = 0; f < k; f++) {
+            foldStarts[f + 1] = foldStarts[f] + totalSize / k + (f < totalSize % k ? 1 : 0);
+        }
+        
+        int[] order = new int[totalSize];
+        int[] fill = Arrays.copyOf(foldStarts, k);
+        int t = 0;
+        for (int[] classMembers : members) {
+            for (int index : classMembers) {
+                order[fill[t++ % k]++] = index;
+            }
+        }
+        
+        if (shuffle) {
+            for (int f = 0; f < k; f++) {
+                Permutations.shuffle(order, foldStarts[f], foldStarts[f + 1], random);
+            }
+        }
+        return folds(dataset, order, foldStarts);
+    }
+    
+    /**
+     * Validates the fold count.
+     * 
+     * @param k number of folds
+     * @param totalSize number of samples
+     */
+    private static void checkFolds(int k, int totalSize) {
+        if (k < 2 || k > totalSize) {
+            throw new IllegalArgumentException(
+                String.format("Number of folds must be in [2, %d], got %d", totalSize, k));
+        }
+    }
+    
+    /**
+     * Builds the fold views over one index array. The order is stored
+     * twice in a row, so the training set of every fold (everything after
+     * its test window, then everything before it) is also one contiguous
+     * window and all 2k views share 2n ints.
+     * 
+     * @param dataset source dataset
+     * @param order sample order with fold f at [foldStarts[f], foldStarts[f + 1])
+     * @param foldStarts fold boundaries [k + 1]
+     * @return k pairs [trainDataset, testDataset]
+     */
+    private static Dataset[][] folds(Dataset dataset, int[] order, int[] foldStarts) {
+        int totalSize = order.length;
+        int[] doubled = Arrays.copyOf(order, 2 * totalSize);
+        System.arraycopy(order, 0, doubled, totalSize, totalSize);
+        
+        int k = foldStarts.length - 1;
+        Dataset[][] folds = new Dataset[k][];
+        for (int f = 0; f < k; f++) {
+            int testStart = foldStarts[f];
+            int testEnd = foldStarts[f + 1];
+            folds[f] = new Dataset[] {
+                dataset.view(doubled, testEnd, testStart + totalSize),
+                dataset.view(doubled, testStart, testEnd)
+            };
+        }
+        return folds;
+    }
+    
+    /**
+     * Groups the sample indices by class.
+     * 
+     * @param dataset class-labelled dataset, or one with label rows (argmax is the class)
+     * @param shuffle whether to shuffle each class
+     * @return member indices per class, in class order
+     */
+    private int[][] groupByClass(Dataset dataset, boolean shuffle) {
+        int totalSize = dataset.getSize();
+        int numClasses = dataset.getNumLabels();
+        int[] classes = new int[totalSize];
+        int[] counts = new int[numClasses];
+        
+        double[] buffer = new double[numClasses];
+        for (int i = 0; i < totalSize; i++) {
+            classes[i] = dataset.hasClassLabels()
+                ? dataset.getClassLabel(i)
+                : argmax(dataset.getLabels(i, buffer));
+            counts[classes[i]]++;
+        }
+        
+        int[][] members = new int[numClasses][];
+        for (int c = 0; c < numClasses; c++) {
+            members[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int i = 0; i < totalSize; i++) {
+            members[classes[i]][counts[classes[i]]++] = i;
+        }
+        
+        if (shuffle) {
+            for (int[] classMembers : members) {
+                Permutations.shuffle(classMembers, random);
+            }
+        }
+        return members;
+    }
+    
+    /**
+     * Finds the index of the largest value.
+     * 
+     * @param values label row
+     * @return index of the first maximum
+     */
+    private static int argmax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
 }
-
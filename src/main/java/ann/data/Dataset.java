@@ -1,14 +1,48 @@
 package src.main.java.ann.data;
 
+import java.util.Arrays;
+
+import src.main.java.ann.utils.Precision;
+
 /**
  * Dataset class holding features and labels.
  * Provides convenient access to training data.
+ * 
+ * Features are stored either as the caller's double[][] rows (DOUBLE, the
+ * default) or packed into one contiguous row-major float[] (FLOAT), which
+ * halves the footprint of large feature matrices. Row access through
+ * {@link #getFeatures(int, double[])} works for both without allocating.
+ * 
+ * Labels are either target rows (double[][]) or integer class indices
+ * (int[]), which avoid storing a one-hot row per sample for classification.
+ * {@link #getLabels(int, double[])} serves both kinds, expanding a class
+ * index into a caller-supplied one-hot buffer.
+ * 
+ * A dataset can also be a view ({@link #view(int[], int, int)}): an index
+ * window over the storage of another dataset. Views share the rows and
+ * labels of their backing dataset and only hold the index array, so
+ * splits and cross-validation folds cost a few ints per sample instead of
+ * copied row references.
  */
-public class Dataset {
+public class Dataset implements DataSource {
     
     private double[][] features;
     private double[][] labels;
     
+    // Integer class labels (alternative to labels): index in [0, numClasses)
+    private int[] classLabels;
+    private int numClasses;
+    
+    // Single-precision storage (FLOAT only): [numSamples × numFeatures], row-major
+    private float[] floatFeatures;
+    private int numFeatures;
+    private Precision precision;
+    
+    // Index view: sample i is backing row indices[offset + i] (null for a plain dataset)
+    private int[] indices;
+    private int offset;
+    private int size;
+    
     /**
      * Creates a dataset with features and labels.
      * 
@@ -16,32 +50,343 @@ public class Dataset {
      * @param labels target label matrix [numSamples][numOutputs]
      */
     public Dataset(double[][] features, double[][] labels) {
+        this(features, labels, Precision.DOUBLE);
+    }
+    
+    /**
+     * Creates a dataset storing its features in the given precision.
+     * With FLOAT the features are copied into packed single-precision
+     * storage and the source arrays are not retained.
+     * 
+     * @param features input feature matrix [numSamples][numFeatures]
+     * @param labels target label matrix [numSamples][numOutputs]
+     * @param precision feature storage precision
+     */
+    public Dataset(double[][] features, double[][] labels, Precision precision) {
         if (features.length != labels.length) {
             throw new IllegalArgumentException(
                 String.format("Feature and label counts must match: features=%d, labels=%d",
                               features.length, labels.length));
         }
         
-        this.features = features;
         this.labels = labels;
+        storeFeatures(features, precision);
+    }
+    
+    /**
+     * Creates a dataset with integer class labels.
+     * 
+     * @param features input feature matrix [numSamples][numFeatures]
+     * @param classLabels class index of each sample, in [0, numClasses)
+     * @param numClasses number of classes
+     */
+    public Dataset(double[][] features, int[] classLabels, int numClasses) {
+        this(features, classLabels, numClasses, Precision.DOUBLE);
+    }
+    
+    /**
+     * Creates a dataset with integer class labels, storing its features in
+     * the given precision.
+     * 
+     * @param features input feature matrix [numSamples][numFeatures]
+     * @param classLabels class index of each sample, in [0, numClasses)
+     * @param numClasses number of classes
+     * @param precision feature storage precision
+     */
+    public Dataset(double[][] features, int[] classLabels, int numClasses, Precision precision) {
+        if (features.length != classLabels.length) {
+            throw new IllegalArgumentException(
+                String.format("Feature and label counts must match: features=%d, labels=%d",
+                              features.length, classLabels.length));
+        }
+        
+        if (numClasses <= 0) {
+            throw new IllegalArgumentException("Number of classes must be positive");
+        }
+        
+        for (int i = 0; i < classLabels.length; i++) {
+            if (classLabels[i] < 0 || classLabels[i] >= numClasses) {
+                throw new IllegalArgumentException(
+                    String.format("Class label %d at row %d out of range [0, %d)",
+                                  classLabels[i], i, numClasses));
+            }
+        }
+        
+        this.classLabels = classLabels;
+        this.numClasses = numClasses;
+        storeFeatures(features, precision);
+    }
+    
+    /**
+     * Wraps packed single-precision features (no copy).
+     * 
+     * @param floatFeatures row-major features [numSamples × numFeatures]
+     * @param numFeatures number of features per sample
+     * @param labels target label matrix [numSamples][numOutputs], or null
+     * @param classLabels class indices [numSamples], or null
+     * @param numClasses number of classes (class labels only)
+     */
+    private Dataset(float[] floatFeatures, int numFeatures, double[][] labels,
+                    int[] classLabels, int numClasses) {
+        this.floatFeatures = floatFeatures;
+        this.numFeatures = numFeatures;
+        this.labels = labels;
+        this.classLabels = classLabels;
+        this.numClasses = numClasses;
+        this.precision = Precision.FLOAT;
+    }
+    
+    /**
+     * Creates a view sharing the storage of another dataset.
+     * 
+     * @param backing dataset whose storage is shared
+     * @param indices backing row indices (not copied)
+     * @param offset position of the first sample in indices
+     * @param size number of samples
+     */
+    private Dataset(Dataset backing, int[] indices, int offset, int size) {
+        this.features = backing.features;
+        this.labels = backing.labels;
+        this.classLabels = backing.classLabels;
+        this.numClasses = backing.numClasses;
+        this.floatFeatures = backing.floatFeatures;
+        this.numFeatures = backing.numFeatures;
+        this.precision = backing.precision;
+        this.indices = indices;
+        this.offset = offset;
+        this.size = size;
+    }
+    
+    /**
+     * Stores the features in the given precision.
+     * 
+     * @param features input feature matrix [numSamples][numFeatures]
+     * @param precision feature storage precision
+     */
+    private void storeFeatures(double[][] features, Precision precision) {
+        this.numFeatures = features.length > 0 ? features[0].length : 0;
+        this.precision = precision;
+        
+        if (precision == Precision.FLOAT) {
+            this.floatFeatures = new float[features.length * numFeatures];
+            for (int i = 0; i < features.length; i++) {
+                if (features[i].length != numFeatures) {
+                    throw new IllegalArgumentException(
+                        String.format("Row %d length mismatch: expected %d, got %d",
+                                      i, numFeatures, features[i].length));
+                }
+                int offset = i * numFeatures;
+                for (int j = 0; j < numFeatures; j++) {
+                    floatFeatures[offset + j] = (float) features[i][j];
+                }
+            }
+        } else {
+            this.features = features;
+        }
+    }
+    
+    /**
+     * Creates a view of the samples at the given indices. The view shares
+     * this dataset's rows and labels; only the index array is kept.
+     * 
+     * @param indices sample indices (not copied, must not be modified while the view is in use)
+     * @return view with one sample per index
+     */
+    public Dataset view(int[] indices) {
+        return view(indices, 0, indices.length);
+    }
+    
+    /**
+     * Creates a view of the samples at indices[from..to). Several views can
+     * share one index array, e.g. the train and test windows of a split.
+     * A view of a view is mapped onto the original storage, which copies
+     * the selected window of indices once.
+     * 
+     * @param indices sample indices of this dataset (not copied for a plain dataset)
+     * @param from first position (inclusive)
+     * @param to last position (exclusive)
+     * @return view with to - from samples
+     */
+    public Dataset view(int[] indices, int from, int to) {
+        if (from < 0 || to > indices.length || from > to) {
+            throw new IllegalArgumentException(
+                String.format("Invalid view window [%d, %d) for %d indices", from, to, indices.length));
+        }
+        
+        int sampleCount = getSize();
+        for (int i = from; i < to; i++) {
+            if (indices[i] < 0 || indices[i] >= sampleCount) {
+                throw new IllegalArgumentException(
+                    String.format("Index %d at position %d out of range [0, %d)",
+                                  indices[i], i, sampleCount));
+            }
+        }
+        
+        if (this.indices == null) {
+            return new Dataset(this, indices, from, to - from);
+        }
+        
+        int[] mapped = new int[to - from];
+        for (int i = 0; i < mapped.length; i++) {
+            mapped[i] = row(indices[from + i]);
+        }
+        return new Dataset(this, mapped, 0, mapped.length);
+    }
+    
+    /**
+     * Checks whether this dataset is an index view over another one.
+     * 
+     * @return true for views
+     */
+    public boolean isView() {
+        return indices != null;
+    }
+    
+    /**
+     * Maps a sample index to its row in the storage.
+     * 
+     * @param index sample index
+     * @return storage row
+     */
+    private int row(int index) {
+        return indices == null ? index : indices[offset + index];
     }
     
     /**
      * Gets the features matrix.
+     * For FLOAT datasets this materializes a widened copy and for views an
+     * array of the (shared) rows; prefer {@link #getFeatures(int, double[])}
+     * in loops.
      * 
      * @return features
      */
     public double[][] getFeatures() {
-        return features;
+        if (precision == Precision.DOUBLE && indices == null) {
+            return features;
+        }
+        
+        double[][] result = new double[getSize()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = precision == Precision.DOUBLE
+                ? features[row(i)]
+                : getFeatures(i, new double[numFeatures]);
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the features of one sample without allocating.
+     * DOUBLE datasets return their own row (do not modify it); FLOAT datasets
+     * widen the row into the supplied buffer and return it.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumFeatures()} (used by FLOAT datasets)
+     * @return feature row
+     */
+    @Override
+    public double[] getFeatures(int index, double[] buffer) {
+        if (precision == Precision.DOUBLE) {
+            return features[row(index)];
+        }
+        
+        int start = row(index) * numFeatures;
+        for (int j = 0; j < numFeatures; j++) {
+            buffer[j] = floatFeatures[start + j];
+        }
+        return buffer;
     }
     
     /**
      * Gets the labels matrix.
+     * For class-labelled datasets this materializes one-hot rows and for
+     * views an array of the (shared) label rows; prefer
+     * {@link #getLabels(int, double[])} in loops.
      * 
      * @return labels
      */
     public double[][] getLabels() {
-        return labels;
+        if (classLabels == null && indices == null) {
+            return labels;
+        }
+        
+        double[][] result = new double[getSize()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = classLabels == null
+                ? labels[row(i)]
+                : getLabels(i, new double[numClasses]);
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the labels of one sample without allocating.
+     * Datasets with label rows return their own row (do not modify it);
+     * class-labelled datasets write the one-hot row into the supplied buffer
+     * and return it.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumLabels()} (used by class-labelled datasets)
+     * @return label row
+     */
+    @Override
+    public double[] getLabels(int index, double[] buffer) {
+        if (classLabels == null) {
+            return labels[row(index)];
+        }
+        
+        Arrays.fill(buffer, 0.0);
+        buffer[classLabels[row(index)]] = 1.0;
+        return buffer;
+    }
+    
+    /**
+     * Gets the integer class labels.
+     * Views return a gathered copy; prefer {@link #getClassLabel(int)} in loops.
+     * 
+     * @return class index per sample, or null if the dataset holds label rows
+     */
+    public int[] getClassLabels() {
+        if (classLabels == null || indices == null) {
+            return classLabels;
+        }
+        
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = classLabels[indices[offset + i]];
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the class label of one sample.
+     * 
+     * @param index sample index
+     * @return class index in [0, numClasses)
+     * @throws IllegalStateException if the dataset holds label rows
+     */
+    public int getClassLabel(int index) {
+        if (classLabels == null) {
+            throw new IllegalStateException("Dataset has label rows, not class labels");
+        }
+        return classLabels[row(index)];
+    }
+    
+    /**
+     * Checks whether the labels are integer class indices.
+     * 
+     * @return true if the dataset was created with class labels
+     */
+    public boolean hasClassLabels() {
+        return classLabels != null;
+    }
+    
+    /**
+     * Gets the feature storage precision.
+     * 
+     * @return precision
+     */
+    public Precision getPrecision() {
+        return precision;
     }
     
     /**
@@ -49,8 +394,12 @@ public class Dataset {
      * 
      * @return number of samples
      */
+    @Override
     public int getSize() {
-        return features.length;
+        if (indices != null) {
+            return size;
+        }
+        return classLabels != null ? classLabels.length : labels.length;
     }
     
     /**
@@ -58,8 +407,9 @@ public class Dataset {
      * 
      * @return number of features
      */
+    @Override
     public int getNumFeatures() {
-        return features.length > 0 ? features[0].length : 0;
+        return numFeatures;
     }
     
     /**
@@ -67,7 +417,11 @@ public class Dataset {
      * 
      * @return number of labels
      */
+    @Override
     public int getNumLabels() {
+        if (classLabels != null) {
+            return numClasses;
+        }
         return labels.length > 0 ? labels[0].length : 0;
     }
     
@@ -78,33 +432,77 @@ public class Dataset {
      * @return array containing [feature, label]
      */
     public double[][] getSample(int index) {
-        return new double[][] { features[index], labels[index] };
+        double[] row = precision == Precision.DOUBLE
+            ? features[row(index)]
+            : getFeatures(index, new double[numFeatures]);
+        return new double[][] { row, getLabels(index, new double[getNumLabels()]) };
     }
     
     /**
-     * Gets a subset of the dataset.
+     * Gets a subset of the dataset. The subset of a view is a narrower
+     * view over the same index array.
      * 
      * @param startIdx start index (inclusive)
      * @param endIdx end index (exclusive)
      * @return new dataset containing the subset
      */
     public Dataset getSubset(int startIdx, int endIdx) {
+        if (indices != null) {
+            if (startIdx < 0 || endIdx > size || startIdx > endIdx) {
+                throw new IllegalArgumentException(
+                    String.format("Invalid subset [%d, %d) for %d samples", startIdx, endIdx, size));
+            }
+            return new Dataset(this, indices, offset + startIdx, endIdx - startIdx);
+        }
+        
         int subsetSize = endIdx - startIdx;
-        double[][] subsetFeatures = new double[subsetSize][];
-        double[][] subsetLabels = new double[subsetSize][];
+        double[][] subsetLabels = null;
+        int[] subsetClassLabels = null;
+        if (classLabels != null) {
+            subsetClassLabels = Arrays.copyOfRange(classLabels, startIdx, endIdx);
+        } else {
+            subsetLabels = new double[subsetSize][];
+            for (int i = 0; i < subsetSize; i++) {
+                subsetLabels[i] = labels[startIdx + i];
+            }
+        }
+        
+        if (precision == Precision.FLOAT) {
+            float[] subsetFeatures = new float[subsetSize * numFeatures];
+            System.arraycopy(floatFeatures, startIdx * numFeatures, subsetFeatures, 0,
+                             subsetFeatures.length);
+            return new Dataset(subsetFeatures, numFeatures, subsetLabels,
+                               subsetClassLabels, numClasses);
+        }
         
+        double[][] subsetFeatures = new double[subsetSize][];
         for (int i = 0; i < subsetSize; i++) {
             subsetFeatures[i] = features[startIdx + i];
-            subsetLabels[i] = labels[startIdx + i];
         }
         
-        return new Dataset(subsetFeatures, subsetLabels);
+        return subsetClassLabels != null
+            ? new Dataset(subsetFeatures, subsetClassLabels, numClasses)
+            : new Dataset(subsetFeatures, subsetLabels);
+    }
+    
+    /**
+     * Converts this dataset to another feature precision.
+     * 
+     * @param target desired precision
+     * @return this dataset if it already has that precision, otherwise a converted copy
+     */
+    public Dataset toPrecision(Precision target) {
+        if (target == precision) {
+            return this;
+        }
+        return classLabels != null
+            ? new Dataset(getFeatures(), getClassLabels(), numClasses, target)
+            : new Dataset(getFeatures(), getLabels(), target);
     }
     
     @Override
     public String toString() {
-        return String.format("Dataset[samples=%d, features=%d, labels=%d]",
-                             getSize(), getNumFeatures(), getNumLabels());
+        return String.format("Dataset[samples=%d, features=%d, labels=%d, precision=%s]",
+                             getSize(), getNumFeatures(), getNumLabels(), precision);
     }
 }
-
@@ -0,0 +1,263 @@
+package src.main.java.ann.data;
+
+import java.util.Arrays;
+
+/**
+ * Running per-feature statistics (count, min, max, mean, variance) that can
+ * be updated one row at a time and merged.
+ * 
+ * Mean and variance use Welford's update, so one pass over the data is
+ * enough and the result stays accurate for large means. Two instances
+ * built from disjoint parts of a dataset can be combined with
+ * {@link #merge(FeatureStatistics)} (Chan et al.'s pairwise formula), which
+ * lets a fit be split across threads or accumulated from a stream of
+ * batches without keeping the data.
+ * 
+ * Each feature keeps its own count, so values that are missing (NaN or
+ * infinite) can be left out with {@link #addObserved(double[], int)}
+ * without dropping the whole row.
+ */
+public class FeatureStatistics {
+    
+    private final int numFeatures;
+    private long count;
+    private final long[] counts;  // values seen per feature
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] means;
+    private final double[] m2;  // sum of squared deviations from the mean
+    
+    /**
+     * Creates empty statistics.
+     * 
+     * @param numFeatures number of features per row
+     */
+    public FeatureStatistics(int numFeatures) {
+        if (numFeatures <= 0) {
+            throw new IllegalArgumentException("Number of features must be positive");
+        }
+        
+        this.numFeatures = numFeatures;
+        this.counts = new long[numFeatures];
+        this.mins = new double[numFeatures];
+        this.maxs = new double[numFeatures];
+        this.means = new double[numFeatures];
+        this.m2 = new double[numFeatures];
+        Arrays.fill(mins, Double.MAX_VALUE);
+        Arrays.fill(maxs, -Double.MAX_VALUE);
+    }
+    
+    /**
+     * Adds one row.
+     * 
+     * @param row feature values [numFeatures]
+     */
+    public void add(double[] row) {
+        if (row.length != numFeatures) {
+            throw new IllegalArgumentException(
+                String.format("Feature count mismatch: expected %d, got %d", numFeatures, row.length));
+        }
+        add(row, 0);
+    }
+    
+    /**
+     * Adds one row stored at values[offset..offset + numFeatures).
+     * 
+     * @param values array holding the row
+     * @param offset index of the first feature
+     */
+    public void add(double[] values, int offset) {
+        count++;
+        for (int j = 0; j < numFeatures; j++) {
+            addValue(j, values[offset + j]);
+        }
+    }
+    
+    /**
+     * Adds one row stored at values[offset..offset + numFeatures), skipping
+     * missing (NaN or infinite) values. The row still counts towards
+     * {@link #getCount()}; the skipped features do not count it.
+     * 
+     * @param values array holding the row
+     * @param offset index of the first feature
+     */
+    public void addObserved(double[] values, int offset) {
+        count++;
+        for (int j = 0; j < numFeatures; j++) {
+            double value = values[offset + j];
+            if (Double.isFinite(value)) {
+                addValue(j, value);
+            }
+        }
+    }
+    
+    /**
+     * Adds the same value several times to one feature, as imputing it for
+     * that many missing entries would. Does not change the row count.
+     * 
+     * @param feature feature index
+     * @param value value to add
+     * @param times number of copies (zero does nothing)
+     */
+    public void addConstant(int feature, double value, long times) {
+        if (times <= 0) {
+            return;
+        }
+        
+        mins[feature] = Math.min(mins[feature], value);
+        maxs[feature] = Math.max(maxs[feature], value);
+        
+        // Pairwise merge with a block of identical values (its own m2 is zero)
+        long total = counts[feature] + times;
+        double delta = value - means[feature];
+        means[feature] += delta * times / total;
+        m2[feature] += delta * delta * ((double) counts[feature] * times / total);
+        counts[feature] = total;
+    }
+    
+    /**
+     * Adds one value of one feature.
+     * 
+     * @param j feature index
+     * @param value value to add
+     */
+    private void addValue(int j, double value) {
+        if (value < mins[j]) {
+            mins[j] = value;
+        }
+        if (value > maxs[j]) {
+            maxs[j] = value;
+        }
+        
+        // Welford: update the mean, then the squared deviations against old and new mean
+        long n = ++counts[j];
+        double delta = value - means[j];
+        means[j] += delta / n;
+        m2[j] += delta * (value - means[j]);
+    }
+    
+    /**
+     * Adds all rows of a matrix.
+     * 
+     * @param data rows [numSamples][numFeatures]
+     */
+    public void addAll(double[][] data) {
+        for (double[] row : data) {
+            add(row);
+        }
+    }
+    
+    /**
+     * Merges statistics of another, disjoint set of rows into this one.
+     * 
+     * @param other statistics over the same features
+     */
+    public void merge(FeatureStatistics other) {
+        if (other.numFeatures != numFeatures) {
+            throw new IllegalArgumentException(
+                String.format("Feature count mismatch: expected %d, got %d", numFeatures, other.numFeatures));
+        }
+        
+        count += other.count;
+        for (int j = 0; j < numFeatures; j++) {
+            long n = counts[j];
+            long otherN = other.counts[j];
+            if (otherN == 0) {
+                continue;
+            }
+            if (n == 0) {
+                mins[j] = other.mins[j];
+                maxs[j] = other.maxs[j];
+                means[j] = other.means[j];
+                m2[j] = other.m2[j];
+                counts[j] = otherN;
+                continue;
+            }
+            
+            long total = n + otherN;
+            mins[j] = Math.min(mins[j], other.mins[j]);
+            maxs[j] = Math.max(maxs[j], other.maxs[j]);
+            
+            double delta = other.means[j] - means[j];
+            means[j] += delta * otherN / total;
+            m2[j] += other.m2[j] + delta * delta * ((double) n * otherN / total);
+            counts[j] = total;
+        }
+    }
+    
+    /**
+     * Creates an independent copy.
+     * 
+     * @return copy of these statistics
+     */
+    public FeatureStatistics copy() {
+        FeatureStatistics copy = new FeatureStatistics(numFeatures);
+        copy.merge(this);
+        return copy;
+    }
+    
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the number of values seen per feature. Equal to the row count
+     * unless missing values were skipped.
+     * 
+     * @return counts (a copy)
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+    
+    /**
+     * Gets the per-feature minimums.
+     * 
+     * @return minimums (a copy)
+     */
+    public double[] getMins() {
+        return mins.clone();
+    }
+    
+    /**
+     * Gets the per-feature maximums.
+     * 
+     * @return maximums (a copy)
+     */
+    public double[] getMaxs() {
+        return maxs.clone();
+    }
+    
+    /**
+     * Gets the per-feature means.
+     * 
+     * @return means (a copy)
+     */
+    public double[] getMeans() {
+        return means.clone();
+    }
+    
+    /**
+     * Gets the per-feature population variances (sum of squared deviations / count).
+     * 
+     * @return variances (zero for features without values)
+     */
+    public double[] getVariances() {
+        double[] variances = new double[numFeatures];
+        for (int j = 0; j < numFeatures; j++) {
+            if (counts[j] > 0) {
+                variances[j] = m2[j] / counts[j];
+            }
+        }
+        return variances;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FeatureStatistics[features=%d, count=%d]", numFeatures, count);
+    }
+}
@@ -0,0 +1,65 @@
+package src.main.java.ann.data;
+
+import java.util.Random;
+
+/**
+ * Sample orders as primitive int arrays.
+ * 
+ * The epoch and split machinery works on reusable {@code int[]} orders
+ * instead of {@code List<Integer>}: no boxing, no per-epoch allocation and a
+ * shuffle that swaps array slots directly. {@link #shuffle(int[], Random)}
+ * makes exactly the same random draws as {@code Collections.shuffle} on a
+ * list of the same size, so seeded results do not change.
+ */
+public class Permutations {
+    
+    /**
+     * Creates the identity order [0, size).
+     * 
+     * @param size number of samples
+     * @return new order array
+     */
+    public static int[] identity(int size) {
+        return reset(new int[size]);
+    }
+    
+    /**
+     * Resets an order array to the identity, in place.
+     * 
+     * @param order order to reset
+     * @return the same array
+     */
+    public static int[] reset(int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+    
+    /**
+     * Shuffles an array in place (Fisher-Yates).
+     * 
+     * @param array values to shuffle
+     * @param random random number generator
+     */
+    public static void shuffle(int[] array, Random random) {
+        shuffle(array, 0, array.length, random);
+    }
+    
+    /**
+     * Shuffles array[from..to) in place (Fisher-Yates).
+     * 
+     * @param array values to shuffle
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param random random number generator
+     */
+    public static void shuffle(int[] array, int from, int to, Random random) {
+        for (int i = to - from - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[from + i];
+            array[from + i] = array[from + j];
+            array[from + j] = tmp;
+        }
+    }
+}
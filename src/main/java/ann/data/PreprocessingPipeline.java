@@ -0,0 +1,564 @@
+package src.main.java.ann.data;
+
+import src.main.java.ann.utils.Precision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validates, imputes, normalizes and splits a dataset in as few passes as
+ * possible.
+ * 
+ * Running {@link DataValidator}, {@link DataNormalizer} and
+ * {@link DataSplitter} one after the other walks the data several times and
+ * keeps an intermediate copy per stage. The pipeline instead
+ * <ol>
+ *   <li>shuffles an index order and cuts it into train/validation/test
+ *       ranges (the same draws as {@link DataSplitter} with the same seed),</li>
+ *   <li>reads the training rows once, collecting the statistics that both
+ *       the imputation and the normalization need (missing values are
+ *       skipped, then accounted for analytically), and</li>
+ *   <li>reads every row once more, imputing and normalizing it while it is
+ *       written straight into its split.</li>
+ * </ol>
+ * The {@link DataValidator.MissingValueStrategy#REMOVE} strategy adds one
+ * read-only scan up front to find the rows to drop. Each pass runs in
+ * contiguous chunks on {@link #setNumThreads(int)} threads; chunk results
+ * are merged in order, so the output only depends on the data, the seed and
+ * the thread count.
+ * 
+ * Imputation values and normalization statistics are fitted on the training
+ * split only, so nothing leaks from the validation and test rows. With
+ * {@link #setInPlace(boolean)} the output rows are the input rows rewritten
+ * in place, keeping peak memory at about the size of the input.
+ */
+public class PreprocessingPipeline {
+    
+    /**
+     * Work done on one chunk [start, end) of a pass.
+     */
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T run(int start, int end);
+    }
+    
+    /**
+     * Rows of one chunk that have no missing values.
+     */
+    private static class KeptRows {
+        final int[] rows;
+        final long invalidValues;
+        
+        KeptRows(int[] rows, long invalidValues) {
+            this.rows = rows;
+            this.invalidValues = invalidValues;
+        }
+    }
+    
+    private DataValidator.MissingValueStrategy missingValueStrategy;
+    private DataNormalizer.Strategy normalization;
+    private double trainRatio;
+    private double valRatio;
+    private boolean shuffle;
+    private long seed;
+    private int numThreads;
+    private boolean inPlace;
+    
+    /**
+     * Creates a pipeline that keeps every row in the training split and
+     * neither imputes nor normalizes.
+     */
+    public PreprocessingPipeline() {
+        this.trainRatio = 1.0;
+        this.valRatio = 0.0;
+        this.shuffle = true;
+        this.seed = new Random().nextLong();
+        this.numThreads = 1;
+    }
+    
+    /**
+     * Sets how missing (NaN or infinite) feature values are handled.
+     * MEDIAN_IMPUTE falls back to the mean, as in
+     * {@link DataValidator#handleMissingValues}. Without a strategy missing
+     * values are passed through unchanged and only counted.
+     * 
+     * @param strategy missing value strategy, or null to keep them
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setMissingValueStrategy(DataValidator.MissingValueStrategy strategy) {
+        this.missingValueStrategy = strategy;
+        return this;
+    }
+    
+    /**
+     * Sets the feature normalization.
+     * 
+     * @param strategy normalization strategy, or null to skip normalization
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setNormalization(DataNormalizer.Strategy strategy) {
+        this.normalization = strategy;
+        return this;
+    }
+    
+    /**
+     * Sets the split ratios; the test split receives the remaining rows.
+     * 
+     * @param trainRatio ratio of rows for training, in (0, 1]
+     * @param valRatio ratio of rows for validation, at least 0
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setSplit(double trainRatio, double valRatio) {
+        if (trainRatio <= 0 || valRatio < 0 || trainRatio + valRatio > 1) {
+            throw new IllegalArgumentException(
+                String.format("Invalid split ratios: train=%.3f, validation=%.3f", trainRatio, valRatio));
+        }
+        this.trainRatio = trainRatio;
+        this.valRatio = valRatio;
+        return this;
+    }
+    
+    /**
+     * Sets whether rows are shuffled before splitting.
+     * 
+     * @param shuffle true to shuffle
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setShuffle(boolean shuffle) {
+        this.shuffle = shuffle;
+        return this;
+    }
+    
+    /**
+     * Sets the shuffle seed for reproducible splits.
+     * 
+     * @param seed random seed
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    /**
+     * Sets the number of worker threads per pass.
+     * 
+     * @param numThreads number of threads (1 runs on the calling thread)
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.numThreads = numThreads;
+        return this;
+    }
+    
+    /**
+     * Sets whether the input rows are rewritten instead of copied. DOUBLE
+     * datasets are modified by an in-place run; FLOAT datasets are always
+     * expanded into fresh rows, which are then reused.
+     * 
+     * @param inPlace true to reuse the input rows
+     * @return this pipeline
+     */
+    public PreprocessingPipeline setInPlace(boolean inPlace) {
+        this.inPlace = inPlace;
+        return this;
+    }
+    
+    /**
+     * Runs the pipeline. The splits keep the precision and label type of
+     * the input dataset.
+     * 
+     * @param dataset dataset to preprocess
+     * @return splits and fitted preprocessing parameters
+     */
+    public Result run(Dataset dataset) {
+        int size = dataset.getSize();
+        int numFeatures = dataset.getNumFeatures();
+        if (size == 0 || numFeatures == 0) {
+            throw new IllegalArgumentException("Data cannot be empty");
+        }
+        
+        double[][] features = dataset.getFeatures();
+        for (int i = 0; i < size; i++) {
+            if (features[i].length != numFeatures) {
+                throw new IllegalArgumentException(
+                    String.format("Row %d length mismatch: expected %d, got %d",
+                                  i, numFeatures, features[i].length));
+            }
+        }
+        
+        // FLOAT datasets hand out fresh rows, which can be rewritten safely
+        boolean reuseRows = inPlace || dataset.getPrecision() != Precision.DOUBLE;
+        
+        ExecutorService executor = numThreads > 1 && size > 1
+            ? Executors.newFixedThreadPool(Math.min(numThreads, size), runnable -> {
+                Thread thread = new Thread(runnable, "ann-preprocessing");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+        
+        try {
+            return run(dataset, features, reuseRows, executor);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+    
+    /**
+     * Runs the passes, on the executor if there is one.
+     * 
+     * @param dataset source dataset
+     * @param features source rows
+     * @param reuseRows whether the source rows may be rewritten
+     * @param executor worker pool, or null to run on the calling thread
+     * @return splits and fitted preprocessing parameters
+     */
+    private Result run(Dataset dataset, double[][] features, boolean reuseRows,
+                       ExecutorService executor) {
+        int numFeatures = dataset.getNumFeatures();
+        
+        // Pass 0 (REMOVE only): keep the rows without missing values
+        int[] order;
+        long invalidValues = 0;
+        if (missingValueStrategy == DataValidator.MissingValueStrategy.REMOVE) {
+            List<KeptRows> kept = forEachChunk(executor, features.length, (start, end) -> {
+                int[] rows = new int[end - start];
+                int count = 0;
+                long invalid = 0;
+                for (int i = start; i < end; i++) {
+                    int rowInvalid = countInvalid(features[i]);
+                    if (rowInvalid == 0) {
+                        rows[count++] = i;
+                    }
+                    invalid += rowInvalid;
+                }
+                return new KeptRows(Arrays.copyOf(rows, count), invalid);
+            });
+            
+            int total = 0;
+            for (KeptRows chunk : kept) {
+                total += chunk.rows.length;
+                invalidValues += chunk.invalidValues;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("No rows left after removing missing values");
+            }
+            
+            order = new int[total];
+            int position = 0;
+            for (KeptRows chunk : kept) {
+                System.arraycopy(chunk.rows, 0, order, position, chunk.rows.length);
+                position += chunk.rows.length;
+            }
+        } else {
+            order = Permutations.identity(features.length);
+        }
+        
+        if (shuffle) {
+            Permutations.shuffle(order, new Random(seed));
+        }
+        
+        // Same rounding as DataSplitter
+        int rows = order.length;
+        int trainSize = Math.max(1, (int) (rows * trainRatio));
+        int valSize = Math.min(rows - trainSize, (int) (rows * valRatio));
+        int testSize = rows - trainSize - valSize;
+        
+        // Pass 1: statistics of the observed training values
+        FeatureStatistics stats = new FeatureStatistics(numFeatures);
+        for (FeatureStatistics partial : forEachChunk(executor, trainSize, (start, end) -> {
+            FeatureStatistics chunk = new FeatureStatistics(numFeatures);
+            for (int p = start; p < end; p++) {
+                chunk.addObserved(features[order[p]], 0);
+            }
+            return chunk;
+        })) {
+            stats.merge(partial);
+        }
+        
+        // Imputing a value adds it to the statistics once per missing entry
+        double[] imputationValues = null;
+        if (missingValueStrategy != null
+                && missingValueStrategy != DataValidator.MissingValueStrategy.REMOVE) {
+            imputationValues = missingValueStrategy == DataValidator.MissingValueStrategy.ZERO_IMPUTE
+                ? new double[numFeatures]
+                : stats.getMeans();
+            long[] counts = stats.getCounts();
+            for (int j = 0; j < numFeatures; j++) {
+                stats.addConstant(j, imputationValues[j], stats.getCount() - counts[j]);
+            }
+        }
+        
+        DataNormalizer normalizer = null;
+        if (normalization != null) {
+            normalizer = new DataNormalizer(normalization);
+            normalizer.partialFit(stats);
+        }
+        
+        // Pass 2: impute, normalize and place every row in its split
+        RowTransform transform = createTransform(imputationValues, normalizer);
+        double[][][] splitFeatures = {
+            new double[trainSize][], new double[valSize][], new double[testSize][]
+        };
+        int[] splitStarts = {0, trainSize, trainSize + valSize};
+        for (long count : forEachChunk(executor, rows, (start, end) -> {
+            long invalid = 0;
+            for (int p = start; p < end; p++) {
+                double[] source = features[order[p]];
+                double[] row = reuseRows ? source : source.clone();
+                invalid += countInvalid(row);
+                if (transform != null) {
+                    transform.transform(row, 0, numFeatures);
+                }
+                
+                int split = p < splitStarts[1] ? 0 : p < splitStarts[2] ? 1 : 2;
+                splitFeatures[split][p - splitStarts[split]] = row;
+            }
+            return invalid;
+        })) {
+            invalidValues += count;
+        }
+        
+        Dataset[] splits = new Dataset[3];
+        for (int s = 0; s < splits.length; s++) {
+            if (splitFeatures[s].length > 0) {
+                splits[s] = select(dataset, splitFeatures[s], order, splitStarts[s]);
+            }
+        }
+        
+        return new Result(splits[0], splits[1], splits[2], normalizer, imputationValues,
+                          transform, invalidValues, features.length - rows);
+    }
+    
+    /**
+     * Combines imputation and normalization into one row transform.
+     * 
+     * @param imputationValues replacement per feature, or null
+     * @param normalizer fitted normalizer, or null
+     * @return transform, or null if there is nothing to do
+     */
+    private static RowTransform createTransform(double[] imputationValues, DataNormalizer normalizer) {
+        if (imputationValues == null) {
+            return normalizer;
+        }
+        
+        return (values, offset, length) -> {
+            for (int j = 0; j < length; j++) {
+                if (!Double.isFinite(values[offset + j])) {
+                    values[offset + j] = imputationValues[j];
+                }
+            }
+            if (normalizer != null) {
+                normalizer.transform(values, offset, length);
+            }
+        };
+    }
+    
+    /**
+     * Counts the NaN and infinite values of a row.
+     * 
+     * @param row feature row
+     * @return number of missing values
+     */
+    private static int countInvalid(double[] row) {
+        int count = 0;
+        for (double value : row) {
+            if (!Double.isFinite(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Builds one split from its prepared rows and the matching labels.
+     * 
+     * @param dataset source dataset (for the labels and precision)
+     * @param features prepared rows of the split
+     * @param order row order
+     * @param from position of the first row of the split in the order
+     * @return split dataset
+     */
+    private static Dataset select(Dataset dataset, double[][] features, int[] order, int from) {
+        if (dataset.hasClassLabels()) {
+            int[] classLabels = dataset.getClassLabels();
+            int[] selectedLabels = new int[features.length];
+            for (int i = 0; i < features.length; i++) {
+                selectedLabels[i] = classLabels[order[from + i]];
+            }
+            return new Dataset(features, selectedLabels, dataset.getNumLabels(), dataset.getPrecision());
+        }
+        
+        double[][] labels = dataset.getLabels();
+        double[][] selectedLabels = new double[features.length][];
+        for (int i = 0; i < features.length; i++) {
+            selectedLabels[i] = labels[order[from + i]];
+        }
+        return new Dataset(features, selectedLabels, dataset.getPrecision());
+    }
+    
+    /**
+     * Runs a task over contiguous chunks of [0, size), one per thread, and
+     * returns the chunk results in order.
+     * 
+     * @param executor worker pool, or null to run on the calling thread
+     * @param size number of items
+     * @param task work per chunk
+     * @return chunk results in chunk order
+     */
+    private <T> List<T> forEachChunk(ExecutorService executor, int size, ChunkTask<T> task) {
+        List<T> results = new ArrayList<>();
+        int chunks = Math.min(numThreads, size);
+        if (executor == null || chunks <= 1) {
+            results.add(task.run(0, size));
+            return results;
+        }
+        
+        List<Future<T>> futures = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int start = (int) ((long) size * c / chunks);
+            int end = (int) ((long) size * (c + 1) / chunks);
+            futures.add(executor.submit(() -> task.run(start, end)));
+        }
+        
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preprocessing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Preprocessing failed", e.getCause());
+        }
+        return results;
+    }
+    
+    /**
+     * Output of a pipeline run: the splits and the parameters fitted on the
+     * training split, for applying the same preprocessing to new data.
+     */
+    public static class Result {
+        
+        private final Dataset train;
+        private final Dataset validation;
+        private final Dataset test;
+        private final DataNormalizer normalizer;
+        private final double[] imputationValues;
+        private final RowTransform inputTransform;
+        private final long invalidValueCount;
+        private final int removedRowCount;
+        
+        Result(Dataset train, Dataset validation, Dataset test, DataNormalizer normalizer,
+               double[] imputationValues, RowTransform inputTransform,
+               long invalidValueCount, int removedRowCount) {
+            this.train = train;
+            this.validation = validation;
+            this.test = test;
+            this.normalizer = normalizer;
+            this.imputationValues = imputationValues;
+            this.inputTransform = inputTransform;
+            this.invalidValueCount = invalidValueCount;
+            this.removedRowCount = removedRowCount;
+        }
+        
+        /**
+         * Gets the training split.
+         * 
+         * @return training split
+         */
+        public Dataset getTrain() {
+            return train;
+        }
+        
+        /**
+         * Gets the validation split.
+         * 
+         * @return validation split, or null if it is empty
+         */
+        public Dataset getValidation() {
+            return validation;
+        }
+        
+        /**
+         * Gets the test split.
+         * 
+         * @return test split, or null if it is empty
+         */
+        public Dataset getTest() {
+            return test;
+        }
+        
+        /**
+         * Gets the normalizer fitted on the (imputed) training split.
+         * 
+         * @return normalizer, or null without normalization
+         */
+        public DataNormalizer getNormalizer() {
+            return normalizer;
+        }
+        
+        /**
+         * Gets the value substituted for missing entries of each feature.
+         * 
+         * @return imputation values (a copy), or null without imputation
+         */
+        public double[] getImputationValues() {
+            return imputationValues == null ? null : imputationValues.clone();
+        }
+        
+        /**
+         * Gets the imputation and normalization as one row transform, e.g.
+         * for {@link src.main.java.ann.training.TrainingConfig#setInputTransform}
+         * or for preparing rows at prediction time.
+         * 
+         * @return row transform, or null if the pipeline neither imputes nor normalizes
+         */
+        public RowTransform getInputTransform() {
+            return inputTransform;
+        }
+        
+        /**
+         * Gets the number of missing (NaN or infinite) values found in the
+         * input, including those of removed rows.
+         * 
+         * @return missing value count
+         */
+        public long getInvalidValueCount() {
+            return invalidValueCount;
+        }
+        
+        /**
+         * Gets the number of rows dropped by the REMOVE strategy.
+         * 
+         * @return removed row count
+         */
+        public int getRemovedRowCount() {
+            return removedRowCount;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("PreprocessingPipeline.Result[train=%d, validation=%d, test=%d, missing=%d, removed=%d]",
+                                 train.getSize(),
+                                 validation == null ? 0 : validation.getSize(),
+                                 test == null ? 0 : test.getSize(),
+                                 invalidValueCount, removedRowCount);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package src.main.java.ann.data;
+
+/**
+ * In-place transformation of one feature row, e.g. normalization.
+ * 
+ * Rows are addressed as a slice of a larger array so that a transform can
+ * run directly on a packed batch block without copying rows out of it.
+ * Implementations must be safe to call from a background thread.
+ */
+@FunctionalInterface
+public interface RowTransform {
+    
+    /**
+     * Transforms values[offset..offset + length) in place.
+     * 
+     * @param values array holding the row
+     * @param offset index of the first feature
+     * @param length number of features
+     */
+    void transform(double[] values, int offset, int length);
+}
@@ -0,0 +1,392 @@
+package src.main.java.ann.data;
+
+import src.main.java.ann.utils.Precision;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Out-of-core dataset backed by a memory-mapped binary file.
+ * 
+ * Samples stay in the file and are paged in by the OS as they are read, so
+ * the dataset can be far larger than the Java heap: only the rows of the
+ * current batch need to be resident. Files are written with
+ * {@link StreamingDatasetWriter}.
+ * 
+ * File layout (little-endian):
+ * <pre>
+ * header (64 bytes)
+ *   int   magic        0x414E4E44 ("ANND")
+ *   int   version      1
+ *   int   precisionId  0 = DOUBLE, 1 = FLOAT
+ *   int   labelKind    0 = label rows, 1 = integer class labels
+ *   int   numFeatures
+ *   int   numLabels    label values per row, or number of classes
+ *   int   recordBytes
+ *   int   reserved
+ *   long  numSamples
+ *   (zero padding)
+ * one record per sample, recordBytes each
+ *   numFeatures values, then numLabels values or one int class label,
+ *   padded to a multiple of the value size
+ * </pre>
+ * Features and labels of a sample are adjacent, so reading a sample touches
+ * one or two pages. A single mapping is limited to 2 GB, so the records are
+ * mapped in segments of whole records.
+ * 
+ * Reads use absolute positions only; one instance can be shared between
+ * threads. The mapping is released when the instance is garbage collected.
+ */
+public class StreamingDataset implements DataSource {
+    
+    static final int MAGIC = 0x414E4E44;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int LABEL_ROWS = 0;
+    static final int LABEL_CLASS = 1;
+    
+    private final Path path;
+    private final int size;
+    private final int numFeatures;
+    private final int numLabels;
+    private final Precision precision;
+    private final boolean classLabels;
+    private final int recordBytes;
+    
+    // Records [s × rowsPerSegment, (s + 1) × rowsPerSegment) live in segment s
+    private final int rowsPerSegment;
+    private final ByteBuffer[] segments;
+    private final DoubleBuffer[] doubleViews;
+    private final FloatBuffer[] floatViews;
+    
+    private StreamingDataset(Path path, int size, int numFeatures, int numLabels, Precision precision,
+                             boolean classLabels, int recordBytes, int rowsPerSegment, ByteBuffer[] segments) {
+        this.path = path;
+        this.size = size;
+        this.numFeatures = numFeatures;
+        this.numLabels = numLabels;
+        this.precision = precision;
+        this.classLabels = classLabels;
+        this.recordBytes = recordBytes;
+        this.rowsPerSegment = rowsPerSegment;
+        this.segments = segments;
+        
+        // Typed views index records by value; record sizes are multiples of the value size
+        this.doubleViews = new DoubleBuffer[segments.length];
+        this.floatViews = new FloatBuffer[segments.length];
+        for (int s = 0; s < segments.length; s++) {
+            if (precision == Precision.FLOAT) {
+                floatViews[s] = segments[s].asFloatBuffer();
+            } else {
+                doubleViews[s] = segments[s].asDoubleBuffer();
+            }
+        }
+    }
+    
+    /**
+     * Memory-maps a dataset file.
+     * 
+     * @param path file written by {@link StreamingDatasetWriter}
+     * @return dataset reading from the mapped file
+     * @throws IOException if the file cannot be read or is not a valid dataset file
+     */
+    public static StreamingDataset open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(String.format("Truncated dataset header: %s", path));
+                }
+            }
+            header.flip();
+            
+            if (header.getInt() != MAGIC) {
+                throw new IOException(String.format("Not a dataset file: %s", path));
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(
+                    String.format("Unsupported dataset version %d (expected %d): %s", version, VERSION, path));
+            }
+            
+            int precisionId = header.getInt();
+            int labelKind = header.getInt();
+            int numFeatures = header.getInt();
+            int numLabels = header.getInt();
+            int recordBytes = header.getInt();
+            header.getInt();
+            long numSamples = header.getLong();
+            
+            if (precisionId < 0 || precisionId >= Precision.values().length
+                    || (labelKind != LABEL_ROWS && labelKind != LABEL_CLASS)) {
+                throw new IOException(String.format("Corrupt dataset header: %s", path));
+            }
+            Precision precision = Precision.values()[precisionId];
+            boolean classLabels = labelKind == LABEL_CLASS;
+            if (numFeatures < 0 || numLabels <= 0 || numSamples < 0 || numSamples > Integer.MAX_VALUE
+                    || recordBytes != recordBytes(numFeatures, numLabels, precision, classLabels)) {
+                throw new IOException(String.format("Corrupt dataset header: %s", path));
+            }
+            
+            long dataBytes = numSamples * recordBytes;
+            if (channel.size() < HEADER_BYTES + dataBytes) {
+                throw new IOException(
+                    String.format("Truncated dataset file: expected %d bytes, got %d: %s",
+                                  HEADER_BYTES + dataBytes, channel.size(), path));
+            }
+            
+            // Map whole records in segments below the 2 GB mapping limit
+            int rowsPerSegment = Math.max(1, Integer.MAX_VALUE / recordBytes);
+            int segmentCount = (int) ((numSamples + rowsPerSegment - 1) / rowsPerSegment);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long first = (long) s * rowsPerSegment;
+                long rows = Math.min(rowsPerSegment, numSamples - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                          HEADER_BYTES + first * recordBytes, rows * recordBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            
+            return new StreamingDataset(path, (int) numSamples, numFeatures, numLabels, precision,
+                                        classLabels, recordBytes, rowsPerSegment, segments);
+        }
+    }
+    
+    /**
+     * Computes the size of one record, padded to a multiple of the value size.
+     * 
+     * @param numFeatures number of features
+     * @param numLabels number of label values (ignored for class labels)
+     * @param precision value precision
+     * @param classLabels true if the label is one int class index
+     * @return record size in bytes
+     */
+    static int recordBytes(int numFeatures, int numLabels, Precision precision, boolean classLabels) {
+        int valueBytes = precision.getBytes();
+        long bytes = (long) numFeatures * valueBytes
+            + (classLabels ? Integer.BYTES : (long) numLabels * valueBytes);
+        long padded = (bytes + valueBytes - 1) / valueBytes * valueBytes;
+        if (padded > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Record too large: %d bytes", padded));
+        }
+        return (int) padded;
+    }
+    
+    @Override
+    public int getSize() {
+        return size;
+    }
+    
+    @Override
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+    
+    @Override
+    public int getNumLabels() {
+        return numLabels;
+    }
+    
+    /**
+     * Gets the storage precision of the file.
+     * 
+     * @return precision
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Checks whether the labels are integer class indices.
+     * 
+     * @return true if the file stores class labels
+     */
+    public boolean hasClassLabels() {
+        return classLabels;
+    }
+    
+    /**
+     * Reads the features of one sample from the mapped file, widened to double.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumFeatures()}
+     * @return the buffer
+     */
+    @Override
+    public double[] getFeatures(int index, double[] buffer) {
+        readValues(index, 0, numFeatures, buffer);
+        return buffer;
+    }
+    
+    /**
+     * Reads the labels of one sample from the mapped file. Class labels are
+     * expanded into a one-hot row.
+     * 
+     * @param index sample index
+     * @param buffer buffer of length {@link #getNumLabels()}
+     * @return the buffer
+     */
+    @Override
+    public double[] getLabels(int index, double[] buffer) {
+        if (classLabels) {
+            for (int k = 0; k < numLabels; k++) {
+                buffer[k] = 0.0;
+            }
+            buffer[getClassLabel(index)] = 1.0;
+        } else {
+            readValues(index, numFeatures, numLabels, buffer);
+        }
+        return buffer;
+    }
+    
+    /**
+     * Reads the class label of one sample.
+     * 
+     * @param index sample index
+     * @return class index in [0, getNumLabels())
+     * @throws IllegalStateException if the file stores label rows
+     */
+    public int getClassLabel(int index) {
+        if (!classLabels) {
+            throw new IllegalStateException("Dataset has label rows, not class labels: " + path);
+        }
+        checkIndex(index);
+        
+        int position = (index % rowsPerSegment) * recordBytes + numFeatures * precision.getBytes();
+        return segments[index / rowsPerSegment].getInt(position);
+    }
+    
+    /**
+     * Creates a shuffled order of all samples (Fisher-Yates). Draws the same
+     * random numbers as {@link java.util.Collections#shuffle(java.util.List, Random)}
+     * on an index list, without boxing.
+     * 
+     * @param random random number generator
+     * @return permutation of [0, getSize())
+     */
+    public int[] permutation(Random random) {
+        int[] order = Permutations.identity(size);
+        Permutations.shuffle(order, random);
+        return order;
+    }
+    
+    /**
+     * Creates a shuffled order that keeps runs of neighbouring records
+     * together: the blocks of blockSize consecutive samples are shuffled,
+     * then the samples inside each block. A batch then reads from a few
+     * contiguous file regions instead of pages all over the file, which
+     * matters when the file is much larger than the page cache.
+     * 
+     * @param random random number generator
+     * @param blockSize number of consecutive samples per block
+     * @return permutation of [0, getSize())
+     */
+    public int[] blockPermutation(Random random, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        
+        int blockCount = (int) (((long) size + blockSize - 1) / blockSize);
+        int[] blocks = Permutations.identity(blockCount);
+        Permutations.shuffle(blocks, random);
+        
+        int[] order = new int[size];
+        int position = 0;
+        for (int b : blocks) {
+            int start = position;
+            int end = (int) Math.min((long) b * blockSize + blockSize, size);
+            for (int i = b * blockSize; i < end; i++) {
+                order[position++] = i;
+            }
+            Permutations.shuffle(order, start, position, random);
+        }
+        return order;
+    }
+    
+    /**
+     * Creates a view of the samples order[from..to) (no copy).
+     * 
+     * @param order sample order, e.g. from {@link #permutation(Random)}
+     * @param from first position (inclusive)
+     * @param to last position (exclusive)
+     * @return batch view
+     */
+    public BatchView batch(int[] order, int from, int to) {
+        return new BatchView(this, order, from, to);
+    }
+    
+    /**
+     * Copies the whole file into an in-memory dataset. Only for files that
+     * fit in the heap, e.g. a validation set.
+     * 
+     * @return in-memory dataset with the same storage precision
+     */
+    public Dataset toDataset() {
+        double[][] features = new double[size][];
+        for (int i = 0; i < size; i++) {
+            features[i] = getFeatures(i, new double[numFeatures]);
+        }
+        
+        if (classLabels) {
+            int[] labels = new int[size];
+            for (int i = 0; i < size; i++) {
+                labels[i] = getClassLabel(i);
+            }
+            return new Dataset(features, labels, numLabels, precision);
+        }
+        
+        double[][] labels = new double[size][];
+        for (int i = 0; i < size; i++) {
+            labels[i] = getLabels(i, new double[numLabels]);
+        }
+        return new Dataset(features, labels, precision);
+    }
+    
+    /**
+     * Reads consecutive values of one record, widened to double.
+     * 
+     * @param index sample index
+     * @param first index of the first value within the record
+     * @param count number of values
+     * @param buffer destination
+     */
+    private void readValues(int index, int first, int count, double[] buffer) {
+        checkIndex(index);
+        
+        int segment = index / rowsPerSegment;
+        int position = (index % rowsPerSegment) * (recordBytes / precision.getBytes()) + first;
+        if (precision == Precision.FLOAT) {
+            FloatBuffer view = floatViews[segment];
+            for (int j = 0; j < count; j++) {
+                buffer[j] = view.get(position + j);
+            }
+        } else {
+            doubleViews[segment].get(position, buffer, 0, count);
+        }
+    }
+    
+    /**
+     * Validates a sample index.
+     * 
+     * @param index sample index
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                String.format("Sample index %d out of range [0, %d)", index, size));
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("StreamingDataset[samples=%d, features=%d, labels=%d, precision=%s, path=%s]",
+                             size, numFeatures, numLabels, precision, path);
+    }
+}
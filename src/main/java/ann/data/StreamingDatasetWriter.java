@@ -0,0 +1,287 @@
+package src.main.java.ann.data;
+
+import src.main.java.ann.utils.Precision;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes dataset files for {@link StreamingDataset}, one sample at a time.
+ * 
+ * Samples are appended through a fixed-size buffer, so a file of any size
+ * can be produced with constant heap, e.g. while converting a large CSV
+ * table. The file is written under a temporary name and renamed into place
+ * by {@link #close()}, so readers never see a partial file.
+ * 
+ * Example usage:
+ * <pre>
+ * try (StreamingDatasetWriter writer = StreamingDatasetWriter.create(path, 20, 1, Precision.FLOAT)) {
+ *     for (...) {
+ *         writer.append(features, label);
+ *     }
+ * }
+ * StreamingDataset data = StreamingDataset.open(path);
+ * </pre>
+ */
+public class StreamingDatasetWriter implements AutoCloseable {
+    
+    // Records are streamed through a buffer of this size
+    private static final int CHUNK_BYTES = 1 << 16;
+    
+    private final Path path;
+    private final Path temp;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    
+    private final int numFeatures;
+    private final int numLabels;
+    private final Precision precision;
+    private final boolean classLabels;
+    private final int recordBytes;
+    
+    private long numSamples;
+    private boolean closed;
+    
+    private StreamingDatasetWriter(Path path, int numFeatures, int numLabels, Precision precision,
+                                   boolean classLabels) throws IOException {
+        if (numFeatures <= 0 || numLabels <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Feature and label counts must be positive: features=%d, labels=%d",
+                              numFeatures, numLabels));
+        }
+        
+        this.numFeatures = numFeatures;
+        this.numLabels = numLabels;
+        this.precision = precision;
+        this.classLabels = classLabels;
+        this.recordBytes = StreamingDataset.recordBytes(numFeatures, numLabels, precision, classLabels);
+        this.buffer = ByteBuffer.allocate(Math.max(CHUNK_BYTES, recordBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        
+        this.path = path.toAbsolutePath();
+        this.temp = Files.createTempFile(this.path.getParent(), this.path.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(StreamingDataset.HEADER_BYTES);
+    }
+    
+    /**
+     * Creates a writer for samples with label rows.
+     * 
+     * @param path target file (replaced when the writer is closed)
+     * @param numFeatures number of features per sample
+     * @param numLabels number of label values per sample
+     * @param precision storage precision of features and labels
+     * @return writer
+     * @throws IOException if the file cannot be created
+     */
+    public static StreamingDatasetWriter create(Path path, int numFeatures, int numLabels,
+                                                Precision precision) throws IOException {
+        return new StreamingDatasetWriter(path, numFeatures, numLabels, precision, false);
+    }
+    
+    /**
+     * Creates a writer for samples with integer class labels.
+     * 
+     * @param path target file (replaced when the writer is closed)
+     * @param numFeatures number of features per sample
+     * @param numClasses number of classes
+     * @param precision storage precision of the features
+     * @return writer
+     * @throws IOException if the file cannot be created
+     */
+    public static StreamingDatasetWriter createWithClassLabels(Path path, int numFeatures, int numClasses,
+                                                               Precision precision) throws IOException {
+        return new StreamingDatasetWriter(path, numFeatures, numClasses, precision, true);
+    }
+    
+    /**
+     * Writes an in-memory dataset to a file.
+     * 
+     * @param dataset dataset to write
+     * @param path target file (replaced if it exists)
+     * @param precision storage precision
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Dataset dataset, Path path, Precision precision) throws IOException {
+        double[] row = new double[dataset.getNumFeatures()];
+        double[] labels = new double[dataset.getNumLabels()];
+        
+        try (StreamingDatasetWriter writer = dataset.hasClassLabels()
+                ? createWithClassLabels(path, dataset.getNumFeatures(), dataset.getNumLabels(), precision)
+                : create(path, dataset.getNumFeatures(), dataset.getNumLabels(), precision)) {
+            for (int i = 0; i < dataset.getSize(); i++) {
+                if (dataset.hasClassLabels()) {
+                    writer.append(dataset.getFeatures(i, row), dataset.getClassLabel(i));
+                } else {
+                    writer.append(dataset.getFeatures(i, row), dataset.getLabels(i, labels));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Appends a sample with a label row.
+     * 
+     * @param features feature row [numFeatures]
+     * @param labels label row [numLabels]
+     * @throws IOException if writing fails
+     */
+    public void append(double[] features, double[] labels) throws IOException {
+        if (classLabels) {
+            throw new IllegalStateException("Writer expects class labels");
+        }
+        if (labels.length != numLabels) {
+            throw new IllegalArgumentException(
+                String.format("Label size mismatch: expected %d, got %d", numLabels, labels.length));
+        }
+        
+        beginRecord(features);
+        putValues(labels);
+        endRecord();
+    }
+    
+    /**
+     * Appends a sample with an integer class label.
+     * 
+     * @param features feature row [numFeatures]
+     * @param classLabel class index in [0, numClasses)
+     * @throws IOException if writing fails
+     */
+    public void append(double[] features, int classLabel) throws IOException {
+        if (!classLabels) {
+            throw new IllegalStateException("Writer expects label rows");
+        }
+        if (classLabel < 0 || classLabel >= numLabels) {
+            throw new IllegalArgumentException(
+                String.format("Class label %d out of range [0, %d)", classLabel, numLabels));
+        }
+        
+        beginRecord(features);
+        buffer.putInt(classLabel);
+        endRecord();
+    }
+    
+    /**
+     * Gets the number of samples written so far.
+     * 
+     * @return number of samples
+     */
+    public long getNumSamples() {
+        return numSamples;
+    }
+    
+    /**
+     * Flushes the remaining samples, writes the header and moves the file
+     * into place.
+     * 
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        try {
+            try (FileChannel out = channel) {
+                flush();
+                
+                ByteBuffer header = ByteBuffer.allocate(StreamingDataset.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(StreamingDataset.MAGIC);
+                header.putInt(StreamingDataset.VERSION);
+                header.putInt(precision.ordinal());
+                header.putInt(classLabels ? StreamingDataset.LABEL_CLASS : StreamingDataset.LABEL_ROWS);
+                header.putInt(numFeatures);
+                header.putInt(numLabels);
+                header.putInt(recordBytes);
+                header.putInt(0);
+                header.putLong(numSamples);
+                header.rewind();
+                while (header.hasRemaining()) {
+                    out.write(header, header.position());
+                }
+                out.force(true);
+            }
+            
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Starts a record: makes room in the buffer and writes the features.
+     * 
+     * @param features feature row
+     * @throws IOException if flushing fails
+     */
+    private void beginRecord(double[] features) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException(
+                String.format("Feature size mismatch: expected %d, got %d", numFeatures, features.length));
+        }
+        if (numSamples == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Dataset files are limited to Integer.MAX_VALUE samples");
+        }
+        
+        if (buffer.remaining() < recordBytes) {
+            flush();
+        }
+        putValues(features);
+    }
+    
+    /**
+     * Ends a record: pads it to its full size. Records start at multiples
+     * of recordBytes in the buffer, since it is only flushed between records.
+     */
+    private void endRecord() {
+        while (buffer.position() % recordBytes != 0) {
+            buffer.put((byte) 0);
+        }
+        numSamples++;
+    }
+    
+    /**
+     * Puts values in the storage precision.
+     * 
+     * @param values values to write
+     */
+    private void putValues(double[] values) {
+        if (precision == Precision.FLOAT) {
+            for (double value : values) {
+                buffer.putFloat((float) value);
+            }
+        } else {
+            for (double value : values) {
+                buffer.putDouble(value);
+            }
+        }
+    }
+    
+    /**
+     * Writes the buffered records to the file.
+     * 
+     * @throws IOException if writing fails
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
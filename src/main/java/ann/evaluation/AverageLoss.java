@@ -0,0 +1,69 @@
+package src.main.java.ann.evaluation;
+
+import src.main.java.ann.loss.LossFunction;
+
+/**
+ * Streaming average of a training loss function, per sample.
+ * Gives the same loss the network is trained on, e.g. for validation
+ * scores in cross-validation and hyperparameter search.
+ */
+public class AverageLoss implements MetricAccumulator<AverageLoss> {
+    
+    private final LossFunction lossFunction;
+    private double sum;
+    private long count;
+    
+    /**
+     * Creates a loss accumulator.
+     * 
+     * @param lossFunction loss to average
+     */
+    public AverageLoss(LossFunction lossFunction) {
+        if (lossFunction == null) {
+            throw new IllegalArgumentException("Loss function cannot be null");
+        }
+        this.lossFunction = lossFunction;
+    }
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        MeanSquaredError.checkLengths(predicted, target);
+        
+        sum += lossFunction.compute(predicted, target);
+        count++;
+    }
+    
+    @Override
+    public void merge(AverageLoss other) {
+        sum += other.sum;
+        count += other.count;
+    }
+    
+    @Override
+    public AverageLoss createEmpty() {
+        return new AverageLoss(lossFunction);
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the average loss per sample.
+     * 
+     * @return average loss, or NaN if nothing was added
+     */
+    public double getLoss() {
+        return sum / count;
+    }
+    
+    public LossFunction getLossFunction() {
+        return lossFunction;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %.6f (%d samples)", lossFunction.getName(), getLoss(), count);
+    }
+}
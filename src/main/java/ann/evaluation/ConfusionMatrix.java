@@ -1,13 +1,19 @@
 package src.main.java.ann.evaluation;
 
+import java.util.Arrays;
+
 /**
  * Confusion matrix for binary and multi-class classification.
  * Provides metrics like precision, recall, and F1-score.
+ * 
+ * Counts are kept in one flat row-major array ([actual][predicted]) of
+ * longs, so the matrix can accumulate arbitrarily large streamed test
+ * sets and per-thread partial matrices merge with a single array pass.
  */
-public class ConfusionMatrix {
+public class ConfusionMatrix implements MetricAccumulator<ConfusionMatrix> {
     
-    private int[][] matrix;
-    private int numClasses;
+    private final long[] counts;
+    private final int numClasses;
     
     /**
      * Creates a confusion matrix for the given number of classes.
@@ -15,8 +21,22 @@ public class ConfusionMatrix {
      * @param numClasses number of classes
      */
     public ConfusionMatrix(int numClasses) {
+        if (numClasses <= 0) {
+            throw new IllegalArgumentException("Number of classes must be positive: " + numClasses);
+        }
         this.numClasses = numClasses;
-        this.matrix = new int[numClasses][numClasses];
+        this.counts = new long[numClasses * numClasses];
+    }
+    
+    /**
+     * Creates a confusion matrix sized for a model output: two classes for a
+     * single output, otherwise one class per output.
+     * 
+     * @param numOutputs output (and label) width
+     * @return empty confusion matrix
+     */
+    public static ConfusionMatrix forOutputs(int numOutputs) {
+        return new ConfusionMatrix(numOutputs <= 1 ? 2 : numOutputs);
     }
     
     /**
@@ -33,7 +53,66 @@ public class ConfusionMatrix {
             throw new IllegalArgumentException("Invalid actual class: " + actualClass);
         }
         
-        matrix[actualClass][predictedClass]++;
+        counts[actualClass * numClasses + predictedClass]++;
+    }
+    
+    /**
+     * Updates the confusion matrix with one output row. A single output is
+     * a binary problem (class 1 at or above 0.5); otherwise the index of the
+     * largest value is the class, for both the output and the target.
+     * 
+     * @param predicted model output
+     * @param target target values
+     */
+    @Override
+    public void add(double[] predicted, double[] target) {
+        MeanSquaredError.checkLengths(predicted, target);
+        add(classOf(predicted), classOf(target));
+    }
+    
+    @Override
+    public void merge(ConfusionMatrix other) {
+        if (other.numClasses != numClasses) {
+            throw new IllegalArgumentException(
+                String.format("Class count mismatch: %d vs %d", numClasses, other.numClasses));
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+    
+    @Override
+    public ConfusionMatrix createEmpty() {
+        return new ConfusionMatrix(numClasses);
+    }
+    
+    @Override
+    public long getCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    /**
+     * Gets the class of an output or label row.
+     * 
+     * @param values output or label row
+     * @return index of the largest value, or 0/1 by threshold 0.5 for a single value
+     */
+    public static int classOf(double[] values) {
+        if (values.length == 1) {
+            return values[0] >= 0.5 ? 1 : 0;
+        }
+        
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
     }
     
     /**
@@ -59,32 +138,45 @@ public class ConfusionMatrix {
     }
     
     /**
-     * Gets the confusion matrix.
+     * Gets a copy of the confusion matrix.
      * 
      * @return confusion matrix [actual][predicted]
      */
-    public int[][] getMatrix() {
+    public long[][] getMatrix() {
+        long[][] matrix = new long[numClasses][];
+        for (int i = 0; i < numClasses; i++) {
+            matrix[i] = Arrays.copyOfRange(counts, i * numClasses, (i + 1) * numClasses);
+        }
         return matrix;
     }
     
+    /**
+     * Gets one cell of the confusion matrix.
+     * 
+     * @param actualClass actual class index
+     * @param predictedClass predicted class index
+     * @return number of samples of the actual class predicted as the other
+     */
+    public long getCount(int actualClass, int predictedClass) {
+        return counts[actualClass * numClasses + predictedClass];
+    }
+    
+    public int getNumClasses() {
+        return numClasses;
+    }
+    
     /**
      * Computes overall accuracy.
      * 
      * @return accuracy as a value in [0, 1]
      */
     public double getAccuracy() {
-        int correct = 0;
-        int total = 0;
-        
+        long correct = 0;
         for (int i = 0; i < numClasses; i++) {
-            for (int j = 0; j < numClasses; j++) {
-                if (i == j) {
-                    correct += matrix[i][j];
-                }
-                total += matrix[i][j];
-            }
+            correct += counts[i * numClasses + i];
         }
         
+        long total = getCount();
         return total == 0 ? 0.0 : (double) correct / total;
     }
     
@@ -96,11 +188,11 @@ public class ConfusionMatrix {
      * @return precision value
      */
     public double getPrecision(int classIndex) {
-        int tp = matrix[classIndex][classIndex];
-        int predicted = 0;
+        long tp = counts[classIndex * numClasses + classIndex];
+        long predicted = 0;
         
         for (int i = 0; i < numClasses; i++) {
-            predicted += matrix[i][classIndex];
+            predicted += counts[i * numClasses + classIndex];
         }
         
         return predicted == 0 ? 0.0 : (double) tp / predicted;
@@ -114,11 +206,11 @@ public class ConfusionMatrix {
      * @return recall value
      */
     public double getRecall(int classIndex) {
-        int tp = matrix[classIndex][classIndex];
-        int actual = 0;
+        long tp = counts[classIndex * numClasses + classIndex];
+        long actual = 0;
         
         for (int j = 0; j < numClasses; j++) {
-            actual += matrix[classIndex][j];
+            actual += counts[classIndex * numClasses + j];
         }
         
         return actual == 0 ? 0.0 : (double) tp / actual;
@@ -197,7 +289,7 @@ public class ConfusionMatrix {
         for (int i = 0; i < numClasses; i++) {
             sb.append(String.format("A%-5d ", i));
             for (int j = 0; j < numClasses; j++) {
-                sb.append(String.format("%-7d ", matrix[i][j]));
+                sb.append(String.format("%-7d ", counts[i * numClasses + j]));
             }
             sb.append("\n");
         }
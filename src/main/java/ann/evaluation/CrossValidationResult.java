@@ -0,0 +1,83 @@
+package src.main.java.ann.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-fold results of a cross-validation run and their aggregates.
+ */
+public class CrossValidationResult {
+    
+    private final List<FoldResult> folds;
+    
+    /**
+     * Creates a result from the folds in fold order.
+     * 
+     * @param folds fold results
+     */
+    public CrossValidationResult(List<FoldResult> folds) {
+        if (folds.isEmpty()) {
+            throw new IllegalArgumentException("At least one fold is required");
+        }
+        this.folds = Collections.unmodifiableList(new ArrayList<>(folds));
+    }
+    
+    /**
+     * Gets the fold results.
+     * 
+     * @return results in fold order (read-only)
+     */
+    public List<FoldResult> getFolds() {
+        return folds;
+    }
+    
+    /**
+     * Computes the mean of a metric over the folds.
+     * 
+     * @param metric metric to aggregate
+     * @return mean over folds
+     */
+    public double getMean(FoldResult.Metric metric) {
+        double sum = 0.0;
+        for (FoldResult fold : folds) {
+            sum += fold.get(metric);
+        }
+        return sum / folds.size();
+    }
+    
+    /**
+     * Computes the sample standard deviation of a metric over the folds.
+     * 
+     * @param metric metric to aggregate
+     * @return standard deviation (n - 1 denominator; 0 for a single fold)
+     */
+    public double getStdDev(FoldResult.Metric metric) {
+        if (folds.size() < 2) {
+            return 0.0;
+        }
+        
+        double mean = getMean(metric);
+        double sumSquares = 0.0;
+        for (FoldResult fold : folds) {
+            double deviation = fold.get(metric) - mean;
+            sumSquares += deviation * deviation;
+        }
+        return Math.sqrt(sumSquares / (folds.size() - 1));
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Cross-Validation Results (%d folds):\n", folds.size()));
+        sb.append(String.format("  %-16s %12s %12s\n", "", "Mean", "Std Dev"));
+        for (FoldResult.Metric metric : FoldResult.Metric.values()) {
+            sb.append(String.format("  %-16s %12.6f %12.6f\n", metric + ":",
+                                    getMean(metric), getStdDev(metric)));
+        }
+        for (FoldResult fold : folds) {
+            sb.append("  ").append(fold).append("\n");
+        }
+        return sb.toString();
+    }
+}
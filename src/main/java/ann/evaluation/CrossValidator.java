@@ -0,0 +1,191 @@
+package src.main.java.ann.evaluation;
+
+import src.main.java.ann.data.DataSplitter;
+import src.main.java.ann.data.Dataset;
+import src.main.java.ann.network.NetworkBuilder;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.training.Trainer;
+import src.main.java.ann.training.TrainingConfig;
+import src.main.java.ann.training.TrainingHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * K-fold cross-validation with the folds trained concurrently.
+ * 
+ * Every fold gets its own network from the recipe and its own copy of the
+ * training configuration, so folds share nothing but the (read-only)
+ * dataset, which is split into index views. At most
+ * {@link #setParallelism(int)} folds train at a time; each of them may
+ * itself use {@link TrainingConfig#getNumThreads()} threads.
+ * 
+ * Example usage:
+ * <pre>
+ * CrossValidationResult result = new CrossValidator(
+ *         () -&gt; new NetworkBuilder()
+ *             .addInputLayer(4)
+ *             .addDenseLayer(8, new ReLUActivation())
+ *             .addSoftmaxOutputLayer(3),
+ *         config)
+ *     .setFolds(10)
+ *     .run(dataset);
+ * System.out.println(result.getMean(FoldResult.Metric.ACCURACY));
+ * </pre>
+ */
+public class CrossValidator {
+    
+    private final Supplier<NetworkBuilder> recipe;
+    private final TrainingConfig config;
+    private int folds;
+    private boolean stratified;
+    private int parallelism;
+    private long seed;
+    
+    /**
+     * Creates a cross-validator.
+     * 
+     * @param recipe creates a fresh, fully configured builder per fold
+     * @param config training configuration; must not hold an optimizer,
+     *               metrics registry or checkpoint path, which cannot be
+     *               shared between folds (configure the optimizer on the builder)
+     */
+    public CrossValidator(Supplier<NetworkBuilder> recipe, TrainingConfig config) {
+        if (config.getOptimizer() != null || config.getMetrics() != null
+                || config.getCheckpointPath() != null) {
+            throw new IllegalArgumentException(
+                "Optimizer, metrics and checkpoint path cannot be shared between folds; "
+                + "set the optimizer on the network builder");
+        }
+        
+        this.recipe = recipe;
+        this.config = config;
+        this.folds = 5;
+        this.stratified = true;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.seed = new Random().nextLong();
+    }
+    
+    /**
+     * Sets the number of folds.
+     * 
+     * @param folds number of folds (at least 2)
+     * @return this cross-validator
+     */
+    public CrossValidator setFolds(int folds) {
+        if (folds < 2) {
+            throw new IllegalArgumentException("Number of folds must be at least 2");
+        }
+        this.folds = folds;
+        return this;
+    }
+    
+    /**
+     * Sets whether folds keep the class proportions of the dataset.
+     * 
+     * @param stratified true for stratified folds
+     * @return this cross-validator
+     */
+    public CrossValidator setStratified(boolean stratified) {
+        this.stratified = stratified;
+        return this;
+    }
+    
+    /**
+     * Sets the maximum number of folds trained at the same time.
+     * 
+     * @param parallelism concurrent folds (1 trains them one after another)
+     * @return this cross-validator
+     */
+    public CrossValidator setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+    
+    /**
+     * Sets the seed for the fold assignment and the per-fold trainers.
+     * 
+     * @param seed random seed
+     * @return this cross-validator
+     */
+    public CrossValidator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    /**
+     * Trains and evaluates one network per fold.
+     * 
+     * @param dataset data to cross-validate
+     * @return per-fold metrics with mean and standard deviation
+     */
+    public CrossValidationResult run(Dataset dataset) {
+        DataSplitter splitter = new DataSplitter(seed);
+        Dataset[][] splits = stratified
+            ? splitter.stratifiedKFold(dataset, folds, true)
+            : splitter.kFold(dataset, folds, true);
+        
+        int threads = Math.min(parallelism, folds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ann-cross-validation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<Future<FoldResult>> futures = new ArrayList<>(folds);
+            for (int f = 0; f < folds; f++) {
+                int fold = f;
+                futures.add(executor.submit(() -> runFold(fold, splits[fold][0], splits[fold][1])));
+            }
+            
+            List<FoldResult> results = new ArrayList<>(folds);
+            for (Future<FoldResult> future : futures) {
+                results.add(future.get());
+            }
+            return new CrossValidationResult(results);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during cross-validation", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cross-validation fold failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Trains a fresh network on one fold and evaluates it on the held-out part.
+     * 
+     * @param fold fold index
+     * @param train training view
+     * @param test held-out view
+     * @return fold metrics
+     */
+    private FoldResult runFold(int fold, Dataset train, Dataset test) {
+        NeuralNetwork network = recipe.get().build();
+        Trainer trainer = new Trainer(network, config.copy(), seed + fold);
+        
+        long start = System.nanoTime();
+        TrainingHistory history = trainer.train(train);
+        long trainingMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        // Single outputs are binary problems (threshold 0.5), otherwise the argmax is the class
+        EvaluationMetrics metrics = Evaluator.computeMetrics(
+            network, test, config.getInputTransform(),
+            new EvaluationMetrics(test.getNumLabels(), network.getConfig().getLossFunction()));
+        
+        return new FoldResult(fold, train.getSize(), test.getSize(), history,
+                              metrics.getLoss(), metrics.getMSE(), metrics.getMAE(),
+                              metrics.getConfusionMatrix(), trainingMillis);
+    }
+}
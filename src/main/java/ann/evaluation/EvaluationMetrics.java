@@ -0,0 +1,158 @@
+package src.main.java.ann.evaluation;
+
+import src.main.java.ann.loss.LossFunction;
+
+/**
+ * The standard evaluation metrics accumulated together: MSE/RMSE, MAE,
+ * thresholded accuracy, log-loss and the confusion matrix (which gives
+ * argmax accuracy, precision and recall). Optionally also the average of
+ * the model's own training loss.
+ * 
+ * Like its parts, this is a {@link MetricAccumulator}: {@link Evaluator}
+ * fills one per worker and merges them, and callers with their own
+ * prediction loop can add output rows directly.
+ */
+public class EvaluationMetrics implements MetricAccumulator<EvaluationMetrics> {
+    
+    private final MeanSquaredError mse;
+    private final MeanAbsoluteError mae;
+    private final ThresholdAccuracy accuracy;
+    private final LogLoss logLoss;
+    private final ConfusionMatrix confusionMatrix;
+    private final AverageLoss loss;  // null unless a loss function was given
+    
+    /**
+     * Creates empty metrics with accuracy threshold 0.5.
+     * 
+     * @param numOutputs output (and label) width; sizes the confusion matrix
+     */
+    public EvaluationMetrics(int numOutputs) {
+        this(numOutputs, 0.5);
+    }
+    
+    /**
+     * Creates empty metrics.
+     * 
+     * @param numOutputs output (and label) width; sizes the confusion matrix
+     * @param threshold accuracy threshold
+     */
+    public EvaluationMetrics(int numOutputs, double threshold) {
+        this(new MeanSquaredError(), new MeanAbsoluteError(), new ThresholdAccuracy(threshold),
+             new LogLoss(), ConfusionMatrix.forOutputs(numOutputs), null);
+    }
+    
+    /**
+     * Creates empty metrics with accuracy threshold 0.5 that also average a
+     * training loss (see {@link #getLoss()}).
+     * 
+     * @param numOutputs output (and label) width; sizes the confusion matrix
+     * @param lossFunction loss to average, e.g. the network's configured loss
+     */
+    public EvaluationMetrics(int numOutputs, LossFunction lossFunction) {
+        this(new MeanSquaredError(), new MeanAbsoluteError(), new ThresholdAccuracy(0.5),
+             new LogLoss(), ConfusionMatrix.forOutputs(numOutputs), new AverageLoss(lossFunction));
+    }
+    
+    /**
+     * Creates metrics from their parts.
+     * 
+     * @param mse squared-error accumulator
+     * @param mae absolute-error accumulator
+     * @param accuracy thresholded accuracy accumulator
+     * @param logLoss log-loss accumulator
+     * @param confusionMatrix confusion matrix
+     * @param loss training-loss accumulator (can be null)
+     */
+    private EvaluationMetrics(MeanSquaredError mse, MeanAbsoluteError mae, ThresholdAccuracy accuracy,
+                              LogLoss logLoss, ConfusionMatrix confusionMatrix, AverageLoss loss) {
+        this.mse = mse;
+        this.mae = mae;
+        this.accuracy = accuracy;
+        this.logLoss = logLoss;
+        this.confusionMatrix = confusionMatrix;
+        this.loss = loss;
+    }
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        mse.add(predicted, target);
+        mae.add(predicted, target);
+        accuracy.add(predicted, target);
+        logLoss.add(predicted, target);
+        confusionMatrix.add(predicted, target);
+        if (loss != null) {
+            loss.add(predicted, target);
+        }
+    }
+    
+    @Override
+    public void merge(EvaluationMetrics other) {
+        mse.merge(other.mse);
+        mae.merge(other.mae);
+        accuracy.merge(other.accuracy);
+        logLoss.merge(other.logLoss);
+        confusionMatrix.merge(other.confusionMatrix);
+        if (loss != null) {
+            loss.merge(other.loss);
+        }
+    }
+    
+    @Override
+    public EvaluationMetrics createEmpty() {
+        return new EvaluationMetrics(mse.createEmpty(), mae.createEmpty(), accuracy.createEmpty(),
+                                     logLoss.createEmpty(), confusionMatrix.createEmpty(),
+                                     loss != null ? loss.createEmpty() : null);
+    }
+    
+    @Override
+    public long getCount() {
+        return mse.getCount();
+    }
+    
+    public double getMSE() {
+        return mse.getMSE();
+    }
+    
+    public double getRMSE() {
+        return mse.getRMSE();
+    }
+    
+    public double getMAE() {
+        return mae.getMAE();
+    }
+    
+    public double getAccuracy() {
+        return accuracy.getAccuracy();
+    }
+    
+    public double getLogLoss() {
+        return logLoss.getLogLoss();
+    }
+    
+    /**
+     * Gets the average training loss.
+     * 
+     * @return average loss, or NaN if no loss function was given or nothing was added
+     */
+    public double getLoss() {
+        return loss != null ? loss.getLoss() : Double.NaN;
+    }
+    
+    public ConfusionMatrix getConfusionMatrix() {
+        return confusionMatrix;
+    }
+    
+    @Override
+    public String toString() {
+        double acc = getAccuracy();
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("Evaluation Results:\n");
+        sb.append(String.format("  MSE:      %.6f\n", getMSE()));
+        sb.append(String.format("  RMSE:     %.6f\n", getRMSE()));
+        sb.append(String.format("  MAE:      %.6f\n", getMAE()));
+        sb.append(String.format("  Accuracy: %.4f (%.2f%%)\n", acc, acc * 100));
+        
+        return sb.toString();
+    }
+}
@@ -1,13 +1,31 @@
 package src.main.java.ann.evaluation;
 
+import src.main.java.ann.data.DataSource;
+import src.main.java.ann.data.Dataset;
+import src.main.java.ann.data.RowTransform;
+import src.main.java.ann.network.InferenceContext;
+import src.main.java.ann.network.InferenceModel;
 import src.main.java.ann.network.NeuralNetwork;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * Evaluator class for computing performance metrics.
  * Provides various metrics for classification and regression tasks.
+ * 
+ * The metrics are computed with {@link MetricAccumulator}s. Model evaluation
+ * streams: each row is scored into a reusable inference context and added
+ * to the accumulators, so no prediction matrix is materialized and memory
+ * stays constant in the number of samples. With a {@link ForkJoinPool} the
+ * rows are split into chunks that workers accumulate into their own partial
+ * metrics, merged pairwise in row order.
  */
 public class Evaluator {
     
+    // Rows accumulated by one parallel leaf task
+    private static final int CHUNK_SIZE = 1024;
+    
     /**
      * Computes Mean Squared Error (MSE).
      * Used for regression tasks.
@@ -17,22 +35,9 @@ public class Evaluator {
      * @return MSE value
      */
     public static double computeMSE(double[][] predictions, double[][] targets) {
-        if (predictions.length != targets.length) {
-            throw new IllegalArgumentException("Predictions and targets must have same length");
-        }
-        
-        double sum = 0.0;
-        int count = 0;
-        
-        for (int i = 0; i < predictions.length; i++) {
-            for (int j = 0; j < predictions[i].length; j++) {
-                double error = predictions[i][j] - targets[i][j];
-                sum += error * error;
-                count++;
-            }
-        }
-        
-        return sum / count;
+        MeanSquaredError mse = new MeanSquaredError();
+        mse.add(predictions, targets);
+        return mse.getMSE();
     }
     
     /**
@@ -56,21 +61,9 @@ public class Evaluator {
      * @return MAE value
      */
     public static double computeMAE(double[][] predictions, double[][] targets) {
-        if (predictions.length != targets.length) {
-            throw new IllegalArgumentException("Predictions and targets must have same length");
-        }
-        
-        double sum = 0.0;
-        int count = 0;
-        
-        for (int i = 0; i < predictions.length; i++) {
-            for (int j = 0; j < predictions[i].length; j++) {
-                sum += Math.abs(predictions[i][j] - targets[i][j]);
-                count++;
-            }
-        }
-        
-        return sum / count;
+        MeanAbsoluteError mae = new MeanAbsoluteError();
+        mae.add(predictions, targets);
+        return mae.getMAE();
     }
     
     /**
@@ -84,32 +77,9 @@ public class Evaluator {
      */
     public static double computeAccuracy(double[][] predictions, double[][] targets, 
                                          double threshold) {
-        if (predictions.length != targets.length) {
-            throw new IllegalArgumentException("Predictions and targets must have same length");
-        }
-        
-        int correct = 0;
-        
-        for (int i = 0; i < predictions.length; i++) {
-            boolean sampleCorrect = true;
-            
-            for (int j = 0; j < predictions[i].length; j++) {
-                // Convert to binary predictions
-                int predictedClass = predictions[i][j] >= threshold ? 1 : 0;
-                int targetClass = targets[i][j] >= threshold ? 1 : 0;
-                
-                if (predictedClass != targetClass) {
-                    sampleCorrect = false;
-                    break;
-                }
-            }
-            
-            if (sampleCorrect) {
-                correct++;
-            }
-        }
-        
-        return (double) correct / predictions.length;
+        ThresholdAccuracy accuracy = new ThresholdAccuracy(threshold);
+        accuracy.add(predictions, targets);
+        return accuracy.getAccuracy();
     }
     
     /**
@@ -151,6 +121,53 @@ public class Evaluator {
         return (double) correct / predictions.length;
     }
     
+    /**
+     * Computes the standard metrics of a model by streaming over a data
+     * source on the calling thread.
+     * 
+     * @param model the model to evaluate
+     * @param data test data
+     * @return accumulated metrics
+     */
+    public static EvaluationMetrics computeMetrics(InferenceModel model, DataSource data) {
+        return accumulate(model, data, null, 0, data.getSize(), new EvaluationMetrics(data.getNumLabels()));
+    }
+    
+    /**
+     * Streams a data source through a model into the given accumulator on
+     * the calling thread, transforming each feature row first (e.g. with the
+     * normalization the model was trained with).
+     * 
+     * @param model the model to evaluate
+     * @param data test data
+     * @param transform input transform (null for none)
+     * @param metrics accumulator to add to
+     * @return the accumulator
+     */
+    public static <T extends MetricAccumulator<T>> T computeMetrics(InferenceModel model, DataSource data,
+                                                                     RowTransform transform, T metrics) {
+        return accumulate(model, data, transform, 0, data.getSize(), metrics);
+    }
+    
+    /**
+     * Computes the standard metrics of a model in parallel. Each worker
+     * scores a chunk of rows with its own context and partial metrics; the
+     * partials are merged in a fixed order, so the result depends only on
+     * the data, not on the pool size or scheduling.
+     * 
+     * @param model the model to evaluate (must support concurrent
+     *              {@link InferenceModel#predict(double[], InferenceContext)})
+     * @param data test data (must support concurrent reads, as
+     *             {@link Dataset} and the streaming datasets do)
+     * @param pool pool to run on (e.g. ForkJoinPool.commonPool())
+     * @return accumulated metrics
+     */
+    public static EvaluationMetrics computeMetrics(InferenceModel model, DataSource data,
+                                                   ForkJoinPool pool) {
+        EvaluationMetrics empty = new EvaluationMetrics(data.getNumLabels());
+        return pool.invoke(new MetricsTask(model, data, 0, data.getSize(), empty));
+    }
+    
     /**
      * Evaluates a network on test data and returns a summary of metrics.
      * 
@@ -162,25 +179,143 @@ public class Evaluator {
     public static String evaluate(NeuralNetwork network, 
                                   double[][] testFeatures, 
                                   double[][] testLabels) {
+        return evaluate((InferenceModel) network, testFeatures, testLabels);
+    }
+    
+    /**
+     * Evaluates any inference model (frozen, quantized, ...) on test data.
+     * 
+     * @param model the model to evaluate
+     * @param testFeatures test input features
+     * @param testLabels test target labels
+     * @return evaluation summary string
+     */
+    public static String evaluate(InferenceModel model, 
+                                  double[][] testFeatures, 
+                                  double[][] testLabels) {
+        return computeMetrics(model, new Dataset(testFeatures, testLabels)).toString();
+    }
+    
+    /**
+     * Compares a candidate model against a baseline on the same test data,
+     * e.g. a quantized model against the float network it was derived from.
+     * 
+     * @param baseline reference model
+     * @param candidate model to compare
+     * @param testFeatures test input features
+     * @param testLabels test target labels
+     * @return summary with both sets of metrics and the candidate-minus-baseline deltas
+     */
+    public static String compare(InferenceModel baseline, InferenceModel candidate,
+                                 double[][] testFeatures, double[][] testLabels) {
+        if (testFeatures.length != testLabels.length) {
+            throw new IllegalArgumentException("Predictions and targets must have same length");
+        }
         
-        // Make predictions
-        double[][] predictions = network.predict(testFeatures);
+        // Both models score each row in turn, so only their current outputs are held
+        InferenceContext baseContext = baseline.createContext();
+        InferenceContext candidateContext = candidate.createContext();
+        MeanSquaredError baseMse = new MeanSquaredError();
+        MeanSquaredError candidateMse = new MeanSquaredError();
+        ThresholdAccuracy baseAccuracy = new ThresholdAccuracy();
+        ThresholdAccuracy candidateAccuracy = new ThresholdAccuracy();
+        MeanAbsoluteError outputError = new MeanAbsoluteError();
         
-        // Compute metrics
-        double mse = computeMSE(predictions, testLabels);
-        double rmse = computeRMSE(predictions, testLabels);
-        double mae = computeMAE(predictions, testLabels);
-        double accuracy = computeAccuracy(predictions, testLabels);
+        for (int i = 0; i < testFeatures.length; i++) {
+            double[] baseOutput = baseline.predict(testFeatures[i], baseContext);
+            double[] candidateOutput = candidate.predict(testFeatures[i], candidateContext);
+            baseMse.add(baseOutput, testLabels[i]);
+            candidateMse.add(candidateOutput, testLabels[i]);
+            baseAccuracy.add(baseOutput, testLabels[i]);
+            candidateAccuracy.add(candidateOutput, testLabels[i]);
+            outputError.add(candidateOutput, baseOutput);
+        }
         
-        // Build summary
         StringBuilder sb = new StringBuilder();
-        sb.append("Evaluation Results:\n");
-        sb.append(String.format("  MSE:      %.6f\n", mse));
-        sb.append(String.format("  RMSE:     %.6f\n", rmse));
-        sb.append(String.format("  MAE:      %.6f\n", mae));
-        sb.append(String.format("  Accuracy: %.4f (%.2f%%)\n", accuracy, accuracy * 100));
+        sb.append("Model Comparison:\n");
+        sb.append(String.format("  %-10s %12s %12s %12s\n", "", "Baseline", "Candidate", "Delta"));
+        sb.append(String.format("  %-10s %12.6f %12.6f %+12.6f\n", "MSE:",
+                                baseMse.getMSE(), candidateMse.getMSE(),
+                                candidateMse.getMSE() - baseMse.getMSE()));
+        sb.append(String.format("  %-10s %12.4f %12.4f %+12.4f\n", "Accuracy:",
+                                baseAccuracy.getAccuracy(), candidateAccuracy.getAccuracy(),
+                                candidateAccuracy.getAccuracy() - baseAccuracy.getAccuracy()));
+        sb.append(String.format("  Mean |output difference|: %.6f\n", outputError.getMAE()));
         
         return sb.toString();
     }
+    
+    /**
+     * Scores a range of rows into an accumulator on the calling thread.
+     * 
+     * @param model the model to evaluate
+     * @param data test data
+     * @param transform input transform (null for none)
+     * @param start first row
+     * @param end row past the last
+     * @param metrics accumulator to add to
+     * @return the accumulator
+     */
+    private static <T extends MetricAccumulator<T>> T accumulate(InferenceModel model, DataSource data,
+                                                                  RowTransform transform,
+                                                                  int start, int end, T metrics) {
+        InferenceContext context = model.createContext();
+        double[] row = new double[data.getNumFeatures()];
+        double[] target = new double[data.getNumLabels()];
+        
+        for (int i = start; i < end; i++) {
+            double[] features = data.getFeatures(i, row);
+            if (transform != null) {
+                // Never transform the source's own row in place
+                if (features != row) {
+                    System.arraycopy(features, 0, row, 0, row.length);
+                }
+                transform.transform(row, 0, row.length);
+                features = row;
+            }
+            
+            double[] output = model.predict(features, context);
+            metrics.add(output, data.getLabels(i, target));
+        }
+        return metrics;
+    }
+    
+    /**
+     * Fork/join task accumulating a range of rows.
+     * Splits in halves until a range fits in one chunk; each leaf fills its
+     * own partial, and a parent merges the right half into the left.
+     */
+    private static class MetricsTask extends RecursiveTask<EvaluationMetrics> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final InferenceModel model;
+        private final DataSource data;
+        private final int start;
+        private final int end;
+        private final EvaluationMetrics empty;
+        
+        MetricsTask(InferenceModel model, DataSource data, int start, int end,
+                    EvaluationMetrics empty) {
+            this.model = model;
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.empty = empty;
+        }
+        
+        @Override
+        protected EvaluationMetrics compute() {
+            if (end - start <= CHUNK_SIZE) {
+                return accumulate(model, data, null, start, end, empty.createEmpty());
+            }
+            
+            int mid = (start + end) >>> 1;
+            MetricsTask right = new MetricsTask(model, data, mid, end, empty);
+            right.fork();
+            EvaluationMetrics left = new MetricsTask(model, data, start, mid, empty).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
 }
-
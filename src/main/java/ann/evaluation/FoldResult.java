@@ -0,0 +1,116 @@
+package src.main.java.ann.evaluation;
+
+import src.main.java.ann.training.TrainingHistory;
+
+/**
+ * Test-set metrics of one cross-validation fold.
+ */
+public class FoldResult {
+    
+    /**
+     * Metrics reported per fold and aggregated by {@link CrossValidationResult}.
+     */
+    public enum Metric {
+        LOSS,             // Network loss function
+        MSE,
+        MAE,
+        ACCURACY,         // Argmax class (threshold 0.5 for a single output)
+        MACRO_PRECISION,
+        MACRO_RECALL,
+        MACRO_F1
+    }
+    
+    private final int fold;
+    private final int trainSize;
+    private final int testSize;
+    private final TrainingHistory history;
+    private final double loss;
+    private final double mse;
+    private final double mae;
+    private final ConfusionMatrix confusionMatrix;
+    private final long trainingMillis;
+    
+    /**
+     * Creates a fold result.
+     * 
+     * @param fold fold index
+     * @param trainSize number of training samples
+     * @param testSize number of test samples
+     * @param history training history of the fold's network
+     * @param loss average test loss
+     * @param mse test mean squared error
+     * @param mae test mean absolute error
+     * @param confusionMatrix test confusion matrix
+     * @param trainingMillis wall-clock training time
+     */
+    public FoldResult(int fold, int trainSize, int testSize, TrainingHistory history,
+                      double loss, double mse, double mae, ConfusionMatrix confusionMatrix,
+                      long trainingMillis) {
+        this.fold = fold;
+        this.trainSize = trainSize;
+        this.testSize = testSize;
+        this.history = history;
+        this.loss = loss;
+        this.mse = mse;
+        this.mae = mae;
+        this.confusionMatrix = confusionMatrix;
+        this.trainingMillis = trainingMillis;
+    }
+    
+    /**
+     * Gets one metric.
+     * 
+     * @param metric metric to read
+     * @return metric value on the fold's test set
+     */
+    public double get(Metric metric) {
+        switch (metric) {
+            case LOSS:
+                return loss;
+            case MSE:
+                return mse;
+            case MAE:
+                return mae;
+            case ACCURACY:
+                return confusionMatrix.getAccuracy();
+            case MACRO_PRECISION:
+                return confusionMatrix.getMacroPrecision();
+            case MACRO_RECALL:
+                return confusionMatrix.getMacroRecall();
+            case MACRO_F1:
+                return confusionMatrix.getMacroF1Score();
+            default:
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+    }
+    
+    public int getFold() {
+        return fold;
+    }
+    
+    public int getTrainSize() {
+        return trainSize;
+    }
+    
+    public int getTestSize() {
+        return testSize;
+    }
+    
+    public TrainingHistory getHistory() {
+        return history;
+    }
+    
+    public ConfusionMatrix getConfusionMatrix() {
+        return confusionMatrix;
+    }
+    
+    public long getTrainingMillis() {
+        return trainingMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Fold %d [train=%d, test=%d]: loss=%.6f, mse=%.6f, accuracy=%.4f (%d ms)",
+                             fold, trainSize, testSize, loss, mse, get(Metric.ACCURACY), trainingMillis);
+    }
+}
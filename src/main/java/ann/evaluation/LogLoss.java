@@ -0,0 +1,100 @@
+package src.main.java.ann.evaluation;
+
+/**
+ * Streaming log-loss (cross-entropy), averaged per sample.
+ * 
+ * A single output is treated as a binary probability:
+ *   L = -(target × log(p) + (1-target) × log(1-p))
+ * 
+ * Several outputs are treated as a class distribution (softmax output):
+ *   L = -Σ(target_i × log(p_i))
+ * 
+ * Probabilities are clipped to [epsilon, 1 - epsilon] so that confident
+ * wrong predictions give a large but finite loss.
+ */
+public class LogLoss implements MetricAccumulator<LogLoss> {
+    
+    private static final double DEFAULT_EPSILON = 1e-15;
+    
+    private final double epsilon;
+    private double sum;
+    private long count;
+    
+    /**
+     * Creates a log-loss accumulator that clips at 1e-15.
+     */
+    public LogLoss() {
+        this(DEFAULT_EPSILON);
+    }
+    
+    /**
+     * Creates a log-loss accumulator.
+     * 
+     * @param epsilon clipping bound, in (0, 0.5)
+     */
+    public LogLoss(double epsilon) {
+        if (epsilon <= 0 || epsilon >= 0.5) {
+            throw new IllegalArgumentException("Epsilon must be in (0, 0.5): " + epsilon);
+        }
+        this.epsilon = epsilon;
+    }
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        MeanSquaredError.checkLengths(predicted, target);
+        
+        if (predicted.length == 1) {
+            double p = clip(predicted[0]);
+            sum -= target[0] * Math.log(p) + (1.0 - target[0]) * Math.log(1.0 - p);
+        } else {
+            double loss = 0.0;
+            for (int j = 0; j < predicted.length; j++) {
+                if (target[j] != 0.0) {
+                    loss -= target[j] * Math.log(clip(predicted[j]));
+                }
+            }
+            sum += loss;
+        }
+        count++;
+    }
+    
+    @Override
+    public void merge(LogLoss other) {
+        sum += other.sum;
+        count += other.count;
+    }
+    
+    @Override
+    public LogLoss createEmpty() {
+        return new LogLoss(epsilon);
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the average log-loss per sample.
+     * 
+     * @return log-loss, or NaN if nothing was added
+     */
+    public double getLogLoss() {
+        return sum / count;
+    }
+    
+    /**
+     * Clips a probability away from 0 and 1.
+     * 
+     * @param p predicted probability
+     * @return clipped probability
+     */
+    private double clip(double p) {
+        return Math.max(epsilon, Math.min(1.0 - epsilon, p));
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Log-Loss: %.6f (%d samples)", getLogLoss(), count);
+    }
+}
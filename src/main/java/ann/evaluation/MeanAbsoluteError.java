@@ -0,0 +1,54 @@
+package src.main.java.ann.evaluation;
+
+/**
+ * Streaming mean absolute error over every output value.
+ * Used for regression tasks.
+ */
+public class MeanAbsoluteError implements MetricAccumulator<MeanAbsoluteError> {
+    
+    private double sum;
+    private long values;
+    private long count;
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        MeanSquaredError.checkLengths(predicted, target);
+        
+        for (int j = 0; j < predicted.length; j++) {
+            sum += Math.abs(predicted[j] - target[j]);
+        }
+        values += predicted.length;
+        count++;
+    }
+    
+    @Override
+    public void merge(MeanAbsoluteError other) {
+        sum += other.sum;
+        values += other.values;
+        count += other.count;
+    }
+    
+    @Override
+    public MeanAbsoluteError createEmpty() {
+        return new MeanAbsoluteError();
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the mean absolute error.
+     * 
+     * @return MAE, or NaN if nothing was added
+     */
+    public double getMAE() {
+        return sum / values;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MAE: %.6f (%d samples)", getMAE(), count);
+    }
+}
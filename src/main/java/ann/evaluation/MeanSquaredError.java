@@ -0,0 +1,78 @@
+package src.main.java.ann.evaluation;
+
+/**
+ * Streaming mean squared error over every output value.
+ * Used for regression tasks.
+ */
+public class MeanSquaredError implements MetricAccumulator<MeanSquaredError> {
+    
+    private double sum;
+    private long values;
+    private long count;
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        checkLengths(predicted, target);
+        
+        for (int j = 0; j < predicted.length; j++) {
+            double error = predicted[j] - target[j];
+            sum += error * error;
+        }
+        values += predicted.length;
+        count++;
+    }
+    
+    @Override
+    public void merge(MeanSquaredError other) {
+        sum += other.sum;
+        values += other.values;
+        count += other.count;
+    }
+    
+    @Override
+    public MeanSquaredError createEmpty() {
+        return new MeanSquaredError();
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the mean squared error.
+     * 
+     * @return MSE, or NaN if nothing was added
+     */
+    public double getMSE() {
+        return sum / values;
+    }
+    
+    /**
+     * Gets the root mean squared error.
+     * 
+     * @return RMSE, or NaN if nothing was added
+     */
+    public double getRMSE() {
+        return Math.sqrt(getMSE());
+    }
+    
+    /**
+     * Rejects an output and target of different lengths.
+     * 
+     * @param predicted model output
+     * @param target target values
+     */
+    static void checkLengths(double[] predicted, double[] target) {
+        if (predicted.length != target.length) {
+            throw new IllegalArgumentException(
+                String.format("Array size mismatch: predicted=%d, target=%d",
+                              predicted.length, target.length));
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MSE: %.6f (%d samples)", getMSE(), count);
+    }
+}
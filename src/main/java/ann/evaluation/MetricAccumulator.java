@@ -0,0 +1,62 @@
+package src.main.java.ann.evaluation;
+
+/**
+ * Running metric that consumes predictions one sample at a time.
+ * 
+ * An accumulator holds only a few sums or counts, so evaluation needs no
+ * materialized prediction matrix: rows can be scored and added as they are
+ * produced. Partial accumulators filled by different threads (each starting
+ * from {@link #createEmpty()}) are combined with {@link #merge}; the merged
+ * result equals a single sequential pass up to floating-point rounding.
+ * 
+ * Accumulators are not thread-safe; use one per thread.
+ * 
+ * @param <T> concrete accumulator type
+ */
+public interface MetricAccumulator<T extends MetricAccumulator<T>> {
+    
+    /**
+     * Adds one sample.
+     * 
+     * @param predicted model output
+     * @param target target values (same length as the output)
+     */
+    void add(double[] predicted, double[] target);
+    
+    /**
+     * Adds a batch of samples.
+     * 
+     * @param predictions model outputs, one row per sample
+     * @param targets target rows
+     */
+    default void add(double[][] predictions, double[][] targets) {
+        if (predictions.length != targets.length) {
+            throw new IllegalArgumentException("Predictions and targets must have same length");
+        }
+        for (int i = 0; i < predictions.length; i++) {
+            add(predictions[i], targets[i]);
+        }
+    }
+    
+    /**
+     * Adds the samples of another accumulator of the same configuration.
+     * 
+     * @param other partial accumulator (left unchanged)
+     */
+    void merge(T other);
+    
+    /**
+     * Creates an empty accumulator with the same configuration, e.g. as a
+     * per-thread partial.
+     * 
+     * @return empty accumulator
+     */
+    T createEmpty();
+    
+    /**
+     * Gets the number of samples added so far.
+     * 
+     * @return sample count
+     */
+    long getCount();
+}
@@ -1,14 +1,36 @@
 package src.main.java.ann.evaluation;
 
+import src.main.java.ann.network.InferenceContext;
+import src.main.java.ann.network.InferenceModel;
 import src.main.java.ann.network.NeuralNetwork;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Predictor class for making predictions with trained networks.
  * Provides convenient methods for various prediction tasks.
+ * 
+ * Predictions go through the reentrant inference path with one scratch
+ * context per thread, so a single predictor (and a single shared model)
+ * can serve concurrent callers without locks or model clones.
+ * 
+ * When created with a {@link ForkJoinPool}, the batch methods run in parallel
+ * mode: the input matrix is split into chunks that workers score with their
+ * own scratch buffers, writing straight into a preallocated output.
  */
 public class Predictor {
     
+    // Rows scored by one parallel leaf task unless configured otherwise
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+    
     private NeuralNetwork network;
+    private InferenceModel model;
+    private ThreadLocal<InferenceContext> contexts;
+    
+    // Parallel batch mode (null pool = sequential)
+    private ForkJoinPool pool;
+    private int chunkSize;
     
     /**
      * Creates a predictor for a neural network.
@@ -17,6 +39,44 @@ public class Predictor {
      */
     public Predictor(NeuralNetwork network) {
         this.network = network;
+        this.model = network;
+        this.contexts = ThreadLocal.withInitial(network::createContext);
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+    
+    /**
+     * Creates a predictor for any inference model, e.g. a
+     * {@link src.main.java.ann.network.FrozenNetwork}.
+     * 
+     * @param model the trained model
+     */
+    public Predictor(InferenceModel model) {
+        this.network = model instanceof NeuralNetwork ? (NeuralNetwork) model : null;
+        this.model = model;
+        this.contexts = ThreadLocal.withInitial(model::createContext);
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+    }
+    
+    /**
+     * Creates a predictor that scores batches in parallel on the given pool.
+     * 
+     * @param model the trained model
+     * @param pool pool used for batch prediction (e.g. ForkJoinPool.commonPool())
+     */
+    public Predictor(InferenceModel model, ForkJoinPool pool) {
+        this(model);
+        this.pool = pool;
+    }
+    
+    /**
+     * Runs the model with the calling thread's context.
+     * The result is owned by the context; copy it before returning it.
+     * 
+     * @param input input vector
+     * @return output buffer
+     */
+    private double[] infer(double[] input) {
+        return model.predict(input, contexts.get());
     }
     
     /**
@@ -26,7 +86,7 @@ public class Predictor {
      * @return predicted output vector
      */
     public double[] predict(double[] input) {
-        return network.predict(input);
+        return infer(input).clone();
     }
     
     /**
@@ -36,7 +96,19 @@ public class Predictor {
      * @return array of predicted output vectors
      */
     public double[][] predict(double[][] inputs) {
-        return network.predict(inputs);
+        if (pool != null) {
+            double[][] predictions = new double[inputs.length][model.getOutputSize()];
+            pool.invoke(new PredictionTask(inputs, 0, inputs.length, predictions, null, 0.0));
+            return predictions;
+        }
+        
+        double[][] predictions = new double[inputs.length][];
+        
+        for (int i = 0; i < inputs.length; i++) {
+            predictions[i] = predict(inputs[i]);
+        }
+        
+        return predictions;
     }
     
     /**
@@ -47,15 +119,7 @@ public class Predictor {
      * @return predicted class (0 or 1)
      */
     public int predictClass(double[] input, double threshold) {
-        double[] output = network.predict(input);
-        
-        // For single output
-        if (output.length == 1) {
-            return output[0] >= threshold ? 1 : 0;
-        }
-        
-        // For multi-output, return index of maximum
-        return getMaxIndex(output);
+        return toClass(infer(input), threshold);
     }
     
     /**
@@ -78,6 +142,11 @@ public class Predictor {
     public int[] predictClasses(double[][] inputs, double threshold) {
         int[] classes = new int[inputs.length];
         
+        if (pool != null) {
+            pool.invoke(new PredictionTask(inputs, 0, inputs.length, null, classes, threshold));
+            return classes;
+        }
+        
         for (int i = 0; i < inputs.length; i++) {
             classes[i] = predictClass(inputs[i], threshold);
         }
@@ -102,7 +171,7 @@ public class Predictor {
      * @return predicted probabilities
      */
     public double[] predictProbabilities(double[] input) {
-        return network.predict(input);
+        return predict(input);
     }
     
     /**
@@ -112,7 +181,72 @@ public class Predictor {
      * @return array of predicted probability vectors
      */
     public double[][] predictProbabilities(double[][] inputs) {
-        return network.predict(inputs);
+        return predict(inputs);
+    }
+    
+    /**
+     * Maps a raw output vector to a class label.
+     * 
+     * @param output model output
+     * @param threshold classification threshold for single-output models
+     * @return predicted class
+     */
+    private int toClass(double[] output, double threshold) {
+        // For single output
+        if (output.length == 1) {
+            return output[0] >= threshold ? 1 : 0;
+        }
+        
+        // For multi-output, return index of maximum
+        return getMaxIndex(output);
+    }
+    
+    /**
+     * Fork/join task scoring a range of rows.
+     * Splits in halves until a range fits in one chunk; each leaf scores its
+     * rows with the worker thread's own context and writes into the shared,
+     * preallocated output (disjoint rows, so no synchronization is needed).
+     */
+    private class PredictionTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final double[][] inputs;
+        private final int start;
+        private final int end;
+        private final double[][] predictions;
+        private final int[] classes;
+        private final double threshold;
+        
+        PredictionTask(double[][] inputs, int start, int end,
+                       double[][] predictions, int[] classes, double threshold) {
+            this.inputs = inputs;
+            this.start = start;
+            this.end = end;
+            this.predictions = predictions;
+            this.classes = classes;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected void compute() {
+            if (end - start > chunkSize) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new PredictionTask(inputs, start, mid, predictions, classes, threshold),
+                          new PredictionTask(inputs, mid, end, predictions, classes, threshold));
+                return;
+            }
+            
+            InferenceContext context = contexts.get();
+            for (int i = start; i < end; i++) {
+                double[] output = model.predict(inputs[i], context);
+                if (predictions != null) {
+                    System.arraycopy(output, 0, predictions[i], 0, output.length);
+                } else {
+                    classes[i] = toClass(output, threshold);
+                }
+            }
+        }
     }
     
     /**
@@ -138,10 +272,58 @@ public class Predictor {
     /**
      * Gets the neural network being used for prediction.
      * 
-     * @return neural network
+     * @return neural network, or null if the predictor wraps another model type
      */
     public NeuralNetwork getNetwork() {
         return network;
     }
+    
+    /**
+     * Gets the pool used for parallel batch prediction.
+     * 
+     * @return pool, or null if batches are scored sequentially
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+    
+    /**
+     * Sets the pool used for parallel batch prediction.
+     * 
+     * @param pool pool to use, or null to score batches sequentially
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Gets the number of rows scored by one parallel leaf task.
+     * 
+     * @return chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * Sets the number of rows scored by one parallel leaf task.
+     * 
+     * @param chunkSize rows per chunk (must be positive)
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Gets the model being used for prediction.
+     * 
+     * @return inference model
+     */
+    public InferenceModel getModel() {
+        return model;
+    }
 }
 
@@ -0,0 +1,97 @@
+package src.main.java.ann.evaluation;
+
+/**
+ * Streaming accuracy of thresholded outputs.
+ * 
+ * Every output and target value is turned into 0 or 1 by the threshold; a
+ * sample counts as correct only if all of its outputs match. This is the
+ * accuracy reported by {@link Evaluator}. For argmax (one-hot) accuracy use
+ * {@link ConfusionMatrix#getAccuracy()}.
+ */
+public class ThresholdAccuracy implements MetricAccumulator<ThresholdAccuracy> {
+    
+    private final double threshold;
+    private long correct;
+    private long count;
+    
+    /**
+     * Creates an accuracy accumulator with threshold 0.5.
+     */
+    public ThresholdAccuracy() {
+        this(0.5);
+    }
+    
+    /**
+     * Creates an accuracy accumulator.
+     * 
+     * @param threshold values at or above it count as 1
+     */
+    public ThresholdAccuracy(double threshold) {
+        this.threshold = threshold;
+    }
+    
+    @Override
+    public void add(double[] predicted, double[] target) {
+        MeanSquaredError.checkLengths(predicted, target);
+        
+        boolean sampleCorrect = true;
+        for (int j = 0; j < predicted.length; j++) {
+            if ((predicted[j] >= threshold) != (target[j] >= threshold)) {
+                sampleCorrect = false;
+                break;
+            }
+        }
+        
+        if (sampleCorrect) {
+            correct++;
+        }
+        count++;
+    }
+    
+    @Override
+    public void merge(ThresholdAccuracy other) {
+        if (other.threshold != threshold) {
+            throw new IllegalArgumentException(
+                String.format("Threshold mismatch: %g vs %g", threshold, other.threshold));
+        }
+        correct += other.correct;
+        count += other.count;
+    }
+    
+    @Override
+    public ThresholdAccuracy createEmpty() {
+        return new ThresholdAccuracy(threshold);
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the number of correct samples.
+     * 
+     * @return correct sample count
+     */
+    public long getCorrect() {
+        return correct;
+    }
+    
+    /**
+     * Gets the accuracy.
+     * 
+     * @return accuracy as a value in [0, 1], or NaN if nothing was added
+     */
+    public double getAccuracy() {
+        return (double) correct / count;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Accuracy: %.4f (%d/%d)", getAccuracy(), correct, count);
+    }
+}
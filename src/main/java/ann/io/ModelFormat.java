@@ -0,0 +1,134 @@
+package src.main.java.ann.io;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.activation.LinearActivation;
+import src.main.java.ann.activation.ReLUActivation;
+import src.main.java.ann.activation.SigmoidActivation;
+import src.main.java.ann.activation.SoftmaxActivation;
+import src.main.java.ann.activation.TanhActivation;
+import src.main.java.ann.utils.Precision;
+
+/**
+ * Constants and code tables of the binary model format.
+ * 
+ * All values are little-endian. Layout (version 1):
+ * <pre>
+ * header (32 bytes)
+ *   int   magic          0x4D4E4E41 ("ANNM")
+ *   int   version        1
+ *   int   layerCount
+ *   int   alignment      64
+ *   long  fileSize
+ *   long  reserved
+ * layer table (32 bytes per layer)
+ *   int   inputSize
+ *   int   outputSize
+ *   int   activationId   see {@link #activationId(ActivationFunction)}
+ *   int   precisionId    0 = DOUBLE, 1 = FLOAT
+ *   long  weightsOffset  row-major [outputSize][inputSize] block
+ *   long  biasesOffset   [outputSize] block
+ * data blocks, each starting on a 64-byte boundary
+ * </pre>
+ * The alignment keeps every weight row block cache-line aligned when the
+ * file is memory-mapped, so the vector kernels read it at full speed.
+ * Each weight block is mapped as one int-indexed buffer, so it may hold at
+ * most {@link #MAX_BLOCK_BYTES} bytes.
+ */
+public final class ModelFormat {
+    
+    public static final int MAGIC = 0x4D4E4E41;
+    public static final int VERSION = 1;
+    public static final int ALIGNMENT = 64;
+    
+    static final int HEADER_BYTES = 32;
+    static final int LAYER_ENTRY_BYTES = 32;
+    static final long MAX_BLOCK_BYTES = Integer.MAX_VALUE;
+    
+    private static final int ACTIVATION_LINEAR = 0;
+    private static final int ACTIVATION_RELU = 1;
+    private static final int ACTIVATION_SIGMOID = 2;
+    private static final int ACTIVATION_TANH = 3;
+    private static final int ACTIVATION_SOFTMAX = 4;
+    
+    private ModelFormat() {
+    }
+    
+    /**
+     * Gets the stored id of an activation function.
+     * 
+     * @param activation activation function
+     * @return format id
+     */
+    static int activationId(ActivationFunction activation) {
+        if (activation instanceof LinearActivation) {
+            return ACTIVATION_LINEAR;
+        }
+        if (activation instanceof ReLUActivation) {
+            return ACTIVATION_RELU;
+        }
+        if (activation instanceof SigmoidActivation) {
+            return ACTIVATION_SIGMOID;
+        }
+        if (activation instanceof TanhActivation) {
+            return ACTIVATION_TANH;
+        }
+        if (activation instanceof SoftmaxActivation) {
+            return ACTIVATION_SOFTMAX;
+        }
+        throw new IllegalArgumentException("Activation cannot be saved: " + activation.getName());
+    }
+    
+    /**
+     * Creates the activation function for a stored id.
+     * 
+     * @param id format id
+     * @return activation function, or null if the id is unknown
+     */
+    static ActivationFunction activation(int id) {
+        switch (id) {
+            case ACTIVATION_LINEAR:
+                return new LinearActivation();
+            case ACTIVATION_RELU:
+                return new ReLUActivation();
+            case ACTIVATION_SIGMOID:
+                return new SigmoidActivation();
+            case ACTIVATION_TANH:
+                return new TanhActivation();
+            case ACTIVATION_SOFTMAX:
+                return new SoftmaxActivation();
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Gets the stored id of a precision.
+     * 
+     * @param precision precision
+     * @return format id
+     */
+    static int precisionId(Precision precision) {
+        return precision.ordinal();
+    }
+    
+    /**
+     * Gets the precision for a stored id.
+     * 
+     * @param id format id
+     * @return precision, or null if the id is unknown
+     */
+    static Precision precision(int id) {
+        Precision[] values = Precision.values();
+        return id >= 0 && id < values.length ? values[id] : null;
+    }
+    
+    /**
+     * Rounds an offset up to the block alignment.
+     * 
+     * @param offset file offset
+     * @return next multiple of {@link #ALIGNMENT}
+     */
+    static long align(long offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,235 @@
+package src.main.java.ann.io;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.FrozenLayer;
+import src.main.java.ann.layer.MappedDenseLayer;
+import src.main.java.ann.network.FrozenNetwork;
+import src.main.java.ann.network.NetworkConfig;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.utils.MappedMatrix;
+import src.main.java.ann.utils.Precision;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads models written by {@link ModelWriter}.
+ * 
+ * {@link #map(Path)} is the fast path for scoring: it memory-maps the file
+ * and wraps each weight block in place, so start-up costs a header parse and
+ * every process mapping the same file shares one page-cached copy of the
+ * weights. {@link #load(Path)} copies the parameters into regular trainable
+ * layers instead, e.g. to continue training.
+ */
+public class ModelReader {
+    
+    /**
+     * Memory-maps a model for inference without copying its weights.
+     * The mapping stays valid after this method returns and is released
+     * when the returned model becomes unreachable.
+     * 
+     * @param path model file
+     * @return frozen network over the mapped weights
+     * @throws IOException if the file cannot be read or is not a valid model
+     */
+    public static FrozenNetwork map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LayerEntry[] entries = readLayerTable(channel, path);
+            
+            List<FrozenLayer> layers = new ArrayList<>();
+            for (LayerEntry entry : entries) {
+                ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY,
+                                               entry.weightsOffset, entry.weightsBytes());
+                MappedMatrix weights = new MappedMatrix(entry.outputSize, entry.inputSize,
+                                                        entry.precision, block);
+                layers.add(new MappedDenseLayer(weights, readBiases(channel, entry), entry.activation));
+            }
+            return new FrozenNetwork(layers);
+        }
+    }
+    
+    /**
+     * Loads a model into a trainable network (parameters are copied).
+     * Training settings are not part of the format; the network gets a
+     * default {@link NetworkConfig} with the precision of the stored layers.
+     * 
+     * @param path model file
+     * @return network with the saved topology and parameters
+     * @throws IOException if the file cannot be read or is not a valid model
+     */
+    public static NeuralNetwork load(Path path) throws IOException {
+        FrozenNetwork mapped = map(path);
+        
+        NetworkConfig config = new NetworkConfig();
+        MappedDenseLayer first = (MappedDenseLayer) mapped.getLayer(0);
+        config.setPrecision(first.getWeightMatrix().getPrecision());
+        NeuralNetwork network = new NeuralNetwork(config);
+        
+        for (FrozenLayer frozen : mapped.getLayers()) {
+            MappedDenseLayer layer = (MappedDenseLayer) frozen;
+            double[][] weights = layer.getWeightMatrix().toArray();
+            double[] biases = layer.getBiases().clone();
+            if (layer.getWeightMatrix().getPrecision() == Precision.FLOAT) {
+                network.addLayer(new FloatDenseLayer(layer.getInputSize(), layer.getOutputSize(),
+                                                     layer.getActivation(), weights, biases));
+            } else {
+                network.addLayer(new DenseLayer(layer.getInputSize(), layer.getOutputSize(),
+                                                layer.getActivation(), weights, biases));
+            }
+        }
+        return network;
+    }
+    
+    /**
+     * Reads and validates the header and layer table.
+     * 
+     * @param channel open model file
+     * @param path file path (for error messages)
+     * @return one entry per layer
+     * @throws IOException if the file is truncated or not a valid model
+     */
+    private static LayerEntry[] readLayerTable(FileChannel channel, Path path) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer header = readBlock(channel, 0, ModelFormat.HEADER_BYTES, path);
+        
+        int magic = header.getInt();
+        int version = header.getInt();
+        int layerCount = header.getInt();
+        int alignment = header.getInt();
+        long declaredSize = header.getLong();
+        if (magic != ModelFormat.MAGIC) {
+            throw new IOException(String.format("Not a model file: %s", path));
+        }
+        if (version != ModelFormat.VERSION) {
+            throw new IOException(
+                String.format("Unsupported model version %d (expected %d): %s", version, ModelFormat.VERSION, path));
+        }
+        if (declaredSize != fileSize || layerCount <= 0 || alignment != ModelFormat.ALIGNMENT) {
+            throw new IOException(String.format("Corrupt model header: %s", path));
+        }
+        
+        ByteBuffer table = readBlock(channel, ModelFormat.HEADER_BYTES,
+                                     (long) layerCount * ModelFormat.LAYER_ENTRY_BYTES, path);
+        LayerEntry[] entries = new LayerEntry[layerCount];
+        for (int l = 0; l < layerCount; l++) {
+            LayerEntry entry = new LayerEntry();
+            entry.inputSize = table.getInt();
+            entry.outputSize = table.getInt();
+            int activationId = table.getInt();
+            int precisionId = table.getInt();
+            entry.weightsOffset = table.getLong();
+            entry.biasesOffset = table.getLong();
+            entry.activation = ModelFormat.activation(activationId);
+            entry.precision = ModelFormat.precision(precisionId);
+            
+            if (entry.activation == null || entry.precision == null) {
+                throw new IOException(
+                    String.format("Layer %d: unknown activation %d or precision %d", l, activationId, precisionId));
+            }
+            if (entry.inputSize <= 0 || entry.outputSize <= 0
+                    || (long) entry.inputSize * entry.outputSize > Integer.MAX_VALUE) {
+                throw new IOException(
+                    String.format("Layer %d: invalid size %dx%d", l, entry.outputSize, entry.inputSize));
+            }
+            if (entry.weightsBytes() > ModelFormat.MAX_BLOCK_BYTES) {
+                throw new IOException(
+                    String.format("Layer %d: %d weight bytes exceed the %d-byte block limit of the model format",
+                                  l, entry.weightsBytes(), ModelFormat.MAX_BLOCK_BYTES));
+            }
+            if (l > 0 && entries[l - 1].outputSize != entry.inputSize) {
+                throw new IOException(
+                    String.format("Layer dimension mismatch: previous output=%d, current input=%d",
+                                  entries[l - 1].outputSize, entry.inputSize));
+            }
+            if (!inFile(entry.weightsOffset, entry.weightsBytes(), fileSize)
+                    || !inFile(entry.biasesOffset, entry.biasesBytes(), fileSize)) {
+                throw new IOException(String.format("Layer %d: data block outside the file", l));
+            }
+            entries[l] = entry;
+        }
+        return entries;
+    }
+    
+    /**
+     * Reads a layer's biases onto the heap (widened to double).
+     * 
+     * @param channel open model file
+     * @param entry layer entry
+     * @return bias vector [outputSize]
+     * @throws IOException if reading fails
+     */
+    private static double[] readBiases(FileChannel channel, LayerEntry entry) throws IOException {
+        ByteBuffer block = readBlock(channel, entry.biasesOffset, entry.biasesBytes(), null);
+        double[] biases = new double[entry.outputSize];
+        for (int i = 0; i < biases.length; i++) {
+            biases[i] = entry.precision == Precision.FLOAT ? block.getFloat() : block.getDouble();
+        }
+        return biases;
+    }
+    
+    /**
+     * Reads a small block into a little-endian heap buffer.
+     * 
+     * @param channel open model file
+     * @param position file offset
+     * @param length number of bytes
+     * @param path file path (for error messages)
+     * @return buffer positioned at the start of the block
+     * @throws IOException if the file ends before the block does
+     */
+    private static ByteBuffer readBlock(FileChannel channel, long position, long length,
+                                        Path path) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Block too large: %d bytes", length));
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(String.format("Truncated model file: %s", path));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    /**
+     * Checks that a block lies entirely within the file.
+     * 
+     * @param offset block offset
+     * @param length block length
+     * @param fileSize file size
+     * @return true if [offset, offset + length) is inside the file
+     */
+    private static boolean inFile(long offset, long length, long fileSize) {
+        return offset >= 0 && length >= 0 && offset <= fileSize - length;
+    }
+    
+    /**
+     * One row of the layer table.
+     */
+    private static class LayerEntry {
+        int inputSize;
+        int outputSize;
+        ActivationFunction activation;
+        Precision precision;
+        long weightsOffset;
+        long biasesOffset;
+        
+        long weightsBytes() {
+            return (long) outputSize * inputSize * precision.getBytes();
+        }
+        
+        long biasesBytes() {
+            return (long) outputSize * precision.getBytes();
+        }
+    }
+}
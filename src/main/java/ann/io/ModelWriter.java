@@ -0,0 +1,214 @@
+package src.main.java.ann.io;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.utils.Precision;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves trained networks in the binary model format (see {@link ModelFormat}).
+ * 
+ * The file is written next to the target under a temporary name and then
+ * renamed over it, so processes that have the previous version mapped keep a
+ * consistent view and new readers never observe a partially written model.
+ * 
+ * Example usage:
+ * <pre>
+ * ModelWriter.save(network, Paths.get("model.ann"));
+ * FrozenNetwork model = ModelReader.map(Paths.get("model.ann"));
+ * </pre>
+ */
+public class ModelWriter {
+    
+    // Values are streamed through a buffer of this size
+    private static final int CHUNK_BYTES = 1 << 16;
+    
+    /**
+     * Saves a network's topology, activations and parameters.
+     * 
+     * @param network network made of dense layers
+     * @param path target file (replaced if it exists)
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(NeuralNetwork network, Path path) throws IOException {
+        int layerCount = network.getLayerCount();
+        if (layerCount == 0) {
+            throw new IllegalArgumentException("Network has no layers");
+        }
+        
+        // Lay out the blocks first so the layer table can be written up front
+        long[] weightsOffsets = new long[layerCount];
+        long[] biasesOffsets = new long[layerCount];
+        long offset = ModelFormat.HEADER_BYTES + (long) layerCount * ModelFormat.LAYER_ENTRY_BYTES;
+        for (int l = 0; l < layerCount; l++) {
+            Layer layer = network.getLayer(l);
+            int bytes = precisionOf(layer).getBytes();
+            long weightsBytes = (long) layer.getOutputSize() * layer.getInputSize() * bytes;
+            if (weightsBytes > ModelFormat.MAX_BLOCK_BYTES) {
+                throw new IllegalArgumentException(
+                    String.format("Layer %d: %d weight bytes exceed the %d-byte block limit of the model format",
+                                  l, weightsBytes, ModelFormat.MAX_BLOCK_BYTES));
+            }
+            weightsOffsets[l] = ModelFormat.align(offset);
+            offset = weightsOffsets[l] + weightsBytes;
+            biasesOffsets[l] = ModelFormat.align(offset);
+            offset = biasesOffsets[l] + (long) layer.getOutputSize() * bytes;
+        }
+        long fileSize = offset;
+        
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer table = ByteBuffer.allocate(
+                    ModelFormat.HEADER_BYTES + layerCount * ModelFormat.LAYER_ENTRY_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                table.putInt(ModelFormat.MAGIC);
+                table.putInt(ModelFormat.VERSION);
+                table.putInt(layerCount);
+                table.putInt(ModelFormat.ALIGNMENT);
+                table.putLong(fileSize);
+                table.putLong(0L);
+                
+                for (int l = 0; l < layerCount; l++) {
+                    Layer layer = network.getLayer(l);
+                    table.putInt(layer.getInputSize());
+                    table.putInt(layer.getOutputSize());
+                    table.putInt(ModelFormat.activationId(activationOf(layer)));
+                    table.putInt(ModelFormat.precisionId(precisionOf(layer)));
+                    table.putLong(weightsOffsets[l]);
+                    table.putLong(biasesOffsets[l]);
+                }
+                table.flip();
+                writeFully(channel, table, 0);
+                
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int l = 0; l < layerCount; l++) {
+                    Layer layer = network.getLayer(l);
+                    if (layer instanceof FloatDenseLayer) {
+                        FloatDenseLayer floatLayer = (FloatDenseLayer) layer;
+                        writeValues(channel, chunk, weightsOffsets[l], floatLayer.getWeightMatrix().getData());
+                        writeValues(channel, chunk, biasesOffsets[l], floatLayer.getFloatBiases());
+                    } else {
+                        DenseLayer denseLayer = (DenseLayer) layer;
+                        writeValues(channel, chunk, weightsOffsets[l], denseLayer.getWeightMatrix().getData());
+                        writeValues(channel, chunk, biasesOffsets[l], denseLayer.getBiases());
+                    }
+                }
+                channel.force(true);
+            }
+            
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Gets the storage precision of a supported layer.
+     * 
+     * @param layer layer to inspect
+     * @return DOUBLE or FLOAT
+     */
+    private static Precision precisionOf(Layer layer) {
+        if (layer instanceof DenseLayer) {
+            return Precision.DOUBLE;
+        }
+        if (layer instanceof FloatDenseLayer) {
+            return Precision.FLOAT;
+        }
+        throw new IllegalArgumentException("Only dense layers can be saved, got: " + layer);
+    }
+    
+    /**
+     * Gets the activation function of a supported layer.
+     * 
+     * @param layer layer to inspect
+     * @return its activation function
+     */
+    private static ActivationFunction activationOf(Layer layer) {
+        return layer instanceof FloatDenseLayer
+            ? ((FloatDenseLayer) layer).getActivation()
+            : ((DenseLayer) layer).getActivation();
+    }
+    
+    /**
+     * Writes doubles as a little-endian block.
+     * 
+     * @param channel target channel
+     * @param chunk reusable little-endian staging buffer
+     * @param position file offset of the block
+     * @param values values to write
+     * @throws IOException if writing fails
+     */
+    private static void writeValues(FileChannel channel, ByteBuffer chunk, long position,
+                                    double[] values) throws IOException {
+        int perChunk = chunk.capacity() / Double.BYTES;
+        for (int start = 0; start < values.length; start += perChunk) {
+            int end = Math.min(values.length, start + perChunk);
+            chunk.clear();
+            for (int i = start; i < end; i++) {
+                chunk.putDouble(values[i]);
+            }
+            chunk.flip();
+            position += writeFully(channel, chunk, position);
+        }
+    }
+    
+    /**
+     * Writes floats as a little-endian block.
+     * 
+     * @param channel target channel
+     * @param chunk reusable little-endian staging buffer
+     * @param position file offset of the block
+     * @param values values to write
+     * @throws IOException if writing fails
+     */
+    private static void writeValues(FileChannel channel, ByteBuffer chunk, long position,
+                                    float[] values) throws IOException {
+        int perChunk = chunk.capacity() / Float.BYTES;
+        for (int start = 0; start < values.length; start += perChunk) {
+            int end = Math.min(values.length, start + perChunk);
+            chunk.clear();
+            for (int i = start; i < end; i++) {
+                chunk.putFloat(values[i]);
+            }
+            chunk.flip();
+            position += writeFully(channel, chunk, position);
+        }
+    }
+    
+    /**
+     * Writes the remaining bytes of a buffer at a file offset.
+     * 
+     * @param channel target channel
+     * @param buffer bytes to write
+     * @param position file offset
+     * @return number of bytes written
+     * @throws IOException if writing fails
+     */
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+}
@@ -2,6 +2,10 @@ package src.main.java.ann.layer;
 
 import src.main.java.ann.activation.ActivationFunction;
 import src.main.java.ann.initialization.WeightInitializer;
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.Matrix;
+
+import java.util.Arrays;
 
 /**
  * Fully connected (Dense) layer implementation.
@@ -14,17 +18,32 @@ import src.main.java.ann.initialization.WeightInitializer;
  * 
  * Backward pass:
  *   Computes gradients for weights, biases, and input
- *   Updates weights and biases using gradient descent
+ *   Updates weights and biases with the bound optimizer (SGD by default)
+ * 
+ * Mini-batch mode:
+ *   accumulateGradients() sums gradients over the batch and
+ *   applyAccumulatedGradients() performs one averaged update
+ * 
+ * Weights are kept in a contiguous row-major {@link Matrix}; the batch
+ * methods run the whole batch through the blocked ANNMath kernels.
  */
 public class DenseLayer extends Layer {
     
-    private double[][] weights;  // [outputSize][inputSize]
+    private Matrix weights;      // [outputSize][inputSize]
     private double[] biases;     // [outputSize]
     private ActivationFunction activation;
     
     // Gradients for weight updates
-    private double[][] weightGradients;
-    private double[] biasGradients;
+    private LayerGradients gradients;
+    
+    // Number of samples accumulated since the last mini-batch update
+    private int accumulatedSamples;
+    
+    // Batch-mode workspace, reallocated only when the batch size changes
+    private Matrix lastBatchInput;
+    private Matrix lastBatchOutput;
+    private Matrix batchDeltas;
+    private Matrix batchInputGradients;
     
     /**
      * Creates a dense layer with specified parameters.
@@ -40,16 +59,16 @@ public class DenseLayer extends Layer {
         super(inputSize, outputSize);
         
         this.activation = activation;
-        this.weights = initializer.initializeWeights(inputSize, outputSize);
+        this.weights = Matrix.fromArray(initializer.initializeWeights(inputSize, outputSize));
         this.biases = initializer.initializeBiases(outputSize);
         
-        this.weightGradients = new double[outputSize][inputSize];
-        this.biasGradients = new double[outputSize];
+        this.gradients = new LayerGradients(inputSize, outputSize);
     }
     
     /**
      * Creates a dense layer with pre-initialized weights and biases.
-     * Useful for loading saved models.
+     * Useful for loading saved models. The weights are copied into the
+     * layer's contiguous storage.
      * 
      * @param inputSize number of input neurons
      * @param outputSize number of output neurons
@@ -63,11 +82,10 @@ public class DenseLayer extends Layer {
         super(inputSize, outputSize);
         
         this.activation = activation;
-        this.weights = weights;
+        this.weights = Matrix.fromArray(weights);
         this.biases = biases;
         
-        this.weightGradients = new double[outputSize][inputSize];
-        this.biasGradients = new double[outputSize];
+        this.gradients = new LayerGradients(inputSize, outputSize);
     }
     
     @Override
@@ -79,62 +97,141 @@ public class DenseLayer extends Layer {
         }
         
         // Store input for backpropagation
-        this.lastInput = input.clone();
-        
-        // Initialize output arrays
-        this.lastWeightedSum = new double[outputSize];
-        this.lastOutput = new double[outputSize];
+        System.arraycopy(input, 0, lastInput, 0, inputSize);
         
         // Compute weighted sum: z = W × input + b
-        for (int i = 0; i < outputSize; i++) {
-            double sum = biases[i];
-            for (int j = 0; j < inputSize; j++) {
-                sum += weights[i][j] * input[j];
-            }
-            lastWeightedSum[i] = sum;
-            
-            // Apply activation function
-            lastOutput[i] = activation.activate(sum);
-        }
+        ANNMath.multiply(weights, input, lastWeightedSum);
+        ANNMath.kernels().axpy(1.0, biases, 0, lastWeightedSum, 0, outputSize);
+        
+        // Apply activation function
+        System.arraycopy(lastWeightedSum, 0, lastOutput, 0, outputSize);
+        activation.activate(lastOutput, 0, outputSize);
         
         return lastOutput;
     }
     
+    @Override
+    public void forwardInference(double[] input, double[] output, float[] workspace) {
+        forward(weights, biases, activation, input, output);
+    }
+    
+    @Override
+    public FrozenLayer freeze() {
+        return new FrozenDenseLayer(weights, biases, activation);
+    }
+    
+    /**
+     * Stateless dense forward pass: output = activation(W × input + b).
+     * Shared by the inference path of {@link DenseLayer} and {@link FrozenDenseLayer}.
+     * 
+     * @param weights weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     * @param activation activation function
+     * @param input input vector [inputSize]
+     * @param output output buffer [outputSize]
+     */
+    static void forward(Matrix weights, double[] biases, ActivationFunction activation,
+                        double[] input, double[] output) {
+        ANNMath.multiply(weights, input, output);
+        ANNMath.kernels().axpy(1.0, biases, 0, output, 0, output.length);
+        activation.activate(output, 0, output.length);
+    }
+    
     @Override
     public double[] backward(double[] outputGradient, double learningRate) {
+        double[] inputGradient = computeGradients(outputGradient, false);
+        
+        // Update weights and biases with the bound optimizer
+        updateParameters(learningRate);
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public double[] accumulateGradients(double[] outputGradient) {
+        // First sample of a new batch: start from clean accumulators
+        boolean accumulate = accumulatedSamples > 0;
+        double[] inputGradient = computeGradients(outputGradient, accumulate);
+        accumulatedSamples++;
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public void applyAccumulatedGradients(double learningRate) {
+        if (accumulatedSamples == 0) {
+            return;
+        }
+        
+        // Average the accumulated gradients over the batch
+        gradients.scale(1.0 / accumulatedSamples);
+        
+        updateParameters(learningRate);
+        accumulatedSamples = 0;
+    }
+    
+    /**
+     * Computes gradients for the last forward pass.
+     * 
+     * @param outputGradient gradient flowing from next layer [outputSize]
+     * @param accumulate if true, adds to the stored gradients instead of overwriting them
+     * @return gradient to propagate to previous layer [inputSize]
+     */
+    private double[] computeGradients(double[] outputGradient, boolean accumulate) {
         if (outputGradient.length != outputSize) {
             throw new IllegalArgumentException(
                 String.format("Gradient size mismatch: expected %d, got %d", 
                               outputSize, outputGradient.length));
         }
         
-        double[] inputGradient = new double[inputSize];
+        if (!accumulate) {
+            gradients.clear();
+        }
+        backpropagate(lastInput, lastOutput, outputGradient, inputGradient, gradients);
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public LayerGradients createGradients() {
+        return new LayerGradients(inputSize, outputSize);
+    }
+    
+    @Override
+    public void backpropagate(double[] input, double[] output, double[] outputGradient,
+                              double[] inputGradient, LayerGradients gradients) {
+        double[] deltas = gradients.getDeltas();
+        double[] biasGradients = gradients.getBiasGradients();
         
-        // Compute gradients for this layer
+        // Delta for each neuron: gradient × activation derivative
         for (int i = 0; i < outputSize; i++) {
-            // Gradient of activation function
-            double activationGrad = activation.derivative(lastOutput[i]);
-            
-            // Delta for this neuron: gradient × activation derivative
-            double delta = outputGradient[i] * activationGrad;
-            
-            // Gradient for bias: just the delta
-            biasGradients[i] = delta;
-            
-            // Gradient for weights and input
-            for (int j = 0; j < inputSize; j++) {
-                // Weight gradient: delta × input
-                weightGradients[i][j] = delta * lastInput[j];
-                
-                // Input gradient (for previous layer): delta × weight
-                inputGradient[j] += delta * weights[i][j];
-            }
+            deltas[i] = outputGradient[i] * activation.derivative(output[i]);
         }
         
-        // Update weights and biases using gradient descent
-        updateParameters(learningRate);
+        // Gradient for bias: just the delta
+        // Gradient for weights: delta × inputᵀ
+        ANNMath.kernels().axpy(1.0, deltas, 0, biasGradients, 0, outputSize);
+        ANNMath.addOuterProduct(gradients.getWeightGradients(), 1.0, deltas, input);
         
-        return inputGradient;
+        // Input gradient (for previous layer): Wᵀ × delta
+        if (inputGradient != null) {
+            ANNMath.multiplyTransposed(weights, deltas, inputGradient);
+        }
+    }
+    
+    @Override
+    public void applyGradients(LayerGradients gradients, double learningRate, int batchSize) {
+        double scale = 1.0 / batchSize;
+        if (metrics != null) {
+            metrics.recordGradientNorm(metricsIndex, gradients.norm() * scale);
+        }
+        
+        // Weights first, then biases, matching the flat parameter layout
+        double[] weightData = weights.getData();
+        optimizer.update(weightData, gradients.getWeightGradients().getData(), weightData.length,
+                         learningRate, scale, optimizerOffset);
+        optimizer.update(biases, gradients.getBiasGradients(), outputSize,
+                         learningRate, scale, optimizerOffset + weightData.length);
     }
     
     /**
@@ -143,19 +240,165 @@ public class DenseLayer extends Layer {
      * @param learningRate learning rate for gradient descent
      */
     private void updateParameters(double learningRate) {
-        // Update weights: W = W - η × ∇W
+        applyGradients(gradients, learningRate, 1);
+    }
+    
+    /**
+     * Lock-free SGD step for one sample, applied directly to the parameters.
+     * 
+     * Computes the deltas and the input gradient from the current weights,
+     * then updates weights and biases in place. Only columns whose input is
+     * non-zero are written, so sparse inputs touch a fraction of the matrix.
+     * No locking is done: concurrent callers may race, which asynchronous
+     * (Hogwild-style) SGD tolerates by design.
+     * 
+     * @param input input the layer saw for this sample [inputSize]
+     * @param output output the layer produced for this sample [outputSize]
+     * @param outputGradient gradient flowing from next layer [outputSize]
+     * @param inputGradient receives the gradient for the previous layer [inputSize], or null to skip
+     * @param deltas scratch buffer [outputSize]
+     * @param activeInputs scratch buffer for non-zero input indices [inputSize]
+     * @param learningRate learning rate for gradient descent
+     */
+    public void sgdUpdate(double[] input, double[] output, double[] outputGradient,
+                          double[] inputGradient, double[] deltas, int[] activeInputs,
+                          double learningRate) {
+        // Delta for each neuron: gradient × activation derivative
+        for (int i = 0; i < outputSize; i++) {
+            deltas[i] = outputGradient[i] * activation.derivative(output[i]);
+        }
+        
+        // Input gradient from the weights before this update
+        if (inputGradient != null) {
+            ANNMath.multiplyTransposed(weights, deltas, inputGradient);
+        }
+        
+        // Collect non-zero inputs
+        int activeCount = 0;
+        for (int j = 0; j < inputSize; j++) {
+            if (input[j] != 0.0) {
+                activeInputs[activeCount++] = j;
+            }
+        }
+        
+        // W = W - η × delta × inputᵀ, b = b - η × delta
+        double[] weightData = weights.getData();
         for (int i = 0; i < outputSize; i++) {
-            for (int j = 0; j < inputSize; j++) {
-                weights[i][j] -= learningRate * weightGradients[i][j];
+            double step = learningRate * deltas[i];
+            if (step == 0.0) {
+                continue;
             }
             
-            // Update biases: b = b - η × ∇b
-            biases[i] -= learningRate * biasGradients[i];
+            biases[i] -= step;
+            int offset = i * inputSize;
+            if (activeCount == inputSize) {
+                ANNMath.kernels().axpy(-step, input, 0, weightData, offset, inputSize);
+            } else {
+                for (int k = 0; k < activeCount; k++) {
+                    int j = activeInputs[k];
+                    weightData[offset + j] -= step * input[j];
+                }
+            }
+        }
+    }
+    
+    @Override
+    public Matrix forwardBatch(Matrix inputs) {
+        if (inputs.getCols() != inputSize) {
+            throw new IllegalArgumentException(
+                String.format("Input size mismatch: expected %d, got %d", 
+                              inputSize, inputs.getCols()));
+        }
+        
+        int batchSize = inputs.getRows();
+        
+        // Store inputs for backpropagation
+        this.lastBatchInput = inputs;
+        ensureBatchWorkspace(batchSize);
+        
+        // Z = X × Wᵀ, then add bias and apply the activation row by row
+        ANNMath.multiplyTransposedB(inputs, weights, lastBatchOutput);
+        double[] out = lastBatchOutput.getData();
+        for (int r = 0; r < batchSize; r++) {
+            ANNMath.kernels().axpy(1.0, biases, 0, out, r * outputSize, outputSize);
+            activation.activate(out, r * outputSize, outputSize);
         }
+        
+        return lastBatchOutput;
     }
     
+    @Override
+    public Matrix accumulateGradientsBatch(Matrix outputGradients) {
+        if (outputGradients.getCols() != outputSize
+                || outputGradients.getRows() != lastBatchOutput.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Gradient size mismatch: expected %dx%d, got %dx%d", 
+                              lastBatchOutput.getRows(), outputSize,
+                              outputGradients.getRows(), outputGradients.getCols()));
+        }
+        
+        int batchSize = outputGradients.getRows();
+        boolean accumulate = accumulatedSamples > 0;
+        double[] biasGradients = gradients.getBiasGradients();
+        if (!accumulate) {
+            Arrays.fill(biasGradients, 0.0);
+        }
+        
+        // Deltas: output gradient × activation derivative
+        double[] deltaData = batchDeltas.getData();
+        double[] gradData = outputGradients.getData();
+        double[] outData = lastBatchOutput.getData();
+        for (int r = 0; r < batchSize; r++) {
+            int offset = r * outputSize;
+            for (int i = 0; i < outputSize; i++) {
+                double delta = gradData[offset + i] * activation.derivative(outData[offset + i]);
+                deltaData[offset + i] = delta;
+                biasGradients[i] += delta;
+            }
+        }
+        
+        // ∇W (+)= Δᵀ × X
+        ANNMath.multiplyTransposedA(batchDeltas, lastBatchInput, gradients.getWeightGradients(), accumulate);
+        accumulatedSamples += batchSize;
+        
+        // Input gradient for the previous layer: Δ × W
+        ANNMath.multiply(batchDeltas, weights, batchInputGradients, false);
+        
+        return batchInputGradients;
+    }
+    
+    /**
+     * Makes sure the batch buffers match the given batch size.
+     * 
+     * @param batchSize number of rows in the current batch
+     */
+    private void ensureBatchWorkspace(int batchSize) {
+        if (lastBatchOutput == null || lastBatchOutput.getRows() != batchSize) {
+            lastBatchOutput = new Matrix(batchSize, outputSize);
+            batchDeltas = new Matrix(batchSize, outputSize);
+            batchInputGradients = new Matrix(batchSize, inputSize);
+        }
+    }
+    
+    /**
+     * Gets a copy of the weights as a jagged array. The weights live in one
+     * contiguous {@link Matrix}, so every call allocates and copies the whole
+     * matrix, and writes to the result do not reach the layer. Use
+     * {@link #getWeightMatrix()} for the live storage.
+     * 
+     * @return new weight array [outputSize][inputSize]
+     */
     @Override
     public double[][] getWeights() {
+        return weights.toArray();
+    }
+    
+    /**
+     * Gets the weights in their contiguous row-major storage (not a copy).
+     * 
+     * @return weight matrix [outputSize][inputSize]
+     */
+    public Matrix getWeightMatrix() {
         return weights;
     }
     
@@ -164,6 +407,25 @@ public class DenseLayer extends Layer {
         return biases;
     }
     
+    @Override
+    public int getParameterCount() {
+        return outputSize * inputSize + outputSize;
+    }
+    
+    @Override
+    public void copyParameters(double[] target, int offset) {
+        double[] data = weights.getData();
+        System.arraycopy(data, 0, target, offset, data.length);
+        System.arraycopy(biases, 0, target, offset + data.length, outputSize);
+    }
+    
+    @Override
+    public void setParameters(double[] source, int offset) {
+        double[] data = weights.getData();
+        System.arraycopy(source, offset, data, 0, data.length);
+        System.arraycopy(source, offset + data.length, biases, 0, outputSize);
+    }
+    
     /**
      * Gets the activation function used by this layer.
      * 
@@ -174,12 +436,13 @@ public class DenseLayer extends Layer {
     }
     
     /**
-     * Gets the weight gradients (for debugging/monitoring).
+     * Gets a copy of the weight gradients (for debugging/monitoring).
+     * Allocates and copies the whole gradient matrix on every call.
      * 
-     * @return weight gradient matrix
+     * @return new weight gradient array [outputSize][inputSize]
      */
     public double[][] getWeightGradients() {
-        return weightGradients;
+        return gradients.getWeightGradients().toArray();
     }
     
     /**
@@ -188,7 +451,7 @@ public class DenseLayer extends Layer {
      * @return bias gradient vector
      */
     public double[] getBiasGradients() {
-        return biasGradients;
+        return gradients.getBiasGradients();
     }
     
     @Override
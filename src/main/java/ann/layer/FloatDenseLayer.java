@@ -0,0 +1,458 @@
+package src.main.java.ann.layer;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.initialization.WeightInitializer;
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.FloatMatrix;
+import src.main.java.ann.utils.Matrix;
+import src.main.java.ann.utils.Precision;
+import src.main.java.ann.utils.VectorKernels;
+
+/**
+ * Fully connected layer with single-precision parameters.
+ * 
+ * Behaves like {@link DenseLayer} but stores weights, biases, gradients and
+ * its internal workspace as floats ({@link Precision#FLOAT}). The layer API
+ * still speaks double[]: inputs are narrowed once on entry and outputs
+ * widened once on exit, which costs O(inputSize + outputSize) per sample
+ * against the O(inputSize × outputSize) product that now reads half the
+ * bytes and runs on twice as many SIMD lanes.
+ * 
+ * The reentrant inference path ({@link #forwardInference} and the frozen
+ * layer) runs the same float kernels as {@link #forward(double[])} in the
+ * float workspace of the caller's inference context, so inference,
+ * data-parallel training and the single-threaded forward pass give
+ * bit-identical outputs.
+ */
+public class FloatDenseLayer extends Layer {
+    
+    private FloatMatrix weights;  // [outputSize][inputSize]
+    private float[] biases;       // [outputSize]
+    private ActivationFunction activation;
+    
+    // Gradients for weight updates
+    private LayerGradients gradients;
+    
+    // Number of samples accumulated since the last mini-batch update
+    private int accumulatedSamples;
+    
+    // Single-precision workspace for the training forward pass
+    private final float[] floatInput;
+    private final float[] floatOutput;
+    
+    // Batch-mode workspace, reallocated only when the batch size changes
+    private FloatMatrix batchInput;
+    private FloatMatrix batchOutput;
+    private FloatMatrix batchDeltas;
+    private FloatMatrix batchInputGradientsFloat;
+    private Matrix lastBatchOutput;
+    private Matrix batchInputGradients;
+    
+    /**
+     * Creates a single-precision dense layer with specified parameters.
+     * 
+     * @param inputSize number of input neurons
+     * @param outputSize number of output neurons
+     * @param activation activation function
+     * @param initializer weight initialization strategy
+     */
+    public FloatDenseLayer(int inputSize, int outputSize,
+                           ActivationFunction activation,
+                           WeightInitializer initializer) {
+        this(inputSize, outputSize, activation,
+             initializer.initializeWeights(inputSize, outputSize),
+             initializer.initializeBiases(outputSize));
+    }
+    
+    /**
+     * Creates a single-precision dense layer from pre-initialized weights and
+     * biases. The values are narrowed into the layer's float storage.
+     * 
+     * @param inputSize number of input neurons
+     * @param outputSize number of output neurons
+     * @param activation activation function
+     * @param weights weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     */
+    public FloatDenseLayer(int inputSize, int outputSize,
+                           ActivationFunction activation,
+                           double[][] weights, double[] biases) {
+        super(inputSize, outputSize);
+        
+        if (biases.length != outputSize) {
+            throw new IllegalArgumentException(
+                String.format("Bias size mismatch: expected %d, got %d", outputSize, biases.length));
+        }
+        
+        this.activation = activation;
+        this.weights = FloatMatrix.fromArray(weights);
+        this.biases = new float[outputSize];
+        ANNMath.narrow(biases, 0, this.biases, 0, outputSize);
+        
+        this.gradients = createGradients();
+        this.floatInput = new float[inputSize];
+        this.floatOutput = new float[outputSize];
+    }
+    
+    @Override
+    public double[] forward(double[] input) {
+        if (input.length != inputSize) {
+            throw new IllegalArgumentException(
+                String.format("Input size mismatch: expected %d, got %d",
+                              inputSize, input.length));
+        }
+        
+        // Store input for backpropagation
+        System.arraycopy(input, 0, lastInput, 0, inputSize);
+        ANNMath.narrow(input, 0, floatInput, 0, inputSize);
+        
+        // Compute weighted sum: z = W × input + b
+        ANNMath.multiply(weights, floatInput, floatOutput);
+        ANNMath.kernels().axpy(1.0f, biases, 0, floatOutput, 0, outputSize);
+        ANNMath.widen(floatOutput, 0, lastWeightedSum, 0, outputSize);
+        
+        // Apply activation function
+        activation.activate(floatOutput, 0, outputSize);
+        ANNMath.widen(floatOutput, 0, lastOutput, 0, outputSize);
+        
+        return lastOutput;
+    }
+    
+    @Override
+    public void forwardInference(double[] input, double[] output, float[] workspace) {
+        forward(weights, biases, activation, input, output, workspace);
+    }
+    
+    @Override
+    public int getInferenceWorkspaceSize() {
+        return inputSize + outputSize;
+    }
+    
+    @Override
+    public FrozenLayer freeze() {
+        return new FrozenFloatDenseLayer(weights, biases, activation);
+    }
+    
+    /**
+     * Reentrant forward pass over float parameters, computed exactly like
+     * {@link #forward(double[])} but in a caller-supplied workspace.
+     * Shared by the inference path of {@link FloatDenseLayer} and {@link FrozenFloatDenseLayer}.
+     * 
+     * @param weights weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     * @param activation activation function
+     * @param input input vector [inputSize]
+     * @param output output buffer [outputSize]
+     * @param workspace scratch of at least inputSize + outputSize floats:
+     *                  the narrowed input, then the weighted sums
+     */
+    static void forward(FloatMatrix weights, float[] biases, ActivationFunction activation,
+                        double[] input, double[] output, float[] workspace) {
+        int rows = weights.getRows();
+        int cols = weights.getCols();
+        if (input.length != cols || output.length != rows) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, input.length, output.length));
+        }
+        if (workspace.length < cols + rows) {
+            throw new IllegalArgumentException(
+                String.format("Workspace too small: need %d floats, got %d", cols + rows, workspace.length));
+        }
+        
+        // x = workspace[0, cols), z = workspace[cols, cols + rows)
+        ANNMath.narrow(input, 0, workspace, 0, cols);
+        
+        // Same kernels, in the same order, as the training forward pass
+        VectorKernels kernels = ANNMath.kernels();
+        float[] data = weights.getData();
+        for (int i = 0; i < rows; i++) {
+            workspace[cols + i] = kernels.dot(data, i * cols, workspace, 0, cols);
+        }
+        kernels.axpy(1.0f, biases, 0, workspace, cols, rows);
+        activation.activate(workspace, cols, rows);
+        ANNMath.widen(workspace, cols, output, 0, rows);
+    }
+    
+    @Override
+    public double[] backward(double[] outputGradient, double learningRate) {
+        double[] inputGradient = computeGradients(outputGradient, false);
+        
+        // Update weights and biases with the bound optimizer
+        applyGradients(gradients, learningRate, 1);
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public double[] accumulateGradients(double[] outputGradient) {
+        // First sample of a new batch: start from clean accumulators
+        boolean accumulate = accumulatedSamples > 0;
+        double[] inputGradient = computeGradients(outputGradient, accumulate);
+        accumulatedSamples++;
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public void applyAccumulatedGradients(double learningRate) {
+        if (accumulatedSamples == 0) {
+            return;
+        }
+        
+        // Average the accumulated gradients over the batch
+        gradients.scale(1.0 / accumulatedSamples);
+        
+        applyGradients(gradients, learningRate, 1);
+        accumulatedSamples = 0;
+    }
+    
+    /**
+     * Computes gradients for the last forward pass.
+     * 
+     * @param outputGradient gradient flowing from next layer [outputSize]
+     * @param accumulate if true, adds to the stored gradients instead of overwriting them
+     * @return gradient to propagate to previous layer [inputSize]
+     */
+    private double[] computeGradients(double[] outputGradient, boolean accumulate) {
+        if (outputGradient.length != outputSize) {
+            throw new IllegalArgumentException(
+                String.format("Gradient size mismatch: expected %d, got %d",
+                              outputSize, outputGradient.length));
+        }
+        
+        if (!accumulate) {
+            gradients.clear();
+        }
+        backpropagate(lastInput, lastOutput, outputGradient, inputGradient, gradients);
+        
+        return inputGradient;
+    }
+    
+    @Override
+    public LayerGradients createGradients() {
+        return new LayerGradients(inputSize, outputSize, Precision.FLOAT);
+    }
+    
+    @Override
+    public void backpropagate(double[] input, double[] output, double[] outputGradient,
+                              double[] inputGradient, LayerGradients gradients) {
+        float[] deltas = gradients.getFloatDeltas();
+        float[] scratch = gradients.getFloatInput();
+        
+        // Delta for each neuron: gradient × activation derivative
+        for (int i = 0; i < outputSize; i++) {
+            deltas[i] = (float) (outputGradient[i] * activation.derivative(output[i]));
+        }
+        
+        // Gradient for bias: just the delta
+        // Gradient for weights: delta × inputᵀ
+        ANNMath.kernels().axpy(1.0f, deltas, 0, gradients.getFloatBiasGradients(), 0, outputSize);
+        ANNMath.narrow(input, 0, scratch, 0, inputSize);
+        ANNMath.addOuterProduct(gradients.getFloatWeightGradients(), 1.0f, deltas, scratch);
+        
+        // Input gradient (for previous layer): Wᵀ × delta
+        if (inputGradient != null) {
+            ANNMath.multiplyTransposed(weights, deltas, scratch);
+            ANNMath.widen(scratch, 0, inputGradient, 0, inputSize);
+        }
+    }
+    
+    @Override
+    public void applyGradients(LayerGradients gradients, double learningRate, int batchSize) {
+        double scale = 1.0 / batchSize;
+        if (metrics != null) {
+            metrics.recordGradientNorm(metricsIndex, gradients.norm() * scale);
+        }
+        
+        // Weights first, then biases, matching the flat parameter layout
+        float[] weightData = weights.getData();
+        optimizer.update(weightData, gradients.getFloatWeightGradients().getData(), weightData.length,
+                         learningRate, scale, optimizerOffset);
+        optimizer.update(biases, gradients.getFloatBiasGradients(), outputSize,
+                         learningRate, scale, optimizerOffset + weightData.length);
+    }
+    
+    @Override
+    public Matrix forwardBatch(Matrix inputs) {
+        if (inputs.getCols() != inputSize) {
+            throw new IllegalArgumentException(
+                String.format("Input size mismatch: expected %d, got %d",
+                              inputSize, inputs.getCols()));
+        }
+        
+        int batchSize = inputs.getRows();
+        ensureBatchWorkspace(batchSize);
+        
+        // Narrow the batch once; it is kept for the backward pass
+        ANNMath.narrow(inputs.getData(), 0, batchInput.getData(), 0, batchSize * inputSize);
+        
+        // Z = X × Wᵀ, then add bias and apply the activation row by row
+        ANNMath.multiplyTransposedB(batchInput, weights, batchOutput);
+        float[] out = batchOutput.getData();
+        for (int r = 0; r < batchSize; r++) {
+            ANNMath.kernels().axpy(1.0f, biases, 0, out, r * outputSize, outputSize);
+            activation.activate(out, r * outputSize, outputSize);
+        }
+        ANNMath.widen(out, 0, lastBatchOutput.getData(), 0, out.length);
+        
+        return lastBatchOutput;
+    }
+    
+    @Override
+    public Matrix accumulateGradientsBatch(Matrix outputGradients) {
+        if (outputGradients.getCols() != outputSize
+                || batchOutput == null || outputGradients.getRows() != batchOutput.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Gradient size mismatch: expected %dx%d, got %dx%d",
+                              batchOutput == null ? 0 : batchOutput.getRows(), outputSize,
+                              outputGradients.getRows(), outputGradients.getCols()));
+        }
+        
+        int batchSize = outputGradients.getRows();
+        boolean accumulate = accumulatedSamples > 0;
+        if (!accumulate) {
+            gradients.clear();
+        }
+        
+        // Deltas: output gradient × activation derivative
+        float[] biasGradients = gradients.getFloatBiasGradients();
+        float[] deltaData = batchDeltas.getData();
+        double[] gradData = outputGradients.getData();
+        float[] outData = batchOutput.getData();
+        for (int r = 0; r < batchSize; r++) {
+            int offset = r * outputSize;
+            for (int i = 0; i < outputSize; i++) {
+                float delta = (float) (gradData[offset + i] * activation.derivative(outData[offset + i]));
+                deltaData[offset + i] = delta;
+                biasGradients[i] += delta;
+            }
+        }
+        
+        // ∇W (+)= Δᵀ × X
+        ANNMath.multiplyTransposedA(batchDeltas, batchInput, gradients.getFloatWeightGradients(), true);
+        accumulatedSamples += batchSize;
+        
+        // Input gradient for the previous layer: Δ × W
+        ANNMath.multiply(batchDeltas, weights, batchInputGradientsFloat, false);
+        ANNMath.widen(batchInputGradientsFloat.getData(), 0, batchInputGradients.getData(), 0,
+                      batchSize * inputSize);
+        
+        return batchInputGradients;
+    }
+    
+    /**
+     * Makes sure the batch buffers match the given batch size.
+     * 
+     * @param batchSize number of rows in the current batch
+     */
+    private void ensureBatchWorkspace(int batchSize) {
+        if (batchOutput == null || batchOutput.getRows() != batchSize) {
+            batchInput = new FloatMatrix(batchSize, inputSize);
+            batchOutput = new FloatMatrix(batchSize, outputSize);
+            batchDeltas = new FloatMatrix(batchSize, outputSize);
+            batchInputGradientsFloat = new FloatMatrix(batchSize, inputSize);
+            lastBatchOutput = new Matrix(batchSize, outputSize);
+            batchInputGradients = new Matrix(batchSize, inputSize);
+        }
+    }
+    
+    /**
+     * Gets a widened copy of the weights as a jagged array. Every call
+     * allocates and converts the whole matrix, and writes to the result do
+     * not reach the layer. Use {@link #getWeightMatrix()} for the live
+     * single-precision storage.
+     * 
+     * @return new weight array [outputSize][inputSize]
+     */
+    @Override
+    public double[][] getWeights() {
+        return weights.toArray();
+    }
+    
+    /**
+     * Gets the weights in their contiguous single-precision storage (not a copy).
+     * 
+     * @return weight matrix [outputSize][inputSize]
+     */
+    public FloatMatrix getWeightMatrix() {
+        return weights;
+    }
+    
+    /**
+     * Gets a widened copy of the biases.
+     * 
+     * @return bias vector [outputSize]
+     */
+    @Override
+    public double[] getBiases() {
+        double[] result = new double[outputSize];
+        ANNMath.widen(biases, 0, result, 0, outputSize);
+        return result;
+    }
+    
+    /**
+     * Gets the biases in their single-precision storage (not a copy).
+     * 
+     * @return bias vector [outputSize]
+     */
+    public float[] getFloatBiases() {
+        return biases;
+    }
+    
+    @Override
+    public int getParameterCount() {
+        return outputSize * inputSize + outputSize;
+    }
+    
+    @Override
+    public void copyParameters(double[] target, int offset) {
+        // Widening is exact, so a copy/set round trip restores the floats bit for bit
+        float[] data = weights.getData();
+        ANNMath.widen(data, 0, target, offset, data.length);
+        ANNMath.widen(biases, 0, target, offset + data.length, outputSize);
+    }
+    
+    @Override
+    public void setParameters(double[] source, int offset) {
+        float[] data = weights.getData();
+        ANNMath.narrow(source, offset, data, 0, data.length);
+        ANNMath.narrow(source, offset + data.length, biases, 0, outputSize);
+    }
+    
+    /**
+     * Gets the activation function used by this layer.
+     * 
+     * @return activation function
+     */
+    public ActivationFunction getActivation() {
+        return activation;
+    }
+    
+    /**
+     * Gets a widened copy of the weight gradients (for debugging/monitoring).
+     * Allocates and converts the whole gradient matrix on every call.
+     * 
+     * @return new weight gradient array [outputSize][inputSize]
+     */
+    public double[][] getWeightGradients() {
+        return gradients.getFloatWeightGradients().toArray();
+    }
+    
+    /**
+     * Gets the bias gradients (for debugging/monitoring).
+     * 
+     * @return widened bias gradient vector
+     */
+    public double[] getBiasGradients() {
+        double[] result = new double[outputSize];
+        ANNMath.widen(gradients.getFloatBiasGradients(), 0, result, 0, outputSize);
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FloatDenseLayer[in=%d, out=%d, activation=%s]",
+                             inputSize, outputSize, activation.getName());
+    }
+}
@@ -0,0 +1,84 @@
+package src.main.java.ann.layer;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.utils.Matrix;
+
+/**
+ * Frozen (inference-only) dense layer.
+ * 
+ * Shares the weight and bias storage of the {@link DenseLayer} it was created
+ * from but holds no gradients or forward caches.
+ */
+public class FrozenDenseLayer implements FrozenLayer {
+    
+    private final Matrix weights;
+    private final double[] biases;
+    private final ActivationFunction activation;
+    
+    /**
+     * Creates a frozen dense layer over existing parameters (no copy).
+     * 
+     * @param weights weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     * @param activation activation function
+     */
+    public FrozenDenseLayer(Matrix weights, double[] biases, ActivationFunction activation) {
+        if (biases.length != weights.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Bias size mismatch: expected %d, got %d",
+                              weights.getRows(), biases.length));
+        }
+        
+        this.weights = weights;
+        this.biases = biases;
+        this.activation = activation;
+    }
+    
+    @Override
+    public void forward(double[] input, double[] output, float[] workspace) {
+        DenseLayer.forward(weights, biases, activation, input, output);
+    }
+    
+    @Override
+    public int getInputSize() {
+        return weights.getCols();
+    }
+    
+    @Override
+    public int getOutputSize() {
+        return weights.getRows();
+    }
+    
+    /**
+     * Gets the weight matrix.
+     * 
+     * @return weight matrix [outputSize][inputSize]
+     */
+    public Matrix getWeightMatrix() {
+        return weights;
+    }
+    
+    /**
+     * Gets the bias vector.
+     * 
+     * @return bias vector [outputSize]
+     */
+    public double[] getBiases() {
+        return biases;
+    }
+    
+    /**
+     * Gets the activation function.
+     * 
+     * @return activation function
+     */
+    public ActivationFunction getActivation() {
+        return activation;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FrozenDenseLayer[in=%d, out=%d, activation=%s]",
+                             getInputSize(), getOutputSize(), activation.getName());
+    }
+}
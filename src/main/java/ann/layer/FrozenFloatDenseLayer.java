@@ -0,0 +1,89 @@
+package src.main.java.ann.layer;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.utils.FloatMatrix;
+
+/**
+ * Frozen (inference-only) single-precision dense layer.
+ * 
+ * Shares the float weight and bias storage of the {@link FloatDenseLayer} it
+ * was created from but holds no gradients or forward caches.
+ */
+public class FrozenFloatDenseLayer implements FrozenLayer {
+    
+    private final FloatMatrix weights;
+    private final float[] biases;
+    private final ActivationFunction activation;
+    
+    /**
+     * Creates a frozen layer over existing float parameters (no copy).
+     * 
+     * @param weights weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     * @param activation activation function
+     */
+    public FrozenFloatDenseLayer(FloatMatrix weights, float[] biases, ActivationFunction activation) {
+        if (biases.length != weights.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Bias size mismatch: expected %d, got %d",
+                              weights.getRows(), biases.length));
+        }
+        
+        this.weights = weights;
+        this.biases = biases;
+        this.activation = activation;
+    }
+    
+    @Override
+    public void forward(double[] input, double[] output, float[] workspace) {
+        FloatDenseLayer.forward(weights, biases, activation, input, output, workspace);
+    }
+    
+    @Override
+    public int getWorkspaceSize() {
+        return weights.getCols() + weights.getRows();
+    }
+    
+    @Override
+    public int getInputSize() {
+        return weights.getCols();
+    }
+    
+    @Override
+    public int getOutputSize() {
+        return weights.getRows();
+    }
+    
+    /**
+     * Gets the weight matrix.
+     * 
+     * @return weight matrix [outputSize][inputSize]
+     */
+    public FloatMatrix getWeightMatrix() {
+        return weights;
+    }
+    
+    /**
+     * Gets the bias vector.
+     * 
+     * @return bias vector [outputSize]
+     */
+    public float[] getBiases() {
+        return biases;
+    }
+    
+    /**
+     * Gets the activation function.
+     * 
+     * @return activation function
+     */
+    public ActivationFunction getActivation() {
+        return activation;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FrozenFloatDenseLayer[in=%d, out=%d, activation=%s]",
+                             getInputSize(), getOutputSize(), activation.getName());
+    }
+}
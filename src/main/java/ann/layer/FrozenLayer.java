@@ -0,0 +1,45 @@
+package src.main.java.ann.layer;
+
+/**
+ * Read-only, inference-only view of a trained layer.
+ * 
+ * A frozen layer keeps only what prediction needs (parameters and
+ * activation) and drops gradients and training caches. Its forward pass
+ * writes into a caller-supplied buffer and is safe to call from many threads.
+ */
+public interface FrozenLayer {
+    
+    /**
+     * Forward pass into a caller-supplied buffer.
+     * 
+     * @param input input vector [inputSize]
+     * @param output output buffer [outputSize]
+     * @param workspace single-precision scratch owned by the calling thread, at least
+     *                  {@link #getWorkspaceSize()} floats
+     */
+    void forward(double[] input, double[] output, float[] workspace);
+    
+    /**
+     * Gets the float scratch space {@link #forward} needs, so an inference
+     * context can allocate it up front.
+     * 
+     * @return number of floats (0 if the layer needs none)
+     */
+    default int getWorkspaceSize() {
+        return 0;
+    }
+    
+    /**
+     * Gets the number of input neurons.
+     * 
+     * @return input size
+     */
+    int getInputSize();
+    
+    /**
+     * Gets the number of output neurons.
+     * 
+     * @return output size
+     */
+    int getOutputSize();
+}
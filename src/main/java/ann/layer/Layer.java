@@ -1,8 +1,19 @@
 package src.main.java.ann.layer;
 
+import src.main.java.ann.metrics.TrainingMetrics;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.optimizer.SGDOptimizer;
+import src.main.java.ann.utils.Matrix;
+
 /**
  * Abstract base class for neural network layers.
  * Defines the interface that all layer types must implement.
+ * 
+ * Each layer owns a workspace of reusable buffers sized at construction,
+ * so the steady-state forward and backward passes do not allocate. Arrays
+ * returned by {@link #forward(double[])} and {@link #backward(double[], double)}
+ * belong to the layer and are overwritten by the next call; copy them if
+ * they must outlive it.
  */
 public abstract class Layer {
     
@@ -14,6 +25,17 @@ public abstract class Layer {
     protected double[] lastWeightedSum;  // z = W*x + b (before activation)
     protected double[] lastOutput;       // a = activation(z)
     
+    // Reusable buffer for the gradient returned to the previous layer
+    protected double[] inputGradient;
+    
+    // Update rule and this layer's offset in its flat state
+    protected Optimizer optimizer;
+    protected int optimizerOffset;
+    
+    // Instrumentation registry and this layer's index in it (null = disabled)
+    protected TrainingMetrics metrics;
+    protected int metricsIndex;
+    
     /**
      * Creates a layer with specified input and output sizes.
      * 
@@ -23,24 +45,152 @@ public abstract class Layer {
     public Layer(int inputSize, int outputSize) {
         this.inputSize = inputSize;
         this.outputSize = outputSize;
+        
+        // Workspace buffers reused by every pass
+        this.lastInput = new double[inputSize];
+        this.lastWeightedSum = new double[outputSize];
+        this.lastOutput = new double[outputSize];
+        this.inputGradient = new double[inputSize];
+        
+        // Plain SGD until a network binds its optimizer
+        this.optimizer = new SGDOptimizer();
     }
     
     /**
      * Forward pass: compute layer output given input.
      * 
      * @param input input vector [inputSize]
-     * @return output vector [outputSize]
+     * @return output vector [outputSize] (layer-owned buffer)
      */
     public abstract double[] forward(double[] input);
     
+    /**
+     * Inference-only forward pass into a caller-supplied buffer.
+     * Reads the parameters but never touches the training caches, so it is
+     * safe to call concurrently from multiple threads.
+     * 
+     * @param input input vector [inputSize]
+     * @param output output buffer [outputSize]
+     * @param workspace single-precision scratch owned by the calling thread, at least
+     *                  {@link #getInferenceWorkspaceSize()} floats
+     */
+    public abstract void forwardInference(double[] input, double[] output, float[] workspace);
+    
+    /**
+     * Gets the float scratch space {@link #forwardInference} needs, so an
+     * inference context can allocate it up front.
+     * 
+     * @return number of floats (0 if the layer needs none)
+     */
+    public int getInferenceWorkspaceSize() {
+        return 0;
+    }
+    
+    /**
+     * Creates an inference-only view of this layer that shares its
+     * parameters but holds no gradients or training caches.
+     * 
+     * @return frozen layer
+     */
+    public abstract FrozenLayer freeze();
+    
     /**
      * Backward pass: compute gradients and propagate error.
      * 
      * @param outputGradient gradient flowing from next layer [outputSize]
-     * @return gradient to propagate to previous layer [inputSize]
+     * @return gradient to propagate to previous layer [inputSize] (layer-owned buffer)
      */
     public abstract double[] backward(double[] outputGradient, double learningRate);
     
+    /**
+     * Backward pass for mini-batch training: computes gradients for the last
+     * forward pass and adds them to the layer's gradient accumulators without
+     * touching the parameters.
+     * 
+     * @param outputGradient gradient flowing from next layer [outputSize]
+     * @return gradient to propagate to previous layer [inputSize]
+     */
+    public abstract double[] accumulateGradients(double[] outputGradient);
+    
+    /**
+     * Applies one update using the average of all gradients accumulated since
+     * the last call, then resets the accumulators.
+     * 
+     * @param learningRate learning rate for gradient descent
+     */
+    public abstract void applyAccumulatedGradients(double learningRate);
+    
+    /**
+     * Creates a fresh set of gradient buffers shaped for this layer.
+     * 
+     * @return zeroed gradient buffers
+     */
+    public abstract LayerGradients createGradients();
+    
+    /**
+     * Stateless backward pass: adds the gradients for one sample to the given
+     * buffers. Reads the parameters but not the training caches, so several
+     * workers may call it concurrently with their own buffers.
+     * 
+     * @param input input the layer saw for this sample [inputSize]
+     * @param output output the layer produced for this sample [outputSize]
+     * @param outputGradient gradient flowing from next layer [outputSize]
+     * @param inputGradient receives the gradient for the previous layer [inputSize], or null to skip
+     * @param gradients buffers the parameter gradients are added to
+     */
+    public abstract void backpropagate(double[] input, double[] output, double[] outputGradient,
+                                       double[] inputGradient, LayerGradients gradients);
+    
+    /**
+     * Sets the optimizer that applies this layer's parameter updates.
+     * Called by the network when it binds its optimizer.
+     * 
+     * @param optimizer optimizer shared by all layers of the network
+     * @param stateOffset index of this layer's first parameter in the optimizer state
+     */
+    public void setOptimizer(Optimizer optimizer, int stateOffset) {
+        this.optimizer = optimizer;
+        this.optimizerOffset = stateOffset;
+    }
+    
+    /**
+     * Sets the registry that records this layer's gradient norms.
+     * Called by the network when instrumentation is enabled or disabled.
+     * 
+     * @param metrics registry shared by all layers of the network (null to disable)
+     * @param index index of this layer in the network
+     */
+    public void setMetrics(TrainingMetrics metrics, int index) {
+        this.metrics = metrics;
+        this.metricsIndex = index;
+    }
+    
+    /**
+     * Applies one optimizer update from externally accumulated gradients.
+     * 
+     * @param gradients gradients summed over the batch
+     * @param learningRate learning rate for gradient descent
+     * @param batchSize number of samples summed into the gradients (used for averaging)
+     */
+    public abstract void applyGradients(LayerGradients gradients, double learningRate, int batchSize);
+    
+    /**
+     * Forward pass for a whole batch at once.
+     * 
+     * @param inputs input matrix [batchSize][inputSize]
+     * @return output matrix [batchSize][outputSize]
+     */
+    public abstract Matrix forwardBatch(Matrix inputs);
+    
+    /**
+     * Batch counterpart of {@link #accumulateGradients(double[])}: accumulates
+     * parameter gradients for the last {@link #forwardBatch(Matrix)} call.
+     * 
+     * @param outputGradients gradients from next layer [batchSize][outputSize]
+     * @return gradients for previous layer [batchSize][inputSize]
+     */
+    public abstract Matrix accumulateGradientsBatch(Matrix outputGradients);
+    
     /**
      * Gets the number of input neurons.
      * 
@@ -78,7 +228,9 @@ public abstract class Layer {
     }
     
     /**
-     * Gets the weights of this layer.
+     * Gets the weights of this layer. Dense layers return a fresh copy, so
+     * changing the result does not change the layer; use
+     * {@link #setParameters(double[], int)} to write weights.
      * 
      * @return weight matrix or null if layer has no weights
      */
@@ -90,5 +242,29 @@ public abstract class Layer {
      * @return bias vector or null if layer has no biases
      */
     public abstract double[] getBiases();
+    
+    /**
+     * Gets the number of trainable parameters.
+     * 
+     * @return number of weights plus biases
+     */
+    public abstract int getParameterCount();
+    
+    /**
+     * Copies the parameters into a flat array: weights row-major, then biases.
+     * 
+     * @param target destination array
+     * @param offset start index in target
+     */
+    public abstract void copyParameters(double[] target, int offset);
+    
+    /**
+     * Overwrites the parameters from a flat array laid out as in
+     * {@link #copyParameters(double[], int)}.
+     * 
+     * @param source source array
+     * @param offset start index in source
+     */
+    public abstract void setParameters(double[] source, int offset);
 }
 
@@ -0,0 +1,251 @@
+package src.main.java.ann.layer;
+
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.FloatMatrix;
+import src.main.java.ann.utils.Matrix;
+import src.main.java.ann.utils.Precision;
+import src.main.java.ann.utils.VectorKernels;
+
+import java.util.Arrays;
+
+/**
+ * Gradient accumulators for one layer.
+ * 
+ * A layer keeps one instance for its own training passes, but any number of
+ * extra instances can be created with {@link Layer#createGradients()} so that
+ * independent workers can compute gradients against the same parameters and
+ * combine them afterwards with {@link #add(LayerGradients)}.
+ * 
+ * Buffers are stored in the precision of the owning layer: DOUBLE gradients
+ * are exposed through {@link #getWeightGradients()} and friends, FLOAT ones
+ * through the {@code getFloat...} accessors. FLOAT instances also carry an
+ * input-sized scratch buffer so that concurrent workers never share one.
+ */
+public class LayerGradients {
+    
+    private final Precision precision;
+    
+    private final Matrix weightGradients;  // [outputSize][inputSize]
+    private final double[] biasGradients;  // [outputSize]
+    private final double[] deltas;         // scratch: per-neuron error terms
+    
+    private final FloatMatrix floatWeightGradients;
+    private final float[] floatBiasGradients;
+    private final float[] floatDeltas;
+    private final float[] floatInput;      // scratch: narrowed input / input gradient
+    
+    /**
+     * Creates zeroed double-precision gradient buffers for a layer.
+     * 
+     * @param inputSize number of input neurons
+     * @param outputSize number of output neurons
+     */
+    public LayerGradients(int inputSize, int outputSize) {
+        this(inputSize, outputSize, Precision.DOUBLE);
+    }
+    
+    /**
+     * Creates zeroed gradient buffers for a layer in the given precision.
+     * 
+     * @param inputSize number of input neurons
+     * @param outputSize number of output neurons
+     * @param precision storage precision
+     */
+    public LayerGradients(int inputSize, int outputSize, Precision precision) {
+        this.precision = precision;
+        
+        if (precision == Precision.FLOAT) {
+            this.weightGradients = null;
+            this.biasGradients = null;
+            this.deltas = null;
+            this.floatWeightGradients = new FloatMatrix(outputSize, inputSize);
+            this.floatBiasGradients = new float[outputSize];
+            this.floatDeltas = new float[outputSize];
+            this.floatInput = new float[inputSize];
+        } else {
+            this.weightGradients = new Matrix(outputSize, inputSize);
+            this.biasGradients = new double[outputSize];
+            this.deltas = new double[outputSize];
+            this.floatWeightGradients = null;
+            this.floatBiasGradients = null;
+            this.floatDeltas = null;
+            this.floatInput = null;
+        }
+    }
+    
+    /**
+     * Resets all accumulated gradients to zero.
+     */
+    public void clear() {
+        if (precision == Precision.FLOAT) {
+            floatWeightGradients.fill(0.0f);
+            Arrays.fill(floatBiasGradients, 0.0f);
+        } else {
+            weightGradients.fill(0.0);
+            Arrays.fill(biasGradients, 0.0);
+        }
+    }
+    
+    /**
+     * Adds another set of gradients (same shape and precision) to this one.
+     * 
+     * @param other gradients to add
+     */
+    public void add(LayerGradients other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                String.format("Gradient precision mismatch: %s vs %s", precision, other.precision));
+        }
+        
+        VectorKernels kernels = ANNMath.kernels();
+        if (precision == Precision.FLOAT) {
+            float[] mine = floatWeightGradients.getData();
+            float[] theirs = other.floatWeightGradients.getData();
+            if (mine.length != theirs.length || floatBiasGradients.length != other.floatBiasGradients.length) {
+                throw new IllegalArgumentException("Gradient shape mismatch");
+            }
+            
+            kernels.axpy(1.0f, theirs, 0, mine, 0, mine.length);
+            kernels.axpy(1.0f, other.floatBiasGradients, 0, floatBiasGradients, 0, floatBiasGradients.length);
+            return;
+        }
+        
+        double[] mine = weightGradients.getData();
+        double[] theirs = other.weightGradients.getData();
+        if (mine.length != theirs.length || biasGradients.length != other.biasGradients.length) {
+            throw new IllegalArgumentException("Gradient shape mismatch");
+        }
+        
+        kernels.axpy(1.0, theirs, 0, mine, 0, mine.length);
+        kernels.axpy(1.0, other.biasGradients, 0, biasGradients, 0, biasGradients.length);
+    }
+    
+    /**
+     * Multiplies all gradients by a factor.
+     * 
+     * @param factor scale factor
+     */
+    public void scale(double factor) {
+        VectorKernels kernels = ANNMath.kernels();
+        if (precision == Precision.FLOAT) {
+            float[] data = floatWeightGradients.getData();
+            kernels.scale(data, 0, data.length, (float) factor);
+            kernels.scale(floatBiasGradients, 0, floatBiasGradients.length, (float) factor);
+            return;
+        }
+        
+        double[] data = weightGradients.getData();
+        kernels.scale(data, 0, data.length, factor);
+        kernels.scale(biasGradients, 0, biasGradients.length, factor);
+    }
+    
+    /**
+     * Computes the L2 norm of all gradients (weights and biases together).
+     * 
+     * @return Euclidean norm
+     */
+    public double norm() {
+        VectorKernels kernels = ANNMath.kernels();
+        if (precision == Precision.FLOAT) {
+            float[] data = floatWeightGradients.getData();
+            double sumSquares = (double) kernels.dot(data, 0, data, 0, data.length)
+                + kernels.dot(floatBiasGradients, 0, floatBiasGradients, 0, floatBiasGradients.length);
+            return Math.sqrt(sumSquares);
+        }
+        
+        double[] data = weightGradients.getData();
+        return Math.sqrt(kernels.dot(data, 0, data, 0, data.length)
+                         + kernels.dot(biasGradients, 0, biasGradients, 0, biasGradients.length));
+    }
+    
+    /**
+     * Gets the storage precision of these gradients.
+     * 
+     * @return precision
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Gets the weight gradients.
+     * 
+     * @return weight gradient matrix [outputSize][inputSize]
+     */
+    public Matrix getWeightGradients() {
+        requirePrecision(Precision.DOUBLE);
+        return weightGradients;
+    }
+    
+    /**
+     * Gets the bias gradients.
+     * 
+     * @return bias gradient vector [outputSize]
+     */
+    public double[] getBiasGradients() {
+        requirePrecision(Precision.DOUBLE);
+        return biasGradients;
+    }
+    
+    /**
+     * Gets the scratch buffer for per-neuron deltas.
+     * 
+     * @return delta buffer [outputSize]
+     */
+    public double[] getDeltas() {
+        requirePrecision(Precision.DOUBLE);
+        return deltas;
+    }
+    
+    /**
+     * Gets the single-precision weight gradients.
+     * 
+     * @return weight gradient matrix [outputSize][inputSize]
+     */
+    public FloatMatrix getFloatWeightGradients() {
+        requirePrecision(Precision.FLOAT);
+        return floatWeightGradients;
+    }
+    
+    /**
+     * Gets the single-precision bias gradients.
+     * 
+     * @return bias gradient vector [outputSize]
+     */
+    public float[] getFloatBiasGradients() {
+        requirePrecision(Precision.FLOAT);
+        return floatBiasGradients;
+    }
+    
+    /**
+     * Gets the single-precision scratch buffer for per-neuron deltas.
+     * 
+     * @return delta buffer [outputSize]
+     */
+    public float[] getFloatDeltas() {
+        requirePrecision(Precision.FLOAT);
+        return floatDeltas;
+    }
+    
+    /**
+     * Gets the single-precision input-sized scratch buffer.
+     * 
+     * @return scratch buffer [inputSize]
+     */
+    public float[] getFloatInput() {
+        requirePrecision(Precision.FLOAT);
+        return floatInput;
+    }
+    
+    /**
+     * Fails fast when a buffer of the wrong precision is requested.
+     * 
+     * @param expected precision the caller needs
+     */
+    private void requirePrecision(Precision expected) {
+        if (precision != expected) {
+            throw new IllegalStateException(
+                String.format("Gradients are stored in %s precision, not %s", precision, expected));
+        }
+    }
+}
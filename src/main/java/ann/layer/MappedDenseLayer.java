@@ -0,0 +1,92 @@
+package src.main.java.ann.layer;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.MappedMatrix;
+
+/**
+ * Frozen (inference-only) dense layer whose weights live in a memory-mapped
+ * model file (see {@link src.main.java.ann.io.ModelReader#map}).
+ * 
+ * Produces the same outputs as the {@link FrozenDenseLayer} or
+ * {@link FrozenFloatDenseLayer} of the saved network, without copying the
+ * weight matrix onto the heap.
+ */
+public class MappedDenseLayer implements FrozenLayer {
+    
+    private final MappedMatrix weights;
+    private final double[] biases;
+    private final ActivationFunction activation;
+    
+    /**
+     * Creates a dense layer over mapped weights (no copy).
+     * 
+     * @param weights mapped weight matrix [outputSize][inputSize]
+     * @param biases bias vector [outputSize]
+     * @param activation activation function
+     */
+    public MappedDenseLayer(MappedMatrix weights, double[] biases, ActivationFunction activation) {
+        if (biases.length != weights.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Bias size mismatch: expected %d, got %d",
+                              weights.getRows(), biases.length));
+        }
+        
+        this.weights = weights;
+        this.biases = biases;
+        this.activation = activation;
+    }
+    
+    @Override
+    public void forward(double[] input, double[] output, float[] workspace) {
+        ANNMath.multiply(weights, input, output);
+        for (int i = 0; i < output.length; i++) {
+            output[i] += biases[i];
+        }
+        activation.activate(output, 0, output.length);
+    }
+    
+    @Override
+    public int getInputSize() {
+        return weights.getCols();
+    }
+    
+    @Override
+    public int getOutputSize() {
+        return weights.getRows();
+    }
+    
+    /**
+     * Gets the mapped weight matrix.
+     * 
+     * @return weight matrix [outputSize][inputSize]
+     */
+    public MappedMatrix getWeightMatrix() {
+        return weights;
+    }
+    
+    /**
+     * Gets the bias vector.
+     * 
+     * @return bias vector [outputSize]
+     */
+    public double[] getBiases() {
+        return biases;
+    }
+    
+    /**
+     * Gets the activation function.
+     * 
+     * @return activation function
+     */
+    public ActivationFunction getActivation() {
+        return activation;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MappedDenseLayer[in=%d, out=%d, activation=%s, precision=%s]",
+                             getInputSize(), getOutputSize(), activation.getName(),
+                             weights.getPrecision());
+    }
+}
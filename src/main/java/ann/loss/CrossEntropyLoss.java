@@ -49,14 +49,19 @@ public class CrossEntropyLoss implements LossFunction {
     
     @Override
     public double[] gradient(double[] predicted, double[] target) {
-        if (predicted.length != target.length) {
+        double[] grad = new double[predicted.length];
+        gradient(predicted, target, grad);
+        return grad;
+    }
+    
+    @Override
+    public void gradient(double[] predicted, double[] target, double[] grad) {
+        if (predicted.length != target.length || grad.length != predicted.length) {
             throw new IllegalArgumentException(
-                String.format("Array size mismatch: predicted=%d, target=%d", 
-                              predicted.length, target.length));
+                String.format("Array size mismatch: predicted=%d, target=%d, gradient=%d", 
+                              predicted.length, target.length, grad.length));
         }
         
-        double[] grad = new double[predicted.length];
-        
         for (int i = 0; i < predicted.length; i++) {
             // Clip predicted values to avoid division by zero
             double clippedPredicted = Math.max(EPSILON, Math.min(1.0 - EPSILON, predicted[i]));
@@ -65,8 +70,6 @@ public class CrossEntropyLoss implements LossFunction {
             // Divided by n for averaging
             grad[i] = -(target[i] / clippedPredicted) / predicted.length;
         }
-        
-        return grad;
     }
     
     @Override
@@ -25,6 +25,17 @@ public interface LossFunction {
      */
     double[] gradient(double[] predicted, double[] target);
     
+    /**
+     * Computes the gradient of the loss into a caller-supplied array.
+     * Allocation-free variant of {@link #gradient(double[], double[])}
+     * used by the training loop.
+     * 
+     * @param predicted predicted output vector
+     * @param target target (ground truth) vector
+     * @param gradient output array receiving the gradient (same size as predicted)
+     */
+    void gradient(double[] predicted, double[] target, double[] gradient);
+    
     /**
      * Gets the name of this loss function.
      * 
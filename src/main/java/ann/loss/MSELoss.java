@@ -37,20 +37,23 @@ public class MSELoss implements LossFunction {
     
     @Override
     public double[] gradient(double[] predicted, double[] target) {
-        if (predicted.length != target.length) {
+        double[] grad = new double[predicted.length];
+        gradient(predicted, target, grad);
+        return grad;
+    }
+    
+    @Override
+    public void gradient(double[] predicted, double[] target, double[] grad) {
+        if (predicted.length != target.length || grad.length != predicted.length) {
             throw new IllegalArgumentException(
-                String.format("Array size mismatch: predicted=%d, target=%d", 
-                              predicted.length, target.length));
+                String.format("Array size mismatch: predicted=%d, target=%d, gradient=%d", 
+                              predicted.length, target.length, grad.length));
         }
         
-        double[] grad = new double[predicted.length];
-        
         // Gradient: (predicted - target) / n
         for (int i = 0; i < predicted.length; i++) {
             grad[i] = (predicted[i] - target[i]) / predicted.length;
         }
-        
-        return grad;
     }
     
     @Override
@@ -0,0 +1,78 @@
+package src.main.java.ann.loss;
+
+/**
+ * Cross-entropy loss fused with a softmax output layer.
+ * 
+ * Formula: L = -Σ(target_i × log(p_i)), with p = softmax(z)
+ * 
+ * Gradient with respect to the logits z: ∂L/∂z = p - target
+ * 
+ * Used for: Multi-class classification with a
+ * {@link src.main.java.ann.activation.SoftmaxActivation} output layer
+ * 
+ * Properties:
+ * - The softmax Jacobian and the 1/p of plain cross-entropy cancel out, so
+ *   the gradient is a subtraction: no division, no clipping, no vanishing
+ *   gradient when a wrong class saturates
+ * - Targets are one-hot rows (or any distribution summing to 1)
+ * 
+ * Note: {@link #gradient} is the gradient with respect to the logits, not
+ * the probabilities. It is only correct with a softmax output layer, whose
+ * derivative is 1; {@link src.main.java.ann.network.NeuralNetwork#validateLossFunction()}
+ * enforces the pairing.
+ */
+public class SoftmaxCrossEntropyLoss implements LossFunction {
+    
+    private static final double EPSILON = 1e-15;  // Small value to prevent log(0)
+    
+    @Override
+    public double compute(double[] predicted, double[] target) {
+        if (predicted.length != target.length) {
+            throw new IllegalArgumentException(
+                String.format("Array size mismatch: predicted=%d, target=%d", 
+                              predicted.length, target.length));
+        }
+        
+        double loss = 0.0;
+        
+        for (int i = 0; i < predicted.length; i++) {
+            // Only classes with target mass contribute (one non-zero term for one-hot targets)
+            if (target[i] != 0.0) {
+                loss -= target[i] * Math.log(Math.max(EPSILON, predicted[i]));
+            }
+        }
+        
+        return loss;
+    }
+    
+    @Override
+    public double[] gradient(double[] predicted, double[] target) {
+        double[] grad = new double[predicted.length];
+        gradient(predicted, target, grad);
+        return grad;
+    }
+    
+    @Override
+    public void gradient(double[] predicted, double[] target, double[] grad) {
+        if (predicted.length != target.length || grad.length != predicted.length) {
+            throw new IllegalArgumentException(
+                String.format("Array size mismatch: predicted=%d, target=%d, gradient=%d", 
+                              predicted.length, target.length, grad.length));
+        }
+        
+        // Gradient with respect to the logits: p - y
+        for (int i = 0; i < predicted.length; i++) {
+            grad[i] = predicted[i] - target[i];
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "Softmax Cross-Entropy";
+    }
+    
+    @Override
+    public String toString() {
+        return "SoftmaxCrossEntropyLoss";
+    }
+}
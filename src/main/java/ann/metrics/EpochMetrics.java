@@ -0,0 +1,128 @@
+package src.main.java.ann.metrics;
+
+/**
+ * Immutable snapshot of the instrumentation collected during one epoch.
+ */
+public class EpochMetrics {
+    
+    private final int epoch;
+    private final long nanos;
+    private final long samples;
+    private final long batches;
+    private final long allocatedBytes;
+    private final double loss;
+    private final double validationLoss;
+    private final long[] forwardNanos;
+    private final long[] backwardNanos;
+    private final double[] meanGradientNorms;
+    
+    /**
+     * Creates an epoch snapshot. The arrays are not copied.
+     * 
+     * @param epoch epoch index (0-based)
+     * @param nanos wall-clock duration of the epoch
+     * @param samples number of samples trained on
+     * @param batches number of training steps
+     * @param allocatedBytes bytes allocated by the training thread only (-1 if unavailable)
+     * @param loss training loss
+     * @param validationLoss validation loss (negative if none)
+     * @param forwardNanos time per layer in forward passes
+     * @param backwardNanos time per layer in backward passes
+     * @param meanGradientNorms mean gradient L2 norm per layer (NaN if no update was recorded)
+     */
+    EpochMetrics(int epoch, long nanos, long samples, long batches, long allocatedBytes,
+                 double loss, double validationLoss, long[] forwardNanos, long[] backwardNanos,
+                 double[] meanGradientNorms) {
+        this.epoch = epoch;
+        this.nanos = nanos;
+        this.samples = samples;
+        this.batches = batches;
+        this.allocatedBytes = allocatedBytes;
+        this.loss = loss;
+        this.validationLoss = validationLoss;
+        this.forwardNanos = forwardNanos;
+        this.backwardNanos = backwardNanos;
+        this.meanGradientNorms = meanGradientNorms;
+    }
+    
+    public int getEpoch() {
+        return epoch;
+    }
+    
+    public long getNanos() {
+        return nanos;
+    }
+    
+    public long getSamples() {
+        return samples;
+    }
+    
+    public long getBatches() {
+        return batches;
+    }
+    
+    /**
+     * Gets the bytes the training thread allocated during the epoch.
+     * Allocations on batch prefetcher and data-parallel worker threads are
+     * not included.
+     * 
+     * @return allocated bytes, or -1 if the JVM cannot tell
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+    
+    public double getLoss() {
+        return loss;
+    }
+    
+    public double getValidationLoss() {
+        return validationLoss;
+    }
+    
+    /**
+     * Gets the training throughput.
+     * 
+     * @return samples per second of wall-clock time
+     */
+    public double getSamplesPerSecond() {
+        return nanos > 0 ? samples * 1e9 / nanos : 0.0;
+    }
+    
+    /**
+     * Gets the training step rate.
+     * 
+     * @return batches per second of wall-clock time
+     */
+    public double getBatchesPerSecond() {
+        return nanos > 0 ? batches * 1e9 / nanos : 0.0;
+    }
+    
+    /**
+     * Gets the number of layers covered by the snapshot.
+     * 
+     * @return layer count
+     */
+    public int getLayerCount() {
+        return forwardNanos.length;
+    }
+    
+    public long getForwardNanos(int layer) {
+        return forwardNanos[layer];
+    }
+    
+    public long getBackwardNanos(int layer) {
+        return backwardNanos[layer];
+    }
+    
+    public double getMeanGradientNorm(int layer) {
+        return meanGradientNorms[layer];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("EpochMetrics[epoch=%d, time=%.1f ms, samples/s=%.0f, batches/s=%.1f, training thread allocated=%d B]",
+                             epoch + 1, nanos / 1e6, getSamplesPerSecond(), getBatchesPerSecond(),
+                             allocatedBytes);
+    }
+}
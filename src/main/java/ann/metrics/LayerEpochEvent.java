@@ -0,0 +1,40 @@
+package src.main.java.ann.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event with one layer's share of an epoch, committed when
+ * the epoch ends.
+ */
+@Name("ann.LayerEpoch")
+@Label("Layer Epoch Statistics")
+@Category({"ANN", "Training"})
+@Description("Time spent in one layer and its gradient norm during an epoch")
+class LayerEpochEvent extends Event {
+    
+    @Label("Epoch")
+    int epoch;
+    
+    @Label("Layer")
+    int layer;
+    
+    @Label("Forward Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long forwardNanos;
+    
+    @Label("Backward Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long backwardNanos;
+    
+    @Label("Mean Gradient Norm")
+    @Description("Mean L2 norm of the averaged gradient over the epoch's updates")
+    double meanGradientNorm;
+    
+    @Label("Last Gradient Norm")
+    double lastGradientNorm;
+}
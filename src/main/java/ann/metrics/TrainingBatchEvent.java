@@ -0,0 +1,29 @@
+package src.main.java.ann.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one training step.
+ */
+@Name("ann.TrainingBatch")
+@Label("Training Batch")
+@Category({"ANN", "Training"})
+@Description("Forward pass, backward pass and parameter update for one batch")
+class TrainingBatchEvent extends Event {
+    
+    @Label("Epoch")
+    int epoch;
+    
+    @Label("Batch")
+    long batch;
+    
+    @Label("Batch Size")
+    int size;
+    
+    @Label("Loss")
+    double loss;
+}
@@ -0,0 +1,45 @@
+package src.main.java.ann.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one training epoch.
+ */
+@Name("ann.TrainingEpoch")
+@Label("Training Epoch")
+@Category({"ANN", "Training"})
+@Description("One pass over the training data")
+class TrainingEpochEvent extends Event {
+    
+    @Label("Epoch")
+    int epoch;
+    
+    @Label("Training Loss")
+    double loss;
+    
+    @Label("Validation Loss")
+    @Description("Negative when no validation data is used")
+    double validationLoss;
+    
+    @Label("Samples")
+    long samples;
+    
+    @Label("Batches")
+    long batches;
+    
+    @Label("Samples per Second")
+    double samplesPerSecond;
+    
+    @Label("Batches per Second")
+    double batchesPerSecond;
+    
+    @Label("Allocated by Training Thread")
+    @Description("Bytes allocated by the training thread during the epoch; prefetcher and data-parallel worker threads are not counted")
+    @DataAmount
+    long allocatedBytes;
+}
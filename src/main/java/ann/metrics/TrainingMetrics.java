@@ -0,0 +1,345 @@
+package src.main.java.ann.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of training instrumentation: per-layer forward and backward
+ * time, per-layer gradient norms, samples and batches per second and the
+ * bytes the training thread allocates per epoch.
+ * 
+ * Instrumentation is opt-in. A registry is installed on a network with
+ * {@link src.main.java.ann.network.NeuralNetwork#setMetrics(TrainingMetrics)}
+ * (or through the training configuration); without one, the hot paths skip
+ * it behind a single null check and read no clock. Recording writes into
+ * preallocated primitive arrays, and the only per-epoch allocation is the
+ * {@link EpochMetrics} snapshot.
+ * 
+ * Every epoch and batch is also emitted as a Flight Recorder event
+ * ({@code ann.TrainingEpoch}, {@code ann.LayerEpoch},
+ * {@code ann.TrainingBatch}), so a JFR recording shows where training time
+ * goes next to GC and JIT activity.
+ * 
+ * The allocation figure covers the training thread only: a batch
+ * prefetcher or data-parallel workers allocate on their own threads, which
+ * are not counted.
+ * 
+ * Recording happens on the training thread. Other threads (e.g. a
+ * {@link src.main.java.ann.core.TrainingMonitor}) should query completed
+ * epochs through {@link #getEpochs()}, which is safe to read concurrently.
+ * Per-layer timings cover the single-threaded training paths; data-parallel
+ * steps record batches and gradient norms only.
+ */
+public class TrainingMetrics {
+    
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    private int numLayers;
+    
+    // Current epoch, per layer
+    private long[] forwardNanos;
+    private long[] backwardNanos;
+    private double[] gradientNormSum;
+    private long[] gradientUpdates;
+    private double[] lastGradientNorm;
+    
+    // Whole run, per layer
+    private long[] totalForwardNanos;
+    private long[] totalBackwardNanos;
+    
+    // Current epoch
+    private int epoch;
+    private long epochStart;
+    private long epochAllocationStart;
+    private long samples;
+    private long batches;
+    private TrainingEpochEvent epochEvent;
+    
+    // Current batch; one event is reused so steps do not allocate
+    private final TrainingBatchEvent batchEvent;
+    private boolean batchEventStarted;
+    
+    // Whole run
+    private long totalNanos;
+    private long totalSamples;
+    private long totalBatches;
+    
+    private final List<EpochMetrics> epochs;
+    
+    /**
+     * Creates an empty registry. Layer arrays are sized when a network binds it.
+     */
+    public TrainingMetrics() {
+        this.epochs = new CopyOnWriteArrayList<>();
+        this.batchEvent = new TrainingBatchEvent();
+        ensureLayers(0);
+    }
+    
+    /**
+     * Makes sure per-layer counters exist for the given number of layers.
+     * 
+     * @param count number of layers
+     */
+    public void ensureLayers(int count) {
+        if (forwardNanos != null && count <= numLayers) {
+            return;
+        }
+        
+        numLayers = count;
+        forwardNanos = grow(forwardNanos, count);
+        backwardNanos = grow(backwardNanos, count);
+        gradientUpdates = grow(gradientUpdates, count);
+        totalForwardNanos = grow(totalForwardNanos, count);
+        totalBackwardNanos = grow(totalBackwardNanos, count);
+        gradientNormSum = grow(gradientNormSum, count);
+        lastGradientNorm = grow(lastGradientNorm, count);
+    }
+    
+    /**
+     * Marks the start of an epoch.
+     * 
+     * @param epoch epoch index (0-based)
+     */
+    public void startEpoch(int epoch) {
+        this.epoch = epoch;
+        this.samples = 0;
+        this.batches = 0;
+        Arrays.fill(forwardNanos, 0L);
+        Arrays.fill(backwardNanos, 0L);
+        Arrays.fill(gradientNormSum, 0.0);
+        Arrays.fill(gradientUpdates, 0L);
+        
+        epochEvent = new TrainingEpochEvent();
+        epochEvent.begin();
+        epochAllocationStart = allocatedBytes();
+        epochStart = System.nanoTime();
+    }
+    
+    /**
+     * Marks the end of an epoch, stores its snapshot and emits its events.
+     * 
+     * @param loss training loss of the epoch
+     * @param validationLoss validation loss (negative if none)
+     * @return snapshot of the epoch
+     * @throws IllegalStateException if no epoch was started
+     */
+    public EpochMetrics endEpoch(double loss, double validationLoss) {
+        if (epochEvent == null) {
+            throw new IllegalStateException("endEpoch called without startEpoch");
+        }
+        
+        long nanos = System.nanoTime() - epochStart;
+        long allocationEnd = allocatedBytes();
+        long allocated = allocationEnd >= 0 && epochAllocationStart >= 0
+            ? allocationEnd - epochAllocationStart
+            : -1L;
+        
+        double[] meanNorms = new double[numLayers];
+        for (int l = 0; l < numLayers; l++) {
+            meanNorms[l] = gradientUpdates[l] > 0 ? gradientNormSum[l] / gradientUpdates[l] : Double.NaN;
+            totalForwardNanos[l] += forwardNanos[l];
+            totalBackwardNanos[l] += backwardNanos[l];
+        }
+        totalNanos += nanos;
+        totalSamples += samples;
+        totalBatches += batches;
+        
+        EpochMetrics snapshot = new EpochMetrics(epoch, nanos, samples, batches, allocated, loss, validationLoss,
+                                                 forwardNanos.clone(), backwardNanos.clone(), meanNorms);
+        epochs.add(snapshot);
+        
+        epochEvent.end();
+        if (epochEvent.shouldCommit()) {
+            epochEvent.epoch = epoch;
+            epochEvent.loss = loss;
+            epochEvent.validationLoss = validationLoss;
+            epochEvent.samples = samples;
+            epochEvent.batches = batches;
+            epochEvent.samplesPerSecond = snapshot.getSamplesPerSecond();
+            epochEvent.batchesPerSecond = snapshot.getBatchesPerSecond();
+            epochEvent.allocatedBytes = allocated;
+            epochEvent.commit();
+            
+            for (int l = 0; l < numLayers; l++) {
+                LayerEpochEvent layerEvent = new LayerEpochEvent();
+                layerEvent.epoch = epoch;
+                layerEvent.layer = l;
+                layerEvent.forwardNanos = forwardNanos[l];
+                layerEvent.backwardNanos = backwardNanos[l];
+                layerEvent.meanGradientNorm = meanNorms[l];
+                layerEvent.lastGradientNorm = lastGradientNorm[l];
+                layerEvent.commit();
+            }
+        }
+        epochEvent = null;
+        
+        return snapshot;
+    }
+    
+    /**
+     * Marks the start of a training step.
+     */
+    public void startBatch() {
+        batchEventStarted = batchEvent.isEnabled();
+        if (batchEventStarted) {
+            batchEvent.begin();
+        }
+    }
+    
+    /**
+     * Marks the end of a training step.
+     * 
+     * @param size number of samples in the batch
+     * @param loss average loss of the batch
+     */
+    public void endBatch(int size, double loss) {
+        samples += size;
+        batches++;
+        
+        if (!batchEventStarted) {
+            return;
+        }
+        batchEventStarted = false;
+        batchEvent.end();
+        if (batchEvent.shouldCommit()) {
+            batchEvent.epoch = epoch;
+            batchEvent.batch = batches - 1;
+            batchEvent.size = size;
+            batchEvent.loss = loss;
+            batchEvent.commit();
+        }
+    }
+    
+    /**
+     * Adds time spent in a layer's forward pass.
+     * 
+     * @param layer layer index
+     * @param nanos elapsed nanoseconds
+     */
+    public void recordForward(int layer, long nanos) {
+        forwardNanos[layer] += nanos;
+    }
+    
+    /**
+     * Adds time spent in a layer's backward pass.
+     * 
+     * @param layer layer index
+     * @param nanos elapsed nanoseconds
+     */
+    public void recordBackward(int layer, long nanos) {
+        backwardNanos[layer] += nanos;
+    }
+    
+    /**
+     * Records the L2 norm of the (averaged) gradient a layer just applied.
+     * 
+     * @param layer layer index
+     * @param norm gradient norm
+     */
+    public void recordGradientNorm(int layer, double norm) {
+        gradientNormSum[layer] += norm;
+        gradientUpdates[layer]++;
+        lastGradientNorm[layer] = norm;
+    }
+    
+    /**
+     * Gets the snapshots of all completed epochs.
+     * 
+     * @return unmodifiable list, oldest first
+     */
+    public List<EpochMetrics> getEpochs() {
+        return Collections.unmodifiableList(epochs);
+    }
+    
+    /**
+     * Gets the snapshot of the last completed epoch.
+     * 
+     * @return last epoch, or null if none has completed
+     */
+    public EpochMetrics getLastEpoch() {
+        return epochs.isEmpty() ? null : epochs.get(epochs.size() - 1);
+    }
+    
+    public int getLayerCount() {
+        return numLayers;
+    }
+    
+    public long getTotalForwardNanos(int layer) {
+        return totalForwardNanos[layer];
+    }
+    
+    public long getTotalBackwardNanos(int layer) {
+        return totalBackwardNanos[layer];
+    }
+    
+    public double getLastGradientNorm(int layer) {
+        return lastGradientNorm[layer];
+    }
+    
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+    
+    public long getTotalBatches() {
+        return totalBatches;
+    }
+    
+    /**
+     * Gets the throughput over all completed epochs.
+     * 
+     * @return samples per second
+     */
+    public double getSamplesPerSecond() {
+        return totalNanos > 0 ? totalSamples * 1e9 / totalNanos : 0.0;
+    }
+    
+    /**
+     * Gets the step rate over all completed epochs.
+     * 
+     * @return batches per second
+     */
+    public double getBatchesPerSecond() {
+        return totalNanos > 0 ? totalBatches * 1e9 / totalNanos : 0.0;
+    }
+    
+    /**
+     * Clears all recorded values and epoch snapshots.
+     */
+    public void reset() {
+        epochs.clear();
+        Arrays.fill(totalForwardNanos, 0L);
+        Arrays.fill(totalBackwardNanos, 0L);
+        Arrays.fill(lastGradientNorm, 0.0);
+        totalNanos = 0;
+        totalSamples = 0;
+        totalBatches = 0;
+    }
+    
+    /**
+     * Bytes allocated so far by the calling thread, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+    
+    private static long[] grow(long[] array, int size) {
+        return array == null ? new long[size] : Arrays.copyOf(array, size);
+    }
+    
+    private static double[] grow(double[] array, int size) {
+        return array == null ? new double[size] : Arrays.copyOf(array, size);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TrainingMetrics[layers=%d, epochs=%d, samples/s=%.0f]",
+                             numLayers, epochs.size(), getSamplesPerSecond());
+    }
+}
@@ -0,0 +1,135 @@
+package src.main.java.ann.network;
+
+import src.main.java.ann.layer.FrozenLayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frozen, inference-only neural network.
+ * 
+ * Created with {@link NeuralNetwork#freeze()}. It shares the trained
+ * parameters with the source network but keeps no gradients, forward caches
+ * or training history, so once the source network is dropped the resident
+ * memory is roughly halved. All scratch data lives in {@link InferenceContext},
+ * which makes one instance safe to share between any number of threads.
+ * 
+ * Note: parameters are shared, not copied. Freeze after training is done;
+ * further training of the source network is visible through this model.
+ */
+public class FrozenNetwork implements InferenceModel {
+    
+    private final FrozenLayer[] layers;
+    
+    /**
+     * Creates a frozen network from frozen layers.
+     * 
+     * @param layers frozen layers in forward order
+     */
+    public FrozenNetwork(List<FrozenLayer> layers) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("Network must have at least one layer");
+        }
+        
+        for (int i = 1; i < layers.size(); i++) {
+            if (layers.get(i - 1).getOutputSize() != layers.get(i).getInputSize()) {
+                throw new IllegalArgumentException(
+                    String.format("Layer dimension mismatch: previous output=%d, current input=%d",
+                                  layers.get(i - 1).getOutputSize(), layers.get(i).getInputSize()));
+            }
+        }
+        
+        this.layers = layers.toArray(new FrozenLayer[0]);
+    }
+    
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        if (input.length != getInputSize()) {
+            throw new IllegalArgumentException(
+                String.format("Input size mismatch: expected %d, got %d",
+                              getInputSize(), input.length));
+        }
+        
+        double[] activation = input;
+        
+        for (int i = 0; i < layers.length; i++) {
+            double[] output = context.getActivation(i);
+            layers[i].forward(activation, output, context.getFloatWorkspace());
+            activation = output;
+        }
+        
+        return activation;
+    }
+    
+    /**
+     * Makes a prediction with a fresh context.
+     * Convenient for one-off calls; hot paths should reuse a context.
+     * 
+     * @param input input vector
+     * @return predicted output vector (owned by the caller)
+     */
+    public double[] predict(double[] input) {
+        return predict(input, createContext()).clone();
+    }
+    
+    @Override
+    public InferenceContext createContext() {
+        int[] sizes = new int[layers.length];
+        int workspaceSize = 0;
+        for (int i = 0; i < layers.length; i++) {
+            sizes[i] = layers[i].getOutputSize();
+            workspaceSize = Math.max(workspaceSize, layers[i].getWorkspaceSize());
+        }
+        return new InferenceContext(sizes, workspaceSize);
+    }
+    
+    @Override
+    public int getInputSize() {
+        return layers[0].getInputSize();
+    }
+    
+    @Override
+    public int getOutputSize() {
+        return layers[layers.length - 1].getOutputSize();
+    }
+    
+    /**
+     * Gets the number of layers.
+     * 
+     * @return number of layers
+     */
+    public int getLayerCount() {
+        return layers.length;
+    }
+    
+    /**
+     * Gets a specific layer by index.
+     * 
+     * @param index layer index (0-based)
+     * @return the frozen layer
+     */
+    public FrozenLayer getLayer(int index) {
+        return layers[index];
+    }
+    
+    /**
+     * Gets all layers.
+     * 
+     * @return list of frozen layers
+     */
+    public List<FrozenLayer> getLayers() {
+        return new ArrayList<>(List.of(layers));
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FrozenNetwork[\n");
+        sb.append(String.format("  Layers: %d\n", layers.length));
+        for (int i = 0; i < layers.length; i++) {
+            sb.append(String.format("    Layer %d: %s\n", i, layers[i]));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
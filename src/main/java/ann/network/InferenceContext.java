@@ -0,0 +1,72 @@
+package src.main.java.ann.network;
+
+/**
+ * Per-call (or per-thread) scratch space for the inference path.
+ * 
+ * Holds one activation buffer per layer, plus the float workspace that
+ * single-precision layers narrow into, so that a forward pass can run
+ * without touching any state stored in the layers themselves. A context must
+ * not be shared between threads that predict at the same time; give each
+ * thread its own (e.g. through a ThreadLocal) and reuse it across calls.
+ * 
+ * Models that need other scratch space (such as the int8 buffers of a
+ * quantized model) extend this class and return the subclass from
+ * {@link InferenceModel#createContext()}.
+ */
+public class InferenceContext {
+    
+    private final double[][] activations;
+    private final float[] floatWorkspace;
+    
+    /**
+     * Creates a context for a model with the given layer output sizes and
+     * no float workspace.
+     * 
+     * @param layerOutputSizes output size of each layer, in order
+     */
+    public InferenceContext(int[] layerOutputSizes) {
+        this(layerOutputSizes, 0);
+    }
+    
+    /**
+     * Creates a context for a model with the given layer output sizes.
+     * 
+     * @param layerOutputSizes output size of each layer, in order
+     * @param floatWorkspaceSize largest float workspace any layer needs
+     */
+    public InferenceContext(int[] layerOutputSizes, int floatWorkspaceSize) {
+        this.activations = new double[layerOutputSizes.length][];
+        for (int i = 0; i < layerOutputSizes.length; i++) {
+            activations[i] = new double[layerOutputSizes[i]];
+        }
+        this.floatWorkspace = new float[floatWorkspaceSize];
+    }
+    
+    /**
+     * Gets the activation buffer for a layer.
+     * 
+     * @param layerIndex layer index (0-based)
+     * @return buffer receiving that layer's output
+     */
+    public double[] getActivation(int layerIndex) {
+        return activations[layerIndex];
+    }
+    
+    /**
+     * Gets the float scratch space shared by the layers of one forward pass.
+     * 
+     * @return workspace
+     */
+    public float[] getFloatWorkspace() {
+        return floatWorkspace;
+    }
+    
+    /**
+     * Gets the number of layer buffers in this context.
+     * 
+     * @return number of layers
+     */
+    public int getLayerCount() {
+        return activations.length;
+    }
+}
@@ -0,0 +1,42 @@
+package src.main.java.ann.network;
+
+/**
+ * A model that can run reentrant, read-only inference.
+ * 
+ * Implementations never mutate shared state while predicting: all scratch
+ * data lives in the caller-supplied {@link InferenceContext}. One model
+ * instance can therefore serve many threads concurrently without locks, as
+ * long as each thread uses its own context.
+ */
+public interface InferenceModel {
+    
+    /**
+     * Computes the model output for one input.
+     * 
+     * @param input input vector
+     * @param context scratch space owned by the calling thread
+     * @return output vector (a buffer inside the context, overwritten by the next call)
+     */
+    double[] predict(double[] input, InferenceContext context);
+    
+    /**
+     * Creates a new scratch context sized for this model.
+     * 
+     * @return new inference context
+     */
+    InferenceContext createContext();
+    
+    /**
+     * Gets the input size of the model.
+     * 
+     * @return input size
+     */
+    int getInputSize();
+    
+    /**
+     * Gets the output size of the model.
+     * 
+     * @return output size
+     */
+    int getOutputSize();
+}
@@ -2,11 +2,17 @@ package src.main.java.ann.network;
 
 import src.main.java.ann.activation.ActivationFunction;
 import src.main.java.ann.activation.SigmoidActivation;
+import src.main.java.ann.activation.SoftmaxActivation;
 import src.main.java.ann.initialization.WeightInitializer;
 import src.main.java.ann.initialization.XavierInitializer;
 import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.Layer;
 import src.main.java.ann.loss.LossFunction;
 import src.main.java.ann.loss.MSELoss;
+import src.main.java.ann.loss.SoftmaxCrossEntropyLoss;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.utils.Precision;
 
 /**
  * Builder class for constructing neural networks with a fluent API.
@@ -87,7 +93,9 @@ public class NetworkBuilder {
             throw new IllegalArgumentException("Layer size must be positive");
         }
         
-        DenseLayer layer = new DenseLayer(lastLayerSize, size, activation, initializer);
+        Layer layer = config.getPrecision() == Precision.FLOAT
+            ? new FloatDenseLayer(lastLayerSize, size, activation, initializer)
+            : new DenseLayer(lastLayerSize, size, activation, initializer);
         network.addLayer(layer);
         
         lastLayerSize = size;
@@ -119,6 +127,19 @@ public class NetworkBuilder {
         return addDenseLayer(size, activation, initializer);
     }
     
+    /**
+     * Adds a softmax output layer for multi-class classification and sets the
+     * loss to {@link SoftmaxCrossEntropyLoss}, whose backward pass is p - y.
+     * 
+     * @param numClasses number of classes
+     * @return this builder
+     */
+    public NetworkBuilder addSoftmaxOutputLayer(int numClasses) {
+        addDenseLayer(numClasses, new SoftmaxActivation());
+        config.setLossFunction(new SoftmaxCrossEntropyLoss());
+        return this;
+    }
+    
     /**
      * Sets the learning rate for training.
      * 
@@ -152,6 +173,36 @@ public class NetworkBuilder {
         return this;
     }
     
+    /**
+     * Enables or disables true mini-batch updates.
+     * When enabled, gradients are averaged over each batch and applied once
+     * per batch; otherwise parameters are updated after every sample.
+     * 
+     * @param enable true to apply one averaged update per batch
+     * @return this builder
+     */
+    public NetworkBuilder setMiniBatchUpdates(boolean enable) {
+        config.setMiniBatchUpdates(enable);
+        return this;
+    }
+    
+    /**
+     * Sets the storage precision of the dense layers added afterwards.
+     * FLOAT halves parameter memory and bandwidth (see {@link FloatDenseLayer}).
+     * Must be called before adding any dense layers.
+     * 
+     * @param precision DOUBLE (default) or FLOAT
+     * @return this builder
+     */
+    public NetworkBuilder setPrecision(Precision precision) {
+        if (network.getLayerCount() > 0) {
+            throw new IllegalStateException("Precision must be set before adding dense layers");
+        }
+        
+        config.setPrecision(precision);
+        return this;
+    }
+    
     /**
      * Sets the loss function.
      * 
@@ -163,6 +214,19 @@ public class NetworkBuilder {
         return this;
     }
     
+    /**
+     * Sets the optimizer that applies the parameter updates. The instance
+     * holds per-parameter state and becomes owned by the built network, so
+     * create a new one for every network.
+     * 
+     * @param optimizer optimizer (e.g. {@link src.main.java.ann.optimizer.AdamOptimizer})
+     * @return this builder
+     */
+    public NetworkBuilder setOptimizer(Optimizer optimizer) {
+        config.setOptimizer(optimizer);
+        return this;
+    }
+    
     /**
      * Sets the default weight initializer for all layers.
      * Must be called before adding layers.
@@ -232,6 +296,8 @@ public class NetworkBuilder {
             throw new IllegalStateException("Network must have at least one layer");
         }
         
+        network.validateLossFunction();
+        
         return network;
     }
     
@@ -2,6 +2,9 @@ package src.main.java.ann.network;
 
 import src.main.java.ann.loss.LossFunction;
 import src.main.java.ann.loss.MSELoss;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.optimizer.SGDOptimizer;
+import src.main.java.ann.utils.Precision;
 
 /**
  * Configuration class for neural network settings.
@@ -14,9 +17,18 @@ public class NetworkConfig {
     private int epochs;
     private int batchSize;
     
+    // Apply one averaged update per batch instead of one per sample
+    private boolean miniBatchUpdates;
+    
+    // Storage precision for dense layer parameters
+    private Precision precision;
+    
     // Loss function
     private LossFunction lossFunction;
     
+    // Parameter update rule
+    private Optimizer optimizer;
+    
     // Early stopping
     private boolean useEarlyStopping;
     private int earlyStoppingPatience;
@@ -36,10 +48,15 @@ public class NetworkConfig {
         this.learningRate = 0.01;
         this.epochs = 100;
         this.batchSize = 32;
+        this.miniBatchUpdates = false;
+        this.precision = Precision.DOUBLE;
         
         // Default loss function
         this.lossFunction = new MSELoss();
         
+        // Default optimizer
+        this.optimizer = new SGDOptimizer();
+        
         // Default early stopping settings
         this.useEarlyStopping = false;
         this.earlyStoppingPatience = 10;
@@ -87,6 +104,25 @@ public class NetworkConfig {
         this.batchSize = batchSize;
     }
     
+    public boolean isMiniBatchUpdates() {
+        return miniBatchUpdates;
+    }
+    
+    public void setMiniBatchUpdates(boolean miniBatchUpdates) {
+        this.miniBatchUpdates = miniBatchUpdates;
+    }
+    
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    public void setPrecision(Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
+        }
+        this.precision = precision;
+    }
+    
     public LossFunction getLossFunction() {
         return lossFunction;
     }
@@ -98,6 +134,17 @@ public class NetworkConfig {
         this.lossFunction = lossFunction;
     }
     
+    public Optimizer getOptimizer() {
+        return optimizer;
+    }
+    
+    public void setOptimizer(Optimizer optimizer) {
+        if (optimizer == null) {
+            throw new IllegalArgumentException("Optimizer cannot be null");
+        }
+        this.optimizer = optimizer;
+    }
+    
     public boolean isUseEarlyStopping() {
         return useEarlyStopping;
     }
@@ -149,8 +196,9 @@ public class NetworkConfig {
     
     @Override
     public String toString() {
-        return String.format("NetworkConfig[lr=%.4f, epochs=%d, batchSize=%d, loss=%s]",
-                             learningRate, epochs, batchSize, lossFunction.getName());
+        return String.format("NetworkConfig[lr=%.4f, epochs=%d, batchSize=%d, miniBatch=%b, precision=%s, loss=%s, optimizer=%s]",
+                             learningRate, epochs, batchSize, miniBatchUpdates, precision,
+                             lossFunction.getName(), optimizer.getName());
     }
 }
 
@@ -1,7 +1,16 @@
 package src.main.java.ann.network;
 
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.activation.SoftmaxActivation;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.FrozenLayer;
 import src.main.java.ann.layer.Layer;
 import src.main.java.ann.loss.LossFunction;
+import src.main.java.ann.loss.SoftmaxCrossEntropyLoss;
+import src.main.java.ann.metrics.TrainingMetrics;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.utils.Matrix;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,8 +23,13 @@ import java.util.List;
  * - Input layer (implicit, defined by first layer's input size)
  * - Hidden layers (zero or more)
  * - Output layer
+ * 
+ * The training path ({@link #forward(double[])}, {@link #backward(double[])})
+ * caches activations inside the layers and is single-threaded. The inference
+ * path ({@link #predict(double[], InferenceContext)}) keeps all scratch data in
+ * the caller's context and may be used from many threads at once.
  */
-public class NeuralNetwork {
+public class NeuralNetwork implements InferenceModel {
     
     private List<Layer> layers;
     private NetworkConfig config;
@@ -24,6 +38,21 @@ public class NeuralNetwork {
     private List<Double> trainingLossHistory;
     private List<Double> validationLossHistory;
     
+    // Training workspace, reused across samples and batches
+    private double[] lossGradient;
+    private double[] predictedRow;
+    private double[] inputRow;
+    private double[] targetRow;
+    private Matrix batchInputs;
+    private Matrix batchTargets;
+    private Matrix batchGradients;
+    
+    // Optimizer whose state is currently laid out over this network's parameters
+    private Optimizer boundOptimizer;
+    
+    // Training instrumentation (null = disabled)
+    private TrainingMetrics metrics;
+    
     /**
      * Creates a neural network with default configuration.
      */
@@ -58,10 +87,16 @@ public class NeuralNetwork {
             }
         }
         layers.add(layer);
+        if (metrics != null) {
+            metrics.ensureLayers(layers.size());
+            layer.setMetrics(metrics, layers.size() - 1);
+        }
     }
     
     /**
      * Forward pass: computes network output for given input.
+     * The returned array is the last layer's workspace buffer and is
+     * overwritten by the next pass; use {@link #predict(double[])} for a copy.
      * 
      * @param input input vector
      * @return output vector
@@ -74,8 +109,8 @@ public class NeuralNetwork {
         double[] activation = input;
         
         // Pass through each layer sequentially
-        for (Layer layer : layers) {
-            activation = layer.forward(activation);
+        for (int i = 0; i < layers.size(); i++) {
+            activation = layers.get(i).forward(activation);
         }
         
         return activation;
@@ -92,6 +127,7 @@ public class NeuralNetwork {
         }
         
         double[] gradient = lossGradient;
+        getOptimizer().nextStep();
         
         // Backpropagate through layers in reverse order
         for (int i = layers.size() - 1; i >= 0; i--) {
@@ -100,6 +136,35 @@ public class NeuralNetwork {
         }
     }
     
+    /**
+     * Backward pass for mini-batch training: accumulates gradients in every
+     * layer without updating any weights.
+     * 
+     * @param lossGradient gradient of loss with respect to output
+     */
+    public void accumulateGradients(double[] lossGradient) {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("Network has no layers");
+        }
+        
+        double[] gradient = lossGradient;
+        
+        // Backpropagate through layers in reverse order
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            gradient = layers.get(i).accumulateGradients(gradient);
+        }
+    }
+    
+    /**
+     * Applies one averaged update per layer from the accumulated gradients.
+     */
+    public void applyAccumulatedGradients() {
+        getOptimizer().nextStep();
+        for (int i = 0; i < layers.size(); i++) {
+            layers.get(i).applyAccumulatedGradients(config.getLearningRate());
+        }
+    }
+    
     /**
      * Trains the network on a single example (online learning).
      * 
@@ -108,6 +173,10 @@ public class NeuralNetwork {
      * @return loss value
      */
     public double trainOnExample(double[] input, double[] target) {
+        if (metrics != null) {
+            return trainOnExampleTimed(input, target);
+        }
+        
         // Forward pass
         double[] predicted = forward(input);
         
@@ -115,8 +184,9 @@ public class NeuralNetwork {
         LossFunction lossFunction = config.getLossFunction();
         double loss = lossFunction.compute(predicted, target);
         
-        // Compute loss gradient
-        double[] lossGradient = lossFunction.gradient(predicted, target);
+        // Compute loss gradient into the reusable buffer
+        double[] lossGradient = lossGradientBuffer();
+        lossFunction.gradient(predicted, target, lossGradient);
         
         // Backward pass
         backward(lossGradient);
@@ -124,12 +194,48 @@ public class NeuralNetwork {
         return loss;
     }
     
+    /**
+     * {@link #trainOnExample(double[], double[])} with per-layer timing.
+     */
+    private double trainOnExampleTimed(double[] input, double[] target) {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("Network has no layers");
+        }
+        
+        double[] predicted = input;
+        for (int i = 0; i < layers.size(); i++) {
+            long start = System.nanoTime();
+            predicted = layers.get(i).forward(predicted);
+            metrics.recordForward(i, System.nanoTime() - start);
+        }
+        
+        LossFunction lossFunction = config.getLossFunction();
+        double loss = lossFunction.compute(predicted, target);
+        double[] gradient = lossGradientBuffer();
+        lossFunction.gradient(predicted, target, gradient);
+        
+        getOptimizer().nextStep();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            long start = System.nanoTime();
+            gradient = layers.get(i).backward(gradient, config.getLearningRate());
+            metrics.recordBackward(i, System.nanoTime() - start);
+        }
+        
+        return loss;
+    }
+    
     /**
      * Trains the network on a batch of examples.
      * 
+     * If mini-batch updates are enabled in the configuration, the batch is run
+     * through the layers as matrix-matrix products, gradients are accumulated
+     * over the whole batch and one averaged update is applied; otherwise the
+     * weights are updated after every example.
+     * 
      * @param inputs array of input vectors
      * @param targets array of target vectors
      * @return average loss for the batch
+     * @throws IllegalArgumentException if the batch is empty or the counts differ
      */
     public double trainOnBatch(double[][] inputs, double[][] targets) {
         if (inputs.length != targets.length) {
@@ -137,24 +243,225 @@ public class NeuralNetwork {
                 String.format("Input/target count mismatch: inputs=%d, targets=%d",
                               inputs.length, targets.length));
         }
+        if (inputs.length == 0) {
+            throw new IllegalArgumentException("Batch must contain at least one example");
+        }
+        
+        if (!config.isMiniBatchUpdates()) {
+            double totalLoss = 0.0;
+            
+            for (int i = 0; i < inputs.length; i++) {
+                totalLoss += trainOnExample(inputs[i], targets[i]);
+            }
+            
+            return totalLoss / inputs.length;
+        }
+        
+        int batchSize = inputs.length;
+        if (batchInputs == null || batchInputs.getRows() != batchSize
+                || batchInputs.getCols() != getInputSize()
+                || batchTargets.getCols() != targets[0].length) {
+            batchInputs = new Matrix(batchSize, getInputSize());
+            batchTargets = new Matrix(batchSize, targets[0].length);
+        }
+        
+        // Pack the batch into contiguous rows
+        for (int i = 0; i < batchSize; i++) {
+            batchInputs.setRow(i, inputs[i]);
+            batchTargets.setRow(i, targets[i]);
+        }
+        
+        return trainOnPackedBatch(batchInputs, batchTargets);
+    }
+    
+    /**
+     * Trains the network on a batch packed into contiguous rows.
+     * 
+     * Same semantics as {@link #trainOnBatch(double[][], double[][])}, but the
+     * mini-batch path feeds the matrices to the layers as they are, without
+     * packing rows first.
+     * 
+     * @param inputs input rows [batchSize][inputSize]
+     * @param targets target rows [batchSize][outputSize]
+     * @return average loss for the batch
+     * @throws IllegalArgumentException if the batch is empty or the counts differ
+     */
+    public double trainOnBatch(Matrix inputs, Matrix targets) {
+        if (inputs.getRows() != targets.getRows()) {
+            throw new IllegalArgumentException(
+                String.format("Input/target count mismatch: inputs=%d, targets=%d",
+                              inputs.getRows(), targets.getRows()));
+        }
+        if (inputs.getRows() == 0) {
+            throw new IllegalArgumentException("Batch must contain at least one example");
+        }
+        
+        if (config.isMiniBatchUpdates()) {
+            return trainOnPackedBatch(inputs, targets);
+        }
+        
+        if (inputRow == null || inputRow.length != inputs.getCols()
+                || targetRow.length != targets.getCols()) {
+            inputRow = new double[inputs.getCols()];
+            targetRow = new double[targets.getCols()];
+        }
         
         double totalLoss = 0.0;
+        for (int i = 0; i < inputs.getRows(); i++) {
+            System.arraycopy(inputs.getData(), inputs.offset(i), inputRow, 0, inputRow.length);
+            System.arraycopy(targets.getData(), targets.offset(i), targetRow, 0, targetRow.length);
+            totalLoss += trainOnExample(inputRow, targetRow);
+        }
         
-        for (int i = 0; i < inputs.length; i++) {
-            totalLoss += trainOnExample(inputs[i], targets[i]);
+        return totalLoss / inputs.getRows();
+    }
+    
+    /**
+     * Runs one mini-batch step over packed rows.
+     * 
+     * @param inputs input rows [batchSize][inputSize]
+     * @param targets target rows [batchSize][outputSize]
+     * @return average loss for the batch
+     */
+    private double trainOnPackedBatch(Matrix inputs, Matrix targets) {
+        int batchSize = inputs.getRows();
+        int outputSize = getOutputSize();
+        ensureBatchWorkspace(batchSize);
+        
+        // Run the whole batch through the layers as matrix-matrix products
+        Matrix activation = inputs;
+        for (int i = 0; i < layers.size(); i++) {
+            long start = metrics != null ? System.nanoTime() : 0L;
+            activation = layers.get(i).forwardBatch(activation);
+            if (metrics != null) {
+                metrics.recordForward(i, System.nanoTime() - start);
+            }
         }
         
-        return totalLoss / inputs.length;
+        // Per-sample loss and loss gradient
+        double totalLoss = 0.0;
+        LossFunction lossFunction = config.getLossFunction();
+        double[] lossGradient = lossGradientBuffer();
+        Matrix gradient = batchGradients;
+        
+        if (targetRow == null || targetRow.length != targets.getCols()) {
+            targetRow = new double[targets.getCols()];
+        }
+        
+        for (int i = 0; i < batchSize; i++) {
+            System.arraycopy(activation.getData(), activation.offset(i), predictedRow, 0, outputSize);
+            System.arraycopy(targets.getData(), targets.offset(i), targetRow, 0, targetRow.length);
+            totalLoss += lossFunction.compute(predictedRow, targetRow);
+            lossFunction.gradient(predictedRow, targetRow, lossGradient);
+            gradient.setRow(i, lossGradient);
+        }
+        
+        // Backpropagate through layers in reverse order
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            long start = metrics != null ? System.nanoTime() : 0L;
+            gradient = layers.get(i).accumulateGradientsBatch(gradient);
+            if (metrics != null) {
+                metrics.recordBackward(i, System.nanoTime() - start);
+            }
+        }
+        
+        // One averaged update for the whole batch
+        applyAccumulatedGradients();
+        
+        return totalLoss / batchSize;
+    }
+    
+    /**
+     * Gets the reusable loss-gradient buffer, sized to the output layer.
+     * 
+     * @return loss gradient buffer
+     */
+    private double[] lossGradientBuffer() {
+        int outputSize = getOutputSize();
+        if (lossGradient == null || lossGradient.length != outputSize) {
+            lossGradient = new double[outputSize];
+            predictedRow = new double[outputSize];
+        }
+        return lossGradient;
+    }
+    
+    /**
+     * Makes sure the batch buffers match the given batch size.
+     * 
+     * @param batchSize number of samples in the batch
+     */
+    private void ensureBatchWorkspace(int batchSize) {
+        lossGradientBuffer();
+        if (batchGradients == null || batchGradients.getRows() != batchSize
+                || batchGradients.getCols() != getOutputSize()) {
+            batchGradients = new Matrix(batchSize, getOutputSize());
+        }
     }
     
     /**
      * Makes a prediction for a single input.
      * 
      * @param input input vector
-     * @return predicted output vector
+     * @return predicted output vector (a copy owned by the caller)
      */
     public double[] predict(double[] input) {
-        return forward(input);
+        return forward(input).clone();
+    }
+    
+    /**
+     * Reentrant inference: computes the output without touching the layers'
+     * training caches. Safe to call concurrently as long as each thread uses
+     * its own context and no training runs at the same time.
+     * 
+     * @param input input vector
+     * @param context scratch space owned by the calling thread
+     * @return output vector (a buffer inside the context)
+     */
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("Network has no layers");
+        }
+        
+        double[] activation = input;
+        
+        for (int i = 0; i < layers.size(); i++) {
+            double[] output = context.getActivation(i);
+            layers.get(i).forwardInference(activation, output, context.getFloatWorkspace());
+            activation = output;
+        }
+        
+        return activation;
+    }
+    
+    @Override
+    public InferenceContext createContext() {
+        int[] sizes = new int[layers.size()];
+        int workspaceSize = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            sizes[i] = layers.get(i).getOutputSize();
+            workspaceSize = Math.max(workspaceSize, layers.get(i).getInferenceWorkspaceSize());
+        }
+        return new InferenceContext(sizes, workspaceSize);
+    }
+    
+    /**
+     * Creates a frozen, inference-only model sharing this network's
+     * parameters. Drop the reference to this network afterwards to release
+     * the gradients and training caches.
+     * 
+     * @return frozen network
+     */
+    public FrozenNetwork freeze() {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("Network has no layers");
+        }
+        
+        List<FrozenLayer> frozenLayers = new ArrayList<>();
+        for (Layer layer : layers) {
+            frozenLayers.add(layer.freeze());
+        }
+        return new FrozenNetwork(frozenLayers);
     }
     
     /**
@@ -191,7 +498,7 @@ public class NeuralNetwork {
         LossFunction lossFunction = config.getLossFunction();
         
         for (int i = 0; i < inputs.length; i++) {
-            double[] predicted = predict(inputs[i]);
+            double[] predicted = forward(inputs[i]);
             totalLoss += lossFunction.compute(predicted, targets[i]);
         }
         
@@ -207,6 +514,92 @@ public class NeuralNetwork {
         return layers.size();
     }
     
+    /**
+     * Enables training instrumentation: per-layer forward/backward time and
+     * gradient norms are recorded into the registry (see
+     * {@link TrainingMetrics}). Passing null disables it again; disabled
+     * instrumentation costs one null check per layer pass.
+     * 
+     * @param metrics registry to record into (null to disable)
+     */
+    public void setMetrics(TrainingMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.ensureLayers(layers.size());
+        }
+        for (int i = 0; i < layers.size(); i++) {
+            layers.get(i).setMetrics(metrics, i);
+        }
+    }
+    
+    /**
+     * Gets the instrumentation registry.
+     * 
+     * @return registry, or null if instrumentation is disabled
+     */
+    public TrainingMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Gets the configured optimizer, bound to this network. On first use, or
+     * after the optimizer or the layers changed, its state is allocated for
+     * all parameters and every layer is given its offset into that state.
+     * 
+     * @return optimizer applying the parameter updates
+     * @throws IllegalStateException if the optimizer is already bound to another network
+     */
+    public Optimizer getOptimizer() {
+        Optimizer optimizer = config.getOptimizer();
+        int parameterCount = getParameterCount();
+        
+        if (optimizer != boundOptimizer || optimizer.getParameterCount() != parameterCount) {
+            optimizer.bind(this);
+            optimizer.initialize(parameterCount);
+            int offset = 0;
+            for (Layer layer : layers) {
+                layer.setOptimizer(optimizer, offset);
+                offset += layer.getParameterCount();
+            }
+            boundOptimizer = optimizer;
+        }
+        
+        return optimizer;
+    }
+    
+    /**
+     * Checks that a softmax output layer and {@link SoftmaxCrossEntropyLoss}
+     * are used together. The fused loss returns the gradient with respect to
+     * the logits (p - y), which is only correct when the output layer skips
+     * the softmax Jacobian, and softmax needs that loss to be trained.
+     * 
+     * @throws IllegalStateException if only one of the two is configured
+     */
+    public void validateLossFunction() {
+        if (layers.isEmpty()) {
+            return;
+        }
+        
+        Layer output = layers.get(layers.size() - 1);
+        ActivationFunction activation = null;
+        if (output instanceof DenseLayer) {
+            activation = ((DenseLayer) output).getActivation();
+        } else if (output instanceof FloatDenseLayer) {
+            activation = ((FloatDenseLayer) output).getActivation();
+        }
+        
+        boolean softmaxOutput = activation instanceof SoftmaxActivation;
+        boolean softmaxLoss = config.getLossFunction() instanceof SoftmaxCrossEntropyLoss;
+        if (softmaxOutput && !softmaxLoss) {
+            throw new IllegalStateException(
+                String.format("Softmax output layer requires SoftmaxCrossEntropyLoss, got %s",
+                              config.getLossFunction().getName()));
+        }
+        if (softmaxLoss && !softmaxOutput) {
+            throw new IllegalStateException("SoftmaxCrossEntropyLoss requires a softmax output layer");
+        }
+    }
+    
     /**
      * Gets a specific layer by index.
      * 
@@ -288,11 +681,60 @@ public class NeuralNetwork {
         validationLossHistory.clear();
     }
     
+    /**
+     * Gets the total number of trainable parameters.
+     * 
+     * @return sum of the layer parameter counts
+     */
+    public int getParameterCount() {
+        int count = 0;
+        for (Layer layer : layers) {
+            count += layer.getParameterCount();
+        }
+        return count;
+    }
+    
+    /**
+     * Copies all parameters into one flat array, layer by layer
+     * (see {@link Layer#copyParameters(double[], int)}).
+     * 
+     * @return new array of length {@link #getParameterCount()}
+     */
+    public double[] getParameters() {
+        double[] parameters = new double[getParameterCount()];
+        int offset = 0;
+        for (Layer layer : layers) {
+            layer.copyParameters(parameters, offset);
+            offset += layer.getParameterCount();
+        }
+        return parameters;
+    }
+    
+    /**
+     * Overwrites all parameters from a flat array produced by {@link #getParameters()}.
+     * 
+     * @param parameters flat parameter array
+     */
+    public void setParameters(double[] parameters) {
+        if (parameters.length != getParameterCount()) {
+            throw new IllegalArgumentException(
+                String.format("Parameter count mismatch: expected %d, got %d",
+                              getParameterCount(), parameters.length));
+        }
+        
+        int offset = 0;
+        for (Layer layer : layers) {
+            layer.setParameters(parameters, offset);
+            offset += layer.getParameterCount();
+        }
+    }
+    
     /**
      * Gets the input size of the network (first layer's input size).
      * 
      * @return input size
      */
+    @Override
     public int getInputSize() {
         if (layers.isEmpty()) {
             throw new IllegalStateException("Network has no layers");
@@ -305,6 +747,7 @@ public class NeuralNetwork {
      * 
      * @return output size
      */
+    @Override
     public int getOutputSize() {
         if (layers.isEmpty()) {
             throw new IllegalStateException("Network has no layers");
@@ -0,0 +1,114 @@
+package src.main.java.ann.optimizer;
+
+/**
+ * Adam: momentum plus per-parameter step sizes, with bias correction.
+ * 
+ * Update at step t:
+ *   m = β1 × m + (1 - β1) × g
+ *   v = β2 × v + (1 - β2) × g²
+ *   θ = θ - η × m̂ / (√v̂ + ε),  m̂ = m / (1 - β1^t),  v̂ = v / (1 - β2^t)
+ * 
+ * The bias corrections depend only on t, so they are computed once per
+ * block rather than per parameter.
+ */
+public class AdamOptimizer extends Optimizer {
+    
+    private static final int FIRST_MOMENT = 0;
+    private static final int SECOND_MOMENT = 1;
+    
+    private final double beta1;
+    private final double beta2;
+    private final double epsilon;
+    
+    /**
+     * Creates an Adam optimizer with β1 = 0.9, β2 = 0.999 and ε = 1e-8.
+     */
+    public AdamOptimizer() {
+        this(0.9, 0.999, 1e-8);
+    }
+    
+    /**
+     * Creates an Adam optimizer.
+     * 
+     * @param beta1 decay rate of the first moment, in [0, 1)
+     * @param beta2 decay rate of the second moment, in [0, 1)
+     * @param epsilon small constant added to the denominator
+     */
+    public AdamOptimizer(double beta1, double beta2, double epsilon) {
+        super(2);
+        
+        if (beta1 < 0 || beta1 >= 1 || beta2 < 0 || beta2 >= 1) {
+            throw new IllegalArgumentException("Beta values must be in [0, 1)");
+        }
+        if (epsilon <= 0) {
+            throw new IllegalArgumentException("Epsilon must be positive");
+        }
+        
+        this.beta1 = beta1;
+        this.beta2 = beta2;
+        this.epsilon = epsilon;
+    }
+    
+    @Override
+    public void update(double[] params, double[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] m = state(FIRST_MOMENT);
+        double[] v = state(SECOND_MOMENT);
+        double decay = 1 - learningRate * getWeightDecay();
+        
+        // Bias corrections for this step (a layer used outside a network counts as step 1)
+        long t = Math.max(getStep(), 1);
+        double correction1 = 1 / (1 - Math.pow(beta1, t));
+        double correction2 = 1 / (1 - Math.pow(beta2, t));
+        
+        for (int i = 0; i < length; i++) {
+            int s = stateOffset + i;
+            double g = grads[i] * gradScale;
+            m[s] = beta1 * m[s] + (1 - beta1) * g;
+            v[s] = beta2 * v[s] + (1 - beta2) * g * g;
+            params[i] = params[i] * decay
+                - learningRate * (m[s] * correction1) / (Math.sqrt(v[s] * correction2) + epsilon);
+        }
+    }
+    
+    @Override
+    public void update(float[] params, float[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] m = state(FIRST_MOMENT);
+        double[] v = state(SECOND_MOMENT);
+        double decay = 1 - learningRate * getWeightDecay();
+        
+        long t = Math.max(getStep(), 1);
+        double correction1 = 1 / (1 - Math.pow(beta1, t));
+        double correction2 = 1 / (1 - Math.pow(beta2, t));
+        
+        for (int i = 0; i < length; i++) {
+            int s = stateOffset + i;
+            double g = grads[i] * gradScale;
+            m[s] = beta1 * m[s] + (1 - beta1) * g;
+            v[s] = beta2 * v[s] + (1 - beta2) * g * g;
+            params[i] = (float) (params[i] * decay
+                - learningRate * (m[s] * correction1) / (Math.sqrt(v[s] * correction2) + epsilon));
+        }
+    }
+    
+    /**
+     * Gets the decoupled weight decay applied with each step.
+     * Plain Adam has none; see {@link AdamWOptimizer}.
+     * 
+     * @return weight decay coefficient λ
+     */
+    public double getWeightDecay() {
+        return 0.0;
+    }
+    
+    @Override
+    public String getName() {
+        return "Adam";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AdamOptimizer[beta1=%.3f, beta2=%.4f, epsilon=%.1e]", beta1, beta2, epsilon);
+    }
+}
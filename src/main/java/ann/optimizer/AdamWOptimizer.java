@@ -0,0 +1,64 @@
+package src.main.java.ann.optimizer;
+
+/**
+ * Adam with decoupled weight decay (AdamW).
+ * 
+ * Update: θ = θ × (1 - η × λ) - η × m̂ / (√v̂ + ε)
+ * 
+ * The decay shrinks the parameters directly instead of being added to the
+ * gradient, so it is not rescaled by the adaptive step sizes and acts as a
+ * true L2 regularizer. It is applied to every parameter, biases included.
+ */
+public class AdamWOptimizer extends AdamOptimizer {
+    
+    private final double weightDecay;
+    
+    /**
+     * Creates an AdamW optimizer with Adam's default betas and ε and λ = 0.01.
+     */
+    public AdamWOptimizer() {
+        this(0.01);
+    }
+    
+    /**
+     * Creates an AdamW optimizer with Adam's default betas and ε.
+     * 
+     * @param weightDecay weight decay coefficient λ (non-negative)
+     */
+    public AdamWOptimizer(double weightDecay) {
+        this(0.9, 0.999, 1e-8, weightDecay);
+    }
+    
+    /**
+     * Creates an AdamW optimizer.
+     * 
+     * @param beta1 decay rate of the first moment, in [0, 1)
+     * @param beta2 decay rate of the second moment, in [0, 1)
+     * @param epsilon small constant added to the denominator
+     * @param weightDecay weight decay coefficient λ (non-negative)
+     */
+    public AdamWOptimizer(double beta1, double beta2, double epsilon, double weightDecay) {
+        super(beta1, beta2, epsilon);
+        
+        if (weightDecay < 0) {
+            throw new IllegalArgumentException("Weight decay must be non-negative");
+        }
+        
+        this.weightDecay = weightDecay;
+    }
+    
+    @Override
+    public double getWeightDecay() {
+        return weightDecay;
+    }
+    
+    @Override
+    public String getName() {
+        return "AdamW";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AdamWOptimizer[weightDecay=%.4f]", weightDecay);
+    }
+}
@@ -0,0 +1,99 @@
+package src.main.java.ann.optimizer;
+
+/**
+ * SGD with momentum, optionally Nesterov momentum.
+ * 
+ * Update:
+ *   v = μ × v + g
+ *   θ = θ - η × v              (classical)
+ *   θ = θ - η × (g + μ × v)    (Nesterov)
+ * 
+ * The velocity v is kept per parameter. Momentum smooths the gradient
+ * direction across steps, which speeds up progress along shallow, consistent
+ * directions; Nesterov evaluates the step at the look-ahead point.
+ */
+public class MomentumOptimizer extends Optimizer {
+    
+    private static final int VELOCITY = 0;
+    
+    private final double momentum;
+    private final boolean nesterov;
+    
+    /**
+     * Creates a classical momentum optimizer with μ = 0.9.
+     */
+    public MomentumOptimizer() {
+        this(0.9, false);
+    }
+    
+    /**
+     * Creates a momentum optimizer.
+     * 
+     * @param momentum momentum coefficient μ in [0, 1)
+     * @param nesterov true for Nesterov momentum
+     */
+    public MomentumOptimizer(double momentum, boolean nesterov) {
+        super(1);
+        
+        if (momentum < 0 || momentum >= 1) {
+            throw new IllegalArgumentException("Momentum must be in [0, 1)");
+        }
+        
+        this.momentum = momentum;
+        this.nesterov = nesterov;
+    }
+    
+    @Override
+    public void update(double[] params, double[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] velocity = state(VELOCITY);
+        
+        for (int i = 0; i < length; i++) {
+            double g = grads[i] * gradScale;
+            double v = momentum * velocity[stateOffset + i] + g;
+            velocity[stateOffset + i] = v;
+            params[i] -= learningRate * (nesterov ? g + momentum * v : v);
+        }
+    }
+    
+    @Override
+    public void update(float[] params, float[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] velocity = state(VELOCITY);
+        
+        for (int i = 0; i < length; i++) {
+            double g = grads[i] * gradScale;
+            double v = momentum * velocity[stateOffset + i] + g;
+            velocity[stateOffset + i] = v;
+            params[i] -= (float) (learningRate * (nesterov ? g + momentum * v : v));
+        }
+    }
+    
+    /**
+     * Gets the momentum coefficient.
+     * 
+     * @return μ
+     */
+    public double getMomentum() {
+        return momentum;
+    }
+    
+    /**
+     * Checks whether Nesterov momentum is used.
+     * 
+     * @return true for Nesterov momentum
+     */
+    public boolean isNesterov() {
+        return nesterov;
+    }
+    
+    @Override
+    public String getName() {
+        return nesterov ? "Nesterov" : "Momentum";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MomentumOptimizer[momentum=%.3f, nesterov=%b]", momentum, nesterov);
+    }
+}
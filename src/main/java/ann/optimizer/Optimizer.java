@@ -0,0 +1,180 @@
+package src.main.java.ann.optimizer;
+
+/**
+ * Base class for parameter update rules.
+ * 
+ * An optimizer turns gradients into parameter updates. Its per-parameter
+ * state (momentum, squared-gradient averages, ...) is kept in flat arrays
+ * spanning every parameter of one network, laid out like
+ * {@link src.main.java.ann.network.NeuralNetwork#getParameters()}: each
+ * layer updates its slice, starting at the offset it was bound to. The flat
+ * layout makes the state cheap to snapshot for training checkpoints.
+ * 
+ * Each update rule is a single fused pass over a parameter block: the state
+ * is updated and the parameter written in the same loop, without temporary
+ * arrays.
+ * 
+ * An instance holds the state of one network: the first network that uses
+ * it becomes its owner (see {@link #bind(Object)}), and binding it to
+ * another network fails.
+ */
+public abstract class Optimizer {
+    
+    private final int stateSlots;
+    
+    // state[slot][parameter]
+    private double[][] state;
+    
+    // Number of parameters the state covers (-1 until initialized)
+    private int parameterCount;
+    
+    // Number of updates applied so far (used for bias correction)
+    private long step;
+    
+    // Network whose parameters the state covers (null until bound)
+    private Object owner;
+    
+    /**
+     * Creates an optimizer keeping the given number of values per parameter.
+     * 
+     * @param stateSlots state values per parameter
+     */
+    protected Optimizer(int stateSlots) {
+        this.stateSlots = stateSlots;
+        this.state = new double[stateSlots][0];
+        this.parameterCount = -1;
+    }
+    
+    /**
+     * Binds this optimizer to the network that applies its updates. Binding
+     * again to the same network (e.g. after its layers changed) is allowed.
+     * 
+     * @param owner network the state belongs to
+     * @throws IllegalStateException if another network already owns this optimizer
+     */
+    public void bind(Object owner) {
+        if (this.owner != null && this.owner != owner) {
+            throw new IllegalStateException(
+                String.format("%s optimizer is already bound to another network; "
+                              + "create one optimizer per network", getName()));
+        }
+        this.owner = owner;
+    }
+    
+    /**
+     * Allocates zeroed state for a network and resets the step counter.
+     * 
+     * @param parameterCount number of parameters of the network
+     */
+    public void initialize(int parameterCount) {
+        this.state = new double[stateSlots][parameterCount];
+        this.parameterCount = parameterCount;
+        this.step = 0;
+    }
+    
+    /**
+     * Gets the number of parameters the state was allocated for.
+     * 
+     * @return parameter count, or -1 if not initialized
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+    
+    /**
+     * Starts a new update of the whole network. Called once before the
+     * layers apply their gradients.
+     */
+    public void nextStep() {
+        step++;
+    }
+    
+    /**
+     * Gets the number of updates started so far.
+     * 
+     * @return step counter
+     */
+    public long getStep() {
+        return step;
+    }
+    
+    /**
+     * Copies the state, e.g. for a checkpoint.
+     * 
+     * @return state [slot][parameter]
+     */
+    public double[][] copyState() {
+        double[][] copy = new double[stateSlots][];
+        for (int s = 0; s < stateSlots; s++) {
+            copy[s] = state[s].clone();
+        }
+        return copy;
+    }
+    
+    /**
+     * Restores state saved with {@link #copyState()}.
+     * 
+     * @param step step counter
+     * @param state state [slot][parameter]
+     */
+    public void setState(long step, double[][] state) {
+        if (state.length != stateSlots) {
+            throw new IllegalArgumentException(
+                String.format("State slot mismatch: expected %d, got %d", stateSlots, state.length));
+        }
+        
+        for (int s = 0; s < stateSlots; s++) {
+            if (state[s].length != this.state[s].length) {
+                throw new IllegalArgumentException(
+                    String.format("State size mismatch: expected %d, got %d",
+                                  this.state[s].length, state[s].length));
+            }
+            System.arraycopy(state[s], 0, this.state[s], 0, state[s].length);
+        }
+        this.step = step;
+    }
+    
+    /**
+     * Gets one state array.
+     * 
+     * @param slot state slot
+     * @return flat state over all parameters
+     */
+    protected double[] state(int slot) {
+        return state[slot];
+    }
+    
+    /**
+     * Updates a block of parameters in place.
+     * 
+     * @param params parameters [length]
+     * @param grads gradients [length]
+     * @param length number of parameters
+     * @param learningRate learning rate
+     * @param gradScale factor applied to the gradients (e.g. 1 / batch size)
+     * @param stateOffset index of params[0] in the flat state
+     */
+    public abstract void update(double[] params, double[] grads, int length,
+                                double learningRate, double gradScale, int stateOffset);
+    
+    /**
+     * Single-precision variant of {@link #update(double[], double[], int, double, double, int)}.
+     * The state stays in double precision.
+     * 
+     * @param params parameters [length]
+     * @param grads gradients [length]
+     * @param length number of parameters
+     * @param learningRate learning rate
+     * @param gradScale factor applied to the gradients (e.g. 1 / batch size)
+     * @param stateOffset index of params[0] in the flat state
+     */
+    public abstract void update(float[] params, float[] grads, int length,
+                                double learningRate, double gradScale, int stateOffset);
+    
+    /**
+     * Gets the name of this optimizer.
+     * 
+     * @return the optimizer name
+     */
+    public abstract String getName();
+}
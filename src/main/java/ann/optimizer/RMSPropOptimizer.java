@@ -0,0 +1,82 @@
+package src.main.java.ann.optimizer;
+
+/**
+ * RMSProp: per-parameter step sizes from a running average of squared gradients.
+ * 
+ * Update:
+ *   s = ρ × s + (1 - ρ) × g²
+ *   θ = θ - η × g / (√s + ε)
+ * 
+ * Parameters with consistently large gradients take smaller steps and
+ * rarely-updated ones larger steps, so one learning rate suits all layers.
+ */
+public class RMSPropOptimizer extends Optimizer {
+    
+    private static final int SQUARED = 0;
+    
+    private final double decay;
+    private final double epsilon;
+    
+    /**
+     * Creates an RMSProp optimizer with ρ = 0.9 and ε = 1e-8.
+     */
+    public RMSPropOptimizer() {
+        this(0.9, 1e-8);
+    }
+    
+    /**
+     * Creates an RMSProp optimizer.
+     * 
+     * @param decay decay rate ρ of the squared-gradient average, in [0, 1)
+     * @param epsilon small constant added to the denominator
+     */
+    public RMSPropOptimizer(double decay, double epsilon) {
+        super(1);
+        
+        if (decay < 0 || decay >= 1) {
+            throw new IllegalArgumentException("Decay must be in [0, 1)");
+        }
+        if (epsilon <= 0) {
+            throw new IllegalArgumentException("Epsilon must be positive");
+        }
+        
+        this.decay = decay;
+        this.epsilon = epsilon;
+    }
+    
+    @Override
+    public void update(double[] params, double[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] squared = state(SQUARED);
+        
+        for (int i = 0; i < length; i++) {
+            double g = grads[i] * gradScale;
+            double s = decay * squared[stateOffset + i] + (1 - decay) * g * g;
+            squared[stateOffset + i] = s;
+            params[i] -= learningRate * g / (Math.sqrt(s) + epsilon);
+        }
+    }
+    
+    @Override
+    public void update(float[] params, float[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        double[] squared = state(SQUARED);
+        
+        for (int i = 0; i < length; i++) {
+            double g = grads[i] * gradScale;
+            double s = decay * squared[stateOffset + i] + (1 - decay) * g * g;
+            squared[stateOffset + i] = s;
+            params[i] -= (float) (learningRate * g / (Math.sqrt(s) + epsilon));
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "RMSProp";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("RMSPropOptimizer[decay=%.3f, epsilon=%.1e]", decay, epsilon);
+    }
+}
@@ -0,0 +1,42 @@
+package src.main.java.ann.optimizer;
+
+import src.main.java.ann.utils.ANNMath;
+
+/**
+ * Plain stochastic gradient descent.
+ * 
+ * Update: θ = θ - η × g
+ * 
+ * Keeps no state. This is the default optimizer.
+ */
+public class SGDOptimizer extends Optimizer {
+    
+    /**
+     * Creates an SGD optimizer.
+     */
+    public SGDOptimizer() {
+        super(0);
+    }
+    
+    @Override
+    public void update(double[] params, double[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        ANNMath.kernels().axpy(-learningRate * gradScale, grads, 0, params, 0, length);
+    }
+    
+    @Override
+    public void update(float[] params, float[] grads, int length,
+                       double learningRate, double gradScale, int stateOffset) {
+        ANNMath.kernels().axpy((float) (-learningRate * gradScale), grads, 0, params, 0, length);
+    }
+    
+    @Override
+    public String getName() {
+        return "SGD";
+    }
+    
+    @Override
+    public String toString() {
+        return "SGDOptimizer";
+    }
+}
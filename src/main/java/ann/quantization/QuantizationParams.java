@@ -0,0 +1,121 @@
+package src.main.java.ann.quantization;
+
+/**
+ * Affine int8 quantization parameters: real = (q - zeroPoint) × scale.
+ * 
+ * Ranges are always widened to include 0 so that zero is represented
+ * exactly, which keeps ReLU outputs and zero padding free of bias.
+ */
+public class QuantizationParams {
+    
+    public static final int MIN_VALUE = Byte.MIN_VALUE;
+    public static final int MAX_VALUE = Byte.MAX_VALUE;
+    
+    private final double scale;
+    private final int zeroPoint;
+    
+    /**
+     * Creates quantization parameters.
+     * 
+     * @param scale real value of one quantization step (must be positive)
+     * @param zeroPoint quantized value representing real 0, in [-128, 127]
+     */
+    public QuantizationParams(double scale, int zeroPoint) {
+        if (!(scale > 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException(
+                String.format("Scale must be positive and finite, got %s", scale));
+        }
+        if (zeroPoint < MIN_VALUE || zeroPoint > MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Zero point must be in [%d, %d], got %d", MIN_VALUE, MAX_VALUE, zeroPoint));
+        }
+        
+        this.scale = scale;
+        this.zeroPoint = zeroPoint;
+    }
+    
+    /**
+     * Derives asymmetric parameters covering an observed value range.
+     * 
+     * @param min smallest observed value
+     * @param max largest observed value
+     * @return parameters mapping [min, max] (widened to include 0) onto [-128, 127]
+     */
+    public static QuantizationParams fromRange(double min, double max) {
+        min = Math.min(min, 0.0);
+        max = Math.max(max, 0.0);
+        
+        double scale = (max - min) / (MAX_VALUE - MIN_VALUE);
+        if (scale == 0.0) {
+            // Constant zero signal: any scale represents it exactly
+            return new QuantizationParams(1.0, 0);
+        }
+        
+        int zeroPoint = (int) Math.round(MIN_VALUE - min / scale);
+        return new QuantizationParams(scale, clamp(zeroPoint));
+    }
+    
+    /**
+     * Derives symmetric parameters (zero point 0) covering [-maxAbs, maxAbs].
+     * Used for weights, whose integer dot products then need no zero-point correction.
+     * 
+     * @param maxAbs largest absolute value
+     * @return symmetric parameters
+     */
+    public static QuantizationParams symmetric(double maxAbs) {
+        return new QuantizationParams(maxAbs > 0 ? maxAbs / MAX_VALUE : 1.0, 0);
+    }
+    
+    /**
+     * Quantizes a real value.
+     * 
+     * @param value real value
+     * @return nearest representable int8 value
+     */
+    public byte quantize(double value) {
+        return (byte) clamp((int) Math.round(value / scale) + zeroPoint);
+    }
+    
+    /**
+     * Converts a quantized value back to a real value.
+     * 
+     * @param q quantized value
+     * @return real value
+     */
+    public double dequantize(int q) {
+        return (q - zeroPoint) * scale;
+    }
+    
+    /**
+     * Clamps an integer to the int8 range.
+     * 
+     * @param value value to clamp
+     * @return value limited to [-128, 127]
+     */
+    static int clamp(int value) {
+        return Math.max(MIN_VALUE, Math.min(MAX_VALUE, value));
+    }
+    
+    /**
+     * Gets the scale.
+     * 
+     * @return real value of one quantization step
+     */
+    public double getScale() {
+        return scale;
+    }
+    
+    /**
+     * Gets the zero point.
+     * 
+     * @return quantized value representing real 0
+     */
+    public int getZeroPoint() {
+        return zeroPoint;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("QuantizationParams[scale=%.6g, zeroPoint=%d]", scale, zeroPoint);
+    }
+}
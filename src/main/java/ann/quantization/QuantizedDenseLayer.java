@@ -0,0 +1,233 @@
+package src.main.java.ann.quantization;
+
+import src.main.java.ann.activation.ElementwiseActivation;
+import src.main.java.ann.utils.ANNMath;
+
+/**
+ * Int8 dense layer for integer-only inference.
+ * 
+ * Pipeline for each output neuron i:
+ *   acc   = Σ qW[i][j] × qX[j] + rowOffset[i]          (int32)
+ *   qZ    = requantize(acc) + zZ                        (fixed-point multiply and shift)
+ *   qY    = activationTable[qZ]                         (256-entry lookup table)
+ * 
+ * Weights use a symmetric per-layer scale (zero point 0). Inputs, pre-activations and
+ * outputs use asymmetric per-layer parameters calibrated on sample data. The input
+ * zero-point correction and the quantized bias are folded into rowOffset, so the inner
+ * loop is a plain int8 dot product.
+ */
+public class QuantizedDenseLayer {
+    
+    private static final int TABLE_SIZE = QuantizationParams.MAX_VALUE - QuantizationParams.MIN_VALUE + 1;
+    
+    private final int inputSize;
+    private final int outputSize;
+    
+    private final byte[] weights;      // [outputSize × inputSize], row-major
+    private final int[] rowOffsets;    // quantized bias - inputZeroPoint × row sum
+    private final String activationName;
+    
+    private final QuantizationParams weightParams;
+    private final QuantizationParams inputParams;
+    private final QuantizationParams preActivationParams;
+    private final QuantizationParams outputParams;
+    
+    // acc × (sW × sX / sZ) ≈ (acc × multiplier) >> shift
+    private final int multiplier;
+    private final int shift;
+    
+    private final byte[] activationTable;
+    
+    /**
+     * Quantizes a dense layer.
+     * 
+     * @param weights float weights [outputSize][inputSize]
+     * @param biases float biases [outputSize]
+     * @param activation activation function (baked into the lookup table)
+     * @param inputParams calibrated input quantization
+     * @param preActivationParams calibrated quantization of W × x + b
+     * @param outputParams calibrated output quantization
+     */
+    public QuantizedDenseLayer(double[][] weights, double[] biases, ElementwiseActivation activation,
+                               QuantizationParams inputParams,
+                               QuantizationParams preActivationParams,
+                               QuantizationParams outputParams) {
+        this.outputSize = weights.length;
+        this.inputSize = outputSize > 0 ? weights[0].length : 0;
+        if (biases.length != outputSize) {
+            throw new IllegalArgumentException(
+                String.format("Bias size mismatch: expected %d, got %d", outputSize, biases.length));
+        }
+        if ((long) QuantizationParams.MAX_VALUE * (QuantizationParams.MAX_VALUE - QuantizationParams.MIN_VALUE)
+                * inputSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Input size %d is too large for int32 accumulation", inputSize));
+        }
+        
+        this.activationName = activation.getName();
+        this.inputParams = inputParams;
+        this.preActivationParams = preActivationParams;
+        this.outputParams = outputParams;
+        
+        // Symmetric per-layer weight scale
+        double maxAbs = 0.0;
+        for (double[] row : weights) {
+            for (double w : row) {
+                maxAbs = Math.max(maxAbs, Math.abs(w));
+            }
+        }
+        this.weightParams = QuantizationParams.symmetric(maxAbs);
+        
+        // Quantize weights and fold bias and input zero point into one offset per row
+        double accumulatorScale = weightParams.getScale() * inputParams.getScale();
+        this.weights = new byte[outputSize * inputSize];
+        this.rowOffsets = new int[outputSize];
+        for (int i = 0; i < outputSize; i++) {
+            int offset = i * inputSize;
+            long rowSum = 0;
+            for (int j = 0; j < inputSize; j++) {
+                byte q = weightParams.quantize(weights[i][j]);
+                this.weights[offset + j] = q;
+                rowSum += q;
+            }
+            
+            long bias = Math.round(biases[i] / accumulatorScale);
+            long rowOffset = bias - (long) inputParams.getZeroPoint() * rowSum;
+            rowOffsets[i] = (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, rowOffset));
+        }
+        
+        // Fixed-point representation of the requantization multiplier
+        double realMultiplier = accumulatorScale / preActivationParams.getScale();
+        int exponent = Math.getExponent(realMultiplier) + 1;
+        long mantissa = Math.round(Math.scalb(realMultiplier, -exponent) * (1L << 31));
+        if (mantissa == (1L << 31)) {
+            mantissa >>= 1;
+            exponent++;
+        }
+        int rightShift = 31 - exponent;
+        if (rightShift < 1) {
+            throw new IllegalArgumentException(
+                String.format("Requantization multiplier too large: %s", realMultiplier));
+        }
+        if (rightShift > 62) {
+            // Multiplier below 2^-31: every accumulator maps to 0
+            mantissa = 0;
+            rightShift = 62;
+        }
+        this.multiplier = (int) mantissa;
+        this.shift = rightShift;
+        
+        // Lookup table: quantized pre-activation -> quantized activation
+        this.activationTable = new byte[TABLE_SIZE];
+        for (int q = QuantizationParams.MIN_VALUE; q <= QuantizationParams.MAX_VALUE; q++) {
+            double z = preActivationParams.dequantize(q);
+            activationTable[q - QuantizationParams.MIN_VALUE] = outputParams.quantize(activation.activate(z));
+        }
+    }
+    
+    /**
+     * Integer forward pass.
+     * 
+     * @param input quantized input [inputSize] (in {@link #getInputParams()})
+     * @param output quantized output buffer [outputSize] (in {@link #getOutputParams()})
+     */
+    public void forward(byte[] input, byte[] output) {
+        int zeroPoint = preActivationParams.getZeroPoint();
+        
+        for (int i = 0; i < outputSize; i++) {
+            int acc = ANNMath.kernels().dot(weights, i * inputSize, input, 0, inputSize) + rowOffsets[i];
+            int q = QuantizationParams.clamp(requantize(acc) + zeroPoint);
+            output[i] = activationTable[q - QuantizationParams.MIN_VALUE];
+        }
+    }
+    
+    /**
+     * Rescales an int32 accumulator to the pre-activation scale with round-half-up.
+     * 
+     * @param acc accumulator
+     * @return rescaled value (before adding the zero point)
+     */
+    private int requantize(int acc) {
+        long product = (long) acc * multiplier;
+        long rounded = (product + (1L << (shift - 1))) >> shift;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, rounded));
+    }
+    
+    /**
+     * Gets the number of inputs.
+     * 
+     * @return input size
+     */
+    public int getInputSize() {
+        return inputSize;
+    }
+    
+    /**
+     * Gets the number of outputs.
+     * 
+     * @return output size
+     */
+    public int getOutputSize() {
+        return outputSize;
+    }
+    
+    /**
+     * Gets the quantized weights (not a copy).
+     * 
+     * @return row-major int8 weights [outputSize × inputSize]
+     */
+    public byte[] getWeights() {
+        return weights;
+    }
+    
+    /**
+     * Gets the weight quantization parameters.
+     * 
+     * @return symmetric weight parameters
+     */
+    public QuantizationParams getWeightParams() {
+        return weightParams;
+    }
+    
+    /**
+     * Gets the input quantization parameters.
+     * 
+     * @return input parameters
+     */
+    public QuantizationParams getInputParams() {
+        return inputParams;
+    }
+    
+    /**
+     * Gets the pre-activation quantization parameters.
+     * 
+     * @return pre-activation parameters
+     */
+    public QuantizationParams getPreActivationParams() {
+        return preActivationParams;
+    }
+    
+    /**
+     * Gets the output quantization parameters.
+     * 
+     * @return output parameters
+     */
+    public QuantizationParams getOutputParams() {
+        return outputParams;
+    }
+    
+    /**
+     * Gets the memory used by the layer parameters.
+     * 
+     * @return bytes for weights, row offsets and the lookup table
+     */
+    public long getParameterBytes() {
+        return weights.length + (long) rowOffsets.length * Integer.BYTES + activationTable.length;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("QuantizedDenseLayer[in=%d, out=%d, activation=%s]",
+                             inputSize, outputSize, activationName);
+    }
+}
@@ -0,0 +1,50 @@
+package src.main.java.ann.quantization;
+
+import src.main.java.ann.network.InferenceContext;
+
+/**
+ * Inference context of a {@link QuantizedNetwork}.
+ * 
+ * Adds the int8 activation buffers (the quantized input and every layer
+ * output) to the double buffer that receives the dequantized result. Create
+ * it with {@link QuantizedNetwork#createContext()}; the same threading rules
+ * as {@link InferenceContext} apply.
+ */
+public class QuantizedInferenceContext extends InferenceContext {
+    
+    private final byte[][] quantizedActivations;
+    
+    /**
+     * Creates a context with int8 activation buffers.
+     * 
+     * @param outputSize size of the dequantized output buffer
+     * @param quantizedSizes sizes of the int8 buffers, in order
+     */
+    QuantizedInferenceContext(int outputSize, int[] quantizedSizes) {
+        super(new int[] { outputSize });
+        
+        this.quantizedActivations = new byte[quantizedSizes.length][];
+        for (int i = 0; i < quantizedSizes.length; i++) {
+            quantizedActivations[i] = new byte[quantizedSizes[i]];
+        }
+    }
+    
+    /**
+     * Gets an int8 activation buffer.
+     * 
+     * @param index buffer index (0 is the quantized input)
+     * @return int8 buffer
+     */
+    public byte[] getQuantizedActivation(int index) {
+        return quantizedActivations[index];
+    }
+    
+    /**
+     * Gets the number of int8 buffers in this context.
+     * 
+     * @return number of int8 buffers
+     */
+    public int getQuantizedCount() {
+        return quantizedActivations.length;
+    }
+}
@@ -0,0 +1,171 @@
+package src.main.java.ann.quantization;
+
+import src.main.java.ann.network.InferenceContext;
+import src.main.java.ann.network.InferenceModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Int8 inference model produced by {@link Quantizer}.
+ * 
+ * The input is quantized once, every layer runs in integer arithmetic on int8
+ * activations, and only the final layer output is converted back to double.
+ * Like {@link src.main.java.ann.network.FrozenNetwork} it keeps all scratch
+ * data in its {@link QuantizedInferenceContext}, so one instance can serve
+ * any number of threads (for example through {@link src.main.java.ann.evaluation.Predictor}).
+ */
+public class QuantizedNetwork implements InferenceModel {
+    
+    private final QuantizedDenseLayer[] layers;
+    
+    /**
+     * Creates a quantized network from quantized layers.
+     * 
+     * @param layers layers in forward order; each layer's input parameters must
+     *               match the previous layer's output parameters
+     */
+    public QuantizedNetwork(List<QuantizedDenseLayer> layers) {
+        if (layers.isEmpty()) {
+            throw new IllegalArgumentException("Network must have at least one layer");
+        }
+        
+        for (int i = 1; i < layers.size(); i++) {
+            QuantizedDenseLayer previous = layers.get(i - 1);
+            QuantizedDenseLayer current = layers.get(i);
+            if (previous.getOutputSize() != current.getInputSize()) {
+                throw new IllegalArgumentException(
+                    String.format("Layer dimension mismatch: previous output=%d, current input=%d",
+                                  previous.getOutputSize(), current.getInputSize()));
+            }
+            if (previous.getOutputParams() != current.getInputParams()) {
+                throw new IllegalArgumentException(
+                    String.format("Layer %d input quantization does not match layer %d output", i, i - 1));
+            }
+        }
+        
+        this.layers = layers.toArray(new QuantizedDenseLayer[0]);
+    }
+    
+    @Override
+    public double[] predict(double[] input, InferenceContext context) {
+        if (input.length != getInputSize()) {
+            throw new IllegalArgumentException(
+                String.format("Input size mismatch: expected %d, got %d",
+                              getInputSize(), input.length));
+        }
+        
+        if (!(context instanceof QuantizedInferenceContext)) {
+            throw new IllegalArgumentException(
+                "Context was not created by QuantizedNetwork.createContext(): "
+                + context.getClass().getSimpleName());
+        }
+        QuantizedInferenceContext buffers = (QuantizedInferenceContext) context;
+        
+        // Quantize the input once
+        QuantizationParams inputParams = layers[0].getInputParams();
+        byte[] activation = buffers.getQuantizedActivation(0);
+        for (int j = 0; j < input.length; j++) {
+            activation[j] = inputParams.quantize(input[j]);
+        }
+        
+        for (int i = 0; i < layers.length; i++) {
+            byte[] output = buffers.getQuantizedActivation(i + 1);
+            layers[i].forward(activation, output);
+            activation = output;
+        }
+        
+        // Dequantize the final layer output
+        QuantizationParams outputParams = layers[layers.length - 1].getOutputParams();
+        double[] result = buffers.getActivation(0);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = outputParams.dequantize(activation[i]);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Makes a prediction with a fresh context.
+     * Convenient for one-off calls; hot paths should reuse a context.
+     * 
+     * @param input input vector
+     * @return predicted output vector (owned by the caller)
+     */
+    public double[] predict(double[] input) {
+        return predict(input, createContext()).clone();
+    }
+    
+    @Override
+    public QuantizedInferenceContext createContext() {
+        int[] quantizedSizes = new int[layers.length + 1];
+        quantizedSizes[0] = getInputSize();
+        for (int i = 0; i < layers.length; i++) {
+            quantizedSizes[i + 1] = layers[i].getOutputSize();
+        }
+        return new QuantizedInferenceContext(getOutputSize(), quantizedSizes);
+    }
+    
+    @Override
+    public int getInputSize() {
+        return layers[0].getInputSize();
+    }
+    
+    @Override
+    public int getOutputSize() {
+        return layers[layers.length - 1].getOutputSize();
+    }
+    
+    /**
+     * Gets the number of layers.
+     * 
+     * @return number of layers
+     */
+    public int getLayerCount() {
+        return layers.length;
+    }
+    
+    /**
+     * Gets a specific layer by index.
+     * 
+     * @param index layer index (0-based)
+     * @return the quantized layer
+     */
+    public QuantizedDenseLayer getLayer(int index) {
+        return layers[index];
+    }
+    
+    /**
+     * Gets all layers.
+     * 
+     * @return list of quantized layers
+     */
+    public List<QuantizedDenseLayer> getLayers() {
+        return new ArrayList<>(List.of(layers));
+    }
+    
+    /**
+     * Gets the memory used by the model parameters.
+     * 
+     * @return total parameter bytes over all layers
+     */
+    public long getParameterBytes() {
+        long total = 0;
+        for (QuantizedDenseLayer layer : layers) {
+            total += layer.getParameterBytes();
+        }
+        return total;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("QuantizedNetwork[\n");
+        sb.append(String.format("  Layers: %d, Parameter bytes: %d\n", layers.length, getParameterBytes()));
+        for (int i = 0; i < layers.length; i++) {
+            sb.append(String.format("    Layer %d: %s\n", i, layers[i]));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
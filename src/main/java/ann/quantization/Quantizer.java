@@ -0,0 +1,182 @@
+package src.main.java.ann.quantization;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.activation.ElementwiseActivation;
+import src.main.java.ann.data.Dataset;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.FloatDenseLayer;
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.utils.ANNMath;
+import src.main.java.ann.utils.Matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Post-training int8 quantizer.
+ * 
+ * Runs a calibration dataset through the trained network to record, per
+ * layer, the value ranges of the inputs, the pre-activations (W × x + b) and
+ * the outputs, then builds a {@link QuantizedNetwork} whose activation
+ * quantization covers those ranges. The calibration set should be
+ * representative of production inputs (a few hundred training rows usually
+ * suffice); values outside the observed ranges saturate.
+ * 
+ * Example usage:
+ * <pre>
+ * QuantizedNetwork model = Quantizer.quantize(network, calibrationSet);
+ * System.out.println(Evaluator.compare(network, model, testFeatures, testLabels));
+ * </pre>
+ */
+public class Quantizer {
+    
+    /**
+     * Quantizes a trained network to int8.
+     * 
+     * @param network trained network made of dense layers
+     * @param calibration sample inputs used to calibrate activation ranges
+     * @return int8 inference model
+     */
+    public static QuantizedNetwork quantize(NeuralNetwork network, Dataset calibration) {
+        if (calibration.getSize() == 0) {
+            throw new IllegalArgumentException("Calibration dataset must not be empty");
+        }
+        if (calibration.getNumFeatures() != network.getInputSize()) {
+            throw new IllegalArgumentException(
+                String.format("Calibration feature size mismatch: expected %d, got %d",
+                              network.getInputSize(), calibration.getNumFeatures()));
+        }
+        
+        int layerCount = network.getLayerCount();
+        double[][][] weights = new double[layerCount][][];
+        double[][] biases = new double[layerCount][];
+        ElementwiseActivation[] activations = new ElementwiseActivation[layerCount];
+        for (int l = 0; l < layerCount; l++) {
+            Layer layer = network.getLayer(l);
+            weights[l] = layer.getWeights();
+            biases[l] = layer.getBiases();
+            activations[l] = activationOf(layer);
+        }
+        
+        // Observed ranges: [0] = network input, then pre-activation and output per layer
+        double[] inputRange = emptyRange();
+        double[][] preActivationRanges = new double[layerCount][];
+        double[][] outputRanges = new double[layerCount][];
+        for (int l = 0; l < layerCount; l++) {
+            preActivationRanges[l] = emptyRange();
+            outputRanges[l] = emptyRange();
+        }
+        
+        calibrate(calibration, weights, biases, activations, inputRange, preActivationRanges, outputRanges);
+        
+        // Chain the parameters: each layer reads the previous layer's output quantization
+        List<QuantizedDenseLayer> layers = new ArrayList<>();
+        QuantizationParams inputParams = QuantizationParams.fromRange(inputRange[0], inputRange[1]);
+        for (int l = 0; l < layerCount; l++) {
+            QuantizationParams preActivationParams =
+                QuantizationParams.fromRange(preActivationRanges[l][0], preActivationRanges[l][1]);
+            QuantizationParams outputParams =
+                QuantizationParams.fromRange(outputRanges[l][0], outputRanges[l][1]);
+            
+            layers.add(new QuantizedDenseLayer(weights[l], biases[l], activations[l],
+                                               inputParams, preActivationParams, outputParams));
+            inputParams = outputParams;
+        }
+        
+        return new QuantizedNetwork(layers);
+    }
+    
+    /**
+     * Runs the calibration rows through the float layers and widens the ranges.
+     * 
+     * @param calibration calibration inputs
+     * @param weights per-layer weights
+     * @param biases per-layer biases
+     * @param activations per-layer activation functions
+     * @param inputRange receives the network input range [min, max]
+     * @param preActivationRanges receive each layer's W × x + b range
+     * @param outputRanges receive each layer's output range
+     */
+    private static void calibrate(Dataset calibration, double[][][] weights, double[][] biases,
+                                  ElementwiseActivation[] activations, double[] inputRange,
+                                  double[][] preActivationRanges, double[][] outputRanges) {
+        int layerCount = weights.length;
+        Matrix[] matrices = new Matrix[layerCount];
+        double[][] preActivations = new double[layerCount][];
+        double[][] outputs = new double[layerCount][];
+        for (int l = 0; l < layerCount; l++) {
+            matrices[l] = Matrix.fromArray(weights[l]);
+            preActivations[l] = new double[biases[l].length];
+            outputs[l] = new double[biases[l].length];
+        }
+        
+        double[] row = new double[calibration.getNumFeatures()];
+        for (int i = 0; i < calibration.getSize(); i++) {
+            double[] x = calibration.getFeatures(i, row);
+            widen(inputRange, x);
+            
+            for (int l = 0; l < layerCount; l++) {
+                double[] z = preActivations[l];
+                ANNMath.multiply(matrices[l], x, z);
+                for (int k = 0; k < z.length; k++) {
+                    z[k] += biases[l][k];
+                }
+                widen(preActivationRanges[l], z);
+                
+                double[] y = outputs[l];
+                System.arraycopy(z, 0, y, 0, z.length);
+                activations[l].activate(y, 0, y.length);
+                widen(outputRanges[l], y);
+                
+                x = y;
+            }
+        }
+    }
+    
+    /**
+     * Gets the activation function of a supported layer.
+     * 
+     * @param layer layer to inspect
+     * @return its activation function
+     */
+    private static ElementwiseActivation activationOf(Layer layer) {
+        ActivationFunction activation;
+        if (layer instanceof DenseLayer) {
+            activation = ((DenseLayer) layer).getActivation();
+        } else if (layer instanceof FloatDenseLayer) {
+            activation = ((FloatDenseLayer) layer).getActivation();
+        } else {
+            throw new IllegalArgumentException("Only dense layers can be quantized, got: " + layer);
+        }
+        
+        // Quantized layers apply the activation per element through a lookup table
+        if (!(activation instanceof ElementwiseActivation)) {
+            throw new IllegalArgumentException(
+                String.format("%s layers cannot be quantized: %s", activation.getName(), layer));
+        }
+        return (ElementwiseActivation) activation;
+    }
+    
+    /**
+     * Creates a range that any value will widen.
+     * 
+     * @return [+∞, -∞]
+     */
+    private static double[] emptyRange() {
+        return new double[] { Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+    }
+    
+    /**
+     * Widens a [min, max] range to include the given values.
+     * 
+     * @param range range to update
+     * @param values observed values
+     */
+    private static void widen(double[] range, double[] values) {
+        for (double v : values) {
+            range[0] = Math.min(range[0], v);
+            range[1] = Math.max(range[1], v);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package src.main.java.ann.training;
+
+import src.main.java.ann.data.DataSource;
+import src.main.java.ann.data.RowTransform;
+import src.main.java.ann.utils.Matrix;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Assembles training batches into contiguous row-major blocks, optionally
+ * ahead of time on a background thread.
+ * 
+ * Each batch gathers its samples in epoch order, applies the input
+ * transform and packs features and targets into one {@link Matrix} each, so
+ * the training step reads cache-contiguous blocks. With a prefetch depth of
+ * K, a producer thread fills up to K batches while the current one trains.
+ * K + 1 batch buffers form a ring that the two threads hand over through a
+ * pair of volatile counters, parking when they have to wait. Blocking
+ * queues would allocate a wait node every time a thread blocks; the ring
+ * is reused every epoch, so steady-state batching does not allocate on
+ * either thread. With a depth of 0 batches are assembled on the calling
+ * thread into one buffer.
+ * 
+ * Batches come out in exactly the requested order, so results do not depend
+ * on the prefetch depth.
+ */
+class BatchPrefetcher {
+    
+    /**
+     * One reusable batch buffer.
+     */
+    static class Batch {
+        
+        private final Matrix inputs;
+        private final Matrix targets;
+        
+        // Smaller buffers for the last, partial batch of an epoch (created on first use)
+        private Matrix tailInputs;
+        private Matrix tailTargets;
+        
+        private int size;
+        
+        Batch(int batchSize, int numFeatures, int numLabels) {
+            this.inputs = new Matrix(batchSize, numFeatures);
+            this.targets = new Matrix(batchSize, numLabels);
+        }
+        
+        /**
+         * Gets the packed inputs [size][numFeatures].
+         */
+        Matrix getInputs() {
+            return size == inputs.getRows() ? inputs : tailInputs;
+        }
+        
+        /**
+         * Gets the packed targets [size][numLabels].
+         */
+        Matrix getTargets() {
+            return size == targets.getRows() ? targets : tailTargets;
+        }
+        
+        /**
+         * Gets the number of samples in the batch.
+         */
+        int getSize() {
+            return size;
+        }
+        
+        /**
+         * Resizes the batch, switching to the tail buffers for a partial batch.
+         */
+        void resize(int size) {
+            this.size = size;
+            if (size != inputs.getRows()
+                    && (tailInputs == null || tailInputs.getRows() != size)) {
+                tailInputs = new Matrix(size, inputs.getCols());
+                tailTargets = new Matrix(size, targets.getCols());
+            }
+        }
+    }
+    
+    private final DataSource source;
+    private final int batchSize;
+    private final RowTransform transform;
+    
+    // Scratch rows for sources that read into a buffer (producer thread only)
+    private final double[] rowBuffer;
+    private final double[] labelBuffer;
+    
+    // Prefetch mode: batch n of the run lives in ring[n % ring.length]
+    private final Batch[] ring;
+    private final Thread producer;
+    private volatile Thread consumer;
+    private volatile long filled;
+    private volatile long recycled;
+    private volatile int epochsStarted;
+    private volatile int[] epochOrder;
+    private volatile Throwable failure;
+    private volatile boolean stopped;
+    
+    // Consumer side of the ring
+    private long taken;
+    private int remaining;
+    
+    // Synchronous mode: the single buffer and the epoch being consumed
+    private final Batch current;
+    private int[] order;
+    private int position;
+    
+    /**
+     * Creates a batch assembler.
+     * 
+     * @param source training data
+     * @param batchSize samples per full batch
+     * @param depth number of batches prepared ahead (0 = assemble on the calling thread)
+     * @param transform input transform applied to each packed row (can be null)
+     */
+    BatchPrefetcher(DataSource source, int batchSize, int depth, RowTransform transform) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.transform = transform;
+        this.rowBuffer = new double[source.getNumFeatures()];
+        this.labelBuffer = new double[source.getNumLabels()];
+        
+        if (depth > 0) {
+            this.ring = new Batch[depth + 1];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = new Batch(batchSize, source.getNumFeatures(), source.getNumLabels());
+            }
+            this.current = null;
+            this.producer = new Thread(this::produce, "ann-batch-prefetcher");
+            producer.setDaemon(true);
+            producer.start();
+        } else {
+            this.ring = null;
+            this.producer = null;
+            this.current = new Batch(batchSize, source.getNumFeatures(), source.getNumLabels());
+        }
+    }
+    
+    /**
+     * Starts an epoch. The order array must not change until all of the
+     * epoch's batches have been taken.
+     * 
+     * @param order sample indices in training order
+     */
+    void startEpoch(int[] order) {
+        this.order = order;
+        this.position = 0;
+        
+        if (producer != null) {
+            consumer = Thread.currentThread();
+            remaining = (order.length + batchSize - 1) / batchSize;
+            epochOrder = order;
+            epochsStarted++;
+            LockSupport.unpark(producer);
+        }
+    }
+    
+    /**
+     * Takes the next batch of the epoch. Hand it back with
+     * {@link #recycle(Batch)} once the training step is done with it.
+     * 
+     * @return next batch
+     * @throws IllegalStateException if the producer failed
+     */
+    Batch next() {
+        if (producer == null) {
+            int end = Math.min(position + batchSize, order.length);
+            fill(current, order, position, end);
+            position = end;
+            return current;
+        }
+        
+        if (remaining == 0) {
+            throw new IllegalStateException("No batches left in this epoch");
+        }
+        while (taken == filled) {
+            if (failure != null) {
+                throw new IllegalStateException("Batch preparation failed", failure);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while waiting for a batch");
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        
+        remaining--;
+        return ring[(int) (taken++ % ring.length)];
+    }
+    
+    /**
+     * Returns a batch buffer for reuse.
+     * 
+     * @param batch batch obtained from {@link #next()}
+     */
+    void recycle(Batch batch) {
+        if (producer != null) {
+            // Batches are handed back in the order they were taken
+            recycled = recycled + 1;
+            LockSupport.unpark(producer);
+        }
+    }
+    
+    /**
+     * Stops the producer thread.
+     */
+    void shutdown() {
+        if (producer != null) {
+            stopped = true;
+            LockSupport.unpark(producer);
+        }
+    }
+    
+    /**
+     * Producer loop: waits for each epoch and fills its batches into the
+     * ring, waiting while every buffer is still with the consumer.
+     */
+    private void produce() {
+        int epochsFilled = 0;
+        long next = 0;
+        
+        try {
+            while (!stopped) {
+                if (epochsStarted == epochsFilled) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                int[] order = epochOrder;
+                epochsFilled++;
+                
+                for (int start = 0; start < order.length; start += batchSize) {
+                    while (next - recycled == ring.length) {
+                        if (stopped) {
+                            return;
+                        }
+                        LockSupport.park(this);
+                    }
+                    fill(ring[(int) (next % ring.length)], order, start, Math.min(start + batchSize, order.length));
+                    filled = ++next;
+                    LockSupport.unpark(consumer);
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+            LockSupport.unpark(consumer);
+        }
+    }
+    
+    /**
+     * Gathers samples order[from..to) into a batch buffer.
+     */
+    private void fill(Batch batch, int[] order, int from, int to) {
+        batch.resize(to - from);
+        Matrix inputs = batch.getInputs();
+        Matrix targets = batch.getTargets();
+        double[] inputData = inputs.getData();
+        int numFeatures = inputs.getCols();
+        
+        for (int i = 0; i < to - from; i++) {
+            int idx = order[from + i];
+            System.arraycopy(source.getFeatures(idx, rowBuffer), 0, inputData, inputs.offset(i), numFeatures);
+            if (transform != null) {
+                transform.transform(inputData, inputs.offset(i), numFeatures);
+            }
+            targets.setRow(i, source.getLabels(idx, labelBuffer));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package src.main.java.ann.training;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes training checkpoints on a background thread.
+ * 
+ * {@link #submit(TrainingCheckpoint)} never blocks the training loop. If
+ * the disk falls behind, only the newest pending snapshot is kept: an older
+ * one that has not started writing yet is replaced, since it would be
+ * overwritten right after anyway.
+ */
+class CheckpointWriter {
+    
+    private final Path path;
+    private final ExecutorService executor;
+    private final AtomicReference<TrainingCheckpoint> pending;
+    private volatile IOException failure;
+    
+    /**
+     * Creates a writer for a checkpoint file.
+     * 
+     * @param path checkpoint file
+     */
+    CheckpointWriter(Path path) {
+        this.path = path;
+        this.pending = new AtomicReference<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ann-checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queues a snapshot for writing.
+     * 
+     * @param checkpoint snapshot to write
+     */
+    void submit(TrainingCheckpoint checkpoint) {
+        // Only schedule a drain when the slot was empty; a running drain picks up replacements
+        if (pending.getAndSet(checkpoint) == null) {
+            executor.execute(this::drain);
+        }
+    }
+    
+    /**
+     * Waits for queued snapshots to be written and stops the writer thread.
+     * 
+     * @throws IllegalStateException if a checkpoint could not be written
+     */
+    void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting: the last checkpoint must reach the disk
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing checkpoint " + path, e);
+        }
+        
+        if (failure != null) {
+            throw new IllegalStateException(String.format("Failed to write checkpoint %s", path), failure);
+        }
+    }
+    
+    /**
+     * Writes pending snapshots until none is left.
+     */
+    private void drain() {
+        TrainingCheckpoint checkpoint;
+        while ((checkpoint = pending.getAndSet(null)) != null) {
+            try {
+                checkpoint.write(path);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
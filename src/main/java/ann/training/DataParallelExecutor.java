@@ -0,0 +1,203 @@
+package src.main.java.ann.training;
+
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.layer.LayerGradients;
+import src.main.java.ann.loss.LossFunction;
+import src.main.java.ann.network.InferenceContext;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.utils.Matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Synchronous data-parallel training step.
+ * 
+ * Each mini-batch is cut into one contiguous shard per worker. Every worker
+ * owns a replica of the layer activations and private gradient buffers, and
+ * computes the gradients of its shard against the shared (read-only during
+ * the step) parameters. The per-worker gradients are then combined with a
+ * fixed pairwise tree reduction and a single averaged update is applied.
+ * 
+ * Shard boundaries, summation order and reduction tree depend only on the
+ * batch and the worker count, so results are bit-reproducible for a fixed
+ * seed and thread count.
+ */
+class DataParallelExecutor {
+    
+    private final NeuralNetwork network;
+    private final List<Layer> layers;
+    private final Replica[] replicas;
+    private final ExecutorService executor;
+    
+    /**
+     * Creates a data-parallel executor for a network.
+     * 
+     * @param network network to train
+     * @param numWorkers number of worker threads
+     */
+    DataParallelExecutor(NeuralNetwork network, int numWorkers) {
+        this.network = network;
+        this.layers = network.getLayers();
+        this.replicas = new Replica[numWorkers];
+        for (int w = 0; w < numWorkers; w++) {
+            replicas[w] = new Replica(network, layers);
+        }
+        this.executor = Executors.newFixedThreadPool(numWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "ann-data-parallel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Trains on one batch: parallel gradient computation, tree reduction and
+     * one averaged update.
+     * 
+     * @param inputs batch input rows [batchSize][inputSize]
+     * @param targets batch target rows [batchSize][outputSize]
+     * @return average loss for the batch
+     */
+    double trainOnBatch(Matrix inputs, Matrix targets) {
+        int batchSize = inputs.getRows();
+        int numWorkers = replicas.length;
+        LossFunction lossFunction = network.getConfig().getLossFunction();
+        
+        // 1. Each worker computes the gradients of its shard
+        List<Callable<Void>> shardTasks = new ArrayList<>(numWorkers);
+        for (int w = 0; w < numWorkers; w++) {
+            Replica replica = replicas[w];
+            int start = (int) ((long) batchSize * w / numWorkers);
+            int end = (int) ((long) batchSize * (w + 1) / numWorkers);
+            shardTasks.add(() -> {
+                replica.computeShard(inputs, targets, start, end, lossFunction);
+                return null;
+            });
+        }
+        runAll(shardTasks);
+        
+        // 2. Pairwise tree reduction into replica 0
+        for (int stride = 1; stride < numWorkers; stride *= 2) {
+            List<Callable<Void>> reduceTasks = new ArrayList<>();
+            for (int w = 0; w + stride < numWorkers; w += 2 * stride) {
+                Replica target = replicas[w];
+                Replica source = replicas[w + stride];
+                reduceTasks.add(() -> {
+                    target.add(source);
+                    return null;
+                });
+            }
+            runAll(reduceTasks);
+        }
+        
+        // 3. One averaged update
+        double learningRate = network.getConfig().getLearningRate();
+        network.getOptimizer().nextStep();
+        for (int l = 0; l < layers.size(); l++) {
+            layers.get(l).applyGradients(replicas[0].gradients[l], learningRate, batchSize);
+        }
+        
+        return replicas[0].lossSum / batchSize;
+    }
+    
+    /**
+     * Stops the worker threads.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Runs tasks on the workers and waits for all of them.
+     */
+    private void runAll(List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data-parallel training step interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data-parallel training step failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Per-worker state: activation replica and private gradient buffers.
+     */
+    private static class Replica {
+        
+        private final NeuralNetwork network;
+        private final List<Layer> layers;
+        private final InferenceContext activations;
+        private final double[][] inputGradients;
+        private final LayerGradients[] gradients;
+        private final double[] lossGradient;
+        private final double[] inputRow;
+        private final double[] targetRow;
+        private double lossSum;
+        
+        Replica(NeuralNetwork network, List<Layer> layers) {
+            this.network = network;
+            this.layers = layers;
+            this.activations = network.createContext();
+            this.inputGradients = new double[layers.size()][];
+            this.gradients = new LayerGradients[layers.size()];
+            for (int l = 0; l < layers.size(); l++) {
+                inputGradients[l] = new double[layers.get(l).getInputSize()];
+                gradients[l] = layers.get(l).createGradients();
+            }
+            this.lossGradient = new double[network.getOutputSize()];
+            this.inputRow = new double[network.getInputSize()];
+            this.targetRow = new double[network.getOutputSize()];
+        }
+        
+        /**
+         * Computes summed gradients and loss for rows [start, end).
+         */
+        void computeShard(Matrix inputs, Matrix targets, int start, int end,
+                          LossFunction lossFunction) {
+            for (LayerGradients layerGradients : gradients) {
+                layerGradients.clear();
+            }
+            lossSum = 0.0;
+            
+            for (int s = start; s < end; s++) {
+                // Rows are copied out of the shared batch block into private buffers
+                System.arraycopy(inputs.getData(), inputs.offset(s), inputRow, 0, inputRow.length);
+                System.arraycopy(targets.getData(), targets.offset(s), targetRow, 0, targetRow.length);
+                
+                // Forward through the replica activations
+                double[] predicted = network.predict(inputRow, activations);
+                lossSum += lossFunction.compute(predicted, targetRow);
+                lossFunction.gradient(predicted, targetRow, lossGradient);
+                
+                // Backward into the private gradient buffers
+                double[] gradient = lossGradient;
+                for (int l = layers.size() - 1; l >= 0; l--) {
+                    double[] layerInput = l == 0 ? inputRow : activations.getActivation(l - 1);
+                    double[] layerInputGradient = l == 0 ? null : inputGradients[l];
+                    layers.get(l).backpropagate(layerInput, activations.getActivation(l),
+                                                gradient, layerInputGradient, gradients[l]);
+                    gradient = layerInputGradient;
+                }
+            }
+        }
+        
+        /**
+         * Adds another replica's gradients and loss into this one.
+         */
+        void add(Replica other) {
+            for (int l = 0; l < gradients.length; l++) {
+                gradients[l].add(other.gradients[l]);
+            }
+            lossSum += other.lossSum;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package src.main.java.ann.training;
+
+/**
+ * Metrics collected by {@link HogwildTrainer} for one training run.
+ * 
+ * Staleness of an update is the number of updates from other threads that
+ * landed between the moment a worker read the weights (start of its forward
+ * pass) and the moment it applied its own update. Workers do not count it
+ * per sample: they read the other workers' update counters at the start and
+ * end of each claimed chunk and spread the difference evenly over the
+ * chunk's samples. The mean is therefore exact up to chunk boundaries, and
+ * the maximum is the worst chunk average (rounded up).
+ */
+public class HogwildStatistics {
+    
+    private final int numThreads;
+    private final long totalSamples;
+    private final long elapsedNanos;
+    private final double meanStaleness;
+    private final long maxStaleness;
+    
+    /**
+     * Creates a statistics snapshot.
+     * 
+     * @param numThreads number of worker threads
+     * @param totalSamples number of samples (updates) processed
+     * @param elapsedNanos wall-clock training time in nanoseconds
+     * @param meanStaleness average staleness per update
+     * @param maxStaleness worst per-chunk average staleness
+     */
+    public HogwildStatistics(int numThreads, long totalSamples, long elapsedNanos,
+                             double meanStaleness, long maxStaleness) {
+        this.numThreads = numThreads;
+        this.totalSamples = totalSamples;
+        this.elapsedNanos = elapsedNanos;
+        this.meanStaleness = meanStaleness;
+        this.maxStaleness = maxStaleness;
+    }
+    
+    public int getNumThreads() {
+        return numThreads;
+    }
+    
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    public double getMeanStaleness() {
+        return meanStaleness;
+    }
+    
+    public long getMaxStaleness() {
+        return maxStaleness;
+    }
+    
+    /**
+     * Gets the training throughput.
+     * 
+     * @return samples processed per second
+     */
+    public double getSamplesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : totalSamples * 1e9 / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("HogwildStatistics[threads=%d, samples=%d, samples/s=%.1f, " +
+                             "meanStaleness=%.2f, maxStaleness=%d]",
+                             numThreads, totalSamples, getSamplesPerSecond(),
+                             meanStaleness, maxStaleness);
+    }
+}
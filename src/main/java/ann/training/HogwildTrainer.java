@@ -0,0 +1,373 @@
+package src.main.java.ann.training;
+
+import src.main.java.ann.data.Permutations;
+import src.main.java.ann.layer.DenseLayer;
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.loss.LossFunction;
+import src.main.java.ann.network.InferenceContext;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.optimizer.SGDOptimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Asynchronous, lock-free (Hogwild-style) SGD trainer.
+ * 
+ * Worker threads claim chunks of a shared shuffled order and apply their
+ * per-sample updates straight to the shared {@link DenseLayer} weights with
+ * no locks and no barriers inside an epoch. The only shared counter is the
+ * order cursor, advanced once per chunk; each worker counts its updates in
+ * its own padded slot, which others read only at chunk boundaries. Updates may race and read
+ * slightly stale weights, which SGD tolerates; in exchange no thread ever
+ * waits for another. Updates only touch the weight columns of non-zero
+ * inputs, so sparse inputs rarely collide.
+ * 
+ * Only plain SGD is supported: per-parameter optimizer state could not be
+ * updated consistently without locks.
+ * 
+ * This is an alternative to the synchronous data-parallel mode of
+ * {@link Trainer}. Results are not reproducible across runs. Staleness and
+ * throughput are reported through {@link #getStatistics()} so both modes can
+ * be compared.
+ */
+public class HogwildTrainer {
+    
+    // Samples claimed per cursor update (fewer if the epoch is short)
+    private static final int MAX_CHUNK_SIZE = 128;
+    
+    // Longs per update-counter slot, so every worker's slot has its own cache line
+    private static final int SLOT_STRIDE = 8;
+    
+    private NeuralNetwork network;
+    private TrainingConfig config;
+    private Random random;
+    private HogwildStatistics statistics;
+    
+    /**
+     * Creates a Hogwild trainer.
+     * 
+     * @param network the neural network to train (dense layers only)
+     * @param config training configuration; numThreads sets the worker count
+     */
+    public HogwildTrainer(NeuralNetwork network, TrainingConfig config) {
+        this(network, config, new Random());
+    }
+    
+    /**
+     * Creates a Hogwild trainer with a seed for the shuffle order.
+     * 
+     * @param network the neural network to train (dense layers only)
+     * @param config training configuration; numThreads sets the worker count
+     * @param seed random seed
+     */
+    public HogwildTrainer(NeuralNetwork network, TrainingConfig config, long seed) {
+        this(network, config, new Random(seed));
+    }
+    
+    private HogwildTrainer(NeuralNetwork network, TrainingConfig config, Random random) {
+        for (Layer layer : network.getLayers()) {
+            if (!(layer instanceof DenseLayer)) {
+                throw new IllegalArgumentException(
+                    "Hogwild training supports dense layers only, got: " + layer);
+            }
+        }
+        
+        this.network = network;
+        this.config = config;
+        this.random = random;
+    }
+    
+    /**
+     * Trains the network on the provided data.
+     * 
+     * @param trainInputs training input data
+     * @param trainTargets training target data
+     * @return training history
+     */
+    public TrainingHistory train(double[][] trainInputs, double[][] trainTargets) {
+        return train(trainInputs, trainTargets, null, null);
+    }
+    
+    /**
+     * Trains the network with optional validation data for early stopping.
+     * 
+     * @param trainInputs training input data
+     * @param trainTargets training target data
+     * @param valInputs validation input data (can be null)
+     * @param valTargets validation target data (can be null)
+     * @return training history
+     */
+    public TrainingHistory train(double[][] trainInputs, double[][] trainTargets,
+                                 double[][] valInputs, double[][] valTargets) {
+        if (trainInputs.length != trainTargets.length) {
+            throw new IllegalArgumentException("Training inputs and targets must have same length");
+        }
+        
+        // Workers update the shared weights in place with plain SGD steps
+        Optimizer optimizer = config.getOptimizer() != null
+            ? config.getOptimizer()
+            : network.getConfig().getOptimizer();
+        if (!(optimizer instanceof SGDOptimizer)) {
+            throw new IllegalStateException(
+                "Hogwild training supports SGD only, got: " + optimizer.getName());
+        }
+        
+        TrainingHistory history = new TrainingHistory();
+        int dataSize = trainInputs.length;
+        int numThreads = config.getNumThreads();
+        
+        int[] order = new int[dataSize];
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicLongArray updates = new AtomicLongArray(numThreads * SLOT_STRIDE);
+        
+        // Small enough that every worker gets several chunks per epoch
+        int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, dataSize / (numThreads * 4)));
+        
+        List<Worker> workers = new ArrayList<>(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            workers.add(new Worker(t, trainInputs, trainTargets, order, cursor, chunkSize, updates));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ann-hogwild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        double bestValLoss = Double.MAX_VALUE;
+        int patienceCounter = 0;
+        long startTime = System.nanoTime();
+        
+        try {
+            for (int epoch = 0; epoch < config.getEpochs(); epoch++) {
+                
+                // Shared sample order for this epoch
+                Permutations.reset(order);
+                if (config.isShuffle()) {
+                    Permutations.shuffle(order, random);
+                }
+                cursor.set(0);
+                
+                // Workers race through the epoch without synchronizing
+                for (Future<Void> future : executor.invokeAll(workers)) {
+                    future.get();
+                }
+                
+                double epochLoss = 0.0;
+                for (Worker worker : workers) {
+                    epochLoss += worker.epochLoss;
+                }
+                epochLoss /= dataSize;
+                
+                // Validation
+                double valLoss = -1.0;
+                if (valInputs != null && valTargets != null) {
+                    valLoss = network.evaluate(valInputs, valTargets);
+                }
+                
+                history.recordLoss(epochLoss, valLoss);
+                network.addTrainingLoss(epochLoss);
+                if (valLoss >= 0) {
+                    network.addValidationLoss(valLoss);
+                }
+                
+                if (config.isVerbose() && (epoch + 1) % config.getPrintEveryNEpochs() == 0) {
+                    System.out.printf("Epoch %d/%d - Loss: %.6f%s\n",
+                                      epoch + 1, config.getEpochs(), epochLoss,
+                                      valLoss >= 0 ? String.format(" - Val Loss: %.6f", valLoss) : "");
+                }
+                
+                // Early stopping check
+                if (config.isUseEarlyStopping() && valLoss >= 0) {
+                    if (valLoss < bestValLoss - config.getMinDelta()) {
+                        bestValLoss = valLoss;
+                        patienceCounter = 0;
+                    } else if (++patienceCounter >= config.getPatience()) {
+                        if (config.isVerbose()) {
+                            System.out.printf("Early stopping at epoch %d\n", epoch + 1);
+                        }
+                        history.markEarlyStopping(epoch + 1);
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hogwild training interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hogwild training failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // Aggregate worker metrics
+        long elapsed = System.nanoTime() - startTime;
+        long samples = 0;
+        long stalenessSum = 0;
+        long maxStaleness = 0;
+        for (Worker worker : workers) {
+            samples += worker.samples;
+            stalenessSum += worker.stalenessSum;
+            maxStaleness = Math.max(maxStaleness, worker.maxStaleness);
+        }
+        this.statistics = new HogwildStatistics(numThreads, samples, elapsed,
+                                                samples == 0 ? 0.0 : (double) stalenessSum / samples,
+                                                maxStaleness);
+        
+        if (config.isVerbose()) {
+            System.out.println(statistics);
+        }
+        
+        return history;
+    }
+    
+    /**
+     * Gets the statistics of the last training run.
+     * 
+     * @return statistics, or null if train() has not been called
+     */
+    public HogwildStatistics getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Gets the network being trained.
+     * 
+     * @return neural network
+     */
+    public NeuralNetwork getNetwork() {
+        return network;
+    }
+    
+    /**
+     * Gets the training configuration.
+     * 
+     * @return training configuration
+     */
+    public TrainingConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * One asynchronous worker. Holds private activations and scratch buffers;
+     * the only shared mutable state it writes is the layer parameters, the
+     * chunk cursor and its own update-counter slot.
+     */
+    private class Worker implements Callable<Void> {
+        
+        private final int index;
+        private final double[][] inputs;
+        private final double[][] targets;
+        private final int[] order;
+        private final AtomicInteger cursor;
+        private final int chunkSize;
+        private final AtomicLongArray updates;
+        
+        private final DenseLayer[] layers;
+        private final InferenceContext activations;
+        private final double[][] inputGradients;
+        private final double[][] deltas;
+        private final int[] activeInputs;
+        private final double[] lossGradient;
+        
+        // Metrics (read by the coordinating thread after invokeAll returns)
+        private double epochLoss;
+        private long samples;
+        private long stalenessSum;
+        private long maxStaleness;
+        
+        Worker(int index, double[][] inputs, double[][] targets, int[] order,
+               AtomicInteger cursor, int chunkSize, AtomicLongArray updates) {
+            this.index = index;
+            this.inputs = inputs;
+            this.targets = targets;
+            this.order = order;
+            this.cursor = cursor;
+            this.chunkSize = chunkSize;
+            this.updates = updates;
+            
+            List<Layer> networkLayers = network.getLayers();
+            this.layers = new DenseLayer[networkLayers.size()];
+            this.inputGradients = new double[layers.length][];
+            this.deltas = new double[layers.length][];
+            int maxInput = 0;
+            for (int l = 0; l < layers.length; l++) {
+                layers[l] = (DenseLayer) networkLayers.get(l);
+                inputGradients[l] = new double[layers[l].getInputSize()];
+                deltas[l] = new double[layers[l].getOutputSize()];
+                maxInput = Math.max(maxInput, layers[l].getInputSize());
+            }
+            this.activeInputs = new int[maxInput];
+            this.activations = network.createContext();
+            this.lossGradient = new double[network.getOutputSize()];
+        }
+        
+        @Override
+        public Void call() {
+            LossFunction lossFunction = network.getConfig().getLossFunction();
+            double learningRate = network.getConfig().getLearningRate();
+            epochLoss = 0.0;
+            
+            int start;
+            while ((start = cursor.getAndAdd(chunkSize)) < order.length) {
+                int end = Math.min(start + chunkSize, order.length);
+                long othersBefore = otherUpdates();
+                
+                for (int position = start; position < end; position++) {
+                    int idx = order[position];
+                    
+                    // Forward with whatever the shared weights currently hold
+                    double[] predicted = network.predict(inputs[idx], activations);
+                    epochLoss += lossFunction.compute(predicted, targets[idx]);
+                    lossFunction.gradient(predicted, targets[idx], lossGradient);
+                    
+                    // Backward, updating each layer in place as we go
+                    double[] gradient = lossGradient;
+                    for (int l = layers.length - 1; l >= 0; l--) {
+                        double[] layerInput = l == 0 ? inputs[idx] : activations.getActivation(l - 1);
+                        double[] layerInputGradient = l == 0 ? null : inputGradients[l];
+                        layers[l].sgdUpdate(layerInput, activations.getActivation(l), gradient,
+                                            layerInputGradient, deltas[l], activeInputs, learningRate);
+                        gradient = layerInputGradient;
+                    }
+                    
+                    // Plain store to our own slot; nobody else writes it
+                    updates.lazySet(index * SLOT_STRIDE, ++samples);
+                }
+                
+                // Staleness estimate: other threads' updates during this chunk, spread over its samples
+                long others = otherUpdates() - othersBefore;
+                int count = end - start;
+                stalenessSum += others;
+                maxStaleness = Math.max(maxStaleness, (others + count - 1) / count);
+            }
+            
+            return null;
+        }
+        
+        /**
+         * Sums the update counters of the other workers.
+         * 
+         * @return updates applied by other threads so far
+         */
+        private long otherUpdates() {
+            long sum = 0;
+            for (int t = 0; t < updates.length(); t += SLOT_STRIDE) {
+                if (t != index * SLOT_STRIDE) {
+                    sum += updates.get(t);
+                }
+            }
+            return sum;
+        }
+    }
+}
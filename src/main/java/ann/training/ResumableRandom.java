@@ -0,0 +1,128 @@
+package src.main.java.ann.training;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Shuffling RNG of a {@link Trainer} whose state can be checkpointed.
+ * 
+ * Runs the same 48-bit linear congruential generator as
+ * {@link java.util.Random} (same constants and seed scrambling, same
+ * Gaussian pairs), so a trainer seeded with s draws exactly what
+ * {@code new Random(s)} would. Unlike Random, the whole state (the 48-bit
+ * seed and the cached second Gaussian) is held here, so a
+ * {@link TrainingCheckpoint} writes it as plain fields instead of going
+ * through Java serialization.
+ * 
+ * Not thread-safe: the trainer draws from it on the training thread only.
+ */
+class ResumableRandom extends Random {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    
+    // No initializers: Random's constructor sets these through setSeed
+    private long state;
+    private boolean haveNextNextGaussian;
+    private double nextNextGaussian;
+    
+    /**
+     * Creates an RNG with a unique, time-based seed.
+     */
+    ResumableRandom() {
+        super();
+    }
+    
+    /**
+     * Creates an RNG with a fixed seed.
+     * 
+     * @param seed initial seed
+     */
+    ResumableRandom(long seed) {
+        super(seed);
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+        haveNextNextGaussian = false;
+    }
+    
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+    
+    @Override
+    public double nextGaussian() {
+        // Polar method, as in java.util.Random
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+    
+    /**
+     * Creates an independent RNG in the same state.
+     * 
+     * @return copy that continues the same sequence
+     */
+    ResumableRandom copy() {
+        ResumableRandom copy = new ResumableRandom(0L);
+        copy.state = state;
+        copy.haveNextNextGaussian = haveNextNextGaussian;
+        copy.nextNextGaussian = nextNextGaussian;
+        return copy;
+    }
+    
+    /**
+     * Writes the state.
+     * 
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(state);
+        out.writeBoolean(haveNextNextGaussian);
+        out.writeDouble(nextNextGaussian);
+    }
+    
+    /**
+     * Reads a state written by {@link #write(DataOutputStream)}.
+     * 
+     * @param in source
+     * @return RNG in the stored state
+     * @throws IOException if reading fails or the state is not a 48-bit seed
+     */
+    static ResumableRandom read(DataInputStream in) throws IOException {
+        long state = in.readLong();
+        if ((state & ~MASK) != 0) {
+            throw new IOException(String.format("Corrupt RNG state in checkpoint: %#x", state));
+        }
+        
+        ResumableRandom random = new ResumableRandom(0L);
+        random.state = state;
+        random.haveNextNextGaussian = in.readBoolean();
+        random.nextNextGaussian = in.readDouble();
+        return random;
+    }
+}
@@ -1,21 +1,56 @@
 package src.main.java.ann.training;
 
+import src.main.java.ann.data.DataSource;
+import src.main.java.ann.data.Dataset;
+import src.main.java.ann.data.Permutations;
+import src.main.java.ann.data.RowTransform;
+import src.main.java.ann.loss.LossFunction;
+import src.main.java.ann.metrics.TrainingMetrics;
 import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.optimizer.Optimizer;
+import src.main.java.ann.utils.Precision;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Trainer class for neural networks.
  * Handles the complete training loop with batch processing, shuffling, and early stopping.
+ * 
+ * With {@link TrainingConfig#setNumThreads(int)} above 1, each batch is trained
+ * data-parallel: shards are processed on worker threads and one averaged
+ * update is applied per batch (see {@link DataParallelExecutor}).
+ * 
+ * With {@link TrainingConfig#setCheckpointPath(Path)} set, the run state is
+ * checkpointed every {@link TrainingConfig#getCheckpointEveryNEpochs()}
+ * epochs and at the end by a background writer, and an interrupted run can
+ * be continued with {@link #resume(Path, DataSource, DataSource)}.
+ * 
+ * Training data is read row by row through {@link DataSource}, so an
+ * in-memory {@link Dataset} and a memory-mapped
+ * {@link src.main.java.ann.data.StreamingDataset} larger than the heap are
+ * trained on the same way.
+ * 
+ * Batches are gathered, transformed by
+ * {@link TrainingConfig#getInputTransform()} and packed into contiguous
+ * blocks by a {@link BatchPrefetcher}, which by default works
+ * {@link TrainingConfig#getPrefetchBatches()} batches ahead on a background
+ * thread while the current batch trains. The input transform is not part
+ * of the network: apply the same transform to inputs at inference time.
+ * 
+ * With a {@link TrainingMetrics} registry set in the configuration (or
+ * already installed on the network), every batch and epoch is recorded
+ * there and emitted as a Flight Recorder event.
+ * 
+ * An optimizer or metrics registry set in the configuration replaces the
+ * network's own only while a run lasts; the network's previous ones are
+ * put back when it returns or fails.
  */
 public class Trainer {
     
     private NeuralNetwork network;
     private TrainingConfig config;
-    private Random random;
+    private ResumableRandom random;
     
     /**
      * Creates a trainer for a neural network.
@@ -26,7 +61,7 @@ public class Trainer {
     public Trainer(NeuralNetwork network, TrainingConfig config) {
         this.network = network;
         this.config = config;
-        this.random = new Random();
+        this.random = new ResumableRandom();
     }
     
     /**
@@ -39,7 +74,7 @@ public class Trainer {
     public Trainer(NeuralNetwork network, TrainingConfig config, long seed) {
         this.network = network;
         this.config = config;
-        this.random = new Random(seed);
+        this.random = new ResumableRandom(seed);
     }
     
     /**
@@ -65,8 +100,6 @@ public class Trainer {
     public TrainingHistory train(double[][] trainInputs, double[][] trainTargets,
                                  double[][] valInputs, double[][] valTargets) {
         
-        TrainingHistory history = new TrainingHistory();
-        
         // Validate inputs
         if (trainInputs.length != trainTargets.length) {
             throw new IllegalArgumentException("Training inputs and targets must have same length");
@@ -76,99 +109,281 @@ public class Trainer {
             throw new IllegalArgumentException("Validation inputs and targets must have same length");
         }
         
-        int dataSize = trainInputs.length;
+        Dataset validation = valInputs != null && valTargets != null
+            ? new Dataset(valInputs, valTargets)
+            : null;
+        return train(new Dataset(trainInputs, trainTargets), validation);
+    }
+    
+    /**
+     * Trains the network on a dataset.
+     * 
+     * @param train training dataset
+     * @return training history
+     */
+    public TrainingHistory train(DataSource train) {
+        return train(train, null);
+    }
+    
+    /**
+     * Trains the network on a dataset with an optional validation dataset.
+     * Either dataset may use FLOAT feature storage or live in a mapped file;
+     * rows are read into reusable buffers as batches are assembled.
+     * 
+     * @param train training dataset
+     * @param validation validation dataset (can be null)
+     * @return training history
+     */
+    public TrainingHistory train(DataSource train, DataSource validation) {
+        return run(train, validation, null);
+    }
+    
+    /**
+     * Continues a run from a checkpoint. The network must have the
+     * checkpointed topology; its parameters, the shuffling RNG, the history
+     * and the early-stopping state are restored and training picks up at
+     * the next epoch. With the same configuration and data the result is
+     * bit-identical to a run that was never interrupted.
+     * 
+     * @param checkpoint checkpoint file written during an earlier run
+     * @param train training dataset
+     * @param validation validation dataset (can be null)
+     * @return training history, including the epochs before the checkpoint
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public TrainingHistory resume(Path checkpoint, DataSource train, DataSource validation) throws IOException {
+        return run(train, validation, TrainingCheckpoint.read(checkpoint));
+    }
+    
+    /**
+     * Runs the training loop, either from scratch or from a checkpoint.
+     * 
+     * @param train training dataset
+     * @param validation validation dataset (can be null)
+     * @param checkpoint state to resume from (null for a fresh run)
+     * @return training history
+     */
+    private TrainingHistory run(DataSource train, DataSource validation, TrainingCheckpoint checkpoint) {
+        network.validateLossFunction();
+        
+        // The configuration's optimizer and metrics apply to this run only
+        Optimizer previousOptimizer = network.getConfig().getOptimizer();
+        TrainingMetrics previousMetrics = network.getMetrics();
+        if (config.getOptimizer() != null) {
+            network.getConfig().setOptimizer(config.getOptimizer());
+        }
+        if (config.getMetrics() != null) {
+            network.setMetrics(config.getMetrics());
+        }
+        TrainingMetrics metrics = network.getMetrics();
+        
+        int dataSize = train.getSize();
         int batchSize = Math.min(config.getBatchSize(), dataSize);
         
+        // Epoch order, shuffled on this thread so results do not depend on prefetching
+        int[] order = new int[dataSize];
+        
+        // Validation row buffers, reused every epoch
+        double[] valRow = validation != null ? new double[validation.getNumFeatures()] : null;
+        double[] valTarget = validation != null ? new double[validation.getNumLabels()] : null;
+        
         // Early stopping variables
+        TrainingHistory history = new TrainingHistory();
         double bestValLoss = Double.MAX_VALUE;
         int patienceCounter = 0;
+        double[] bestParameters = null;
+        boolean keepBest = config.isUseEarlyStopping() && config.isRestoreBestWeights() && validation != null;
+        
+        // Background checkpoint writer (null = checkpointing disabled)
+        CheckpointWriter checkpoints = null;
+        // Data-parallel workers (null = single-threaded)
+        DataParallelExecutor parallel = null;
+        BatchPrefetcher batches = null;
         
-        // Training loop
-        for (int epoch = 0; epoch < config.getEpochs(); epoch++) {
+        try {
+            if (checkpoint != null) {
+                checkpoint.restore(network);
+                random = checkpoint.restoreRandom();
+                history = checkpoint.restoreHistory();
+                bestValLoss = checkpoint.getBestValidationLoss();
+                patienceCounter = checkpoint.getPatienceCounter();
+                bestParameters = checkpoint.getBestParameters();
+            }
             
-            // Create index list for shuffling
-            List<Integer> indices = new ArrayList<>();
-            for (int i = 0; i < dataSize; i++) {
-                indices.add(i);
+            if (config.getCheckpointPath() != null) {
+                checkpoints = new CheckpointWriter(config.getCheckpointPath());
             }
+            int lastCheckpointEpoch = history.getTotalEpochs();
             
-            // Shuffle data if enabled
-            if (config.isShuffle()) {
-                Collections.shuffle(indices, random);
+            if (config.getNumThreads() > 1) {
+                parallel = new DataParallelExecutor(network, config.getNumThreads());
             }
             
-            // Train on batches
-            double epochLoss = 0.0;
-            int numBatches = (int) Math.ceil((double) dataSize / batchSize);
+            batches = new BatchPrefetcher(train, batchSize, config.getPrefetchBatches(),
+                                          config.getInputTransform());
             
-            for (int batch = 0; batch < numBatches; batch++) {
-                int batchStart = batch * batchSize;
-                int batchEnd = Math.min(batchStart + batchSize, dataSize);
-                int currentBatchSize = batchEnd - batchStart;
+            // Training loop
+            for (int epoch = history.getTotalEpochs();
+                 epoch < config.getEpochs() && !history.isStoppedEarly(); epoch++) {
+                
+                if (metrics != null) {
+                    metrics.startEpoch(epoch);
+                }
                 
-                // Prepare batch data
-                double[][] batchInputs = new double[currentBatchSize][];
-                double[][] batchTargets = new double[currentBatchSize][];
+                // The previous epoch's batches have all been taken, so the order can be reused
+                Permutations.reset(order);
                 
-                for (int i = 0; i < currentBatchSize; i++) {
-                    int idx = indices.get(batchStart + i);
-                    batchInputs[i] = trainInputs[idx];
-                    batchTargets[i] = trainTargets[idx];
+                // Shuffle data if enabled
+                if (config.isShuffle()) {
+                    Permutations.shuffle(order, random);
                 }
+                batches.startEpoch(order);
                 
-                // Train on batch
-                double batchLoss = network.trainOnBatch(batchInputs, batchTargets);
-                epochLoss += batchLoss * currentBatchSize;
-            }
-            
-            epochLoss /= dataSize;
-            
-            // Validation
-            double valLoss = -1.0;
-            if (valInputs != null && valTargets != null) {
-                valLoss = network.evaluate(valInputs, valTargets);
-            }
-            
-            // Record history
-            history.recordLoss(epochLoss, valLoss);
-            network.addTrainingLoss(epochLoss);
-            if (valLoss >= 0) {
-                network.addValidationLoss(valLoss);
-            }
-            
-            // Print progress
-            if (config.isVerbose() && (epoch + 1) % config.getPrintEveryNEpochs() == 0) {
+                // Train on batches
+                double epochLoss = 0.0;
+                int numBatches = (int) Math.ceil((double) dataSize / batchSize);
+                
+                for (int batch = 0; batch < numBatches; batch++) {
+                    BatchPrefetcher.Batch current = batches.next();
+                    if (metrics != null) {
+                        metrics.startBatch();
+                    }
+                    
+                    // Train on batch
+                    double batchLoss = parallel != null
+                        ? parallel.trainOnBatch(current.getInputs(), current.getTargets())
+                        : network.trainOnBatch(current.getInputs(), current.getTargets());
+                    epochLoss += batchLoss * current.getSize();
+                    
+                    if (metrics != null) {
+                        metrics.endBatch(current.getSize(), batchLoss);
+                    }
+                    
+                    batches.recycle(current);
+                }
+                
+                epochLoss /= dataSize;
+                
+                // Validation
+                double valLoss = -1.0;
+                if (validation != null) {
+                    valLoss = evaluate(validation, valRow, valTarget);
+                }
+                
+                if (metrics != null) {
+                    metrics.endEpoch(epochLoss, valLoss);
+                }
+                
+                // Record history
+                history.recordLoss(epochLoss, valLoss);
+                network.addTrainingLoss(epochLoss);
                 if (valLoss >= 0) {
-                    System.out.printf("Epoch %d/%d - Loss: %.6f - Val Loss: %.6f\n",
-                                      epoch + 1, config.getEpochs(), epochLoss, valLoss);
-                } else {
-                    System.out.printf("Epoch %d/%d - Loss: %.6f\n",
-                                      epoch + 1, config.getEpochs(), epochLoss);
+                    network.addValidationLoss(valLoss);
                 }
-            }
-            
-            // Early stopping check
-            if (config.isUseEarlyStopping() && valLoss >= 0) {
-                if (valLoss < bestValLoss - config.getMinDelta()) {
-                    bestValLoss = valLoss;
-                    patienceCounter = 0;
-                } else {
-                    patienceCounter++;
-                    
-                    if (patienceCounter >= config.getPatience()) {
-                        if (config.isVerbose()) {
-                            System.out.printf("Early stopping at epoch %d\n", epoch + 1);
+                
+                // Print progress
+                if (config.isVerbose() && (epoch + 1) % config.getPrintEveryNEpochs() == 0) {
+                    if (valLoss >= 0) {
+                        System.out.printf("Epoch %d/%d - Loss: %.6f - Val Loss: %.6f\n",
+                                          epoch + 1, config.getEpochs(), epochLoss, valLoss);
+                    } else {
+                        System.out.printf("Epoch %d/%d - Loss: %.6f\n",
+                                          epoch + 1, config.getEpochs(), epochLoss);
+                    }
+                }
+                
+                // Early stopping check
+                if (config.isUseEarlyStopping() && valLoss >= 0) {
+                    if (valLoss < bestValLoss - config.getMinDelta()) {
+                        bestValLoss = valLoss;
+                        patienceCounter = 0;
+                        if (keepBest) {
+                            bestParameters = network.getParameters();
+                        }
+                    } else {
+                        patienceCounter++;
+                        
+                        if (patienceCounter >= config.getPatience()) {
+                            if (config.isVerbose()) {
+                                System.out.printf("Early stopping at epoch %d\n", epoch + 1);
+                            }
+                            history.markEarlyStopping(epoch + 1);
+                            break;
                         }
-                        history.markEarlyStopping(epoch + 1);
-                        break;
                     }
                 }
+                
+                // Periodic checkpoint (snapshot here, written in the background)
+                if (checkpoints != null && (epoch + 1) % config.getCheckpointEveryNEpochs() == 0) {
+                    checkpoints.submit(TrainingCheckpoint.capture(network, random, history,
+                                                                  bestValLoss, patienceCounter, bestParameters));
+                    lastCheckpointEpoch = epoch + 1;
+                }
+            }
+            
+            // Final checkpoint, unless the last epoch was just checkpointed
+            if (checkpoints != null && lastCheckpointEpoch != history.getTotalEpochs()) {
+                checkpoints.submit(TrainingCheckpoint.capture(network, random, history,
+                                                              bestValLoss, patienceCounter, bestParameters));
+            }
+        } finally {
+            if (batches != null) {
+                batches.shutdown();
+            }
+            if (parallel != null) {
+                parallel.shutdown();
             }
+            if (checkpoints != null) {
+                checkpoints.close();
+            }
+            network.getConfig().setOptimizer(previousOptimizer);
+            network.setMetrics(previousMetrics);
+        }
+        
+        // Return the best-validation model rather than the last epoch's
+        if (keepBest && bestParameters != null) {
+            network.setParameters(bestParameters);
         }
         
         return history;
     }
     
+    /**
+     * Computes the average loss over a dataset, applying the configured
+     * input transform to each row.
+     * 
+     * @param dataset dataset to evaluate
+     * @param row feature buffer [numFeatures]
+     * @param target label buffer [numLabels]
+     * @return average loss
+     */
+    private double evaluate(DataSource dataset, double[] row, double[] target) {
+        RowTransform transform = config.getInputTransform();
+        if (transform == null && dataset instanceof Dataset && ((Dataset) dataset).getPrecision() == Precision.DOUBLE
+                && !((Dataset) dataset).hasClassLabels()) {
+            return network.evaluate(((Dataset) dataset).getFeatures(), ((Dataset) dataset).getLabels());
+        }
+        
+        LossFunction lossFunction = network.getConfig().getLossFunction();
+        double totalLoss = 0.0;
+        
+        for (int i = 0; i < dataset.getSize(); i++) {
+            double[] features = dataset.getFeatures(i, row);
+            if (transform != null) {
+                // Never transform a source's own row in place
+                if (features != row) {
+                    System.arraycopy(features, 0, row, 0, row.length);
+                }
+                transform.transform(row, 0, row.length);
+                features = row;
+            }
+            double[] predicted = network.forward(features);
+            totalLoss += lossFunction.compute(predicted, dataset.getLabels(i, target));
+        }
+        
+        return totalLoss / dataset.getSize();
+    }
+    
     /**
      * Gets the network being trained.
      * 
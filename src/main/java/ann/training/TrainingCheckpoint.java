@@ -0,0 +1,390 @@
+package src.main.java.ann.training;
+
+import src.main.java.ann.layer.Layer;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.optimizer.Optimizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapshot of a {@link Trainer} run at an epoch boundary.
+ * 
+ * Holds everything the training loop depends on: the network parameters,
+ * the optimizer state, the number of completed epochs, the shuffling RNG
+ * state, the loss
+ * histories and the early-stopping state (best validation loss, patience
+ * counter and best-so-far parameters). Resuming from a checkpoint with the
+ * same configuration and data therefore continues exactly as the original
+ * run would have (see {@link Trainer#resume(Path, src.main.java.ann.data.DataSource,
+ * src.main.java.ann.data.DataSource)}).
+ * 
+ * Captured on the training thread (a plain memory copy) and written by a
+ * background thread; files are written under a temporary name and renamed
+ * into place, so a crash mid-write leaves the previous checkpoint intact.
+ */
+public class TrainingCheckpoint {
+    
+    private static final int MAGIC = 0x414E4E43;  // "ANNC"
+    private static final int VERSION = 3;
+    
+    private final int epoch;
+    private final int[] layerSizes;
+    private final double[] parameters;
+    private final ResumableRandom random;
+    
+    private final String optimizerName;
+    private final long optimizerStep;
+    private final double[][] optimizerState;
+    
+    private final List<Double> trainingLosses;
+    private final List<Double> validationLosses;
+    private final List<Double> trainingAccuracies;
+    private final List<Double> validationAccuracies;
+    private final int stoppedAtEpoch;
+    
+    private final List<Double> networkTrainingLosses;
+    private final List<Double> networkValidationLosses;
+    
+    private final double bestValidationLoss;
+    private final int patienceCounter;
+    private final double[] bestParameters;
+    
+    private TrainingCheckpoint(int epoch, int[] layerSizes, double[] parameters, ResumableRandom random,
+                               String optimizerName, long optimizerStep, double[][] optimizerState,
+                               List<Double> trainingLosses, List<Double> validationLosses,
+                               List<Double> trainingAccuracies, List<Double> validationAccuracies,
+                               int stoppedAtEpoch,
+                               List<Double> networkTrainingLosses, List<Double> networkValidationLosses,
+                               double bestValidationLoss, int patienceCounter, double[] bestParameters) {
+        this.epoch = epoch;
+        this.layerSizes = layerSizes;
+        this.parameters = parameters;
+        this.random = random;
+        this.optimizerName = optimizerName;
+        this.optimizerStep = optimizerStep;
+        this.optimizerState = optimizerState;
+        this.trainingLosses = trainingLosses;
+        this.validationLosses = validationLosses;
+        this.trainingAccuracies = trainingAccuracies;
+        this.validationAccuracies = validationAccuracies;
+        this.stoppedAtEpoch = stoppedAtEpoch;
+        this.networkTrainingLosses = networkTrainingLosses;
+        this.networkValidationLosses = networkValidationLosses;
+        this.bestValidationLoss = bestValidationLoss;
+        this.patienceCounter = patienceCounter;
+        this.bestParameters = bestParameters;
+    }
+    
+    /**
+     * Captures the state of a run. Everything is copied, so training can
+     * continue while the snapshot is written.
+     * 
+     * @param network network being trained
+     * @param random shuffling RNG
+     * @param history history so far (its epoch count is the checkpoint epoch)
+     * @param bestValidationLoss best validation loss so far
+     * @param patienceCounter epochs since the last improvement
+     * @param bestParameters parameters at the best validation loss (can be null)
+     * @return snapshot
+     */
+    static TrainingCheckpoint capture(NeuralNetwork network, ResumableRandom random, TrainingHistory history,
+                                      double bestValidationLoss, int patienceCounter,
+                                      double[] bestParameters) {
+        Optimizer optimizer = network.getOptimizer();
+        return new TrainingCheckpoint(
+            history.getTotalEpochs(), layerSizes(network), network.getParameters(), random.copy(),
+            optimizer.getName(), optimizer.getStep(), optimizer.copyState(),
+            history.getTrainingLosses(), history.getValidationLosses(),
+            history.getTrainingAccuracies(), history.getValidationAccuracies(),
+            history.isStoppedEarly() ? history.getStoppedAtEpoch() : -1,
+            new ArrayList<>(network.getTrainingLossHistory()),
+            new ArrayList<>(network.getValidationLossHistory()),
+            bestValidationLoss, patienceCounter,
+            bestParameters != null ? bestParameters.clone() : null);
+    }
+    
+    /**
+     * Reads a checkpoint file.
+     * 
+     * @param path checkpoint file
+     * @return checkpoint
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static TrainingCheckpoint read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(String.format("Not a checkpoint file: %s", path));
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(
+                    String.format("Unsupported checkpoint version %d (expected %d): %s", version, VERSION, path));
+            }
+            
+            int epoch = in.readInt();
+            int[] layerSizes = new int[in.readInt()];
+            for (int i = 0; i < layerSizes.length; i++) {
+                layerSizes[i] = in.readInt();
+            }
+            double[] parameters = readDoubles(in);
+            ResumableRandom random = ResumableRandom.read(in);
+            
+            String optimizerName = in.readUTF();
+            long optimizerStep = in.readLong();
+            double[][] optimizerState = new double[in.readInt()][];
+            for (int s = 0; s < optimizerState.length; s++) {
+                optimizerState[s] = readDoubles(in);
+            }
+            
+            List<Double> trainingLosses = readList(in);
+            List<Double> validationLosses = readList(in);
+            List<Double> trainingAccuracies = readList(in);
+            List<Double> validationAccuracies = readList(in);
+            int stoppedAtEpoch = in.readInt();
+            List<Double> networkTrainingLosses = readList(in);
+            List<Double> networkValidationLosses = readList(in);
+            
+            double bestValidationLoss = in.readDouble();
+            int patienceCounter = in.readInt();
+            double[] bestParameters = in.readBoolean() ? readDoubles(in) : null;
+            
+            return new TrainingCheckpoint(epoch, layerSizes, parameters, random,
+                                          optimizerName, optimizerStep, optimizerState,
+                                          trainingLosses, validationLosses,
+                                          trainingAccuracies, validationAccuracies, stoppedAtEpoch,
+                                          networkTrainingLosses, networkValidationLosses,
+                                          bestValidationLoss, patienceCounter, bestParameters);
+        }
+    }
+    
+    /**
+     * Writes the checkpoint atomically: to a temporary file in the same
+     * directory, flushed to disk, then renamed over the target.
+     * 
+     * @param path checkpoint file (replaced if it exists)
+     * @throws IOException if writing fails
+     */
+    void write(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(epoch);
+                out.writeInt(layerSizes.length);
+                for (int size : layerSizes) {
+                    out.writeInt(size);
+                }
+                writeDoubles(out, parameters);
+                random.write(out);
+                
+                out.writeUTF(optimizerName);
+                out.writeLong(optimizerStep);
+                out.writeInt(optimizerState.length);
+                for (double[] slot : optimizerState) {
+                    writeDoubles(out, slot);
+                }
+                
+                writeList(out, trainingLosses);
+                writeList(out, validationLosses);
+                writeList(out, trainingAccuracies);
+                writeList(out, validationAccuracies);
+                out.writeInt(stoppedAtEpoch);
+                writeList(out, networkTrainingLosses);
+                writeList(out, networkValidationLosses);
+                
+                out.writeDouble(bestValidationLoss);
+                out.writeInt(patienceCounter);
+                out.writeBoolean(bestParameters != null);
+                if (bestParameters != null) {
+                    writeDoubles(out, bestParameters);
+                }
+                
+                out.flush();
+                channel.force(true);
+            }
+            
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Loads the checkpointed parameters, optimizer state and loss histories
+     * into a network.
+     * 
+     * @param network network with the same topology and optimizer type as the checkpointed one
+     */
+    void restore(NeuralNetwork network) {
+        int[] expected = layerSizes(network);
+        if (!Arrays.equals(expected, layerSizes)) {
+            throw new IllegalArgumentException(
+                String.format("Checkpoint topology %s does not match network %s",
+                              Arrays.toString(layerSizes), Arrays.toString(expected)));
+        }
+        
+        Optimizer optimizer = network.getOptimizer();
+        if (!optimizer.getName().equals(optimizerName)) {
+            throw new IllegalArgumentException(
+                String.format("Checkpoint optimizer %s does not match network optimizer %s",
+                              optimizerName, optimizer.getName()));
+        }
+        
+        network.setParameters(parameters);
+        optimizer.setState(optimizerStep, optimizerState);
+        network.clearHistory();
+        for (double loss : networkTrainingLosses) {
+            network.addTrainingLoss(loss);
+        }
+        for (double loss : networkValidationLosses) {
+            network.addValidationLoss(loss);
+        }
+    }
+    
+    /**
+     * Recreates the shuffling RNG in its checkpointed state.
+     * 
+     * @return RNG that continues the checkpointed sequence
+     */
+    ResumableRandom restoreRandom() {
+        return random.copy();
+    }
+    
+    /**
+     * Recreates the training history up to the checkpoint.
+     * 
+     * @return history
+     */
+    TrainingHistory restoreHistory() {
+        TrainingHistory history = new TrainingHistory();
+        for (int i = 0; i < trainingLosses.size(); i++) {
+            history.recordLoss(trainingLosses.get(i), i < validationLosses.size() ? validationLosses.get(i) : -1.0);
+        }
+        for (int i = 0; i < trainingAccuracies.size(); i++) {
+            history.recordAccuracy(trainingAccuracies.get(i),
+                                   i < validationAccuracies.size() ? validationAccuracies.get(i) : -1.0);
+        }
+        if (stoppedAtEpoch >= 0) {
+            history.markEarlyStopping(stoppedAtEpoch);
+        }
+        return history;
+    }
+    
+    /**
+     * Gets the number of epochs completed when the checkpoint was taken.
+     * 
+     * @return completed epochs
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+    
+    /**
+     * Gets the best validation loss seen so far.
+     * 
+     * @return best validation loss, or Double.MAX_VALUE if none was recorded
+     */
+    public double getBestValidationLoss() {
+        return bestValidationLoss;
+    }
+    
+    /**
+     * Gets the number of epochs without validation improvement.
+     * 
+     * @return early-stopping patience counter
+     */
+    public int getPatienceCounter() {
+        return patienceCounter;
+    }
+    
+    /**
+     * Gets the parameters at the best validation loss (not a copy).
+     * 
+     * @return flat parameters, or null if not tracked
+     */
+    public double[] getBestParameters() {
+        return bestParameters;
+    }
+    
+    /**
+     * Gets the network input size followed by every layer's output size.
+     * 
+     * @param network network to describe
+     * @return topology signature
+     */
+    private static int[] layerSizes(NeuralNetwork network) {
+        int[] sizes = new int[network.getLayerCount() + 1];
+        sizes[0] = network.getInputSize();
+        for (int l = 0; l < network.getLayerCount(); l++) {
+            Layer layer = network.getLayer(l);
+            sizes[l + 1] = layer.getOutputSize();
+        }
+        return sizes;
+    }
+    
+    /**
+     * Writes a length-prefixed double array.
+     */
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+    
+    /**
+     * Reads a length-prefixed double array.
+     */
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+    
+    /**
+     * Writes a length-prefixed list of doubles.
+     */
+    private static void writeList(DataOutputStream out, List<Double> values) throws IOException {
+        out.writeInt(values.size());
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+    
+    /**
+     * Reads a length-prefixed list of doubles.
+     */
+    private static List<Double> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Double> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readDouble());
+        }
+        return values;
+    }
+}
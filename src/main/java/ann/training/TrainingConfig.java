@@ -1,5 +1,11 @@
 package src.main.java.ann.training;
 
+import src.main.java.ann.data.RowTransform;
+import src.main.java.ann.metrics.TrainingMetrics;
+import src.main.java.ann.optimizer.Optimizer;
+
+import java.nio.file.Path;
+
 /**
  * Training-specific configuration class.
  * Holds hyperparameters and training settings.
@@ -11,10 +17,28 @@ public class TrainingConfig {
     private int batchSize;
     private boolean shuffle;
     
+    // Optimizer installed on the network for the duration of a run (null = keep the network's)
+    private Optimizer optimizer;
+    
+    // Data-parallel training (1 = single-threaded)
+    private int numThreads;
+    
+    // Input pipeline: batches assembled ahead on a background thread (0 = synchronous)
+    private int prefetchBatches;
+    private RowTransform inputTransform;
+    
+    // Instrumentation registry installed on the network for the duration of a run (null = keep the network's)
+    private TrainingMetrics metrics;
+    
     // Early stopping
     private boolean useEarlyStopping;
     private int patience;
     private double minDelta;
+    private boolean restoreBestWeights;
+    
+    // Checkpointing (null path = disabled)
+    private Path checkpointPath;
+    private int checkpointEveryNEpochs;
     
     // Verbose output
     private boolean verbose;
@@ -28,15 +52,55 @@ public class TrainingConfig {
         this.epochs = 100;
         this.batchSize = 32;
         this.shuffle = true;
+        this.optimizer = null;
+        this.numThreads = 1;
+        
+        this.prefetchBatches = 2;
+        this.inputTransform = null;
+        this.metrics = null;
         
         this.useEarlyStopping = false;
         this.patience = 10;
         this.minDelta = 0.001;
+        this.restoreBestWeights = true;
+        
+        this.checkpointPath = null;
+        this.checkpointEveryNEpochs = 10;
         
         this.verbose = true;
         this.printEveryNEpochs = 1;
     }
     
+    /**
+     * Creates a copy of this configuration, e.g. one per concurrent run.
+     * The optimizer, metrics registry and input transform are shared with
+     * the copy; an optimizer can only be bound to one network, and a metrics
+     * registry must not be used by two networks at once.
+     * 
+     * @return new configuration with the same settings
+     */
+    public TrainingConfig copy() {
+        TrainingConfig copy = new TrainingConfig();
+        copy.learningRate = learningRate;
+        copy.epochs = epochs;
+        copy.batchSize = batchSize;
+        copy.shuffle = shuffle;
+        copy.optimizer = optimizer;
+        copy.numThreads = numThreads;
+        copy.prefetchBatches = prefetchBatches;
+        copy.inputTransform = inputTransform;
+        copy.metrics = metrics;
+        copy.useEarlyStopping = useEarlyStopping;
+        copy.patience = patience;
+        copy.minDelta = minDelta;
+        copy.restoreBestWeights = restoreBestWeights;
+        copy.checkpointPath = checkpointPath;
+        copy.checkpointEveryNEpochs = checkpointEveryNEpochs;
+        copy.verbose = verbose;
+        copy.printEveryNEpochs = printEveryNEpochs;
+        return copy;
+    }
+    
     // Getters and setters
     
     public double getLearningRate() {
@@ -47,6 +111,14 @@ public class TrainingConfig {
         this.learningRate = learningRate;
     }
     
+    public Optimizer getOptimizer() {
+        return optimizer;
+    }
+    
+    public void setOptimizer(Optimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+    
     public int getEpochs() {
         return epochs;
     }
@@ -71,6 +143,44 @@ public class TrainingConfig {
         this.shuffle = shuffle;
     }
     
+    public int getNumThreads() {
+        return numThreads;
+    }
+    
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.numThreads = numThreads;
+    }
+    
+    public int getPrefetchBatches() {
+        return prefetchBatches;
+    }
+    
+    public void setPrefetchBatches(int prefetchBatches) {
+        if (prefetchBatches < 0) {
+            throw new IllegalArgumentException("Prefetch depth must be non-negative");
+        }
+        this.prefetchBatches = prefetchBatches;
+    }
+    
+    public RowTransform getInputTransform() {
+        return inputTransform;
+    }
+    
+    public void setInputTransform(RowTransform inputTransform) {
+        this.inputTransform = inputTransform;
+    }
+    
+    public TrainingMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public void setMetrics(TrainingMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
     public boolean isUseEarlyStopping() {
         return useEarlyStopping;
     }
@@ -95,6 +205,40 @@ public class TrainingConfig {
         this.minDelta = minDelta;
     }
     
+    public boolean isRestoreBestWeights() {
+        return restoreBestWeights;
+    }
+    
+    /**
+     * With early stopping enabled and validation data given, rolls the
+     * network back to its best validation epoch at the end of training. On
+     * by default; turn it off to keep the weights of the last epoch.
+     * 
+     * @param restoreBestWeights false to keep the last epoch's weights
+     */
+    public void setRestoreBestWeights(boolean restoreBestWeights) {
+        this.restoreBestWeights = restoreBestWeights;
+    }
+    
+    public Path getCheckpointPath() {
+        return checkpointPath;
+    }
+    
+    public void setCheckpointPath(Path checkpointPath) {
+        this.checkpointPath = checkpointPath;
+    }
+    
+    public int getCheckpointEveryNEpochs() {
+        return checkpointEveryNEpochs;
+    }
+    
+    public void setCheckpointEveryNEpochs(int checkpointEveryNEpochs) {
+        if (checkpointEveryNEpochs <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointEveryNEpochs = checkpointEveryNEpochs;
+    }
+    
     public boolean isVerbose() {
         return verbose;
     }
@@ -0,0 +1,414 @@
+package src.main.java.ann.tuning;
+
+import src.main.java.ann.data.DataSource;
+import src.main.java.ann.evaluation.EvaluationMetrics;
+import src.main.java.ann.evaluation.Evaluator;
+import src.main.java.ann.network.NetworkBuilder;
+import src.main.java.ann.network.NeuralNetwork;
+import src.main.java.ann.training.Trainer;
+import src.main.java.ann.training.TrainingConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hyperparameter search over a {@link SearchSpace} with successive halving.
+ * 
+ * Candidates come from the grid ({@link #gridSearch}), from random sampling
+ * ({@link #randomSearch}) or from Hyperband brackets ({@link #hyperband}).
+ * They are raced with successive halving: every survivor is trained for
+ * the current budget and scored on the validation set, the best
+ * 1/reductionFactor go on to a budget reductionFactor times larger, until
+ * the maximum number of epochs is reached. With minEpochs equal to
+ * maxEpochs every candidate simply gets the full budget.
+ * 
+ * Each trial trains a fresh network whose weights are seeded from the
+ * search seed and the hyperparameters, so a trial's score only depends on
+ * its hyperparameters and budget. That is what makes the optional results
+ * file resumable: a rerun of the same search reads finished trials back
+ * instead of training them again. Trials of one rung run concurrently,
+ * with as many at a time as the CPU budget allows given the threads each
+ * trial uses ({@link TrainingConfig#getNumThreads()}).
+ * 
+ * Example usage:
+ * <pre>
+ * SearchResult result = new HyperparameterSearch(space,
+ *         (params, seed) -&gt; params.newBuilder(4, seed).addSoftmaxOutputLayer(3),
+ *         config)
+ *     .setEpochs(1, 27)
+ *     .setResultsFile(Paths.get("iris-search.tsv"))
+ *     .randomSearch(50, train, validation);
+ * Hyperparameters best = result.getBest().getParameters();
+ * </pre>
+ */
+public class HyperparameterSearch {
+    
+    /**
+     * Builds the network for one trial.
+     */
+    @FunctionalInterface
+    public interface NetworkRecipe {
+        
+        /**
+         * Creates a fully configured builder, typically
+         * {@code parameters.newBuilder(inputSize, seed)} plus an output layer.
+         * 
+         * @param parameters hyperparameters of the trial
+         * @param seed seed for the weight initializer
+         * @return builder for the trial's network
+         */
+        NetworkBuilder create(Hyperparameters parameters, long seed);
+    }
+    
+    private final SearchSpace space;
+    private final NetworkRecipe recipe;
+    private final TrainingConfig config;
+    private int minEpochs;
+    private int maxEpochs;
+    private int reductionFactor;
+    private int cpuBudget;
+    private long seed;
+    private Path resultsFile;
+    
+    /**
+     * Creates a search.
+     * 
+     * @param space values to search
+     * @param recipe builds the network of a trial
+     * @param config training configuration shared by all trials (batch size,
+     *               learning rate and epochs are set per trial); must not hold
+     *               an optimizer, metrics registry or checkpoint path
+     */
+    public HyperparameterSearch(SearchSpace space, NetworkRecipe recipe, TrainingConfig config) {
+        if (config.getOptimizer() != null || config.getMetrics() != null
+                || config.getCheckpointPath() != null) {
+            throw new IllegalArgumentException(
+                "Optimizer, metrics and checkpoint path cannot be shared between trials; "
+                + "set the optimizer in the network recipe");
+        }
+        
+        this.space = space;
+        this.recipe = recipe;
+        this.config = config;
+        this.minEpochs = config.getEpochs();
+        this.maxEpochs = config.getEpochs();
+        this.reductionFactor = 3;
+        this.cpuBudget = Runtime.getRuntime().availableProcessors();
+        this.seed = 42;
+    }
+    
+    /**
+     * Sets the training budget per trial.
+     * 
+     * @param minEpochs epochs of the first rung
+     * @param maxEpochs epochs of the last rung
+     * @return this search
+     */
+    public HyperparameterSearch setEpochs(int minEpochs, int maxEpochs) {
+        if (minEpochs <= 0 || maxEpochs < minEpochs) {
+            throw new IllegalArgumentException(
+                String.format("Invalid epoch budget: min=%d, max=%d", minEpochs, maxEpochs));
+        }
+        this.minEpochs = minEpochs;
+        this.maxEpochs = maxEpochs;
+        return this;
+    }
+    
+    /**
+     * Sets how aggressively candidates are cut: only the best 1/factor of a
+     * rung survive, and the next rung trains factor times longer.
+     * 
+     * @param reductionFactor reduction factor (at least 2)
+     * @return this search
+     */
+    public HyperparameterSearch setReductionFactor(int reductionFactor) {
+        if (reductionFactor < 2) {
+            throw new IllegalArgumentException("Reduction factor must be at least 2");
+        }
+        this.reductionFactor = reductionFactor;
+        return this;
+    }
+    
+    /**
+     * Sets the number of CPU threads all running trials may use together.
+     * 
+     * @param cpuBudget total threads
+     * @return this search
+     */
+    public HyperparameterSearch setCpuBudget(int cpuBudget) {
+        if (cpuBudget <= 0) {
+            throw new IllegalArgumentException("CPU budget must be positive");
+        }
+        this.cpuBudget = cpuBudget;
+        return this;
+    }
+    
+    /**
+     * Sets the seed for sampling and for the trial networks.
+     * 
+     * @param seed random seed
+     * @return this search
+     */
+    public HyperparameterSearch setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    /**
+     * Records finished trials in a file and reuses the ones it already
+     * holds. Only meaningful across runs with the same data and training
+     * configuration; the file records the seed and a search with another
+     * seed refuses to reuse it.
+     * 
+     * @param resultsFile results file, or null to keep results in memory only
+     * @return this search
+     */
+    public HyperparameterSearch setResultsFile(Path resultsFile) {
+        this.resultsFile = resultsFile;
+        return this;
+    }
+    
+    /**
+     * Races every grid point with successive halving.
+     * 
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @return all trials
+     * @throws IOException if the results file cannot be read or written
+     */
+    public SearchResult gridSearch(DataSource train, DataSource validation) throws IOException {
+        return run(space.grid(), train, validation);
+    }
+    
+    /**
+     * Races randomly sampled points with successive halving.
+     * 
+     * @param trials number of points to sample
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @return all trials
+     * @throws IOException if the results file cannot be read or written
+     */
+    public SearchResult randomSearch(int trials, DataSource train, DataSource validation) throws IOException {
+        return run(space.sample(trials, new Random(seed)), train, validation);
+    }
+    
+    /**
+     * Runs Hyperband: several successive-halving brackets over random
+     * samples, from many candidates starting at minEpochs down to a few
+     * candidates trained for maxEpochs from the start. This hedges against
+     * configurations that only pay off with longer training.
+     * 
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @return all trials of all brackets
+     * @throws IOException if the results file cannot be read or written
+     */
+    public SearchResult hyperband(DataSource train, DataSource validation) throws IOException {
+        // Number of reductions between minEpochs and maxEpochs
+        int sMax = 0;
+        while ((long) minEpochs * pow(reductionFactor, sMax + 1) <= maxEpochs) {
+            sMax++;
+        }
+        
+        Random random = new Random(seed);
+        List<TrialResult> trials = new ArrayList<>();
+        ExecutorService executor = createExecutor();
+        try {
+            ResultsFile results = resultsFile != null ? new ResultsFile(resultsFile, seed) : null;
+            for (int s = sMax; s >= 0; s--) {
+                int candidates = (int) Math.ceil((double) (sMax + 1) / (s + 1) * pow(reductionFactor, s));
+                int startEpochs = Math.max(minEpochs, (int) (maxEpochs / pow(reductionFactor, s)));
+                trials.addAll(successiveHalving(space.sample(candidates, random), startEpochs,
+                                                train, validation, executor, results));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new SearchResult(trials);
+    }
+    
+    /**
+     * Races the given candidates with successive halving.
+     * 
+     * @param candidates hyperparameter sets to try
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @return all trials
+     * @throws IOException if the results file cannot be read or written
+     */
+    public SearchResult run(List<Hyperparameters> candidates, DataSource train,
+                            DataSource validation) throws IOException {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one candidate is required");
+        }
+        
+        ExecutorService executor = createExecutor();
+        try {
+            ResultsFile results = resultsFile != null ? new ResultsFile(resultsFile, seed) : null;
+            return new SearchResult(successiveHalving(candidates, minEpochs, train, validation,
+                                                      executor, results));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Runs one successive-halving bracket.
+     * 
+     * @param candidates hyperparameter sets of the bracket
+     * @param startEpochs budget of the first rung
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @param executor trial pool
+     * @param results results file, or null
+     * @return trials of every rung
+     * @throws IOException if the results file cannot be written
+     */
+    private List<TrialResult> successiveHalving(List<Hyperparameters> candidates, int startEpochs,
+                                                DataSource train, DataSource validation,
+                                                ExecutorService executor, ResultsFile results)
+            throws IOException {
+        List<TrialResult> trials = new ArrayList<>();
+        List<Hyperparameters> survivors = candidates;
+        int epochs = startEpochs;
+        
+        while (true) {
+            List<TrialResult> rung = runRung(survivors, epochs, train, validation, executor, results);
+            trials.addAll(rung);
+            if (epochs >= maxEpochs || survivors.size() == 1) {
+                return trials;
+            }
+            
+            // Keep the best 1/reductionFactor (stable sort: ties keep candidate order)
+            rung.sort(Comparator.comparingDouble(TrialResult::getRankingLoss));
+            int keep = Math.max(1, survivors.size() / reductionFactor);
+            survivors = new ArrayList<>(keep);
+            for (int i = 0; i < keep; i++) {
+                survivors.add(rung.get(i).getParameters());
+            }
+            epochs = (int) Math.min(maxEpochs, (long) epochs * reductionFactor);
+        }
+    }
+    
+    /**
+     * Trains and scores every candidate for the same budget, in parallel.
+     * 
+     * @param candidates hyperparameter sets of the rung
+     * @param epochs training budget
+     * @param train training data
+     * @param validation data the trials are scored on
+     * @param executor trial pool
+     * @param results results file, or null
+     * @return trial results in candidate order
+     * @throws IOException if the results file cannot be written
+     */
+    private List<TrialResult> runRung(List<Hyperparameters> candidates, int epochs,
+                                      DataSource train, DataSource validation,
+                                      ExecutorService executor, ResultsFile results)
+            throws IOException {
+        List<Future<TrialResult>> futures = new ArrayList<>(candidates.size());
+        for (Hyperparameters parameters : candidates) {
+            futures.add(executor.submit(() -> {
+                TrialResult recorded = results != null ? results.find(parameters, epochs) : null;
+                if (recorded != null) {
+                    return recorded;
+                }
+                
+                TrialResult result = runTrial(parameters, epochs, train, validation);
+                if (results != null) {
+                    try {
+                        results.append(result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return result;
+            }));
+        }
+        
+        List<TrialResult> rung = new ArrayList<>(candidates.size());
+        try {
+            for (Future<TrialResult> future : futures) {
+                rung.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during hyperparameter search", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Hyperparameter trial failed", e.getCause());
+        }
+        return rung;
+    }
+    
+    /**
+     * Trains one fresh network and scores it on the validation set.
+     * 
+     * @param parameters hyperparameters of the trial
+     * @param epochs training budget
+     * @param train training data
+     * @param validation scoring data
+     * @return trial result
+     */
+    private TrialResult runTrial(Hyperparameters parameters, int epochs,
+                                 DataSource train, DataSource validation) {
+        long trialSeed = seed * 31 + parameters.getKey().hashCode();
+        NeuralNetwork network = recipe.create(parameters, trialSeed).build();
+        TrainingConfig trialConfig = parameters.applyTo(config);
+        trialConfig.setEpochs(epochs);
+        
+        long start = System.nanoTime();
+        new Trainer(network, trialConfig, trialSeed)
+            .train(train, trialConfig.isUseEarlyStopping() ? validation : null);
+        
+        EvaluationMetrics metrics = Evaluator.computeMetrics(
+            network, validation, trialConfig.getInputTransform(),
+            new EvaluationMetrics(validation.getNumLabels(), network.getConfig().getLossFunction()));
+        
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new TrialResult(parameters, epochs, metrics.getLoss(),
+                               metrics.getConfusionMatrix().getAccuracy(), millis, false);
+    }
+    
+    /**
+     * Creates the trial pool, sized so that running trials stay within the
+     * CPU budget.
+     * 
+     * @return trial pool
+     */
+    private ExecutorService createExecutor() {
+        int trials = Math.max(1, cpuBudget / config.getNumThreads());
+        return Executors.newFixedThreadPool(trials, runnable -> {
+            Thread thread = new Thread(runnable, "ann-hyperparameter-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Integer power for small exponents.
+     * 
+     * @param base base
+     * @param exponent non-negative exponent
+     * @return base raised to exponent
+     */
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
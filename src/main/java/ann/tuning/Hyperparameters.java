@@ -0,0 +1,195 @@
+package src.main.java.ann.tuning;
+
+import src.main.java.ann.activation.ActivationFunction;
+import src.main.java.ann.activation.LinearActivation;
+import src.main.java.ann.activation.ReLUActivation;
+import src.main.java.ann.activation.SigmoidActivation;
+import src.main.java.ann.activation.TanhActivation;
+import src.main.java.ann.initialization.HeInitializer;
+import src.main.java.ann.initialization.RandomUniformInitializer;
+import src.main.java.ann.initialization.WeightInitializer;
+import src.main.java.ann.initialization.XavierInitializer;
+import src.main.java.ann.network.NetworkBuilder;
+import src.main.java.ann.training.TrainingConfig;
+
+import java.util.Arrays;
+
+/**
+ * One point of a {@link SearchSpace}: hidden layer sizes, hidden
+ * activation, learning rate, batch size and weight initializer.
+ * 
+ * Activations and initializers are given by name so that a trial can be
+ * written to and matched against a results file:
+ * activations "relu", "tanh", "sigmoid", "linear";
+ * initializers "xavier", "he", "uniform".
+ */
+public class Hyperparameters {
+    
+    private final int[] hiddenSizes;
+    private final String activation;
+    private final double learningRate;
+    private final int batchSize;
+    private final String initializer;
+    
+    /**
+     * Creates a hyperparameter set.
+     * 
+     * @param hiddenSizes neurons per hidden layer (may be empty)
+     * @param activation hidden activation name
+     * @param learningRate learning rate (positive)
+     * @param batchSize mini-batch size (positive)
+     * @param initializer weight initializer name
+     */
+    public Hyperparameters(int[] hiddenSizes, String activation, double learningRate,
+                           int batchSize, String initializer) {
+        for (int size : hiddenSizes) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Layer size must be positive");
+            }
+        }
+        if (learningRate <= 0) {
+            throw new IllegalArgumentException("Learning rate must be positive");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        
+        this.hiddenSizes = hiddenSizes.clone();
+        this.activation = activation;
+        this.learningRate = learningRate;
+        this.batchSize = batchSize;
+        this.initializer = initializer;
+        
+        // Fail on unknown names now rather than inside a trial
+        createActivation(activation);
+        createInitializer(initializer, 0);
+    }
+    
+    /**
+     * Creates a builder with the input layer, the hidden layers, the
+     * learning rate and the initializer of this set. The caller adds the
+     * output layer (which uses the same initializer).
+     * 
+     * @param inputSize number of input features
+     * @param seed seed for the weight initializer
+     * @return builder ready for the output layer
+     */
+    public NetworkBuilder newBuilder(int inputSize, long seed) {
+        NetworkBuilder builder = new NetworkBuilder()
+            .setWeightInitializer(createInitializer(initializer, seed))
+            .setLearningRate(learningRate)
+            .addInputLayer(inputSize);
+        for (int size : hiddenSizes) {
+            builder.addDenseLayer(size, createActivation(activation));
+        }
+        return builder;
+    }
+    
+    /**
+     * Copies a training configuration and applies the batch size and
+     * learning rate of this set.
+     * 
+     * @param base configuration to copy
+     * @return trial configuration
+     */
+    public TrainingConfig applyTo(TrainingConfig base) {
+        TrainingConfig config = base.copy();
+        config.setBatchSize(batchSize);
+        config.setLearningRate(learningRate);
+        return config;
+    }
+    
+    /**
+     * Gets a key identifying this set, as written to results files.
+     * 
+     * @return key, e.g. {@code hidden=16x8;activation=relu;learningRate=0.01;batchSize=32;initializer=xavier}
+     */
+    public String getKey() {
+        StringBuilder hidden = new StringBuilder();
+        for (int i = 0; i < hiddenSizes.length; i++) {
+            if (i > 0) {
+                hidden.append('x');
+            }
+            hidden.append(hiddenSizes[i]);
+        }
+        return String.format("hidden=%s;activation=%s;learningRate=%s;batchSize=%d;initializer=%s",
+                             hidden, activation, Double.toString(learningRate), batchSize, initializer);
+    }
+    
+    /**
+     * Creates a hidden-layer activation by name.
+     * 
+     * @param name activation name
+     * @return new activation instance
+     */
+    private static ActivationFunction createActivation(String name) {
+        switch (name) {
+            case "relu":
+                return new ReLUActivation();
+            case "tanh":
+                return new TanhActivation();
+            case "sigmoid":
+                return new SigmoidActivation();
+            case "linear":
+                return new LinearActivation();
+            default:
+                throw new IllegalArgumentException("Unknown activation: " + name);
+        }
+    }
+    
+    /**
+     * Creates a seeded weight initializer by name.
+     * 
+     * @param name initializer name
+     * @param seed random seed
+     * @return new initializer instance
+     */
+    private static WeightInitializer createInitializer(String name, long seed) {
+        switch (name) {
+            case "xavier":
+                return new XavierInitializer(false, seed);
+            case "he":
+                return new HeInitializer(seed);
+            case "uniform":
+                return new RandomUniformInitializer(-1.0, 1.0, seed);
+            default:
+                throw new IllegalArgumentException("Unknown initializer: " + name);
+        }
+    }
+    
+    public int[] getHiddenSizes() {
+        return hiddenSizes.clone();
+    }
+    
+    public String getActivation() {
+        return activation;
+    }
+    
+    public double getLearningRate() {
+        return learningRate;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public String getInitializer() {
+        return initializer;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Hyperparameters && getKey().equals(((Hyperparameters) other).getKey());
+    }
+    
+    @Override
+    public int hashCode() {
+        return getKey().hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Hyperparameters[hidden=%s, activation=%s, lr=%g, batch=%d, init=%s]",
+                             Arrays.toString(hiddenSizes), activation, learningRate, batchSize, initializer);
+    }
+}
@@ -0,0 +1,173 @@
+package src.main.java.ann.tuning;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only, tab-separated log of finished trials.
+ * 
+ * Every line records one trial as key, epochs, validation loss, validation
+ * accuracy and milliseconds. Lines are appended as soon as a trial ends,
+ * so an interrupted search loses at most the trials that were running; a
+ * rerun with the same setup reads them back instead of training again.
+ * 
+ * The header records the search seed, since the trial networks are seeded
+ * from it; a file written with another seed is rejected. A final line
+ * without a line break was cut off mid-write (the process died during an
+ * append), so it is dropped and truncated away instead of failing the
+ * rerun. Malformed lines anywhere else still fail.
+ */
+class ResultsFile {
+    
+    private static final String SEED_PREFIX = "# seed=";
+    private static final String HEADER =
+        "# key\tepochs\tvalidation_loss\tvalidation_accuracy\tmillis";
+    
+    private final Path path;
+    private final long seed;
+    private final Map<String, double[]> records;
+    private boolean headerWritten;
+    
+    /**
+     * Opens a results file, reading the trials it already holds.
+     * 
+     * @param path results file (created on the first append if missing)
+     * @param seed seed of the search writing the file
+     * @throws IOException if the file exists but cannot be read, is malformed
+     *         or was written with another seed
+     */
+    ResultsFile(Path path, long seed) throws IOException {
+        this.path = path;
+        this.seed = seed;
+        this.records = new HashMap<>();
+        
+        if (!Files.exists(path)) {
+            return;
+        }
+        
+        byte[] bytes = Files.readAllBytes(path);
+        int complete = bytes.length;
+        while (complete > 0 && bytes[complete - 1] != '\n') {
+            complete--;
+        }
+        if (complete < bytes.length) {
+            System.err.printf("Dropping truncated last line of %s: %s%n", path,
+                              new String(bytes, complete, bytes.length - complete, StandardCharsets.UTF_8));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        
+        String[] lines = new String(bytes, 0, complete, StandardCharsets.UTF_8).split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.startsWith(SEED_PREFIX)) {
+                checkSeed(line, i + 1);
+                headerWritten = true;
+                continue;
+            }
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (!headerWritten) {
+                throw new IOException(String.format("Results file %s has no seed header before line %d",
+                                                    path, i + 1));
+            }
+            
+            String[] fields = line.split("\t");
+            if (fields.length != 5) {
+                throw new IOException(String.format("Malformed results line %d in %s: %s", i + 1, path, line));
+            }
+            try {
+                records.put(recordKey(fields[0], Integer.parseInt(fields[1])), new double[] {
+                    Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Long.parseLong(fields[4])
+                });
+            } catch (NumberFormatException e) {
+                throw new IOException(String.format("Malformed results line %d in %s: %s", i + 1, path, line), e);
+            }
+        }
+    }
+    
+    /**
+     * Looks up a recorded trial.
+     * 
+     * @param parameters hyperparameters of the trial
+     * @param epochs epochs of the trial
+     * @return recorded result, or null if the trial has not been run
+     */
+    synchronized TrialResult find(Hyperparameters parameters, int epochs) {
+        double[] record = records.get(recordKey(parameters.getKey(), epochs));
+        if (record == null) {
+            return null;
+        }
+        return new TrialResult(parameters, epochs, record[0], record[1], (long) record[2], true);
+    }
+    
+    /**
+     * Appends a finished trial.
+     * 
+     * @param result trial to record
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void append(TrialResult result) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (!headerWritten) {
+                writer.write(SEED_PREFIX + seed);
+                writer.newLine();
+                writer.write(HEADER);
+                writer.newLine();
+                headerWritten = true;
+            }
+            writer.write(String.join("\t",
+                result.getParameters().getKey(),
+                Integer.toString(result.getEpochs()),
+                Double.toString(result.getValidationLoss()),
+                Double.toString(result.getValidationAccuracy()),
+                Long.toString(result.getMillis())));
+            writer.newLine();
+        }
+        
+        records.put(recordKey(result.getParameters().getKey(), result.getEpochs()), new double[] {
+            result.getValidationLoss(), result.getValidationAccuracy(), result.getMillis()
+        });
+    }
+    
+    /**
+     * Checks the seed header against the seed of this search.
+     * 
+     * @param line seed header line
+     * @param lineNumber 1-based line number, for the error message
+     * @throws IOException if the header is malformed or names another seed
+     */
+    private void checkSeed(String line, int lineNumber) throws IOException {
+        long fileSeed;
+        try {
+            fileSeed = Long.parseLong(line.substring(SEED_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format("Malformed results line %d in %s: %s", lineNumber, path, line), e);
+        }
+        if (fileSeed != seed) {
+            throw new IOException(String.format("Results file %s was written with seed %d, this search uses seed %d",
+                                                path, fileSeed, seed));
+        }
+    }
+    
+    /**
+     * Builds the lookup key of a trial.
+     * 
+     * @param key hyperparameter key
+     * @param epochs epochs of the trial
+     * @return lookup key
+     */
+    private static String recordKey(String key, int epochs) {
+        return key + "\t" + epochs;
+    }
+}
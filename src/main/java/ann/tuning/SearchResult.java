@@ -0,0 +1,76 @@
+package src.main.java.ann.tuning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * All trials of a hyperparameter search.
+ */
+public class SearchResult {
+    
+    // Longest training first, then lowest loss
+    private static final Comparator<TrialResult> RANKING =
+        Comparator.comparingInt(TrialResult::getEpochs).reversed()
+            .thenComparingDouble(TrialResult::getRankingLoss);
+    
+    private final List<TrialResult> trials;
+    
+    /**
+     * Creates a search result.
+     * 
+     * @param trials trial results in the order they were run
+     */
+    public SearchResult(List<TrialResult> trials) {
+        if (trials.isEmpty()) {
+            throw new IllegalArgumentException("At least one trial is required");
+        }
+        this.trials = Collections.unmodifiableList(new ArrayList<>(trials));
+    }
+    
+    /**
+     * Gets every trial, including the short runs of configurations that
+     * were stopped early.
+     * 
+     * @return trials in run order (read-only)
+     */
+    public List<TrialResult> getTrials() {
+        return trials;
+    }
+    
+    /**
+     * Gets the trials ranked best first: those trained longest come first,
+     * and among them lower validation loss ranks higher.
+     * 
+     * @return ranked trials
+     */
+    public List<TrialResult> getRanking() {
+        List<TrialResult> ranking = new ArrayList<>(trials);
+        ranking.sort(RANKING);
+        return ranking;
+    }
+    
+    /**
+     * Gets the best trial at the largest budget reached.
+     * 
+     * @return best trial
+     */
+    public TrialResult getBest() {
+        return Collections.min(trials, RANKING);
+    }
+    
+    @Override
+    public String toString() {
+        List<TrialResult> ranking = getRanking();
+        long trained = trials.stream().filter(trial -> !trial.isResumed()).count();
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Hyperparameter Search Results (%d trials, %d trained, %d resumed):\n",
+                                trials.size(), trained, trials.size() - trained));
+        for (int i = 0; i < Math.min(10, ranking.size()); i++) {
+            sb.append(String.format("  %2d. %s\n", i + 1, ranking.get(i)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package src.main.java.ann.tuning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The values each hyperparameter may take, enumerated as a grid or sampled
+ * at random.
+ * 
+ * Example usage:
+ * <pre>
+ * SearchSpace space = new SearchSpace()
+ *     .setHiddenSizes(new int[] {8}, new int[] {16}, new int[] {16, 8})
+ *     .setActivations("relu", "tanh")
+ *     .setLearningRates(0.001, 0.01, 0.1)
+ *     .setBatchSizes(8, 32)
+ *     .setInitializers("xavier", "he");
+ * </pre>
+ */
+public class SearchSpace {
+    
+    private List<int[]> hiddenSizes;
+    private String[] activations;
+    private double[] learningRates;
+    private double minLearningRate;
+    private double maxLearningRate;
+    private int[] batchSizes;
+    private String[] initializers;
+    
+    /**
+     * Creates a space holding a single default point: one hidden layer of
+     * 16 ReLU units, learning rate 0.01, batch size 32, Xavier initialization.
+     */
+    public SearchSpace() {
+        this.hiddenSizes = new ArrayList<>();
+        this.hiddenSizes.add(new int[] {16});
+        this.activations = new String[] {"relu"};
+        this.learningRates = new double[] {0.01};
+        this.batchSizes = new int[] {32};
+        this.initializers = new String[] {"xavier"};
+    }
+    
+    /**
+     * Sets the hidden layer layouts to try.
+     * 
+     * @param options neurons per hidden layer, one array per option
+     * @return this space
+     */
+    public SearchSpace setHiddenSizes(int[]... options) {
+        checkNotEmpty(options.length, "hidden sizes");
+        this.hiddenSizes = new ArrayList<>();
+        for (int[] option : options) {
+            hiddenSizes.add(option.clone());
+        }
+        return this;
+    }
+    
+    /**
+     * Sets the hidden activations to try.
+     * 
+     * @param options activation names
+     * @return this space
+     */
+    public SearchSpace setActivations(String... options) {
+        checkNotEmpty(options.length, "activations");
+        this.activations = options.clone();
+        return this;
+    }
+    
+    /**
+     * Sets the learning rates to try. Also used by random sampling unless
+     * a range is set.
+     * 
+     * @param options learning rates
+     * @return this space
+     */
+    public SearchSpace setLearningRates(double... options) {
+        checkNotEmpty(options.length, "learning rates");
+        this.learningRates = options.clone();
+        this.minLearningRate = 0;
+        this.maxLearningRate = 0;
+        return this;
+    }
+    
+    /**
+     * Makes random sampling draw learning rates log-uniformly from a range.
+     * Grids keep using {@link #setLearningRates(double...)}.
+     * 
+     * @param min smallest learning rate (positive)
+     * @param max largest learning rate
+     * @return this space
+     */
+    public SearchSpace setLearningRateRange(double min, double max) {
+        if (min <= 0 || max < min) {
+            throw new IllegalArgumentException(
+                String.format("Invalid learning rate range: [%g, %g]", min, max));
+        }
+        this.minLearningRate = min;
+        this.maxLearningRate = max;
+        return this;
+    }
+    
+    /**
+     * Sets the batch sizes to try.
+     * 
+     * @param options batch sizes
+     * @return this space
+     */
+    public SearchSpace setBatchSizes(int... options) {
+        checkNotEmpty(options.length, "batch sizes");
+        this.batchSizes = options.clone();
+        return this;
+    }
+    
+    /**
+     * Sets the weight initializers to try.
+     * 
+     * @param options initializer names
+     * @return this space
+     */
+    public SearchSpace setInitializers(String... options) {
+        checkNotEmpty(options.length, "initializers");
+        this.initializers = options.clone();
+        return this;
+    }
+    
+    /**
+     * Enumerates every combination of the listed values.
+     * 
+     * @return all points, hidden sizes varying slowest
+     */
+    public List<Hyperparameters> grid() {
+        List<Hyperparameters> points = new ArrayList<>();
+        for (int[] hidden : hiddenSizes) {
+            for (String activation : activations) {
+                for (double learningRate : learningRates) {
+                    for (int batchSize : batchSizes) {
+                        for (String initializer : initializers) {
+                            points.add(new Hyperparameters(hidden, activation, learningRate,
+                                                           batchSize, initializer));
+                        }
+                    }
+                }
+            }
+        }
+        return points;
+    }
+    
+    /**
+     * Draws distinct random points.
+     * 
+     * @param count number of points wanted
+     * @param random random source
+     * @return up to count distinct points (fewer if the space is smaller)
+     */
+    public List<Hyperparameters> sample(int count, Random random) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Sample count must be positive");
+        }
+        
+        // Keyed by the results-file key, so repeated draws are dropped
+        Map<String, Hyperparameters> points = new LinkedHashMap<>();
+        int attempts = count * 20;
+        while (points.size() < count && attempts-- > 0) {
+            double learningRate = maxLearningRate > 0
+                ? Math.exp(Math.log(minLearningRate)
+                           + random.nextDouble() * (Math.log(maxLearningRate) - Math.log(minLearningRate)))
+                : learningRates[random.nextInt(learningRates.length)];
+            Hyperparameters point = new Hyperparameters(
+                hiddenSizes.get(random.nextInt(hiddenSizes.size())),
+                activations[random.nextInt(activations.length)],
+                learningRate,
+                batchSizes[random.nextInt(batchSizes.length)],
+                initializers[random.nextInt(initializers.length)]);
+            points.putIfAbsent(point.getKey(), point);
+        }
+        return new ArrayList<>(points.values());
+    }
+    
+    /**
+     * Gets the number of grid points.
+     * 
+     * @return grid size
+     */
+    public int getGridSize() {
+        return hiddenSizes.size() * activations.length * learningRates.length
+            * batchSizes.length * initializers.length;
+    }
+    
+    /**
+     * Rejects an empty option list.
+     * 
+     * @param length number of options
+     * @param name parameter name for the message
+     */
+    private static void checkNotEmpty(int length, String name) {
+        if (length == 0) {
+            throw new IllegalArgumentException("At least one value is required for " + name);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder hidden = new StringBuilder();
+        for (int[] option : hiddenSizes) {
+            hidden.append(Arrays.toString(option));
+        }
+        return String.format("SearchSpace[hidden=%s, activations=%s, learningRates=%s, batchSizes=%s, initializers=%s]",
+                             hidden, Arrays.toString(activations),
+                             maxLearningRate > 0
+                                 ? String.format("[%g, %g]", minLearningRate, maxLearningRate)
+                                 : Arrays.toString(learningRates),
+                             Arrays.toString(batchSizes), Arrays.toString(initializers));
+    }
+}
@@ -0,0 +1,75 @@
+package src.main.java.ann.tuning;
+
+/**
+ * Validation score of one hyperparameter set trained for a given number of
+ * epochs.
+ */
+public class TrialResult {
+    
+    private final Hyperparameters parameters;
+    private final int epochs;
+    private final double validationLoss;
+    private final double validationAccuracy;
+    private final long millis;
+    private final boolean resumed;
+    
+    /**
+     * Creates a trial result.
+     * 
+     * @param parameters evaluated hyperparameters
+     * @param epochs epochs trained
+     * @param validationLoss average validation loss
+     * @param validationAccuracy validation accuracy (argmax class, threshold 0.5 for one output)
+     * @param millis wall-clock time of the trial
+     * @param resumed true if the score was read from a results file instead of trained
+     */
+    public TrialResult(Hyperparameters parameters, int epochs, double validationLoss,
+                       double validationAccuracy, long millis, boolean resumed) {
+        this.parameters = parameters;
+        this.epochs = epochs;
+        this.validationLoss = validationLoss;
+        this.validationAccuracy = validationAccuracy;
+        this.millis = millis;
+        this.resumed = resumed;
+    }
+    
+    /**
+     * Gets the loss used for ranking: NaN (a diverged run) ranks last.
+     * 
+     * @return validation loss, or positive infinity if it is NaN
+     */
+    public double getRankingLoss() {
+        return Double.isNaN(validationLoss) ? Double.POSITIVE_INFINITY : validationLoss;
+    }
+    
+    public Hyperparameters getParameters() {
+        return parameters;
+    }
+    
+    public int getEpochs() {
+        return epochs;
+    }
+    
+    public double getValidationLoss() {
+        return validationLoss;
+    }
+    
+    public double getValidationAccuracy() {
+        return validationAccuracy;
+    }
+    
+    public long getMillis() {
+        return millis;
+    }
+    
+    public boolean isResumed() {
+        return resumed;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s epochs=%d loss=%.6f accuracy=%.4f (%d ms%s)",
+                             parameters, epochs, validationLoss, validationAccuracy, millis,
+                             resumed ? ", resumed" : "");
+    }
+}
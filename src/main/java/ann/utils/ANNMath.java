@@ -1,10 +1,38 @@
 package src.main.java.ann.utils;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * Mathematical utility functions for neural networks.
+ * 
+ * Also hosts the matrix kernels used by the layers. These operate on the
+ * contiguous row-major {@link Matrix} type and are cache-blocked so that the
+ * working set of the innermost loops stays in L1/L2 for wide layers.
+ * Each kernel has a single-precision {@link FloatMatrix} overload for
+ * {@link Precision#FLOAT} networks.
+ * 
+ * The innermost loops delegate to a {@link VectorKernels} backend, which is
+ * SIMD-accelerated when the Vector API module is available (see
+ * {@link VectorKernels#load()}) and plain scalar code otherwise.
  */
 public class ANNMath {
     
+    // Tile edge for the blocked matrix-multiply kernels (64 × 64 doubles = 32 KB)
+    private static final int BLOCK_SIZE = 64;
+    
+    // Backend chosen once at class initialization
+    private static final VectorKernels KERNELS = VectorKernels.load();
+    
+    /**
+     * Gets the kernel backend used by the vector and matrix operations.
+     * 
+     * @return active kernels
+     */
+    public static VectorKernels kernels() {
+        return KERNELS;
+    }
+    
     /**
      * Computes the dot product of two vectors.
      * 
@@ -17,12 +45,7 @@ public class ANNMath {
             throw new IllegalArgumentException("Vectors must have same length");
         }
         
-        double sum = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            sum += a[i] * b[i];
-        }
-        
-        return sum;
+        return KERNELS.dot(a, 0, b, 0, a.length);
     }
     
     /**
@@ -90,10 +113,8 @@ public class ANNMath {
             throw new IllegalArgumentException("Vectors must have same length");
         }
         
-        double[] result = new double[a.length];
-        for (int i = 0; i < a.length; i++) {
-            result[i] = a[i] + b[i];
-        }
+        double[] result = a.clone();
+        KERNELS.axpy(1.0, b, 0, result, 0, b.length);
         
         return result;
     }
@@ -110,10 +131,8 @@ public class ANNMath {
             throw new IllegalArgumentException("Vectors must have same length");
         }
         
-        double[] result = new double[a.length];
-        for (int i = 0; i < a.length; i++) {
-            result[i] = a[i] - b[i];
-        }
+        double[] result = a.clone();
+        KERNELS.axpy(-1.0, b, 0, result, 0, b.length);
         
         return result;
     }
@@ -126,12 +145,8 @@ public class ANNMath {
      * @return scaled vector
      */
     public static double[] scale(double[] vector, double scalar) {
-        double[] result = new double[vector.length];
-        
-        for (int i = 0; i < vector.length; i++) {
-            result[i] = vector[i] * scalar;
-        }
-        
+        double[] result = vector.clone();
+        KERNELS.scale(result, 0, result.length, scalar);
         return result;
     }
     
@@ -196,5 +211,493 @@ public class ANNMath {
         
         return Math.sqrt(variance / vector.length);
     }
+    
+    /**
+     * Matrix-vector product: out = A × x.
+     * 
+     * @param a matrix [rows][cols]
+     * @param x vector [cols]
+     * @param out output vector [rows] (overwritten)
+     */
+    public static void multiply(Matrix a, double[] x, double[] out) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (x.length != cols || out.length != rows) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, x.length, out.length));
+        }
+        
+        double[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            out[i] = KERNELS.dot(data, i * cols, x, 0, cols);
+        }
+    }
+    
+    /**
+     * Transposed matrix-vector product: out = Aᵀ × x.
+     * Walks A row by row so memory access stays sequential.
+     * 
+     * @param a matrix [rows][cols]
+     * @param x vector [rows]
+     * @param out output vector [cols] (overwritten)
+     */
+    public static void multiplyTransposed(Matrix a, double[] x, double[] out) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (x.length != rows || out.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, x.length, out.length));
+        }
+        
+        Arrays.fill(out, 0.0);
+        double[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            double xi = x[i];
+            if (xi == 0.0) {
+                continue;
+            }
+            KERNELS.axpy(xi, data, i * cols, out, 0, cols);
+        }
+    }
+    
+    /**
+     * Rank-1 update: A += alpha × u × vᵀ.
+     * 
+     * @param a matrix [u.length][v.length] (updated in place)
+     * @param alpha scale factor
+     * @param u column vector
+     * @param v row vector
+     */
+    public static void addOuterProduct(Matrix a, double alpha, double[] u, double[] v) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (u.length != rows || v.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, u=%d, v=%d",
+                              rows, cols, u.length, v.length));
+        }
+        
+        double[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            double ui = alpha * u[i];
+            if (ui == 0.0) {
+                continue;
+            }
+            KERNELS.axpy(ui, v, 0, data, i * cols, cols);
+        }
+    }
+    
+    /**
+     * Blocked matrix-matrix product: C = A × B (or C += A × B).
+     * 
+     * @param a left matrix [m][k]
+     * @param b right matrix [k][n]
+     * @param c output matrix [m][n]
+     * @param accumulate if true, adds to C instead of overwriting it
+     */
+    public static void multiply(Matrix a, Matrix b, Matrix c, boolean accumulate) {
+        int m = a.getRows();
+        int k = a.getCols();
+        int n = b.getCols();
+        if (b.getRows() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              m, k, b.getRows(), n, c.getRows(), c.getCols()));
+        }
+        if (!accumulate) {
+            c.fill(0.0);
+        }
+        
+        double[] ad = a.getData();
+        double[] bd = b.getData();
+        double[] cd = c.getData();
+        
+        // i-k-j order inside each tile: the innermost loop streams rows of B and C
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int k0 = 0; k0 < k; k0 += BLOCK_SIZE) {
+                int kMax = Math.min(k0 + BLOCK_SIZE, k);
+                for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                    int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                    
+                    for (int i = i0; i < iMax; i++) {
+                        int aRow = i * k;
+                        int cRow = i * n;
+                        for (int p = k0; p < kMax; p++) {
+                            double aip = ad[aRow + p];
+                            if (aip == 0.0) {
+                                continue;
+                            }
+                            KERNELS.axpy(aip, bd, p * n + j0, cd, cRow + j0, jMax - j0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Blocked product with the right operand transposed: C = A × Bᵀ.
+     * Both operands are read along their rows, which is the natural layout
+     * for a dense layer forward pass (inputs × weightsᵀ).
+     * 
+     * @param a left matrix [m][k]
+     * @param b right matrix [n][k]
+     * @param c output matrix [m][n] (overwritten)
+     */
+    public static void multiplyTransposedB(Matrix a, Matrix b, Matrix c) {
+        int m = a.getRows();
+        int k = a.getCols();
+        int n = b.getRows();
+        if (b.getCols() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              m, k, n, b.getCols(), c.getRows(), c.getCols()));
+        }
+        c.fill(0.0);
+        
+        double[] ad = a.getData();
+        double[] bd = b.getData();
+        double[] cd = c.getData();
+        
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                for (int p0 = 0; p0 < k; p0 += BLOCK_SIZE) {
+                    int pMax = Math.min(p0 + BLOCK_SIZE, k);
+                    
+                    for (int i = i0; i < iMax; i++) {
+                        int aRow = i * k;
+                        int cRow = i * n;
+                        for (int j = j0; j < jMax; j++) {
+                            cd[cRow + j] += KERNELS.dot(ad, aRow + p0, bd, j * k + p0, pMax - p0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Blocked product with the left operand transposed: C = Aᵀ × B (or C += Aᵀ × B).
+     * Used for weight gradients over a batch (deltasᵀ × inputs).
+     * 
+     * @param a left matrix [k][m]
+     * @param b right matrix [k][n]
+     * @param c output matrix [m][n]
+     * @param accumulate if true, adds to C instead of overwriting it
+     */
+    public static void multiplyTransposedA(Matrix a, Matrix b, Matrix c, boolean accumulate) {
+        int k = a.getRows();
+        int m = a.getCols();
+        int n = b.getCols();
+        if (b.getRows() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              k, m, b.getRows(), n, c.getRows(), c.getCols()));
+        }
+        if (!accumulate) {
+            c.fill(0.0);
+        }
+        
+        double[] ad = a.getData();
+        double[] bd = b.getData();
+        double[] cd = c.getData();
+        
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = i0; i < iMax; i++) {
+                        double api = ad[aRow + i];
+                        if (api == 0.0) {
+                            continue;
+                        }
+                        KERNELS.axpy(api, bd, bRow + j0, cd, i * n + j0, jMax - j0);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Single-precision matrix-vector product: out = A × x.
+     * 
+     * @param a matrix [rows][cols]
+     * @param x vector [cols]
+     * @param out output vector [rows] (overwritten)
+     */
+    public static void multiply(FloatMatrix a, float[] x, float[] out) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (x.length != cols || out.length != rows) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, x.length, out.length));
+        }
+        
+        float[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            out[i] = KERNELS.dot(data, i * cols, x, 0, cols);
+        }
+    }
+    
+    /**
+     * Single-precision transposed matrix-vector product: out = Aᵀ × x.
+     * 
+     * @param a matrix [rows][cols]
+     * @param x vector [rows]
+     * @param out output vector [cols] (overwritten)
+     */
+    public static void multiplyTransposed(FloatMatrix a, float[] x, float[] out) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (x.length != rows || out.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, x.length, out.length));
+        }
+        
+        Arrays.fill(out, 0.0f);
+        float[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            float xi = x[i];
+            if (xi == 0.0f) {
+                continue;
+            }
+            KERNELS.axpy(xi, data, i * cols, out, 0, cols);
+        }
+    }
+    
+    /**
+     * Single-precision rank-1 update: A += alpha × u × vᵀ.
+     * 
+     * @param a matrix [u.length][v.length] (updated in place)
+     * @param alpha scale factor
+     * @param u column vector
+     * @param v row vector
+     */
+    public static void addOuterProduct(FloatMatrix a, float alpha, float[] u, float[] v) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (u.length != rows || v.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, u=%d, v=%d",
+                              rows, cols, u.length, v.length));
+        }
+        
+        float[] data = a.getData();
+        for (int i = 0; i < rows; i++) {
+            float ui = alpha * u[i];
+            if (ui == 0.0f) {
+                continue;
+            }
+            KERNELS.axpy(ui, v, 0, data, i * cols, cols);
+        }
+    }
+    
+    /**
+     * Single-precision blocked matrix-matrix product: C = A × B (or C += A × B).
+     * 
+     * @param a left matrix [m][k]
+     * @param b right matrix [k][n]
+     * @param c output matrix [m][n]
+     * @param accumulate if true, adds to C instead of overwriting it
+     */
+    public static void multiply(FloatMatrix a, FloatMatrix b, FloatMatrix c, boolean accumulate) {
+        int m = a.getRows();
+        int k = a.getCols();
+        int n = b.getCols();
+        if (b.getRows() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              m, k, b.getRows(), n, c.getRows(), c.getCols()));
+        }
+        if (!accumulate) {
+            c.fill(0.0f);
+        }
+        
+        float[] ad = a.getData();
+        float[] bd = b.getData();
+        float[] cd = c.getData();
+        
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int k0 = 0; k0 < k; k0 += BLOCK_SIZE) {
+                int kMax = Math.min(k0 + BLOCK_SIZE, k);
+                for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                    int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                    
+                    for (int i = i0; i < iMax; i++) {
+                        int aRow = i * k;
+                        int cRow = i * n;
+                        for (int p = k0; p < kMax; p++) {
+                            float aip = ad[aRow + p];
+                            if (aip == 0.0f) {
+                                continue;
+                            }
+                            KERNELS.axpy(aip, bd, p * n + j0, cd, cRow + j0, jMax - j0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Single-precision blocked product with the right operand transposed: C = A × Bᵀ.
+     * 
+     * @param a left matrix [m][k]
+     * @param b right matrix [n][k]
+     * @param c output matrix [m][n] (overwritten)
+     */
+    public static void multiplyTransposedB(FloatMatrix a, FloatMatrix b, FloatMatrix c) {
+        int m = a.getRows();
+        int k = a.getCols();
+        int n = b.getRows();
+        if (b.getCols() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              m, k, n, b.getCols(), c.getRows(), c.getCols()));
+        }
+        c.fill(0.0f);
+        
+        float[] ad = a.getData();
+        float[] bd = b.getData();
+        float[] cd = c.getData();
+        
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                for (int p0 = 0; p0 < k; p0 += BLOCK_SIZE) {
+                    int pMax = Math.min(p0 + BLOCK_SIZE, k);
+                    
+                    for (int i = i0; i < iMax; i++) {
+                        int aRow = i * k;
+                        int cRow = i * n;
+                        for (int j = j0; j < jMax; j++) {
+                            cd[cRow + j] += KERNELS.dot(ad, aRow + p0, bd, j * k + p0, pMax - p0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Single-precision blocked product with the left operand transposed: C = Aᵀ × B (or C += Aᵀ × B).
+     * 
+     * @param a left matrix [k][m]
+     * @param b right matrix [k][n]
+     * @param c output matrix [m][n]
+     * @param accumulate if true, adds to C instead of overwriting it
+     */
+    public static void multiplyTransposedA(FloatMatrix a, FloatMatrix b, FloatMatrix c, boolean accumulate) {
+        int k = a.getRows();
+        int m = a.getCols();
+        int n = b.getCols();
+        if (b.getRows() != k || c.getRows() != m || c.getCols() != n) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, B=%dx%d, C=%dx%d",
+                              k, m, b.getRows(), n, c.getRows(), c.getCols()));
+        }
+        if (!accumulate) {
+            c.fill(0.0f);
+        }
+        
+        float[] ad = a.getData();
+        float[] bd = b.getData();
+        float[] cd = c.getData();
+        
+        for (int i0 = 0; i0 < m; i0 += BLOCK_SIZE) {
+            int iMax = Math.min(i0 + BLOCK_SIZE, m);
+            for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE) {
+                int jMax = Math.min(j0 + BLOCK_SIZE, n);
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = i0; i < iMax; i++) {
+                        float api = ad[aRow + i];
+                        if (api == 0.0f) {
+                            continue;
+                        }
+                        KERNELS.axpy(api, bd, bRow + j0, cd, i * n + j0, jMax - j0);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Matrix-vector product over memory-mapped weights: out = A × x.
+     * DOUBLE matrices go through the vector kernels straight from the buffer;
+     * FLOAT matrices are widened on the fly and accumulate in double.
+     * 
+     * @param a mapped matrix [rows][cols]
+     * @param x vector [cols]
+     * @param out output vector [rows] (overwritten)
+     */
+    public static void multiply(MappedMatrix a, double[] x, double[] out) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        if (x.length != cols || out.length != rows) {
+            throw new IllegalArgumentException(
+                String.format("Dimension mismatch: A=%dx%d, x=%d, out=%d",
+                              rows, cols, x.length, out.length));
+        }
+        
+        ByteBuffer data = a.getData();
+        if (a.getPrecision() == Precision.DOUBLE) {
+            for (int i = 0; i < rows; i++) {
+                out[i] = KERNELS.dot(data, i * cols, x, 0, cols);
+            }
+            return;
+        }
+        
+        for (int i = 0; i < rows; i++) {
+            int base = i * cols * Float.BYTES;
+            double sum = 0.0;
+            for (int j = 0; j < cols; j++) {
+                sum += data.getFloat(base + j * Float.BYTES) * x[j];
+            }
+            out[i] = sum;
+        }
+    }
+    
+    /**
+     * Narrows a slice of doubles into a float array.
+     * 
+     * @param src source array
+     * @param srcOffset start index in src
+     * @param dst destination array
+     * @param dstOffset start index in dst
+     * @param length number of elements
+     */
+    public static void narrow(double[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (float) src[srcOffset + i];
+        }
+    }
+    
+    /**
+     * Widens a slice of floats into a double array.
+     * 
+     * @param src source array
+     * @param srcOffset start index in src
+     * @param dst destination array
+     * @param dstOffset start index in dst
+     * @param length number of elements
+     */
+    public static void widen(float[] src, int srcOffset, double[] dst, int dstOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = src[srcOffset + i];
+        }
+    }
 }
-
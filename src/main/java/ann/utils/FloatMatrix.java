@@ -0,0 +1,200 @@
+package src.main.java.ann.utils;
+
+import java.util.Arrays;
+
+/**
+ * Single-precision counterpart of {@link Matrix}.
+ * 
+ * Same contiguous row-major layout, with 32-bit elements. Used by the
+ * {@link Precision#FLOAT} layers; the kernels operating on this type live in
+ * {@link ANNMath} next to their double-precision versions.
+ */
+public class FloatMatrix {
+    
+    private final int rows;
+    private final int cols;
+    private final float[] data;
+    
+    /**
+     * Creates a zero-filled matrix.
+     * 
+     * @param rows number of rows
+     * @param cols number of columns
+     */
+    public FloatMatrix(int rows, int cols) {
+        this(rows, cols, new float[rows * cols]);
+    }
+    
+    /**
+     * Wraps an existing row-major array (no copy).
+     * 
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param data backing array of length rows × cols
+     */
+    public FloatMatrix(int rows, int cols, float[] data) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException(
+                String.format("Matrix dimensions must be non-negative: %dx%d", rows, cols));
+        }
+        if (data.length != rows * cols) {
+            throw new IllegalArgumentException(
+                String.format("Data length mismatch: expected %d, got %d",
+                              rows * cols, data.length));
+        }
+        
+        this.rows = rows;
+        this.cols = cols;
+        this.data = data;
+    }
+    
+    /**
+     * Creates a matrix by copying (and narrowing) a two-dimensional array.
+     * 
+     * @param array source array [rows][cols]
+     * @return new matrix holding a single-precision copy of the values
+     */
+    public static FloatMatrix fromArray(double[][] array) {
+        int rows = array.length;
+        int cols = rows > 0 ? array[0].length : 0;
+        FloatMatrix matrix = new FloatMatrix(rows, cols);
+        
+        for (int i = 0; i < rows; i++) {
+            if (array[i].length != cols) {
+                throw new IllegalArgumentException(
+                    String.format("Row %d length mismatch: expected %d, got %d",
+                                  i, cols, array[i].length));
+            }
+            int offset = i * cols;
+            for (int j = 0; j < cols; j++) {
+                matrix.data[offset + j] = (float) array[i][j];
+            }
+        }
+        
+        return matrix;
+    }
+    
+    /**
+     * Gets the number of rows.
+     * 
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Gets the number of columns (also the row stride).
+     * 
+     * @return columns
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Gets the backing row-major array (not a copy).
+     * 
+     * @return backing array
+     */
+    public float[] getData() {
+        return data;
+    }
+    
+    /**
+     * Gets the offset of the first element of a row in the backing array.
+     * 
+     * @param row row index
+     * @return offset into {@link #getData()}
+     */
+    public int offset(int row) {
+        return row * cols;
+    }
+    
+    /**
+     * Gets a single element.
+     * 
+     * @param row row index
+     * @param col column index
+     * @return element value
+     */
+    public float get(int row, int col) {
+        return data[row * cols + col];
+    }
+    
+    /**
+     * Sets a single element.
+     * 
+     * @param row row index
+     * @param col column index
+     * @param value new value
+     */
+    public void set(int row, int col, float value) {
+        data[row * cols + col] = value;
+    }
+    
+    /**
+     * Copies a row out of the matrix.
+     * 
+     * @param row row index
+     * @return copy of the row
+     */
+    public float[] getRow(int row) {
+        float[] result = new float[cols];
+        System.arraycopy(data, row * cols, result, 0, cols);
+        return result;
+    }
+    
+    /**
+     * Overwrites a row with the given values.
+     * 
+     * @param row row index
+     * @param values new row values [cols]
+     */
+    public void setRow(int row, float[] values) {
+        if (values.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Row length mismatch: expected %d, got %d", cols, values.length));
+        }
+        System.arraycopy(values, 0, data, row * cols, cols);
+    }
+    
+    /**
+     * Sets every element to the given value.
+     * 
+     * @param value fill value
+     */
+    public void fill(float value) {
+        Arrays.fill(data, value);
+    }
+    
+    /**
+     * Creates a deep copy of this matrix.
+     * 
+     * @return copy
+     */
+    public FloatMatrix copy() {
+        return new FloatMatrix(rows, cols, data.clone());
+    }
+    
+    /**
+     * Copies the matrix into a new two-dimensional double array.
+     * 
+     * @return widened array [rows][cols]
+     */
+    public double[][] toArray() {
+        double[][] result = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            int offset = i * cols;
+            for (int j = 0; j < cols; j++) {
+                result[i][j] = data[offset + j];
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FloatMatrix[%dx%d]", rows, cols);
+    }
+}
@@ -0,0 +1,119 @@
+package src.main.java.ann.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only row-major matrix backed by a {@link ByteBuffer}, usually a
+ * memory-mapped block of a model file.
+ * 
+ * Same layout as {@link Matrix} (or {@link FloatMatrix} for FLOAT precision)
+ * but the values stay in the buffer as little-endian bytes: nothing is copied
+ * onto the Java heap, and processes mapping the same file share one copy in
+ * the OS page cache. The whole matrix fits in the buffer, so its byte size
+ * (and every byte offset into it) is at most {@link Integer#MAX_VALUE}. Only absolute reads are used, so one instance is safe to
+ * share between threads.
+ */
+public class MappedMatrix {
+    
+    private final int rows;
+    private final int cols;
+    private final Precision precision;
+    private final ByteBuffer data;
+    
+    /**
+     * Wraps a buffer holding rows × cols little-endian values (no copy).
+     * 
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param precision element type stored in the buffer
+     * @param data buffer whose first rows × cols × precision.getBytes() bytes hold the values
+     */
+    public MappedMatrix(int rows, int cols, Precision precision, ByteBuffer data) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException(
+                String.format("Matrix dimensions must be non-negative: %dx%d", rows, cols));
+        }
+        
+        long bytes = (long) rows * cols * precision.getBytes();
+        if (data.capacity() < bytes) {
+            throw new IllegalArgumentException(
+                String.format("Buffer too small: expected %d bytes, got %d", bytes, data.capacity()));
+        }
+        
+        this.rows = rows;
+        this.cols = cols;
+        this.precision = precision;
+        this.data = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    /**
+     * Gets the number of rows.
+     * 
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Gets the number of columns.
+     * 
+     * @return columns
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Gets the element precision.
+     * 
+     * @return DOUBLE or FLOAT
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Gets the backing buffer (little-endian order, not a copy).
+     * 
+     * @return backing buffer
+     */
+    public ByteBuffer getData() {
+        return data;
+    }
+    
+    /**
+     * Gets an element.
+     * 
+     * @param row row index
+     * @param col column index
+     * @return value at (row, col), widened to double
+     */
+    public double get(int row, int col) {
+        long offset = ((long) row * cols + col) * precision.getBytes();
+        return precision == Precision.FLOAT
+            ? data.getFloat((int) offset)
+            : data.getDouble((int) offset);
+    }
+    
+    /**
+     * Copies the matrix onto the heap as a two-dimensional array.
+     * 
+     * @return array [rows][cols]
+     */
+    public double[][] toArray() {
+        double[][] array = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                array[i][j] = get(i, j);
+            }
+        }
+        return array;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MappedMatrix[%dx%d, %s]", rows, cols, precision);
+    }
+}
@@ -0,0 +1,197 @@
+package src.main.java.ann.utils;
+
+import java.util.Arrays;
+
+/**
+ * Dense matrix stored in a single contiguous row-major array.
+ * 
+ * Element (row, col) lives at data[row * cols + col], so each row is a
+ * contiguous slice of the backing array. Compared to double[][] this keeps
+ * the whole matrix in one heap object, which is friendlier to the CPU caches
+ * and avoids a row lookup (and bounds check) in inner loops.
+ * 
+ * The kernels operating on this type live in {@link ANNMath}.
+ */
+public class Matrix {
+    
+    private final int rows;
+    private final int cols;
+    private final double[] data;
+    
+    /**
+     * Creates a zero-filled matrix.
+     * 
+     * @param rows number of rows
+     * @param cols number of columns
+     */
+    public Matrix(int rows, int cols) {
+        this(rows, cols, new double[rows * cols]);
+    }
+    
+    /**
+     * Wraps an existing row-major array (no copy).
+     * 
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param data backing array of length rows × cols
+     */
+    public Matrix(int rows, int cols, double[] data) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException(
+                String.format("Matrix dimensions must be non-negative: %dx%d", rows, cols));
+        }
+        if (data.length != rows * cols) {
+            throw new IllegalArgumentException(
+                String.format("Data length mismatch: expected %d, got %d",
+                              rows * cols, data.length));
+        }
+        
+        this.rows = rows;
+        this.cols = cols;
+        this.data = data;
+    }
+    
+    /**
+     * Creates a matrix by copying a two-dimensional array.
+     * 
+     * @param array source array [rows][cols]
+     * @return new matrix holding a copy of the values
+     */
+    public static Matrix fromArray(double[][] array) {
+        int rows = array.length;
+        int cols = rows > 0 ? array[0].length : 0;
+        Matrix matrix = new Matrix(rows, cols);
+        
+        for (int i = 0; i < rows; i++) {
+            if (array[i].length != cols) {
+                throw new IllegalArgumentException(
+                    String.format("Row %d length mismatch: expected %d, got %d",
+                                  i, cols, array[i].length));
+            }
+            System.arraycopy(array[i], 0, matrix.data, i * cols, cols);
+        }
+        
+        return matrix;
+    }
+    
+    /**
+     * Gets the number of rows.
+     * 
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Gets the number of columns (also the row stride).
+     * 
+     * @return columns
+     */
+    public int getCols() {
+        return cols;
+    }
+    
+    /**
+     * Gets the backing row-major array (not a copy).
+     * 
+     * @return backing array
+     */
+    public double[] getData() {
+        return data;
+    }
+    
+    /**
+     * Gets the offset of the first element of a row in the backing array.
+     * 
+     * @param row row index
+     * @return offset into {@link #getData()}
+     */
+    public int offset(int row) {
+        return row * cols;
+    }
+    
+    /**
+     * Gets a single element.
+     * 
+     * @param row row index
+     * @param col column index
+     * @return element value
+     */
+    public double get(int row, int col) {
+        return data[row * cols + col];
+    }
+    
+    /**
+     * Sets a single element.
+     * 
+     * @param row row index
+     * @param col column index
+     * @param value new value
+     */
+    public void set(int row, int col, double value) {
+        data[row * cols + col] = value;
+    }
+    
+    /**
+     * Copies a row out of the matrix.
+     * 
+     * @param row row index
+     * @return copy of the row
+     */
+    public double[] getRow(int row) {
+        double[] result = new double[cols];
+        System.arraycopy(data, row * cols, result, 0, cols);
+        return result;
+    }
+    
+    /**
+     * Overwrites a row with the given values.
+     * 
+     * @param row row index
+     * @param values new row values [cols]
+     */
+    public void setRow(int row, double[] values) {
+        if (values.length != cols) {
+            throw new IllegalArgumentException(
+                String.format("Row length mismatch: expected %d, got %d", cols, values.length));
+        }
+        System.arraycopy(values, 0, data, row * cols, cols);
+    }
+    
+    /**
+     * Sets every element to the given value.
+     * 
+     * @param value fill value
+     */
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+    
+    /**
+     * Creates a deep copy of this matrix.
+     * 
+     * @return copy
+     */
+    public Matrix copy() {
+        return new Matrix(rows, cols, data.clone());
+    }
+    
+    /**
+     * Copies the matrix into a new two-dimensional array.
+     * 
+     * @return array [rows][cols]
+     */
+    public double[][] toArray() {
+        double[][] result = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data, i * cols, result[i], 0, cols);
+        }
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Matrix[%dx%d]", rows, cols);
+    }
+}
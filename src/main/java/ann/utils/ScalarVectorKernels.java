@@ -0,0 +1,138 @@
+package src.main.java.ann.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Portable scalar implementation of {@link VectorKernels}.
+ * Plain loops the JIT can auto-vectorize where it is able to.
+ */
+public class ScalarVectorKernels implements VectorKernels {
+    
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+    
+    @Override
+    public void scale(double[] x, int offset, int length, double factor) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] *= factor;
+        }
+    }
+    
+    @Override
+    public void relu(double[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] = Math.max(0.0, x[i]);
+        }
+    }
+    
+    @Override
+    public void sigmoid(double[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double v = x[i];
+            // Prevent overflow for very large magnitudes
+            if (v < -700) {
+                x[i] = 0.0;
+            } else if (v > 700) {
+                x[i] = 1.0;
+            } else {
+                x[i] = 1.0 / (1.0 + Math.exp(-v));
+            }
+        }
+    }
+    
+    @Override
+    public void tanh(double[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] = Math.tanh(x[i]);
+        }
+    }
+    
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float sum = 0.0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+    
+    @Override
+    public void scale(float[] x, int offset, int length, float factor) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] *= factor;
+        }
+    }
+    
+    @Override
+    public void relu(float[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] = Math.max(0.0f, x[i]);
+        }
+    }
+    
+    @Override
+    public void sigmoid(float[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            float v = x[i];
+            // e^88 is the largest power that still fits in a float
+            if (v < -80f) {
+                x[i] = 0.0f;
+            } else if (v > 80f) {
+                x[i] = 1.0f;
+            } else {
+                x[i] = (float) (1.0 / (1.0 + Math.exp(-v)));
+            }
+        }
+    }
+    
+    @Override
+    public void tanh(float[] x, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            x[i] = (float) Math.tanh(x[i]);
+        }
+    }
+    
+    @Override
+    public int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public double dot(ByteBuffer a, int aIndex, double[] b, int bOffset, int length) {
+        int base = aIndex * Double.BYTES;
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += a.getDouble(base + i * Double.BYTES) * b[bOffset + i];
+        }
+        return sum;
+    }
+    
+    @Override
+    public String getName() {
+        return "Scalar";
+    }
+}
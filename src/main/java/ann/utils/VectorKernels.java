@@ -0,0 +1,196 @@
+package src.main.java.ann.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Low-level numeric kernels used by {@link ANNMath}, the layers and the
+ * activation functions.
+ * 
+ * Two backends exist: {@link ScalarVectorKernels} (plain loops, always
+ * available) and SimdVectorKernels, built on the incubating Java Vector API
+ * (jdk.incubator.vector) and compiled from the separate {@code simd/} source
+ * root. The SIMD backend is picked automatically when that class is on the
+ * class path and the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise, or when
+ * {@code -Dann.simd=false} is set, the scalar backend is used.
+ */
+public interface VectorKernels {
+    
+    /**
+     * Dot product of two array slices.
+     * 
+     * @param a first array
+     * @param aOffset start index in a
+     * @param b second array
+     * @param bOffset start index in b
+     * @param length number of elements
+     * @return Σ a[aOffset + i] × b[bOffset + i]
+     */
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+    
+    /**
+     * Scaled add: y[yOffset + i] += alpha × x[xOffset + i].
+     * 
+     * @param alpha scale factor
+     * @param x source array
+     * @param xOffset start index in x
+     * @param y destination array (updated in place)
+     * @param yOffset start index in y
+     * @param length number of elements
+     */
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+    
+    /**
+     * In-place scaling: x[offset + i] *= factor.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     * @param factor scale factor
+     */
+    void scale(double[] x, int offset, int length, double factor);
+    
+    /**
+     * In-place ReLU: x = max(0, x).
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void relu(double[] x, int offset, int length);
+    
+    /**
+     * In-place sigmoid: x = 1 / (1 + e^(-x)).
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void sigmoid(double[] x, int offset, int length);
+    
+    /**
+     * In-place hyperbolic tangent.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void tanh(double[] x, int offset, int length);
+    
+    /**
+     * Single-precision dot product of two array slices.
+     * 
+     * @param a first array
+     * @param aOffset start index in a
+     * @param b second array
+     * @param bOffset start index in b
+     * @param length number of elements
+     * @return Σ a[aOffset + i] × b[bOffset + i]
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+    
+    /**
+     * Single-precision scaled add: y[yOffset + i] += alpha × x[xOffset + i].
+     * 
+     * @param alpha scale factor
+     * @param x source array
+     * @param xOffset start index in x
+     * @param y destination array (updated in place)
+     * @param yOffset start index in y
+     * @param length number of elements
+     */
+    void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length);
+    
+    /**
+     * Single-precision in-place scaling: x[offset + i] *= factor.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     * @param factor scale factor
+     */
+    void scale(float[] x, int offset, int length, float factor);
+    
+    /**
+     * Single-precision in-place ReLU.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void relu(float[] x, int offset, int length);
+    
+    /**
+     * Single-precision in-place sigmoid.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void sigmoid(float[] x, int offset, int length);
+    
+    /**
+     * Single-precision in-place hyperbolic tangent.
+     * 
+     * @param x array (updated in place)
+     * @param offset start index
+     * @param length number of elements
+     */
+    void tanh(float[] x, int offset, int length);
+    
+    /**
+     * Integer dot product of two int8 slices with int32 accumulation.
+     * Used by quantized inference; the caller guarantees the sum fits in an int.
+     * 
+     * @param a first array
+     * @param aOffset start index in a
+     * @param b second array
+     * @param bOffset start index in b
+     * @param length number of elements
+     * @return Σ a[aOffset + i] × b[bOffset + i]
+     */
+    int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length);
+    
+    /**
+     * Dot product of a slice of little-endian doubles stored in a buffer
+     * (typically a memory-mapped model file) with an array slice. Uses
+     * absolute reads only, so one buffer can be shared between threads.
+     * 
+     * @param a buffer holding doubles, set to {@link java.nio.ByteOrder#LITTLE_ENDIAN} order
+     * @param aIndex start index in a, in doubles (not bytes)
+     * @param b array
+     * @param bOffset start index in b
+     * @param length number of elements
+     * @return Σ a[aIndex + i] × b[bOffset + i]
+     */
+    double dot(ByteBuffer a, int aIndex, double[] b, int bOffset, int length);
+    
+    /**
+     * Gets the name of this backend.
+     * 
+     * @return backend name
+     */
+    String getName();
+    
+    /**
+     * Selects the best available backend.
+     * 
+     * @return SIMD kernels if they were built and the Vector API module is present and enabled,
+     *         scalar kernels otherwise
+     */
+    static VectorKernels load() {
+        boolean enabled = !"false".equalsIgnoreCase(System.getProperty("ann.simd"));
+        boolean available = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        
+        if (enabled && available) {
+            try {
+                Class<?> type = Class.forName("src.main.java.ann.utils.SimdVectorKernels");
+                return (VectorKernels) type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar backend
+            }
+        }
+        
+        return new ScalarVectorKernels();
+    }
+}